@@ -0,0 +1,9 @@
+package org.klukov.utils.combinatorics;
+
+public record CacheStatistics(long hits, long misses, long evictions, int size, int maxSize) {
+
+    public double hitRate() {
+        var requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
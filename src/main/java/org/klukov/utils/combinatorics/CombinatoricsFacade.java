@@ -1,21 +1,44 @@
 package org.klukov.utils.combinatorics;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
+import org.klukov.utils.combinatorics.choose.AliasMethodSampler;
+import org.klukov.utils.combinatorics.choose.ChoosablePool;
 import org.klukov.utils.combinatorics.choose.ChoosableWrapper;
+import org.klukov.utils.combinatorics.choose.DoubleVariationWithRepetition;
+import org.klukov.utils.combinatorics.choose.DoubleVariationWithoutRepetition;
+import org.klukov.utils.combinatorics.choose.PreparedChoosables;
 import org.klukov.utils.combinatorics.choose.VariationWithRepetition;
 import org.klukov.utils.combinatorics.choose.VariationWithoutRepetition;
+import org.klukov.utils.combinatorics.choose.WeightedReservoirSampler;
 
 public final class CombinatoricsFacade {
 
+    private static final int DEFAULT_PREPARED_CACHE_SIZE = 64;
+
     private final RandomFrictionQuery randomFrictionQuery;
+    private final RandomSource randomSource;
+    private final PreparedChoosablesCache preparedChoosablesCache;
 
+    /** Uses {@link RandomSource#secure()}; {@link RandomSource#threadLocal()} is faster. */
     public CombinatoricsFacade() {
-        this.randomFrictionQuery = new RandomService();
+        this(RandomSource.secure());
     }
 
     public CombinatoricsFacade(RandomFrictionQuery randomFrictionQuery) {
+        this(randomFrictionQuery, DEFAULT_PREPARED_CACHE_SIZE);
+    }
+
+    /**
+     * @param preparedCacheSize maximal number of prepared collections kept by cached choosing
+     *     methods, 0 disables caching
+     */
+    public CombinatoricsFacade(RandomFrictionQuery randomFrictionQuery, int preparedCacheSize) {
         this.randomFrictionQuery = randomFrictionQuery;
+        this.randomSource = RandomSource.of(randomFrictionQuery);
+        this.preparedChoosablesCache = new PreparedChoosablesCache(preparedCacheSize);
     }
 
     public <T> List<T> chooseWithoutRepetition(Collection<ChoosableWrapper<T>> objects, int k) {
@@ -25,4 +48,112 @@ public final class CombinatoricsFacade {
     public <T> List<T> chooseWithRepetition(Collection<ChoosableWrapper<T>> objects, int k) {
         return new VariationWithRepetition<T>(this.randomFrictionQuery).choose(objects, k);
     }
+
+    /**
+     * Same as {@link #chooseWithoutRepetition(Collection, int)}, but objects are prepared once and
+     * cached by their content. Repeated calls with equal objects skip validation and building of
+     * the probability tree.
+     */
+    public <T> List<T> chooseCachedWithoutRepetition(
+            Collection<ChoosableWrapper<T>> objects, int k) {
+        return preparedChoosablesCache.get(objects, this::prepare).chooseWithoutRepetition(k);
+    }
+
+    /**
+     * Same as {@link #chooseWithoutRepetition(Collection, int)}, but objects are prepared once and
+     * cached under the given key. Objects are read only when the key is not cached yet.
+     */
+    public <T> List<T> chooseCachedWithoutRepetition(
+            Object key, Collection<ChoosableWrapper<T>> objects, int k) {
+        return preparedChoosablesCache.get(key, objects, this::prepare).chooseWithoutRepetition(k);
+    }
+
+    /** Cached counterpart of {@link #chooseWithRepetition(Collection, int)}, keyed by content. */
+    public <T> List<T> chooseCachedWithRepetition(Collection<ChoosableWrapper<T>> objects, int k) {
+        return preparedChoosablesCache.get(objects, this::prepare).chooseWithRepetition(k);
+    }
+
+    /** Cached counterpart of {@link #chooseWithRepetition(Collection, int)}, keyed by the key. */
+    public <T> List<T> chooseCachedWithRepetition(
+            Object key, Collection<ChoosableWrapper<T>> objects, int k) {
+        return preparedChoosablesCache.get(key, objects, this::prepare).chooseWithRepetition(k);
+    }
+
+    public void invalidatePrepared(Object key) {
+        preparedChoosablesCache.invalidate(key);
+    }
+
+    public void clearPrepared() {
+        preparedChoosablesCache.clear();
+    }
+
+    public CacheStatistics preparedCacheStatistics() {
+        return preparedChoosablesCache.statistics();
+    }
+
+    /**
+     * Chooses objects in a single pass over the iterator, keeping only k of them in memory.
+     */
+    public <T> List<T> chooseWithoutRepetitionFromIterator(
+            Iterator<ChoosableWrapper<T>> objects, int k) {
+        return new WeightedReservoirSampler<T>(k, this.randomSource).offerAll(objects).result();
+    }
+
+    /**
+     * Chooses objects in a single pass over the stream, keeping only k of them in memory per
+     * stream segment. Segments of parallel streams are sampled separately and merged, every one
+     * with a source split from a {@link SplittableRandomSource}, or with the shared {@link
+     * RandomSource#threadLocal()} or {@link RandomSource#secure()}, which are thread-safe. Other
+     * sources, as a wrapped {@link RandomFrictionQuery}, are not assumed to be thread-safe, so the
+     * stream is sampled sequentially then.
+     */
+    public <T> List<T> chooseWithoutRepetitionFromStream(
+            Stream<ChoosableWrapper<T>> objects, int k) {
+        var sampledObjects = isUsableInParallel() ? objects : objects.sequential();
+        return sampledObjects.collect(
+                WeightedReservoirSampler.collector(k, this::splitRandomSource));
+    }
+
+    public <T> AliasMethodSampler<T> prepareWithRepetition(
+            Collection<ChoosableWrapper<T>> objects) {
+        return new AliasMethodSampler<>(objects, this.randomFrictionQuery);
+    }
+
+    public <T> ChoosablePool<T> choosablePool(Collection<ChoosableWrapper<T>> objects) {
+        return new ChoosablePool<>(objects, this.randomFrictionQuery);
+    }
+
+    public <T> List<T> chooseWithoutRepetition(List<T> objects, double[] weights, int k) {
+        return new DoubleVariationWithoutRepetition<T>(this.randomSource)
+                .choose(objects, weights, k);
+    }
+
+    public <T> List<T> chooseWithRepetition(List<T> objects, double[] weights, int k) {
+        return new DoubleVariationWithRepetition<T>(this.randomSource).choose(objects, weights, k);
+    }
+
+    public int[] chooseIndexesWithoutRepetition(double[] weights, int k) {
+        return new DoubleVariationWithoutRepetition<>(this.randomSource).chooseIndexes(weights, k);
+    }
+
+    public int[] chooseIndexesWithRepetition(double[] weights, int k) {
+        return new DoubleVariationWithRepetition<>(this.randomSource).chooseIndexes(weights, k);
+    }
+
+    private <T> PreparedChoosables<T> prepare(Collection<ChoosableWrapper<T>> objects) {
+        return new PreparedChoosables<>(objects, this.randomFrictionQuery);
+    }
+
+    private boolean isUsableInParallel() {
+        return this.randomSource instanceof SplittableRandomSource
+                || this.randomSource == RandomSource.threadLocal()
+                || this.randomSource == RandomSource.secure();
+    }
+
+    private RandomSource splitRandomSource() {
+        if (this.randomSource instanceof SplittableRandomSource splittableRandomSource) {
+            return splittableRandomSource.split();
+        }
+        return this.randomSource;
+    }
 }
@@ -0,0 +1,117 @@
+package org.klukov.utils.combinatorics;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.klukov.utils.combinatorics.choose.ChoosableWrapper;
+import org.klukov.utils.combinatorics.choose.PreparedChoosables;
+
+/**
+ * Bounded cache of prepared objects with least recently used eviction.
+ *
+ * <p>Entries are keyed either by a key given by the caller, in which case objects are read only on
+ * a cache miss, or by the content of the collection. Content keys compare classes of wrapped objects,
+ * wrapped objects with {@code equals} and probability coefficients by value, so {@code 1.0} and
+ * {@code 1.00} share an entry. Computing them costs O(n) but skips validation and building of
+ * prepared structures.
+ */
+final class PreparedChoosablesCache {
+
+    private final int maxSize;
+    private final Map<Object, PreparedChoosables<?>> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    PreparedChoosablesCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative");
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    <T> PreparedChoosables<T> get(
+            Collection<ChoosableWrapper<T>> objects,
+            Function<Collection<ChoosableWrapper<T>>, PreparedChoosables<T>> preparation) {
+        if (objects == null) {
+            return preparation.apply(null);
+        }
+        return get(ContentKey.of(objects), objects, preparation);
+    }
+
+    /** Preparation runs outside of the lock, so concurrent misses may prepare objects twice. */
+    @SuppressWarnings("unchecked")
+    <T> PreparedChoosables<T> get(
+            Object key,
+            Collection<ChoosableWrapper<T>> objects,
+            Function<Collection<ChoosableWrapper<T>>, PreparedChoosables<T>> preparation) {
+        synchronized (this) {
+            var prepared = (PreparedChoosables<T>) entries.get(key);
+            if (prepared != null) {
+                hits++;
+                return prepared;
+            }
+            misses++;
+        }
+        var prepared = preparation.apply(objects);
+        if (maxSize > 0) {
+            synchronized (this) {
+                entries.put(key, prepared);
+                evictEldest();
+            }
+        }
+        return prepared;
+    }
+
+    synchronized void invalidate(Object key) {
+        entries.remove(key);
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    synchronized CacheStatistics statistics() {
+        return new CacheStatistics(hits, misses, evictions, entries.size(), maxSize);
+    }
+
+    private void evictEldest() {
+        var iterator = entries.keySet().iterator();
+        while (entries.size() > maxSize) {
+            iterator.next();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    private record ContentKey(List<ContentEntry> entries) {
+
+        static ContentKey of(Collection<? extends ChoosableWrapper<?>> objects) {
+            var entries = new ArrayList<ContentEntry>(objects.size());
+            for (var object : objects) {
+                entries.add(object == null ? null : ContentEntry.of(object));
+            }
+            return new ContentKey(entries);
+        }
+    }
+
+    private record ContentEntry(
+            Class<?> type, Object wrappedObject, BigDecimal probabilityCoefficient) {
+
+        static ContentEntry of(ChoosableWrapper<?> object) {
+            var wrappedObject = object.wrappedObject();
+            var probabilityCoefficient = object.probabilityCoefficient();
+            return new ContentEntry(
+                    wrappedObject == null ? null : wrappedObject.getClass(),
+                    wrappedObject,
+                    probabilityCoefficient == null
+                            ? null
+                            : probabilityCoefficient.stripTrailingZeros());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.klukov.utils.combinatorics;
+
+import java.math.BigDecimal;
+
+/** Exposes plain {@link RandomFrictionQuery} as {@link RandomSource}, one fraction per number. */
+class RandomFrictionQueryAdapter implements RandomSource {
+
+    private final RandomFrictionQuery randomFrictionQuery;
+
+    RandomFrictionQueryAdapter(RandomFrictionQuery randomFrictionQuery) {
+        this.randomFrictionQuery = randomFrictionQuery;
+    }
+
+    @Override
+    public double nextDouble() {
+        return randomFrictionQuery.getRandomFraction().doubleValue();
+    }
+
+    @Override
+    public BigDecimal getRandomFraction() {
+        return randomFrictionQuery.getRandomFraction();
+    }
+}
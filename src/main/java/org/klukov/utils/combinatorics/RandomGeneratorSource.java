@@ -0,0 +1,22 @@
+package org.klukov.utils.combinatorics;
+
+import java.util.random.RandomGenerator;
+
+class RandomGeneratorSource implements RandomSource {
+
+    private final RandomGenerator randomGenerator;
+
+    RandomGeneratorSource(RandomGenerator randomGenerator) {
+        this.randomGenerator = randomGenerator;
+    }
+
+    @Override
+    public double nextDouble() {
+        return randomGenerator.nextDouble();
+    }
+
+    @Override
+    public long nextLong() {
+        return randomGenerator.nextLong();
+    }
+}
@@ -0,0 +1,92 @@
+package org.klukov.utils.combinatorics;
+
+import java.math.BigDecimal;
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Source of primitive random numbers used by sampling engines.
+ *
+ * <p>Every {@code RandomSource} is also a {@link RandomFrictionQuery}, so it can be used by the
+ * {@link BigDecimal} based engines as well. Engines pull numbers in batches through {@link
+ * #fill(double[])} and {@link #fill(long[])}, which implementations may override with bulk
+ * generation.
+ *
+ * <p>Available implementations:
+ *
+ * <ul>
+ *   <li>{@link #threadLocal()} - fast, thread-safe, not reproducible
+ *   <li>{@link #seeded(long)} - reproducible for given seed, to be used by a single thread at a
+ *       time; {@link SplittableRandomSource#split()} creates independent sources for other threads
+ *   <li>{@link #splittable()} - as above, seeded randomly
+ *   <li>{@link #secure()} - cryptographically strong source backed by one shared {@link
+ *       SecureRandom}; default of {@link CombinatoricsFacade}
+ *   <li>{@link #of(RandomGenerator)} - adapter for any {@link RandomGenerator}
+ * </ul>
+ */
+@FunctionalInterface
+public interface RandomSource extends RandomFrictionQuery {
+
+    /**
+     * @return random number from range [0, 1)
+     */
+    double nextDouble();
+
+    /**
+     * @return random number from the whole {@code long} range; by default built from the upper 32
+     *     bits of two fractions, implementations backed by generators of longs override it
+     */
+    default long nextLong() {
+        return (upperBits(nextDouble()) << 32) | upperBits(nextDouble());
+    }
+
+    default void fill(double[] target) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] = nextDouble();
+        }
+    }
+
+    default void fill(long[] target) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] = nextLong();
+        }
+    }
+
+    @Override
+    default BigDecimal getRandomFraction() {
+        return BigDecimal.valueOf(nextDouble());
+    }
+
+    static RandomSource threadLocal() {
+        return ThreadLocalRandomSource.INSTANCE;
+    }
+
+    static SplittableRandomSource seeded(long seed) {
+        return new SplittableRandomSource(new SplittableRandom(seed));
+    }
+
+    static SplittableRandomSource splittable() {
+        return new SplittableRandomSource(new SplittableRandom());
+    }
+
+    static RandomSource secure() {
+        return SecureRandomSource.INSTANCE;
+    }
+
+    static RandomSource of(RandomGenerator randomGenerator) {
+        return new RandomGeneratorSource(randomGenerator);
+    }
+
+    static RandomSource of(RandomFrictionQuery randomFrictionQuery) {
+        if (randomFrictionQuery instanceof RandomSource randomSource) {
+            return randomSource;
+        }
+        return new RandomFrictionQueryAdapter(randomFrictionQuery);
+    }
+
+    /** Fraction of exactly 1, which some queries give, is clamped so it stays within 32 bits. */
+    private static long upperBits(double fraction) {
+        return Math.min((long) (fraction * 0x1.0p32), 0xFFFFFFFFL);
+    }
+}
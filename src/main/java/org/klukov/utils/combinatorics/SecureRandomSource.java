@@ -0,0 +1,11 @@
+package org.klukov.utils.combinatorics;
+
+import java.security.SecureRandom;
+
+/** Holds one {@link SecureRandom} shared by all users, created on first use. */
+final class SecureRandomSource {
+
+    static final RandomSource INSTANCE = new RandomGeneratorSource(new SecureRandom());
+
+    private SecureRandomSource() {}
+}
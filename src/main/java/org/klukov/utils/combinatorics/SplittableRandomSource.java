@@ -0,0 +1,30 @@
+package org.klukov.utils.combinatorics;
+
+import java.util.SplittableRandom;
+
+/**
+ * Reproducible {@link RandomSource} backed by {@link SplittableRandom}. Instances are not
+ * thread-safe; every thread or task should work on its own source created with {@link #split()}.
+ */
+public final class SplittableRandomSource implements RandomSource {
+
+    private final SplittableRandom splittableRandom;
+
+    SplittableRandomSource(SplittableRandom splittableRandom) {
+        this.splittableRandom = splittableRandom;
+    }
+
+    public synchronized SplittableRandomSource split() {
+        return new SplittableRandomSource(splittableRandom.split());
+    }
+
+    @Override
+    public double nextDouble() {
+        return splittableRandom.nextDouble();
+    }
+
+    @Override
+    public long nextLong() {
+        return splittableRandom.nextLong();
+    }
+}
@@ -0,0 +1,34 @@
+package org.klukov.utils.combinatorics;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+class ThreadLocalRandomSource implements RandomSource {
+
+    static final ThreadLocalRandomSource INSTANCE = new ThreadLocalRandomSource();
+
+    @Override
+    public double nextDouble() {
+        return ThreadLocalRandom.current().nextDouble();
+    }
+
+    @Override
+    public long nextLong() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    @Override
+    public void fill(double[] target) {
+        var random = ThreadLocalRandom.current();
+        for (int i = 0; i < target.length; i++) {
+            target[i] = random.nextDouble();
+        }
+    }
+
+    @Override
+    public void fill(long[] target) {
+        var random = ThreadLocalRandom.current();
+        for (int i = 0; i < target.length; i++) {
+            target[i] = random.nextLong();
+        }
+    }
+}
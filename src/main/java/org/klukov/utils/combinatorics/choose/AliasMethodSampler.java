@@ -0,0 +1,150 @@
+package org.klukov.utils.combinatorics.choose;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import org.klukov.utils.combinatorics.RandomFrictionQuery;
+import org.klukov.utils.combinatorics.RandomSource;
+
+/**
+ * Sampler with repetition based on the Walker/Vose alias method. Tables are built once in O(n);
+ * every draw costs O(1) and takes two random fractions, one selecting a column and one tossing its
+ * coin. Instances are immutable and thread-safe if the given {@link RandomFrictionQuery} is.
+ *
+ * @param <T> type of wrapped objects
+ */
+public final class AliasMethodSampler<T> {
+
+    private final InputValidator<T> inputValidator;
+    private final RandomFrictionQuery randomFrictionQuery;
+    private final RandomSource randomSource;
+    private final Object[] objects;
+    private final double[] probabilities;
+    private final int[] aliases;
+    private final ParallelIndexChooser parallelIndexChooser;
+
+    public AliasMethodSampler(
+            Collection<ChoosableWrapper<T>> objects, RandomFrictionQuery randomFrictionQuery) {
+        this.inputValidator = new InputValidator<>();
+        this.inputValidator.validateChoosableObjects(objects);
+        this.randomFrictionQuery = randomFrictionQuery;
+        this.randomSource = RandomSource.of(randomFrictionQuery);
+        this.objects = objects.stream().map(ChoosableWrapper::wrappedObject).toArray();
+        this.probabilities = new double[this.objects.length];
+        this.aliases = new int[this.objects.length];
+        buildTables(scaledProbabilities(objects));
+        this.parallelIndexChooser = new ParallelIndexChooser(this::chooseIndex);
+    }
+
+    public int size() {
+        return objects.length;
+    }
+
+    public T chooseOne() {
+        return objectAt(chooseIndex());
+    }
+
+    public List<T> choose(int k) {
+        inputValidator.validateNumberOfObjectsToChoose(k);
+        var randomFractions = new RandomFractionBuffer(randomFrictionQuery, 2L * k);
+        var result = new ArrayList<T>(k);
+        for (int i = 0; i < k; i++) {
+            var columnFraction = randomFractions.nextDouble();
+            result.add(objectAt(chooseIndex(columnFraction, randomFractions.nextDouble())));
+        }
+        return result;
+    }
+
+    /** Chooses indexes of objects on the common pool; the result depends only on the seed. */
+    public int[] chooseIndexes(int k, long seed) {
+        return chooseIndexes(k, seed, ForkJoinPool.commonPool());
+    }
+
+    public int[] chooseIndexes(int k, long seed, ForkJoinPool forkJoinPool) {
+        inputValidator.validateNumberOfObjectsToChoose(k);
+        return parallelIndexChooser.chooseIndexes(k, seed, forkJoinPool);
+    }
+
+    /** Lazy counterpart of {@link #chooseIndexes(int, long)}, giving the same indexes. */
+    public IntStream streamIndexes(long k, long seed) {
+        inputValidator.validateNumberOfObjectsToChoose(k);
+        return parallelIndexChooser.streamIndexes(k, seed);
+    }
+
+    int chooseIndex() {
+        return chooseIndex(randomSource);
+    }
+
+    int chooseIndex(RandomSource randomSource) {
+        return chooseIndex(randomSource.nextDouble(), randomSource.nextDouble());
+    }
+
+    /** Fractions are from [0, 1]; a column fraction of 1 selects the last column. */
+    int chooseIndex(double columnFraction, double coinFraction) {
+        var column = Math.min((int) (columnFraction * objects.length), objects.length - 1);
+        return coinFraction < probabilities[column] ? column : aliases[column];
+    }
+
+    @SuppressWarnings("unchecked")
+    T objectAt(int index) {
+        return (T) objects[index];
+    }
+
+    private double[] scaledProbabilities(Collection<ChoosableWrapper<T>> objects) {
+        var probabilitySum = new ChoosableCommons<T>().calculateProbabilitySum(objects);
+        var size = BigDecimal.valueOf(objects.size());
+        var result = new double[objects.size()];
+        var index = 0;
+        for (var object : objects) {
+            result[index++] =
+                    object.probabilityCoefficient()
+                            .multiply(size)
+                            .divide(probabilitySum, MathContext.DECIMAL64)
+                            .doubleValue();
+        }
+        return result;
+    }
+
+    private void buildTables(double[] scaledProbabilities) {
+        var size = scaledProbabilities.length;
+        var small = new int[size];
+        var large = new int[size];
+        var smallSize = 0;
+        var largeSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (scaledProbabilities[i] < 1.0) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
+            }
+        }
+        while (smallSize > 0 && largeSize > 0) {
+            var less = small[--smallSize];
+            var more = large[--largeSize];
+            probabilities[less] = scaledProbabilities[less];
+            aliases[less] = more;
+            scaledProbabilities[more] =
+                    (scaledProbabilities[more] + scaledProbabilities[less]) - 1.0;
+            if (scaledProbabilities[more] < 1.0) {
+                small[smallSize++] = more;
+            } else {
+                large[largeSize++] = more;
+            }
+        }
+        // leftovers differ from 1.0 only by rounding errors
+        while (largeSize > 0) {
+            var index = large[--largeSize];
+            probabilities[index] = 1.0;
+            aliases[index] = index;
+        }
+        while (smallSize > 0) {
+            var index = small[--smallSize];
+            probabilities[index] = 1.0;
+            aliases[index] = index;
+        }
+    }
+}
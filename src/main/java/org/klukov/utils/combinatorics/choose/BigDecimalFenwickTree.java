@@ -0,0 +1,102 @@
+package org.klukov.utils.combinatorics.choose;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import org.klukov.utils.java.BigDecimalUtils;
+
+/**
+ * Fenwick (binary indexed) tree over exact {@link BigDecimal} weights.
+ *
+ * <p>Keeps prefix sums of weights in their original order, so selecting an element for a random
+ * value gives exactly the same result as a lookup in a cumulative probability map built from the
+ * same weights. Building costs O(n), updating a weight and selecting an element cost O(log n).
+ * Setting a weight to zero removes the element from further selections without shifting others.
+ */
+final class BigDecimalFenwickTree {
+
+    private final BigDecimal[] weights;
+    private final BigDecimal[] tree;
+    private BigDecimal total;
+
+    BigDecimalFenwickTree(BigDecimal[] weights) {
+        this.weights = weights.clone();
+        this.tree = new BigDecimal[weights.length + 1];
+        this.tree[0] = BigDecimal.ZERO;
+        System.arraycopy(weights, 0, this.tree, 1, weights.length);
+        for (int i = 1; i <= weights.length; i++) {
+            var parent = i + Integer.lowestOneBit(i);
+            if (parent <= weights.length) {
+                tree[parent] = tree[parent].add(tree[i]);
+            }
+        }
+        this.total = Arrays.stream(weights).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private BigDecimalFenwickTree(BigDecimalFenwickTree source) {
+        this.weights = source.weights.clone();
+        this.tree = source.tree.clone();
+        this.total = source.total;
+    }
+
+    BigDecimalFenwickTree copy() {
+        return new BigDecimalFenwickTree(this);
+    }
+
+    /** Creates a copy with given capacity; new positions get zero weights. */
+    BigDecimalFenwickTree withCapacity(int capacity) {
+        var newWeights = Arrays.copyOf(weights, capacity);
+        Arrays.fill(newWeights, weights.length, capacity, BigDecimal.ZERO);
+        return new BigDecimalFenwickTree(newWeights);
+    }
+
+    int size() {
+        return weights.length;
+    }
+
+    BigDecimal total() {
+        return total;
+    }
+
+    BigDecimal weight(int index) {
+        return weights[index];
+    }
+
+    void set(int index, BigDecimal weight) {
+        var delta = weight.subtract(weights[index]);
+        weights[index] = weight;
+        total = total.add(delta);
+        for (int i = index + 1; i < tree.length; i += Integer.lowestOneBit(i)) {
+            tree[i] = tree[i].add(delta);
+        }
+    }
+
+    /**
+     * Finds index of the first element whose cumulative weight is higher than given random value.
+     * When random value reaches total weight, the last element with positive weight is returned.
+     */
+    int find(BigDecimal random) {
+        if (BigDecimalUtils.isBiggerOrEqual(random, total)) {
+            return descend(total, false);
+        }
+        return descend(random, true);
+    }
+
+    private int descend(BigDecimal value, boolean inclusive) {
+        var position = 0;
+        var remaining = value;
+        for (int step = Integer.highestOneBit(weights.length); step > 0; step >>= 1) {
+            var next = position + step;
+            if (next < tree.length && fitsIn(tree[next], remaining, inclusive)) {
+                position = next;
+                remaining = remaining.subtract(tree[next]);
+            }
+        }
+        return position;
+    }
+
+    private boolean fitsIn(BigDecimal partialSum, BigDecimal remaining, boolean inclusive) {
+        return inclusive
+                ? BigDecimalUtils.isSmallerOrEqual(partialSum, remaining)
+                : BigDecimalUtils.isSmaller(partialSum, remaining);
+    }
+}
@@ -0,0 +1,230 @@
+package org.klukov.utils.combinatorics.choose;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.klukov.utils.combinatorics.RandomFrictionQuery;
+
+/**
+ * Mutable, thread-safe pool of weighted objects to choose from.
+ *
+ * <p>Probability coefficients are kept in a Fenwick tree, so adding, removing and reweighting an
+ * object costs O(log n) and there is no need to rebuild the whole collection after every change.
+ * Choosing with repetition costs O(log n) per object, choosing k objects without repetition costs
+ * O(k log n) and leaves the pool unchanged. Removed positions are reused by following additions;
+ * the tree grows by doubling when all positions are taken.
+ *
+ * <p>Objects are identified by {@link Object#equals(Object)} of wrapped objects. Choosing with
+ * repetition takes a read lock, so the given {@link RandomFrictionQuery} has to be thread-safe when
+ * the pool is used by many threads. Choosing without repetition zeroes chosen coefficients for the
+ * time of the call and takes the write lock like modifications do.
+ *
+ * @param <T> type of wrapped objects
+ */
+public final class ChoosablePool<T> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final InputValidator<T> inputValidator;
+    private final RandomFrictionQuery randomFrictionQuery;
+    private final ReentrantReadWriteLock lock;
+    private final Map<T, Integer> positions;
+    private final List<T> objects;
+    private final List<Integer> freePositions;
+    private BigDecimalFenwickTree probabilityTree;
+
+    public ChoosablePool(RandomFrictionQuery randomFrictionQuery) {
+        this.inputValidator = new InputValidator<>();
+        this.randomFrictionQuery = randomFrictionQuery;
+        this.lock = new ReentrantReadWriteLock();
+        this.positions = new HashMap<>();
+        this.objects = new ArrayList<>();
+        this.freePositions = new ArrayList<>();
+        this.probabilityTree = new BigDecimalFenwickTree(zeroWeights(INITIAL_CAPACITY));
+    }
+
+    public ChoosablePool(
+            Collection<ChoosableWrapper<T>> objects, RandomFrictionQuery randomFrictionQuery) {
+        this(randomFrictionQuery);
+        inputValidator.validatePossiblyEmptyChoosableObjects(objects);
+        var weights = zeroWeights(Math.max(INITIAL_CAPACITY, objects.size()));
+        for (var object : objects) {
+            validateWrappedObject(object.wrappedObject());
+            if (this.positions.containsKey(object.wrappedObject())) {
+                throw new IllegalArgumentException("Object is already in pool");
+            }
+            var position = this.objects.size();
+            weights[position] = object.probabilityCoefficient();
+            this.objects.add(object.wrappedObject());
+            this.positions.put(object.wrappedObject(), position);
+        }
+        this.probabilityTree = new BigDecimalFenwickTree(weights);
+    }
+
+    public void add(ChoosableWrapper<T> object) {
+        inputValidator.validateChoosableObject(object);
+        validateWrappedObject(object.wrappedObject());
+        lock.writeLock().lock();
+        try {
+            if (positions.containsKey(object.wrappedObject())) {
+                throw new IllegalArgumentException("Object is already in pool");
+            }
+            var position = takeFreePosition();
+            objects.set(position, object.wrappedObject());
+            positions.put(object.wrappedObject(), position);
+            probabilityTree.set(position, object.probabilityCoefficient());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return {@code true} if object was in pool
+     */
+    public boolean remove(T object) {
+        lock.writeLock().lock();
+        try {
+            var position = positions.remove(object);
+            if (position == null) {
+                return false;
+            }
+            objects.set(position, null);
+            probabilityTree.set(position, BigDecimal.ZERO);
+            freePositions.add(position);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return {@code true} if object was in pool
+     */
+    public boolean updateProbabilityCoefficient(T object, BigDecimal probabilityCoefficient) {
+        inputValidator.validateChoosableObject(ChoosableWrapper.of(probabilityCoefficient, object));
+        lock.writeLock().lock();
+        try {
+            var position = positions.get(object);
+            if (position == null) {
+                return false;
+            }
+            probabilityTree.set(position, probabilityCoefficient);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(T object) {
+        lock.readLock().lock();
+        try {
+            return positions.containsKey(object);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return positions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public T chooseOne() {
+        return chooseWithRepetition(1).get(0);
+    }
+
+    public List<T> chooseWithRepetition(int k) {
+        inputValidator.validateNumberOfObjectsToChoose(k);
+        lock.readLock().lock();
+        try {
+            validateNumberOfObjectsInPool(1);
+            var randomFractions = new RandomFractionBuffer(randomFrictionQuery, k);
+            var result = new ArrayList<T>(k);
+            for (int i = 0; i < k; i++) {
+                result.add(objects.get(findRandomPosition(probabilityTree, randomFractions)));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Chosen objects are excluded only for the time of this call and stay in the pool. */
+    public List<T> chooseWithoutRepetition(int k) {
+        inputValidator.validateNumberOfObjectsToChoose(k);
+        lock.writeLock().lock();
+        try {
+            validateNumberOfObjectsInPool(k);
+            var randomFractions = new RandomFractionBuffer(randomFrictionQuery, k);
+            var chosenPositions = new int[k];
+            var chosenWeights = new BigDecimal[k];
+            var result = new ArrayList<T>(k);
+            try {
+                for (int i = 0; i < k; i++) {
+                    var position = findRandomPosition(probabilityTree, randomFractions);
+                    chosenPositions[i] = position;
+                    chosenWeights[i] = probabilityTree.weight(position);
+                    probabilityTree.set(position, BigDecimal.ZERO);
+                    result.add(objects.get(position));
+                }
+            } finally {
+                for (int i = 0; i < result.size(); i++) {
+                    probabilityTree.set(chosenPositions[i], chosenWeights[i]);
+                }
+            }
+            return result;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int findRandomPosition(
+            BigDecimalFenwickTree probabilityTree, RandomFractionBuffer randomFractions) {
+        var random = randomFractions.nextFraction().multiply(probabilityTree.total());
+        return probabilityTree.find(random);
+    }
+
+    private int takeFreePosition() {
+        if (!freePositions.isEmpty()) {
+            return freePositions.remove(freePositions.size() - 1);
+        }
+        var position = objects.size();
+        if (position == probabilityTree.size()) {
+            probabilityTree = probabilityTree.withCapacity(2 * position);
+        }
+        objects.add(null);
+        return position;
+    }
+
+    private static BigDecimal[] zeroWeights(int capacity) {
+        var weights = new BigDecimal[capacity];
+        Arrays.fill(weights, BigDecimal.ZERO);
+        return weights;
+    }
+
+    private void validateWrappedObject(T object) {
+        if (Objects.isNull(object)) {
+            throw new IllegalArgumentException("Wrapped object cannot be null");
+        }
+    }
+
+    private void validateNumberOfObjectsInPool(int k) {
+        if (positions.isEmpty()) {
+            throw new IllegalArgumentException("Lack of objects to choose");
+        }
+        if (positions.size() < k) {
+            throw new IllegalArgumentException(
+                    "Number of objects to choose must not be higher than number of objects");
+        }
+    }
+}
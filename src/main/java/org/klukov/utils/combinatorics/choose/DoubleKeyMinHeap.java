@@ -0,0 +1,112 @@
+package org.klukov.utils.combinatorics.choose;
+
+/**
+ * Bounded binary min-heap of {@code double} keys with {@code int} values kept in primitive arrays.
+ */
+final class DoubleKeyMinHeap {
+
+    private final double[] keys;
+    private final int[] values;
+    private int size;
+
+    DoubleKeyMinHeap(int capacity) {
+        this.keys = new double[capacity];
+        this.values = new int[capacity];
+    }
+
+    private DoubleKeyMinHeap(DoubleKeyMinHeap source) {
+        this.keys = source.keys.clone();
+        this.values = source.values.clone();
+        this.size = source.size;
+    }
+
+    DoubleKeyMinHeap copy() {
+        return new DoubleKeyMinHeap(this);
+    }
+
+    double keyAt(int position) {
+        return keys[position];
+    }
+
+    int valueAt(int position) {
+        return values[position];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isFull() {
+        return size == keys.length;
+    }
+
+    double minKey() {
+        return keys[0];
+    }
+
+    int minValue() {
+        return values[0];
+    }
+
+    void push(double key, int value) {
+        var index = size++;
+        while (index > 0) {
+            var parent = (index - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            keys[index] = keys[parent];
+            values[index] = values[parent];
+            index = parent;
+        }
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    void replaceMin(double key, int value) {
+        var index = 0;
+        var half = size >>> 1;
+        while (index < half) {
+            var child = 2 * index + 1;
+            var right = child + 1;
+            if (right < size && keys[right] < keys[child]) {
+                child = right;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            keys[index] = keys[child];
+            values[index] = values[child];
+            index = child;
+        }
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    /**
+     * Offers key with value to heap. When heap is full, the minimal entry is replaced if the given
+     * key is higher.
+     */
+    void offer(double key, int value) {
+        if (!isFull()) {
+            push(key, value);
+        } else if (key > keys[0]) {
+            replaceMin(key, value);
+        }
+    }
+
+    /** Empties heap and returns its values ordered by descending keys. */
+    int[] drainDescending() {
+        var result = new int[size];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = values[0];
+            var lastKey = keys[size - 1];
+            var lastValue = values[size - 1];
+            size--;
+            if (size > 0) {
+                replaceMin(lastKey, lastValue);
+            }
+        }
+        return result;
+    }
+}
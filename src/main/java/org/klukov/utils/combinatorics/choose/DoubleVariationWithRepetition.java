@@ -0,0 +1,74 @@
+package org.klukov.utils.combinatorics.choose;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.klukov.utils.combinatorics.RandomSource;
+
+/**
+ * Primitive counterpart of {@link VariationWithRepetition}. Weights are given as {@code double[]},
+ * prefix sums are kept in a {@code double[]} and each draw is a binary search, so no objects are
+ * allocated per draw. Random value {@code r} selects the same position as in {@link
+ * VariationWithRepetition}, up to floating point rounding.
+ */
+public final class DoubleVariationWithRepetition<T> {
+
+    private final InputValidator<T> inputValidator;
+    private final RandomSource randomSource;
+
+    public DoubleVariationWithRepetition(RandomSource randomSource) {
+        this.inputValidator = new InputValidator<>();
+        this.randomSource = randomSource;
+    }
+
+    public List<T> choose(List<T> objects, double[] weights, int k) {
+        inputValidator.validateWeightedObjects(objects, weights);
+        var indexes = chooseValidatedIndexes(weights, k);
+        var result = new ArrayList<T>(k);
+        for (var index : indexes) {
+            result.add(objects.get(index));
+        }
+        return result;
+    }
+
+    public int[] chooseIndexes(double[] weights, int k) {
+        inputValidator.validateWeights(weights);
+        return chooseValidatedIndexes(weights, k);
+    }
+
+    private int[] chooseValidatedIndexes(double[] weights, int k) {
+        inputValidator.validateNumberOfObjectsToChoose(k);
+        var prefixSums = prefixSums(weights);
+        var total = prefixSums[prefixSums.length - 1];
+        var result = new int[k];
+        var randomFractions = new RandomFractionBuffer(randomSource, k);
+        for (int i = 0; i < k; i++) {
+            result[i] = findIndex(prefixSums, randomFractions.nextDouble() * total);
+        }
+        return result;
+    }
+
+    static double[] prefixSums(double[] weights) {
+        var result = new double[weights.length];
+        var sum = 0.0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            result[i] = sum;
+        }
+        return result;
+    }
+
+    /** Finds index of the first prefix sum higher than random, or the last index otherwise. */
+    static int findIndex(double[] prefixSums, double random) {
+        var low = 0;
+        var high = prefixSums.length - 1;
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (prefixSums[middle] > random) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,56 @@
+package org.klukov.utils.combinatorics.choose;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.klukov.utils.combinatorics.RandomSource;
+
+/**
+ * Primitive counterpart of {@link VariationWithoutRepetition} based on Efraimidis-Spirakis keys.
+ *
+ * <p>Every object gets key {@code ln(u) / weight} for uniform {@code u} from (0, 1]. The k objects
+ * with the highest keys, ordered by descending key, have the same distribution as k successive
+ * weighted draws without repetition. Keys are kept in a bounded primitive heap, so choosing k of n
+ * objects costs O(n log k) and allocates only the heap and the result.
+ */
+public final class DoubleVariationWithoutRepetition<T> {
+
+    private static final double LARGEST_BELOW_ONE = Math.nextDown(1.0);
+
+    private final InputValidator<T> inputValidator;
+    private final RandomSource randomSource;
+
+    public DoubleVariationWithoutRepetition(RandomSource randomSource) {
+        this.inputValidator = new InputValidator<>();
+        this.randomSource = randomSource;
+    }
+
+    public List<T> choose(List<T> objects, double[] weights, int k) {
+        inputValidator.validateWeightedObjects(objects, weights);
+        var indexes = chooseValidatedIndexes(weights, k);
+        var result = new ArrayList<T>(k);
+        for (var index : indexes) {
+            result.add(objects.get(index));
+        }
+        return result;
+    }
+
+    public int[] chooseIndexes(double[] weights, int k) {
+        inputValidator.validateWeights(weights);
+        return chooseValidatedIndexes(weights, k);
+    }
+
+    /** Maps a random fraction from [0, 1] to (0, 1], so a fraction of 1 gives a finite key. */
+    private static double key(double randomFraction, double weight) {
+        return Math.log(1.0 - randomFraction * LARGEST_BELOW_ONE) / weight;
+    }
+
+    private int[] chooseValidatedIndexes(double[] weights, int k) {
+        inputValidator.validateNumberOfObjectsToChoose(k, weights.length);
+        var heap = new DoubleKeyMinHeap(k);
+        var randomFractions = new RandomFractionBuffer(randomSource, weights.length);
+        for (int i = 0; i < weights.length; i++) {
+            heap.offer(key(randomFractions.nextDouble(), weights[i]), i);
+        }
+        return heap.drainDescending();
+    }
+}
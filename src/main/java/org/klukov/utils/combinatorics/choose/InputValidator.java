@@ -2,28 +2,65 @@ package org.klukov.utils.combinatorics.choose;
 
 import java.math.BigDecimal;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import org.klukov.utils.java.BigDecimalUtils;
 
 class InputValidator<T> {
 
-    void validateNumberOfObjectsToChoose(int k) {
+    void validateNumberOfObjectsToChoose(long k) {
         if (k < 1) {
             throw new IllegalArgumentException("Number of objects to choose must be higher than 0");
         }
     }
 
+    void validateNumberOfObjectsToChoose(long k, int numberOfObjects) {
+        validateNumberOfObjectsToChoose(k);
+        if (numberOfObjects < k) {
+            throw new IllegalArgumentException(
+                    "Number of objects to choose must not be higher than number of objects");
+        }
+    }
+
     void validateChoosableObjects(Collection<ChoosableWrapper<T>> objects) {
-        if (Objects.isNull(objects) || objects.isEmpty()) {
+        if (Objects.nonNull(objects) && objects.isEmpty()) {
+            throw new IllegalArgumentException("Lack of objects to choose");
+        }
+        validatePossiblyEmptyChoosableObjects(objects);
+    }
+
+    void validatePossiblyEmptyChoosableObjects(Collection<ChoosableWrapper<T>> objects) {
+        if (Objects.isNull(objects)) {
+            throw new IllegalArgumentException("Lack of objects to choose");
+        }
+        objects.forEach(this::validateChoosableObject);
+    }
+
+    void validateChoosableObject(ChoosableWrapper<T> object) {
+        if (Objects.isNull(object)
+                || !isProbabilityCoefficientValid(object.probabilityCoefficient())) {
+            throw new IllegalArgumentException(
+                    "At least one of probability coefficients is invalid");
+        }
+    }
+
+    void validateWeights(double[] weights) {
+        if (Objects.isNull(weights) || weights.length == 0) {
             throw new IllegalArgumentException("Lack of objects to choose");
         }
-        objects.forEach(
-                object -> {
-                    if (!isProbabilityCoefficientValid(object.probabilityCoefficient())) {
-                        throw new IllegalArgumentException(
-                                "At least one of probability coefficients is invalid");
-                    }
-                });
+        for (var weight : weights) {
+            if (!(weight > 0.0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("At least one of weights is invalid");
+            }
+        }
+    }
+
+    void validateWeightedObjects(List<T> objects, double[] weights) {
+        validateWeights(weights);
+        if (Objects.isNull(objects) || objects.size() != weights.length) {
+            throw new IllegalArgumentException(
+                    "Number of objects must be equal to number of weights");
+        }
     }
 
     private boolean isProbabilityCoefficientValid(BigDecimal probabilityCoefficient) {
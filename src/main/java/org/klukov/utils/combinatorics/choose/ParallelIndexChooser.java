@@ -0,0 +1,94 @@
+package org.klukov.utils.combinatorics.choose;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+import org.klukov.utils.combinatorics.RandomSource;
+
+/**
+ * Splits a big number of independent draws into fixed-size chunks processed on a {@link
+ * ForkJoinPool}. Every chunk has its own {@link RandomSource#seeded(long)} source seeded from the
+ * base seed and the chunk number, so results depend only on the seed and never on the parallelism
+ * or on the order in which chunks are processed.
+ */
+final class ParallelIndexChooser {
+
+    static final int CHUNK_SIZE = 1 << 14;
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final ToIntFunction<RandomSource> indexChooser;
+
+    ParallelIndexChooser(ToIntFunction<RandomSource> indexChooser) {
+        this.indexChooser = indexChooser;
+    }
+
+    int[] chooseIndexes(int k, long seed, ForkJoinPool forkJoinPool) {
+        var result = new int[k];
+        var chunks = chunkCount(k);
+        forkJoinPool.invoke(new ChunkAction(result, seed, 0, chunks));
+        return result;
+    }
+
+    IntStream streamIndexes(long k, long seed) {
+        var chunks = Math.toIntExact(chunkCount(k));
+        return IntStream.range(0, chunks)
+                .flatMap(
+                        chunk -> {
+                            var from = (long) chunk * CHUNK_SIZE;
+                            var size = (int) Math.min(CHUNK_SIZE, k - from);
+                            var indexes = new int[size];
+                            fillChunk(indexes, 0, size, seed, chunk);
+                            return IntStream.of(indexes);
+                        });
+    }
+
+    private void fillChunk(int[] target, int offset, int size, long seed, long chunk) {
+        var random = RandomSource.seeded(mix(seed + GOLDEN_GAMMA * (chunk + 1)));
+        for (int i = offset; i < offset + size; i++) {
+            target[i] = indexChooser.applyAsInt(random);
+        }
+    }
+
+    private static long chunkCount(long k) {
+        return (k + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    private final class ChunkAction extends RecursiveAction {
+
+        private final int[] target;
+        private final long seed;
+        private final long fromChunk;
+        private final long toChunk;
+
+        private ChunkAction(int[] target, long seed, long fromChunk, long toChunk) {
+            this.target = target;
+            this.seed = seed;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (toChunk - fromChunk > 1) {
+                var middle = (fromChunk + toChunk) >>> 1;
+                invokeAll(
+                        new ChunkAction(target, seed, fromChunk, middle),
+                        new ChunkAction(target, seed, middle, toChunk));
+                return;
+            }
+            if (fromChunk < toChunk) {
+                var offset = (int) (fromChunk * CHUNK_SIZE);
+                var size = Math.min(CHUNK_SIZE, target.length - offset);
+                fillChunk(target, offset, size, seed, fromChunk);
+            }
+        }
+    }
+}
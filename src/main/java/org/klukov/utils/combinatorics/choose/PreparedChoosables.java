@@ -0,0 +1,75 @@
+package org.klukov.utils.combinatorics.choose;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.klukov.utils.combinatorics.RandomFrictionQuery;
+
+/**
+ * Validated objects with a prepared Fenwick tree of their probability coefficients.
+ *
+ * <p>Validation, summing and building the tree happen once, in the constructor. Choosing k objects
+ * with repetition costs O(k log n); choosing without repetition works on an O(n) copy of the tree
+ * and costs O(k log n) more. Results are the same as of {@link VariationWithRepetition} and {@link
+ * VariationWithoutRepetition} called with the same objects and random fractions.
+ *
+ * <p>Instances are immutable and can be reused across calls and threads, provided the given
+ * {@link RandomFrictionQuery} is thread-safe.
+ *
+ * @param <T> type of wrapped objects
+ */
+public final class PreparedChoosables<T> {
+
+    private final InputValidator<T> inputValidator;
+    private final RandomFrictionQuery randomFrictionQuery;
+    private final List<T> objects;
+    private final BigDecimalFenwickTree probabilityTree;
+
+    public PreparedChoosables(
+            Collection<ChoosableWrapper<T>> objects, RandomFrictionQuery randomFrictionQuery) {
+        this.inputValidator = new InputValidator<>();
+        this.inputValidator.validateChoosableObjects(objects);
+        this.randomFrictionQuery = randomFrictionQuery;
+        this.objects = new ArrayList<>(objects.size());
+        var probabilityCoefficients = new BigDecimal[objects.size()];
+        for (var object : objects) {
+            probabilityCoefficients[this.objects.size()] = object.probabilityCoefficient();
+            this.objects.add(object.wrappedObject());
+        }
+        this.probabilityTree = new BigDecimalFenwickTree(probabilityCoefficients);
+    }
+
+    public int size() {
+        return objects.size();
+    }
+
+    public List<T> chooseWithRepetition(int k) {
+        inputValidator.validateNumberOfObjectsToChoose(k);
+        var randomFractions = new RandomFractionBuffer(randomFrictionQuery, k);
+        var result = new ArrayList<T>(k);
+        for (int i = 0; i < k; i++) {
+            result.add(objects.get(findRandomIndex(probabilityTree, randomFractions)));
+        }
+        return result;
+    }
+
+    public List<T> chooseWithoutRepetition(int k) {
+        inputValidator.validateNumberOfObjectsToChoose(k, objects.size());
+        var remainingTree = probabilityTree.copy();
+        var randomFractions = new RandomFractionBuffer(randomFrictionQuery, k);
+        var result = new ArrayList<T>(k);
+        for (int i = 0; i < k; i++) {
+            var index = findRandomIndex(remainingTree, randomFractions);
+            result.add(objects.get(index));
+            remainingTree.set(index, BigDecimal.ZERO);
+        }
+        return result;
+    }
+
+    private int findRandomIndex(
+            BigDecimalFenwickTree probabilityTree, RandomFractionBuffer randomFractions) {
+        var random = randomFractions.nextFraction().multiply(probabilityTree.total());
+        return probabilityTree.find(random);
+    }
+}
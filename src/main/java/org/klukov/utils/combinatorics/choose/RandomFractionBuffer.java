@@ -0,0 +1,58 @@
+package org.klukov.utils.combinatorics.choose;
+
+import java.math.BigDecimal;
+import org.klukov.utils.combinatorics.RandomFrictionQuery;
+import org.klukov.utils.combinatorics.RandomSource;
+
+/**
+ * Pulls random numbers needed by a single sampling call in batches. Batches never exceed the
+ * number of declared draws, so exactly the same numbers are consumed as with one call per draw.
+ *
+ * <p>Fractions for {@link BigDecimal} engines are batched only when the query is a {@link
+ * RandomSource}; other queries are asked once per draw to keep their exact decimal values.
+ */
+final class RandomFractionBuffer {
+
+    private static final int MAX_BATCH_SIZE = 1024;
+
+    private final RandomFrictionQuery randomFrictionQuery;
+    private final RandomSource randomSource;
+    private final double[] batch;
+    private long remainingDraws;
+    private int position;
+    private int batchSize;
+
+    RandomFractionBuffer(RandomFrictionQuery randomFrictionQuery, long draws) {
+        this.randomFrictionQuery = randomFrictionQuery;
+        this.randomSource = RandomSource.of(randomFrictionQuery);
+        this.batch = new double[(int) Math.min(MAX_BATCH_SIZE, Math.max(draws, 1))];
+        this.remainingDraws = draws;
+    }
+
+    double nextDouble() {
+        if (position == batchSize) {
+            refill();
+        }
+        return batch[position++];
+    }
+
+    BigDecimal nextFraction() {
+        if (randomFrictionQuery instanceof RandomSource) {
+            return BigDecimal.valueOf(nextDouble());
+        }
+        return randomFrictionQuery.getRandomFraction();
+    }
+
+    private void refill() {
+        batchSize = (int) Math.min(batch.length, Math.max(remainingDraws, 1));
+        remainingDraws -= batchSize;
+        position = 0;
+        if (batchSize == batch.length) {
+            randomSource.fill(batch);
+        } else {
+            for (int i = 0; i < batchSize; i++) {
+                batch[i] = randomSource.nextDouble();
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.klukov.utils.combinatorics.choose;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import org.klukov.utils.combinatorics.RandomSource;
+
+/**
+ * Single-pass weighted reservoir sampler without repetition (A-ExpJ by Efraimidis and Spirakis).
+ *
+ * <p>Objects are offered one by one, so the input can come from an {@link Iterator}, a {@link
+ * java.util.stream.Stream} or a cursor that does not fit in memory. Only the k objects with the
+ * highest keys {@code ln(u) / weight} are kept, so memory is O(k). After the reservoir is full,
+ * exponential jumps skip over objects that cannot enter it without drawing a random number for
+ * each of them.
+ *
+ * <p>The result, ordered by descending keys, has the same distribution as {@link
+ * VariationWithoutRepetition}. Reservoirs filled from disjoint parts of the input can be combined
+ * with {@link #merge(WeightedReservoirSampler)}, which is used by {@link #collector(int,
+ * Supplier)} for parallel streams. Instances are not thread-safe.
+ *
+ * @param <T> type of wrapped objects
+ */
+public final class WeightedReservoirSampler<T> {
+
+    private static final String INVALID_COEFFICIENT_MESSAGE =
+            "At least one of probability coefficients is invalid";
+    private static final double LARGEST_BELOW_ONE = Math.nextDown(1.0);
+
+    private final InputValidator<T> inputValidator;
+    private final RandomSource randomSource;
+    private final DoubleKeyMinHeap reservoir;
+    private final Object[] objects;
+    private double weightToSkip;
+
+    public WeightedReservoirSampler(int k, RandomSource randomSource) {
+        this.inputValidator = new InputValidator<>();
+        this.inputValidator.validateNumberOfObjectsToChoose(k);
+        this.randomSource = randomSource;
+        this.reservoir = new DoubleKeyMinHeap(k);
+        this.objects = new Object[k];
+    }
+
+    /**
+     * @param randomSourceSupplier called once per segment of the stream; sources given to segments
+     *     of a parallel stream are used by many threads at once, so they must be separate or
+     *     thread-safe
+     */
+    public static <T>
+            Collector<ChoosableWrapper<T>, WeightedReservoirSampler<T>, List<T>> collector(
+                    int k, Supplier<RandomSource> randomSourceSupplier) {
+        return Collector.of(
+                () -> new WeightedReservoirSampler<>(k, randomSourceSupplier.get()),
+                WeightedReservoirSampler::offer,
+                WeightedReservoirSampler::merge,
+                WeightedReservoirSampler::result,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    public void offer(ChoosableWrapper<T> object) {
+        var weight = weightOf(object);
+        if (!reservoir.isFull()) {
+            var key = Math.log(nextFraction()) / weight;
+            store(key, reservoir.size(), object.wrappedObject());
+            return;
+        }
+        weightToSkip -= weight;
+        if (weightToSkip > 0.0) {
+            return;
+        }
+        var threshold = Math.exp(weight * reservoir.minKey());
+        var random = threshold + (1.0 - threshold) * nextFraction();
+        var key = Math.log(random) / weight;
+        store(key, reservoir.minValue(), object.wrappedObject());
+    }
+
+    public WeightedReservoirSampler<T> offerAll(Iterator<ChoosableWrapper<T>> objects) {
+        while (objects.hasNext()) {
+            offer(objects.next());
+        }
+        return this;
+    }
+
+    public WeightedReservoirSampler<T> merge(WeightedReservoirSampler<T> other) {
+        for (int i = 0; i < other.reservoir.size(); i++) {
+            var key = other.reservoir.keyAt(i);
+            if (!reservoir.isFull()) {
+                store(key, reservoir.size(), other.objects[other.reservoir.valueAt(i)]);
+            } else if (key > reservoir.minKey()) {
+                store(key, reservoir.minValue(), other.objects[other.reservoir.valueAt(i)]);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return chosen objects ordered by descending keys
+     * @throws IllegalArgumentException when less than k objects were offered
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> result() {
+        if (reservoir.size() == 0) {
+            throw new IllegalArgumentException("Lack of objects to choose");
+        }
+        if (!reservoir.isFull()) {
+            throw new IllegalArgumentException(
+                    "Number of objects to choose must not be higher than number of objects");
+        }
+        var slots = reservoir.copy().drainDescending();
+        var result = new ArrayList<T>(slots.length);
+        for (var slot : slots) {
+            result.add((T) objects[slot]);
+        }
+        return result;
+    }
+
+    private void store(double key, int slot, Object object) {
+        objects[slot] = object;
+        if (reservoir.isFull()) {
+            reservoir.replaceMin(key, slot);
+        } else {
+            reservoir.push(key, slot);
+        }
+        if (reservoir.isFull()) {
+            weightToSkip = Math.log(nextFraction()) / reservoir.minKey();
+        }
+    }
+
+    /** Random fraction from [0, 1] mapped to (0, 1], so its logarithm is finite. */
+    private double nextFraction() {
+        return 1.0 - randomSource.nextDouble() * LARGEST_BELOW_ONE;
+    }
+
+    private double weightOf(ChoosableWrapper<T> object) {
+        if (Objects.isNull(object) || Objects.isNull(object.probabilityCoefficient())) {
+            throw new IllegalArgumentException(INVALID_COEFFICIENT_MESSAGE);
+        }
+        var weight = object.probabilityCoefficient().doubleValue();
+        if (!(weight > 0.0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException(INVALID_COEFFICIENT_MESSAGE);
+        }
+        return weight;
+    }
+}
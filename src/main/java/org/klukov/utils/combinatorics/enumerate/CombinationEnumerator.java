@@ -0,0 +1,67 @@
+package org.klukov.utils.combinatorics.enumerate;
+
+/** Enumerates strictly increasing k-tuples of indexes from [0, n). */
+final class CombinationEnumerator extends IndexTupleEnumerator {
+
+    CombinationEnumerator(int n, int k) {
+        super(n, k, k > n ? 0 : binomial(n, k));
+    }
+
+    @Override
+    IndexTupleEnumerator copy() {
+        return new CombinationEnumerator(n, k);
+    }
+
+    @Override
+    void unrank(long rank) {
+        var candidate = 0;
+        for (int position = 0; position < k; position++) {
+            var remaining = k - position - 1;
+            var block = binomial(n - candidate - 1, remaining);
+            while (block <= rank) {
+                rank -= block;
+                candidate++;
+                block = binomial(n - candidate - 1, remaining);
+            }
+            cursor[position] = candidate++;
+        }
+    }
+
+    @Override
+    void advance() {
+        var position = k - 1;
+        while (cursor[position] == n - k + position) {
+            position--;
+        }
+        cursor[position]++;
+        for (int i = position + 1; i < k; i++) {
+            cursor[i] = cursor[i - 1] + 1;
+        }
+    }
+
+    /**
+     * @throws ArithmeticException when result does not fit in {@code long}
+     */
+    static long binomial(int n, int k) {
+        if (k < 0 || k > n) {
+            return 0;
+        }
+        k = Math.min(k, n - k);
+        long result = 1;
+        for (int i = 1; i <= k; i++) {
+            var numerator = (long) n - k + i;
+            var divisor = gcd(result, i);
+            result = Math.multiplyExact(result / divisor, numerator / (i / divisor));
+        }
+        return result;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            var remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+}
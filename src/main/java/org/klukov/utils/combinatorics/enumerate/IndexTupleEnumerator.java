@@ -0,0 +1,133 @@
+package org.klukov.utils.combinatorics.enumerate;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy enumerator of index tuples in lexicographic order.
+ *
+ * <p>Every call of {@link #next()} returns the same {@code int[]} cursor moved to the next tuple,
+ * so no memory is allocated per tuple. Callers that keep tuples have to copy them. Tuples are
+ * numbered by their lexicographic rank, which makes it possible to jump to any position with
+ * {@link #skipTo(long)} and to split the space across parallel workers with {@link #spliterator()}.
+ */
+public abstract class IndexTupleEnumerator implements Iterator<int[]> {
+
+    protected final int n;
+    protected final int k;
+    protected final int[] cursor;
+    private final long count;
+    private long rank;
+    private long endRank;
+    private boolean positioned;
+
+    IndexTupleEnumerator(int n, int k, long count) {
+        if (n < 0 || k < 0) {
+            throw new IllegalArgumentException(
+                    "Number of elements and tuple length must not be negative");
+        }
+        this.n = n;
+        this.k = k;
+        this.cursor = new int[k];
+        this.count = count;
+        this.endRank = count;
+    }
+
+    /**
+     * @return number of all tuples in the enumerated space
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * @return rank of the tuple returned by the next call of {@link #next()}
+     */
+    public long rank() {
+        return rank;
+    }
+
+    /**
+     * Limits enumeration to tuples with ranks lower than given one.
+     *
+     * @return this enumerator
+     */
+    public IndexTupleEnumerator limitTo(long endRank) {
+        if (endRank < rank || endRank > count) {
+            throw new IllegalArgumentException("End rank is out of range");
+        }
+        this.endRank = endRank;
+        return this;
+    }
+
+    /**
+     * Moves enumerator to tuple with given rank in O(k) or O(n k) time, depending on the space.
+     *
+     * @return this enumerator
+     */
+    public IndexTupleEnumerator skipTo(long rank) {
+        if (rank < 0 || rank > endRank) {
+            throw new IllegalArgumentException("Rank is out of range");
+        }
+        this.rank = rank;
+        this.positioned = false;
+        return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return rank < endRank;
+    }
+
+    @Override
+    public int[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (positioned) {
+            advance();
+        } else {
+            unrank(rank);
+            positioned = true;
+        }
+        rank++;
+        return cursor;
+    }
+
+    /**
+     * Spliterator over the remaining tuples. Splitting creates enumerators positioned by {@link
+     * #skipTo(long)}, so ranges can be processed by parallel workers. Tuples passed to consumers are
+     * reused cursors as well.
+     */
+    public Spliterator<int[]> spliterator() {
+        return new IndexTupleSpliterator(this);
+    }
+
+    public Stream<int[]> stream(boolean parallel) {
+        return StreamSupport.stream(spliterator(), parallel);
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super int[]> action) {
+        while (hasNext()) {
+            action.accept(next());
+        }
+    }
+
+    /** Creates fresh enumerator over the same space. */
+    abstract IndexTupleEnumerator copy();
+
+    /** Sets cursor to tuple with given rank. */
+    abstract void unrank(long rank);
+
+    /** Moves cursor to the lexicographically next tuple. */
+    abstract void advance();
+
+    long endRank() {
+        return endRank;
+    }
+}
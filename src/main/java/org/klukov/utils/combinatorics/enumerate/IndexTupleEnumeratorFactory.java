@@ -0,0 +1,31 @@
+package org.klukov.utils.combinatorics.enumerate;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Factory of lazy enumerators of index tuples over n elements. Sizes of enumerated spaces have to
+ * fit in {@code long}, otherwise {@link ArithmeticException} is thrown.
+ */
+@UtilityClass
+public class IndexTupleEnumeratorFactory {
+
+    /** k-combinations: increasing tuples of distinct indexes. */
+    public IndexTupleEnumerator combinations(int n, int k) {
+        return new CombinationEnumerator(n, k);
+    }
+
+    /** All orderings of n indexes. */
+    public IndexTupleEnumerator permutations(int n) {
+        return new VariationWithoutRepetitionEnumerator(n, n);
+    }
+
+    /** k-tuples of distinct indexes. */
+    public IndexTupleEnumerator variationsWithoutRepetition(int n, int k) {
+        return new VariationWithoutRepetitionEnumerator(n, k);
+    }
+
+    /** k-tuples of indexes which may repeat. */
+    public IndexTupleEnumerator variationsWithRepetition(int n, int k) {
+        return new VariationWithRepetitionEnumerator(n, k);
+    }
+}
@@ -0,0 +1,52 @@
+package org.klukov.utils.combinatorics.enumerate;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+class IndexTupleSpliterator implements Spliterator<int[]> {
+
+    private static final long MIN_SPLIT_SIZE = 1024;
+
+    private final IndexTupleEnumerator enumerator;
+
+    IndexTupleSpliterator(IndexTupleEnumerator enumerator) {
+        this.enumerator = enumerator;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super int[]> action) {
+        if (!enumerator.hasNext()) {
+            return false;
+        }
+        action.accept(enumerator.next());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super int[]> action) {
+        enumerator.forEachRemaining(action);
+    }
+
+    @Override
+    public Spliterator<int[]> trySplit() {
+        var from = enumerator.rank();
+        var to = enumerator.endRank();
+        if (to - from < 2 * MIN_SPLIT_SIZE) {
+            return null;
+        }
+        var middle = from + (to - from) / 2;
+        var prefix = enumerator.copy().limitTo(to).skipTo(from).limitTo(middle);
+        enumerator.skipTo(middle);
+        return new IndexTupleSpliterator(prefix);
+    }
+
+    @Override
+    public long estimateSize() {
+        return enumerator.endRank() - enumerator.rank();
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+}
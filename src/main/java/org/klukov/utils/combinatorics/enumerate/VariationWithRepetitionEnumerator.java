@@ -0,0 +1,42 @@
+package org.klukov.utils.combinatorics.enumerate;
+
+/** Enumerates all k-tuples of indexes from [0, n), indexes may repeat. */
+final class VariationWithRepetitionEnumerator extends IndexTupleEnumerator {
+
+    VariationWithRepetitionEnumerator(int n, int k) {
+        super(n, k, power(n, k));
+    }
+
+    @Override
+    IndexTupleEnumerator copy() {
+        return new VariationWithRepetitionEnumerator(n, k);
+    }
+
+    @Override
+    void unrank(long rank) {
+        for (int position = k - 1; position >= 0; position--) {
+            cursor[position] = (int) (rank % n);
+            rank /= n;
+        }
+    }
+
+    @Override
+    void advance() {
+        var position = k - 1;
+        while (cursor[position] == n - 1) {
+            cursor[position--] = 0;
+        }
+        cursor[position]++;
+    }
+
+    /**
+     * @throws ArithmeticException when result does not fit in {@code long}
+     */
+    private static long power(int n, int k) {
+        long result = 1;
+        for (int i = 0; i < k; i++) {
+            result = Math.multiplyExact(result, n);
+        }
+        return result;
+    }
+}
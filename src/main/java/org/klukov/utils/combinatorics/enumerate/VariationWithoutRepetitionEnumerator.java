@@ -0,0 +1,78 @@
+package org.klukov.utils.combinatorics.enumerate;
+
+import java.util.Arrays;
+
+/**
+ * Enumerates k-tuples of distinct indexes from [0, n). Permutations are tuples with {@code k ==
+ * n}.
+ */
+final class VariationWithoutRepetitionEnumerator extends IndexTupleEnumerator {
+
+    private final boolean[] used;
+
+    VariationWithoutRepetitionEnumerator(int n, int k) {
+        super(n, k, k > n ? 0 : fallingFactorial(n, k));
+        this.used = new boolean[n];
+    }
+
+    @Override
+    IndexTupleEnumerator copy() {
+        return new VariationWithoutRepetitionEnumerator(n, k);
+    }
+
+    @Override
+    void unrank(long rank) {
+        Arrays.fill(used, false);
+        for (int position = 0; position < k; position++) {
+            var block = fallingFactorial(n - position - 1, k - position - 1);
+            var skipped = rank / block;
+            rank %= block;
+            cursor[position] = takeUnused(-1, skipped);
+        }
+    }
+
+    @Override
+    void advance() {
+        for (int position = k - 1; position >= 0; position--) {
+            used[cursor[position]] = false;
+            var next = takeUnused(cursor[position], 0);
+            if (next >= 0) {
+                cursor[position] = next;
+                for (int i = position + 1; i < k; i++) {
+                    cursor[i] = takeUnused(-1, 0);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Marks as used the unused index following {@code after}, skipping given number of unused
+     * indexes first.
+     *
+     * @return taken index or -1 when there is none
+     */
+    private int takeUnused(int after, long skipped) {
+        for (int index = after + 1; index < n; index++) {
+            if (!used[index]) {
+                if (skipped == 0) {
+                    used[index] = true;
+                    return index;
+                }
+                skipped--;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @throws ArithmeticException when result does not fit in {@code long}
+     */
+    private static long fallingFactorial(int n, int k) {
+        long result = 1;
+        for (int i = 0; i < k; i++) {
+            result = Math.multiplyExact(result, n - i);
+        }
+        return result;
+    }
+}
@@ -1,17 +1,42 @@
 package org.klukov.utils.graphs;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
 import lombok.experimental.UtilityClass;
+import org.klukov.utils.graphs.binary.BinaryEdgeListReader;
+import org.klukov.utils.graphs.binary.BinaryEdgeListWriter;
+import org.klukov.utils.graphs.binary.EdgeListNode;
 import org.klukov.utils.graphs.common.GraphProcessingException;
+import org.klukov.utils.graphs.common.IdCodec;
+import org.klukov.utils.graphs.common.TraversalLimits;
+import org.klukov.utils.graphs.parser.IndexedParentGivenGraphParseUseCase;
+import org.klukov.utils.graphs.parser.LongParentGivenGraphNodeInput;
+import org.klukov.utils.graphs.parser.LongParentGivenGraphParseInput;
+import org.klukov.utils.graphs.parser.LongParentGivenGraphParseUseCase;
+import org.klukov.utils.graphs.parser.LongParentGivenGraphParserResult;
+import org.klukov.utils.graphs.parser.ParentGivenGraphAggregates;
+import org.klukov.utils.graphs.parser.ParentGivenGraphBatchParseInput;
+import org.klukov.utils.graphs.parser.ParentGivenGraphBatchParserResult;
+import org.klukov.utils.graphs.parser.ParentGivenGraphComponents;
+import org.klukov.utils.graphs.parser.ParentGivenGraphDelta;
 import org.klukov.utils.graphs.parser.ParentGivenGraphFactory;
+import org.klukov.utils.graphs.parser.ParentGivenGraphMergeBases;
 import org.klukov.utils.graphs.parser.ParentGivenGraphNodeInput;
 import org.klukov.utils.graphs.parser.ParentGivenGraphParseInput;
 import org.klukov.utils.graphs.parser.ParentGivenGraphParseUseCase;
 import org.klukov.utils.graphs.parser.ParentGivenGraphParserResult;
+import org.klukov.utils.graphs.parser.ParentGivenGraphReachability;
+import org.klukov.utils.graphs.parser.ParentGivenGraphSnapshot;
+import org.klukov.utils.graphs.parser.ParentGivenGraphStreamParseInput;
+import org.klukov.utils.graphs.parser.PreparedGraph;
 import org.klukov.utils.graphs.relation.BidirectionalRelationIdsQuery;
 import org.klukov.utils.graphs.relation.DirectionalRelationIdsQuery;
 import org.klukov.utils.graphs.relation.GraphRelationFactory;
 import org.klukov.utils.graphs.validation.GraphValidator;
 import org.klukov.utils.graphs.validation.GraphValidatorFactory;
+import org.klukov.utils.graphs.validation.LongGraphValidator;
 
 @UtilityClass
 public class GraphFacade {
@@ -25,8 +50,132 @@ public class GraphFacade {
         return parentGivenGraphParser.parseGraphCollection(parentGivenGraphParseInput);
     }
 
+    /** Parses graph with traversals capped by limits; result is flagged when it is partial. */
+    public <ID, T extends ParentGivenGraphNodeInput<ID, T>>
+            ParentGivenGraphParserResult<ID, T> parseGraphCollection(
+                    ParentGivenGraphParseInput<ID, T> parentGivenGraphParseInput,
+                    TraversalLimits limits)
+                    throws GraphProcessingException {
+        IndexedParentGivenGraphParseUseCase<ID, T> parentGivenGraphParser =
+                generateParentGivenGraphParser();
+        return parentGivenGraphParser.parseGraphCollection(parentGivenGraphParseInput, limits);
+    }
+
+    public <ID, T extends ParentGivenGraphNodeInput<ID, T>>
+            ParentGivenGraphParserResult<ID, T> parseGraphStream(
+                    ParentGivenGraphStreamParseInput<ID, T> parentGivenGraphStreamParseInput)
+                    throws GraphProcessingException {
+        ParentGivenGraphParseUseCase<ID, T> parentGivenGraphParser =
+                generateParentGivenGraphParser();
+        return parentGivenGraphParser.parseGraphStream(parentGivenGraphStreamParseInput);
+    }
+
+    public <ID, T extends ParentGivenGraphNodeInput<ID, T>>
+            ParentGivenGraphBatchParserResult<ID, T> parseGraphBatch(
+                    ParentGivenGraphBatchParseInput<ID, T> parentGivenGraphBatchParseInput)
+                    throws GraphProcessingException {
+        IndexedParentGivenGraphParseUseCase<ID, T> parentGivenGraphParser =
+                generateParentGivenGraphParser();
+        return parentGivenGraphParser.parseGraphBatch(parentGivenGraphBatchParseInput);
+    }
+
+    /** Validates and indexes nodes once, for parsing and queries from many start nodes. */
+    public <ID, T extends ParentGivenGraphNodeInput<ID, T>> PreparedGraph<ID, T> prepareGraph(
+            Collection<T> graphInput) throws GraphProcessingException {
+        IndexedParentGivenGraphParseUseCase<ID, T> parentGivenGraphParser =
+                generateParentGivenGraphParser();
+        return parentGivenGraphParser.prepareGraph(graphInput);
+    }
+
+    /** Parses graph of primitive long ids without boxing them. */
+    public <T extends LongParentGivenGraphNodeInput<T>>
+            LongParentGivenGraphParserResult<T> parseLongGraphCollection(
+                    LongParentGivenGraphParseInput<T> longParentGivenGraphParseInput)
+                    throws GraphProcessingException {
+        LongGraphValidator<T> graphValidator = GraphValidatorFactory.longGraphValidator();
+        LongParentGivenGraphParseUseCase<T> longParentGivenGraphParser =
+                ParentGivenGraphFactory.longParentGivenGraphParser(
+                        GraphRelationFactory.longDirectionalRelationIdsQuery(graphValidator),
+                        GraphRelationFactory.longBidirectionalRelationIdsQuery(),
+                        graphValidator);
+        return longParentGivenGraphParser.parseGraphCollection(longParentGivenGraphParseInput);
+    }
+
+    /** Parses file written by {@link BinaryEdgeListWriter} without loading it to the heap. */
+    public ParentGivenGraphParserResult<Long, EdgeListNode> parseBinaryEdgeList(
+            Path binaryEdgeList, Long startNodeId) throws GraphProcessingException, IOException {
+        try (var reader = BinaryEdgeListReader.open(binaryEdgeList)) {
+            return parseGraphStream(
+                    new ParentGivenGraphStreamParseInput<>(
+                            reader.nodes(), startNodeId, EdgeListNode.views()));
+        }
+    }
+
+    public <ID> void writeSnapshot(
+            ParentGivenGraphParserResult<ID, ?> parserResult, IdCodec<ID> idCodec, Path snapshot)
+            throws IOException {
+        ParentGivenGraphSnapshot.write(parserResult, idCodec, snapshot);
+    }
+
+    /** Snapshot has to be closed when its result is not used anymore. */
+    public <ID> ParentGivenGraphSnapshot<ID> openSnapshot(Path snapshot, IdCodec<ID> idCodec)
+            throws IOException {
+        return ParentGivenGraphSnapshot.open(snapshot, idCodec);
+    }
+
+    /** Index answering ancestor queries and path types for any start node in constant time. */
+    public <ID> ParentGivenGraphReachability<ID> buildReachability(
+            ParentGivenGraphParserResult<ID, ?> parserResult) {
+        return ParentGivenGraphReachability.of(parserResult);
+    }
+
+    /** Index finding merge bases of parsed nodes without visiting their whole history. */
+    public <ID> ParentGivenGraphMergeBases<ID> buildMergeBases(
+            ParentGivenGraphParserResult<ID, ?> parserResult) {
+        return ParentGivenGraphMergeBases.of(parserResult);
+    }
+
+    /** Ancestor and descendant counts, sums and other aggregates of all parsed nodes at once. */
+    public <ID, T> ParentGivenGraphAggregates<ID, T> buildAggregates(
+            ParentGivenGraphParserResult<ID, T> parserResult) {
+        return ParentGivenGraphAggregates.of(parserResult);
+    }
+
+    /** Aggregates computed with big topological levels split among threads of the pool. */
+    public <ID, T> ParentGivenGraphAggregates<ID, T> buildAggregates(
+            ParentGivenGraphParserResult<ID, T> parserResult, ForkJoinPool forkJoinPool) {
+        return ParentGivenGraphAggregates.of(parserResult, forkJoinPool);
+    }
+
+    /**
+     * Aggregates with masks of exact counts and sums and sketches of estimated counts kept within
+     * the memory limit in bytes.
+     */
+    public <ID, T> ParentGivenGraphAggregates<ID, T> buildAggregates(
+            ParentGivenGraphParserResult<ID, T> parserResult,
+            ForkJoinPool forkJoinPool,
+            long memoryLimit) {
+        return ParentGivenGraphAggregates.of(parserResult, forkJoinPool, memoryLimit);
+    }
+
+    /** Cycles and topological order of parsed nodes. */
+    public <ID> ParentGivenGraphComponents<ID> findComponents(
+            ParentGivenGraphParserResult<ID, ?> parserResult) {
+        return ParentGivenGraphComponents.of(parserResult);
+    }
+
+    public <ID, T extends ParentGivenGraphNodeInput<ID, T>>
+            ParentGivenGraphParserResult<ID, T> updateGraphCollection(
+                    ParentGivenGraphParserResult<ID, T> previousResult,
+                    ParentGivenGraphDelta<ID, T> parentGivenGraphDelta)
+                    throws GraphProcessingException {
+        IndexedParentGivenGraphParseUseCase<ID, T> parentGivenGraphParser =
+                generateParentGivenGraphParser();
+        return parentGivenGraphParser.updateGraphCollection(previousResult, parentGivenGraphDelta);
+    }
+
     private <ID, T extends ParentGivenGraphNodeInput<ID, T>>
-            ParentGivenGraphParseUseCase<ID, T> generateParentGivenGraphParser() {
+            IndexedParentGivenGraphParseUseCase<ID, T> generateParentGivenGraphParser() {
         GraphValidator<ID, T> graphValidator = GraphValidatorFactory.graphValidator();
         DirectionalRelationIdsQuery<ID, T> directionalRelationIdsFinder =
                 GraphRelationFactory.directionalRelationIdsQuery(graphValidator);
@@ -0,0 +1,25 @@
+package org.klukov.utils.graphs.binary;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Layout of a binary edge list, all numbers big-endian:
+ *
+ * <pre>
+ * int  magic   'KGEL'
+ * int  version
+ * records of (long childId, long parentId), 16 bytes each
+ * </pre>
+ *
+ * <p>Records of one node are consecutive, every record adds one parent to it. Node without
+ * parents is written as a single record with {@link #NO_PARENT}.
+ */
+@UtilityClass
+class BinaryEdgeListFormat {
+
+    static final int MAGIC = 0x4B47454C;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_SIZE = 16;
+    static final long NO_PARENT = Long.MIN_VALUE;
+}
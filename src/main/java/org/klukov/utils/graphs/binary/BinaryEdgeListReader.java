@@ -0,0 +1,107 @@
+package org.klukov.utils.graphs.binary;
+
+import static org.klukov.utils.graphs.binary.BinaryEdgeListFormat.HEADER_SIZE;
+import static org.klukov.utils.graphs.binary.BinaryEdgeListFormat.MAGIC;
+import static org.klukov.utils.graphs.binary.BinaryEdgeListFormat.NO_PARENT;
+import static org.klukov.utils.graphs.binary.BinaryEdgeListFormat.RECORD_SIZE;
+import static org.klukov.utils.graphs.binary.BinaryEdgeListFormat.VERSION;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import org.klukov.utils.graphs.common.MappedFile;
+
+/**
+ * Reads a binary edge list through a {@link MappedFile}, so records are not copied to the heap
+ * before they are parsed.
+ *
+ * <p>Nodes are created lazily by {@link #nodes()}; reading them with {@link
+ * org.klukov.utils.graphs.parser.ParentGivenGraphStreamParseInput} with {@link
+ * EdgeListNode#views()} keeps only compact adjacency in memory. Not thread-safe.
+ */
+public final class BinaryEdgeListReader implements Closeable {
+
+    private final MappedFile file;
+    private final long recordCount;
+
+    private BinaryEdgeListReader(MappedFile file, long recordCount) {
+        this.file = file;
+        this.recordCount = recordCount;
+    }
+
+    /**
+     * @throws IOException when file cannot be read, has unknown header or is truncated
+     */
+    public static BinaryEdgeListReader open(Path path) throws IOException {
+        var file = MappedFile.open(path);
+        try {
+            var size = file.size();
+            if (size < HEADER_SIZE || (size - HEADER_SIZE) % RECORD_SIZE != 0) {
+                throw new IOException("Binary edge list is truncated: " + path);
+            }
+            if (file.getInt(0) != MAGIC || file.getInt(Integer.BYTES) != VERSION) {
+                throw new IOException("Not a binary edge list of version " + VERSION + ": " + path);
+            }
+            return new BinaryEdgeListReader(file, (size - HEADER_SIZE) / RECORD_SIZE);
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    public long recordCount() {
+        return recordCount;
+    }
+
+    /** Every call starts reading from the first record. */
+    public Iterator<EdgeListNode> nodes() {
+        return new NodeIterator();
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    private long childIdAt(long record) {
+        return file.getLong(HEADER_SIZE + record * RECORD_SIZE);
+    }
+
+    private long parentIdAt(long record) {
+        return file.getLong(HEADER_SIZE + record * RECORD_SIZE + Long.BYTES);
+    }
+
+    private final class NodeIterator implements Iterator<EdgeListNode> {
+
+        private long record;
+        private long[] parents = new long[8];
+
+        @Override
+        public boolean hasNext() {
+            return record < recordCount;
+        }
+
+        @Override
+        public EdgeListNode next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            var id = childIdAt(record);
+            var parentCount = 0;
+            do {
+                var parentId = parentIdAt(record);
+                if (parentId != NO_PARENT) {
+                    if (parentCount == parents.length) {
+                        parents = Arrays.copyOf(parents, parentCount * 2);
+                    }
+                    parents[parentCount++] = parentId;
+                }
+                record++;
+            } while (record < recordCount && childIdAt(record) == id);
+            return new EdgeListNode(id, Arrays.copyOf(parents, parentCount));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.klukov.utils.graphs.binary;
+
+import static org.klukov.utils.graphs.binary.BinaryEdgeListFormat.MAGIC;
+import static org.klukov.utils.graphs.binary.BinaryEdgeListFormat.NO_PARENT;
+import static org.klukov.utils.graphs.binary.BinaryEdgeListFormat.RECORD_SIZE;
+import static org.klukov.utils.graphs.binary.BinaryEdgeListFormat.VERSION;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/** Writes nodes to a binary edge list read by {@link BinaryEdgeListReader}. */
+public final class BinaryEdgeListWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = RECORD_SIZE << 12;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    public BinaryEdgeListWriter(Path path) throws IOException {
+        this.channel =
+                FileChannel.open(
+                        path,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        buffer.putInt(MAGIC).putInt(VERSION);
+    }
+
+    /**
+     * @throws IllegalArgumentException when any id is equal to {@link Long#MIN_VALUE}, which is
+     *     reserved by the format
+     */
+    public void writeNode(long id, long... parentIds) throws IOException {
+        if (id == NO_PARENT) {
+            throw new IllegalArgumentException("Id cannot be equal to Long.MIN_VALUE");
+        }
+        if (parentIds.length == 0) {
+            writeRecord(id, NO_PARENT);
+        }
+        for (var parentId : parentIds) {
+            if (parentId == NO_PARENT) {
+                throw new IllegalArgumentException("Parent id cannot be equal to Long.MIN_VALUE");
+            }
+            writeRecord(id, parentId);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            flush();
+        }
+    }
+
+    private void writeRecord(long childId, long parentId) throws IOException {
+        if (buffer.remaining() < RECORD_SIZE) {
+            flush();
+        }
+        buffer.putLong(childId).putLong(parentId);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
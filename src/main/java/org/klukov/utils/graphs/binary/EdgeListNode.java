@@ -0,0 +1,72 @@
+package org.klukov.utils.graphs.binary;
+
+import java.util.AbstractList;
+import java.util.List;
+import org.klukov.utils.graphs.compact.CompactGraph;
+import org.klukov.utils.graphs.compact.NodeViews;
+import org.klukov.utils.graphs.parser.ParentGivenGraphNodeInput;
+
+/**
+ * Node read from a binary edge list; parent ids are kept unboxed. Nodes of a parsed graph are views
+ * of its adjacency created on access, so the graph does not keep parent ids twice.
+ */
+public final class EdgeListNode implements ParentGivenGraphNodeInput<Long, EdgeListNode> {
+
+    private static final NodeViews<Long, EdgeListNode> VIEWS = EdgeListNode::new;
+
+    private final long id;
+    private final long[] parentIds;
+    private final CompactGraph<Long, EdgeListNode> graph;
+    private final int index;
+
+    EdgeListNode(long id, long[] parentIds) {
+        this.id = id;
+        this.parentIds = parentIds;
+        this.graph = null;
+        this.index = -1;
+    }
+
+    private EdgeListNode(CompactGraph<Long, EdgeListNode> graph, int index) {
+        this.id = graph.idAt(index);
+        this.parentIds = null;
+        this.graph = graph;
+        this.index = index;
+    }
+
+    /** Views of nodes of a graph built from read nodes, which are dropped once added. */
+    public static NodeViews<Long, EdgeListNode> views() {
+        return VIEWS;
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public List<Long> getParentIds() {
+        return new AbstractList<>() {
+            @Override
+            public Long get(int position) {
+                return graph == null
+                        ? parentIds[position]
+                        : graph.idAt(graph.parentAt(index, position));
+            }
+
+            @Override
+            public int size() {
+                return graph == null ? parentIds.length : graph.parentCount(index);
+            }
+        };
+    }
+
+    @Override
+    public EdgeListNode getObject() {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "EdgeListNode{id=" + id + ", parentIds=" + getParentIds() + '}';
+    }
+}
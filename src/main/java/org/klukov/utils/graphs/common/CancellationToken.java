@@ -0,0 +1,15 @@
+package org.klukov.utils.graphs.common;
+
+/** Flag set by one thread and checked by traversals running in other threads. */
+public final class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
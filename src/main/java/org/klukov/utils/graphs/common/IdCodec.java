@@ -0,0 +1,80 @@
+package org.klukov.utils.graphs.common;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts node ids to bytes stored in binary files. Hash is stored in files too, so it has to be
+ * the same in every JVM; hash codes of {@link Long}, {@link Integer} and {@link String} are.
+ *
+ * @param <ID> type of node ids
+ */
+public interface IdCodec<ID> {
+
+    Class<ID> idType();
+
+    byte[] toBytes(ID id);
+
+    ID fromBytes(byte[] bytes);
+
+    default int hash(ID id) {
+        return id.hashCode();
+    }
+
+    static IdCodec<Long> longs() {
+        return new IdCodec<>() {
+            @Override
+            public Class<Long> idType() {
+                return Long.class;
+            }
+
+            @Override
+            public byte[] toBytes(Long id) {
+                return ByteBuffer.allocate(Long.BYTES).putLong(id).array();
+            }
+
+            @Override
+            public Long fromBytes(byte[] bytes) {
+                return ByteBuffer.wrap(bytes).getLong();
+            }
+        };
+    }
+
+    static IdCodec<Integer> integers() {
+        return new IdCodec<>() {
+            @Override
+            public Class<Integer> idType() {
+                return Integer.class;
+            }
+
+            @Override
+            public byte[] toBytes(Integer id) {
+                return ByteBuffer.allocate(Integer.BYTES).putInt(id).array();
+            }
+
+            @Override
+            public Integer fromBytes(byte[] bytes) {
+                return ByteBuffer.wrap(bytes).getInt();
+            }
+        };
+    }
+
+    static IdCodec<String> strings() {
+        return new IdCodec<>() {
+            @Override
+            public Class<String> idType() {
+                return String.class;
+            }
+
+            @Override
+            public byte[] toBytes(String id) {
+                return id.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String fromBytes(byte[] bytes) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+}
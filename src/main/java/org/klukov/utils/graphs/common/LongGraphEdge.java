@@ -0,0 +1,7 @@
+package org.klukov.utils.graphs.common;
+
+public interface LongGraphEdge {
+    long getParentId();
+
+    long getChildId();
+}
@@ -0,0 +1,91 @@
+package org.klukov.utils.graphs.common;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only file mapped to memory in segments of 1 GB, so files bigger than a single {@link
+ * MappedByteBuffer} can be read by long positions. Numbers are big-endian and must not cross a
+ * segment border, which holds for ints and longs at positions aligned to their size.
+ *
+ * <p>Mapped memory is released by the garbage collector; values must not be read after {@link
+ * #close()}. Thread-safe for reading.
+ */
+public final class MappedFile implements Closeable {
+
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long size;
+
+    private MappedFile(FileChannel channel, MappedByteBuffer[] segments, long size) {
+        this.channel = channel;
+        this.segments = segments;
+        this.size = size;
+    }
+
+    public static MappedFile open(Path path) throws IOException {
+        var channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            var size = channel.size();
+            var segments = new MappedByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+            for (int i = 0; i < segments.length; i++) {
+                var position = (long) i << SEGMENT_SHIFT;
+                segments[i] =
+                        channel.map(
+                                FileChannel.MapMode.READ_ONLY,
+                                position,
+                                Math.min(SEGMENT_MASK + 1, size - position));
+            }
+            return new MappedFile(channel, segments, size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int getInt(long position) {
+        return segment(position).getInt(offset(position));
+    }
+
+    public long getLong(long position) {
+        return segment(position).getLong(offset(position));
+    }
+
+    /** Copies bytes which may cross a segment border. */
+    public byte[] getBytes(long position, int length) {
+        var result = new byte[length];
+        var copied = 0;
+        while (copied < length) {
+            var current = position + copied;
+            var segment = segment(current);
+            var count = Math.min(length - copied, segment.capacity() - offset(current));
+            segment.get(offset(current), result, copied, count);
+            copied += count;
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private MappedByteBuffer segment(long position) {
+        return segments[(int) (position >>> SEGMENT_SHIFT)];
+    }
+
+    private static int offset(long position) {
+        return (int) (position & SEGMENT_MASK);
+    }
+}
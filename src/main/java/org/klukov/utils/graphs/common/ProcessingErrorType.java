@@ -6,5 +6,7 @@ public enum ProcessingErrorType {
     NULL_NODES,
     DUPLICATED_NODES,
     STAR_NODE_NOT_IN_GRAPH,
-    NOT_SPECIFIED
+    NOT_SPECIFIED,
+    CYCLIC_GRAPH,
+    TRAVERSAL_LIMIT_EXCEEDED
 }
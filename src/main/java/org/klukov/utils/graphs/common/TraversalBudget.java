@@ -0,0 +1,120 @@
+package org.klukov.utils.graphs.common;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * {@link TraversalLimits} checked while a single traversal marks ids. Visited nodes, deadline and
+ * cancellation stop the traversal; depth only keeps it from going further. Deadline and
+ * cancellation are checked every {@value #CHECK_INTERVAL} visits, so traversal stops shortly after
+ * them. Not thread-safe.
+ */
+public final class TraversalBudget {
+
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final TraversalLimits limits;
+    private final long maxVisitedNodes;
+    private final int maxDepth;
+    private final long deadlineNanos;
+    private long visitedNodes;
+    private boolean stopped;
+    private TraversalLimit exceededLimit;
+
+    TraversalBudget(TraversalLimits limits) {
+        this.limits = limits;
+        this.maxVisitedNodes =
+                limits.getMaxVisitedNodes() == null ? Long.MAX_VALUE : limits.getMaxVisitedNodes();
+        this.maxDepth = limits.getMaxDepth() == null ? Integer.MAX_VALUE : limits.getMaxDepth();
+        this.deadlineNanos =
+                limits.getDeadline() == null
+                        ? 0
+                        : System.nanoTime() + nanosUntil(limits.getDeadline());
+    }
+
+    /**
+     * @return {@code true} if id at given depth can be marked, which is counted as a visit
+     */
+    public boolean visit(int depth) {
+        if (stopped) {
+            return false;
+        }
+        if (depth > maxDepth) {
+            exceed(TraversalLimit.DEPTH);
+            return false;
+        }
+        if (visitedNodes == maxVisitedNodes) {
+            stop(TraversalLimit.VISITED_NODES);
+            return false;
+        }
+        if (visitedNodes % CHECK_INTERVAL == 0 && isOverTime()) {
+            return false;
+        }
+        visitedNodes++;
+        return true;
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    public long getVisitedNodes() {
+        return visitedNodes;
+    }
+
+    /**
+     * @return first limit which was reached, or {@code null} if traversal was complete
+     */
+    public TraversalLimit getExceededLimit() {
+        return exceededLimit;
+    }
+
+    /**
+     * @throws GraphProcessingException when a limit was reached and limits are strict
+     */
+    public void checkNotExceeded() throws GraphProcessingException {
+        if (exceededLimit != null && limits.isStrict()) {
+            throw new GraphProcessingException(
+                    ProcessingErrorType.TRAVERSAL_LIMIT_EXCEEDED,
+                    "Traversal stopped by limit "
+                            + exceededLimit
+                            + " after "
+                            + visitedNodes
+                            + " nodes");
+        }
+    }
+
+    private boolean isOverTime() {
+        var cancellationToken = limits.getCancellationToken();
+        if (cancellationToken != null && cancellationToken.isCancelled()) {
+            stop(TraversalLimit.CANCELLATION);
+        } else if (limits.getDeadline() != null && System.nanoTime() - deadlineNanos >= 0) {
+            stop(TraversalLimit.DEADLINE);
+        }
+        return stopped;
+    }
+
+    private void stop(TraversalLimit limit) {
+        stopped = true;
+        exceed(limit);
+    }
+
+    private void exceed(TraversalLimit limit) {
+        if (exceededLimit == null) {
+            exceededLimit = limit;
+        }
+    }
+
+    private static long nanosUntil(Instant deadline) {
+        var remaining = Duration.between(Instant.now(), deadline);
+        return remaining.isNegative() ? 0 : saturatedNanos(remaining);
+    }
+
+    private static long saturatedNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE / 2;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package org.klukov.utils.graphs.common;
+
+/** Limit of {@link TraversalLimits} which stopped or truncated a traversal. */
+public enum TraversalLimit {
+    VISITED_NODES,
+    DEPTH,
+    DEADLINE,
+    CANCELLATION
+}
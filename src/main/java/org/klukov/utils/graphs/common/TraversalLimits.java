@@ -0,0 +1,55 @@
+package org.klukov.utils.graphs.common;
+
+import java.time.Instant;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Limits of a single traversal, which caps its cost for huge or malformed graphs. Limits which are
+ * null are not checked. Traversal reaching a limit gives a partial result flagged with the limit,
+ * or fails with {@link ProcessingErrorType#TRAVERSAL_LIMIT_EXCEEDED} in strict mode.
+ */
+@Getter
+@Builder
+@ToString
+public final class TraversalLimits {
+
+    private static final TraversalLimits NONE = new TraversalLimits(null, null, null, null, false);
+
+    /** Maximal number of ids marked by traversal, including the start one. */
+    private final Long maxVisitedNodes;
+
+    /** Maximal number of edges between the start id and a marked one. */
+    private final Integer maxDepth;
+
+    private final Instant deadline;
+    private final CancellationToken cancellationToken;
+    private final boolean strict;
+
+    public TraversalLimits(
+            Long maxVisitedNodes,
+            Integer maxDepth,
+            Instant deadline,
+            CancellationToken cancellationToken,
+            boolean strict) {
+        if ((maxVisitedNodes != null && maxVisitedNodes < 0)
+                || (maxDepth != null && maxDepth < 0)) {
+            throw new IllegalArgumentException("Limits cannot be negative");
+        }
+        this.maxVisitedNodes = maxVisitedNodes;
+        this.maxDepth = maxDepth;
+        this.deadline = deadline;
+        this.cancellationToken = cancellationToken;
+        this.strict = strict;
+    }
+
+    public static TraversalLimits none() {
+        return NONE;
+    }
+
+    /** Starts counting visited ids; deadline is converted to the monotonic clock now. */
+    public TraversalBudget startBudget() {
+        return new TraversalBudget(this);
+    }
+}
@@ -0,0 +1,184 @@
+package org.klukov.utils.graphs.compact;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import org.klukov.utils.graphs.common.GraphEdge;
+
+/**
+ * Immutable graph in compressed sparse row form.
+ *
+ * <p>Every id is mapped once to a dense int index. Parents and children of a node are slices of
+ * shared {@code int[]} arrays, so the whole adjacency takes two ints per edge and two ints per
+ * index, with no per-node or per-edge objects. Node objects are kept one per node, unless the
+ * graph is built with {@link NodeViews}, which create them on access.
+ *
+ * @param <ID> type of node ids
+ * @param <N> type of node objects
+ */
+public final class CompactGraph<ID, N> implements IndexedGraph<ID, N> {
+
+    private final IdIndex<ID> ids;
+    private final Object[] nodes;
+    private final NodeViews<ID, N> nodeViews;
+    private final BitSet nodeIndexes;
+    private final int nodeCount;
+    private final int[] parentOffsets;
+    private final int[] parentTargets;
+    private final int[] childOffsets;
+    private final int[] childTargets;
+
+    CompactGraph(
+            IdIndex<ID> ids,
+            Object[] nodes,
+            NodeViews<ID, N> nodeViews,
+            BitSet nodeIndexes,
+            int[] parentOffsets,
+            int[] parentTargets,
+            int[] childOffsets,
+            int[] childTargets) {
+        this.ids = ids;
+        this.nodes = nodes;
+        this.nodeViews = nodeViews;
+        this.nodeIndexes = nodeIndexes;
+        this.nodeCount = nodeIndexes.cardinality();
+        this.parentOffsets = parentOffsets;
+        this.parentTargets = parentTargets;
+        this.childOffsets = childOffsets;
+        this.childTargets = childTargets;
+    }
+
+    /**
+     * Builds graph from nodes with unique, not null ids.
+     *
+     * @throws IllegalArgumentException when ids are duplicated or null
+     */
+    public static <ID, N> CompactGraph<ID, N> of(
+            Collection<N> nodes,
+            Function<? super N, ID> idExtractor,
+            Function<? super N, ? extends Collection<ID>> parentIdsExtractor) {
+        var builder = new CompactGraphBuilder<ID, N>(nodes.size());
+        for (var node : nodes) {
+            var id = idExtractor.apply(node);
+            if (!builder.addNode(id, parentIdsExtractor.apply(node), node)) {
+                throw new IllegalArgumentException("Node id is duplicated: " + id);
+            }
+        }
+        return builder.build();
+    }
+
+    /** Builds graph of edges only, none of the ids is a node. */
+    public static <ID> CompactGraph<ID, Void> ofEdges(Collection<? extends GraphEdge<ID>> edges) {
+        var builder = new CompactGraphBuilder<ID, Void>(edges.size());
+        edges.forEach(edge -> builder.addEdge(edge.getParentId(), edge.getChildId()));
+        return builder.build();
+    }
+
+    /**
+     * Copies any indexed graph in O(n + e); every id keeps its index, so bit sets of indexes stay
+     * valid for the copy.
+     */
+    public static <ID, N> CompactGraph<ID, N> copyOf(IndexedGraph<ID, ? extends N> graph) {
+        var builder = new CompactGraphBuilder<ID, N>(graph.size());
+        for (int index = 0; index < graph.size(); index++) {
+            builder.addId(graph.idAt(index));
+        }
+        for (int index = 0; index < graph.size(); index++) {
+            if (graph.isNode(index)) {
+                builder.addIndexedNode(index, graph.nodeAt(index));
+            }
+            var child = index;
+            graph.forEachParent(index, parent -> builder.addIndexedEdge(parent, child));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public int size() {
+        return ids.size();
+    }
+
+    @Override
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public int edgeCount() {
+        return parentTargets.length;
+    }
+
+    @Override
+    public boolean isNode(int index) {
+        return nodeIndexes.get(index);
+    }
+
+    @Override
+    public int indexOf(Object id) {
+        return ids.indexOf(id);
+    }
+
+    @Override
+    public ID idAt(int index) {
+        return ids.idAt(index);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public N nodeAt(int index) {
+        if (nodeViews == null) {
+            return (N) nodes[index];
+        }
+        return isNode(index) ? nodeViews.nodeAt(this, index) : null;
+    }
+
+    /**
+     * @return views creating node objects on access, {@code null} when the graph keeps them
+     */
+    NodeViews<ID, N> nodeViews() {
+        return nodeViews;
+    }
+
+    @Override
+    public int parentCount(int index) {
+        return parentOffsets[index + 1] - parentOffsets[index];
+    }
+
+    public int parentAt(int index, int position) {
+        return parentTargets[parentOffsets[index] + position];
+    }
+
+    @Override
+    public int childCount(int index) {
+        return childOffsets[index + 1] - childOffsets[index];
+    }
+
+    public int childAt(int index, int position) {
+        return childTargets[childOffsets[index] + position];
+    }
+
+    @Override
+    public void forEachParent(int index, IntConsumer action) {
+        for (int i = parentOffsets[index]; i < parentOffsets[index + 1]; i++) {
+            action.accept(parentTargets[i]);
+        }
+    }
+
+    @Override
+    public void forEachChild(int index, IntConsumer action) {
+        for (int i = childOffsets[index]; i < childOffsets[index + 1]; i++) {
+            action.accept(childTargets[i]);
+        }
+    }
+
+    @Override
+    public boolean anyChild(int index, IntPredicate predicate) {
+        for (int i = childOffsets[index]; i < childOffsets[index + 1]; i++) {
+            if (predicate.test(childTargets[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
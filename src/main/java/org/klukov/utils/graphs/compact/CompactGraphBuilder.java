@@ -0,0 +1,187 @@
+package org.klukov.utils.graphs.compact;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * Collects nodes and edges one by one and builds a {@link CompactGraph}. Parent ids which are not
+ * added as nodes get indexes as well, so edges leading outside the graph are kept. Null parent ids
+ * are ignored.
+ *
+ * @param <ID> type of node ids
+ * @param <N> type of node objects kept by the graph
+ */
+public final class CompactGraphBuilder<ID, N> {
+
+    private final IdIndex<ID> ids;
+    private final BitSet nodeIndexes;
+    private final GrowableIntArray edgeParents;
+    private final GrowableIntArray edgeChildren;
+    private final NodeViews<ID, N> nodeViews;
+    private Object[] nodes;
+
+    public CompactGraphBuilder() {
+        this(0);
+    }
+
+    public CompactGraphBuilder(int expectedNodes) {
+        this(expectedNodes, null);
+    }
+
+    /**
+     * @param nodeViews views creating node objects of the built graph on access, node objects
+     *     added are not kept then; {@code null} to keep them
+     */
+    public CompactGraphBuilder(int expectedNodes, NodeViews<ID, N> nodeViews) {
+        this.ids = new IdIndex<>(expectedNodes);
+        this.nodeIndexes = new BitSet(expectedNodes);
+        this.edgeParents = new GrowableIntArray(expectedNodes);
+        this.edgeChildren = new GrowableIntArray(expectedNodes);
+        this.nodeViews = nodeViews;
+        this.nodes = nodeViews == null ? new Object[Math.max(expectedNodes, 16)] : null;
+    }
+
+    /**
+     * @return {@code false} if node with the same id was already added, graph is not changed then
+     */
+    public boolean addNode(ID id, Collection<ID> parentIds, N node) {
+        if (id == null) {
+            throw new IllegalArgumentException("Node id cannot be null");
+        }
+        var index = ids.add(id);
+        if (nodeIndexes.get(index)) {
+            return false;
+        }
+        nodeIndexes.set(index);
+        setNode(index, node);
+        if (parentIds != null) {
+            for (var parentId : parentIds) {
+                if (parentId != null) {
+                    edgeParents.add(ids.add(parentId));
+                    edgeChildren.add(index);
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Adds edge between ids which do not have to be added as nodes. */
+    public CompactGraphBuilder<ID, N> addEdge(ID parentId, ID childId) {
+        if (parentId == null || childId == null) {
+            throw new IllegalArgumentException("Edge ids cannot be null");
+        }
+        edgeParents.add(ids.add(parentId));
+        edgeChildren.add(ids.add(childId));
+        return this;
+    }
+
+    /** Indexes id without adding it as a node, indexes are assigned in order of calls. */
+    int addId(ID id) {
+        return ids.add(id);
+    }
+
+    void addIndexedNode(int index, N node) {
+        nodeIndexes.set(index);
+        setNode(index, node);
+    }
+
+    void addIndexedEdge(int parentIndex, int childIndex) {
+        edgeParents.add(parentIndex);
+        edgeChildren.add(childIndex);
+    }
+
+    public boolean containsNode(ID id) {
+        var index = ids.indexOf(id);
+        return index >= 0 && nodeIndexes.get(index);
+    }
+
+    /**
+     * Builds parent and child adjacency in O(n + e log d), where d is the highest number of
+     * parents of a single node. Duplicated edges are removed.
+     */
+    public CompactGraph<ID, N> build() {
+        ids.trimToSize();
+        var size = ids.size();
+        var parentOffsets = new int[size + 1];
+        var parentTargets = new int[edgeChildren.size()];
+        groupEdges(edgeChildren, edgeParents, parentOffsets, parentTargets);
+        var edgeCount = removeDuplicates(parentOffsets, parentTargets);
+        parentTargets = Arrays.copyOf(parentTargets, edgeCount);
+        var childOffsets = new int[size + 1];
+        var childTargets = new int[edgeCount];
+        invert(parentOffsets, parentTargets, childOffsets, childTargets);
+        return new CompactGraph<>(
+                ids,
+                nodes == null ? null : Arrays.copyOf(nodes, size),
+                nodeViews,
+                nodeIndexes,
+                parentOffsets,
+                parentTargets,
+                childOffsets,
+                childTargets);
+    }
+
+    private void setNode(int index, N node) {
+        if (nodes == null) {
+            return;
+        }
+        if (index >= nodes.length) {
+            nodes = Arrays.copyOf(nodes, Math.max(nodes.length * 2, index + 1));
+        }
+        nodes[index] = node;
+    }
+
+    /** Counting sort of edges by their source. */
+    static void groupEdges(
+            GrowableIntArray sources, GrowableIntArray targets, int[] offsets, int[] grouped) {
+        for (int edge = 0; edge < sources.size(); edge++) {
+            offsets[sources.get(edge) + 1]++;
+        }
+        for (int i = 1; i < offsets.length; i++) {
+            offsets[i] += offsets[i - 1];
+        }
+        var positions = Arrays.copyOf(offsets, offsets.length - 1);
+        for (int edge = 0; edge < sources.size(); edge++) {
+            grouped[positions[sources.get(edge)]++] = targets.get(edge);
+        }
+    }
+
+    /**
+     * Sorts targets of every source and compacts them in place, updating offsets.
+     *
+     * @return number of unique edges
+     */
+    static int removeDuplicates(int[] offsets, int[] targets) {
+        var written = 0;
+        for (int source = 0; source < offsets.length - 1; source++) {
+            var from = offsets[source];
+            var to = offsets[source + 1];
+            offsets[source] = written;
+            Arrays.sort(targets, from, to);
+            for (int i = from; i < to; i++) {
+                if (i == from || targets[i] != targets[i - 1]) {
+                    targets[written++] = targets[i];
+                }
+            }
+        }
+        offsets[offsets.length - 1] = written;
+        return written;
+    }
+
+    static void invert(
+            int[] offsets, int[] targets, int[] invertedOffsets, int[] invertedTargets) {
+        for (var target : targets) {
+            invertedOffsets[target + 1]++;
+        }
+        for (int i = 1; i < invertedOffsets.length; i++) {
+            invertedOffsets[i] += invertedOffsets[i - 1];
+        }
+        var positions = Arrays.copyOf(invertedOffsets, invertedOffsets.length - 1);
+        for (int source = 0; source < offsets.length - 1; source++) {
+            for (int i = offsets[source]; i < offsets[source + 1]; i++) {
+                invertedTargets[positions[targets[i]]++] = source;
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.klukov.utils.graphs.compact;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+final class GrowableIntArray {
+
+    private int[] values;
+    private int size;
+
+    GrowableIntArray(int initialCapacity) {
+        this.values = new int[Math.max(initialCapacity, 16)];
+    }
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[size++] = value;
+    }
+
+    /** Removes one occurrence of value, order of remaining values is not kept. */
+    void removeValue(int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                values[i] = values[--size];
+                return;
+            }
+        }
+    }
+
+    void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(values[i]);
+        }
+    }
+
+    int get(int position) {
+        return values[position];
+    }
+
+    int size() {
+        return size;
+    }
+}
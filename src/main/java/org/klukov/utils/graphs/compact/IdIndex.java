@@ -0,0 +1,112 @@
+package org.klukov.utils.graphs.compact;
+
+import java.util.Arrays;
+
+/**
+ * Maps ids to dense int indexes assigned in order of first appearance. Open addressing with linear
+ * probing over a single {@code int[]} table keeps memory close to one int per slot and one
+ * reference per id, without entry objects.
+ */
+public final class IdIndex<ID> {
+
+    private static final int EMPTY = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private Object[] ids;
+    private int[] table;
+    private int mask;
+    private int size;
+
+    public IdIndex(int expectedSize) {
+        this.ids = new Object[Math.max(expectedSize, MIN_CAPACITY)];
+        allocateTable(tableCapacityFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public ID idAt(int index) {
+        return (ID) ids[index];
+    }
+
+    /**
+     * @return index of id or -1 when id was not added
+     */
+    public int indexOf(Object id) {
+        if (id == null) {
+            return EMPTY;
+        }
+        for (int slot = slot(id); ; slot = (slot + 1) & mask) {
+            var index = table[slot];
+            if (index == EMPTY || ids[index].equals(id)) {
+                return index;
+            }
+        }
+    }
+
+    /**
+     * @return index of id, assigned now if id was not added before
+     */
+    public int add(ID id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Id cannot be null");
+        }
+        var slot = slot(id);
+        for (; ; slot = (slot + 1) & mask) {
+            var index = table[slot];
+            if (index == EMPTY) {
+                break;
+            }
+            if (ids[index].equals(id)) {
+                return index;
+            }
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(ids.length * 2, MIN_CAPACITY));
+        }
+        ids[size] = id;
+        table[slot] = size;
+        if (++size > (table.length >> 2) * 3) {
+            rehash();
+        }
+        return size - 1;
+    }
+
+    void trimToSize() {
+        if (ids.length > size) {
+            ids = Arrays.copyOf(ids, size);
+        }
+    }
+
+    private void rehash() {
+        allocateTable(table.length * 2);
+        for (int index = 0; index < size; index++) {
+            var slot = slot(ids[index]);
+            while (table[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = index;
+        }
+    }
+
+    private void allocateTable(int capacity) {
+        this.table = new int[capacity];
+        Arrays.fill(this.table, EMPTY);
+        this.mask = capacity - 1;
+    }
+
+    private int slot(Object id) {
+        var hash = id.hashCode() * 0x9e3779b9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static int tableCapacityFor(int expectedSize) {
+        var capacity = MIN_CAPACITY;
+        while ((capacity >> 2) * 3 < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,72 @@
+package org.klukov.utils.graphs.compact;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+/**
+ * Graph whose ids are mapped to dense int indexes. Ids referenced as parents but not given as
+ * nodes have indexes too; {@link #isNode(int)} tells them apart from real nodes.
+ *
+ * @param <ID> type of node ids
+ * @param <N> type of node objects
+ */
+public interface IndexedGraph<ID, N> {
+
+    /**
+     * @return number of indexed ids, including ids which are only referenced as parents
+     */
+    int size();
+
+    int nodeCount();
+
+    boolean isNode(int index);
+
+    /**
+     * @return index of id or -1 when id is unknown
+     */
+    int indexOf(Object id);
+
+    ID idAt(int index);
+
+    /**
+     * @return node object or {@code null} when index belongs to an id which is not a node
+     */
+    N nodeAt(int index);
+
+    int parentCount(int index);
+
+    int childCount(int index);
+
+    void forEachParent(int index, IntConsumer action);
+
+    void forEachChild(int index, IntConsumer action);
+
+    /**
+     * @return {@code true} if any child of index matches predicate; implementations may stop at
+     *     the first match
+     */
+    default boolean anyChild(int index, IntPredicate predicate) {
+        var found = new boolean[1];
+        forEachChild(index, child -> found[0] |= predicate.test(child));
+        return found[0];
+    }
+
+    /**
+     * Unmodifiable view of ids with given indexes. The bit set must not be changed afterwards.
+     */
+    default Set<ID> idSet(BitSet indexes) {
+        return new IndexedIdSet<>(this, indexes);
+    }
+
+    /**
+     * Unmodifiable view of ids with given indexes mapped to values computed from their indexes on
+     * every read, so values kept in primitive arrays are boxed only when read.
+     */
+    default <V> Map<ID, V> valueMap(BitSet indexes, IntFunction<V> values) {
+        return new IndexedValueMap<>(this, indexes, values);
+    }
+}
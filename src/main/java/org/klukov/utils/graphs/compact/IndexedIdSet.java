@@ -0,0 +1,53 @@
+package org.klukov.utils.graphs.compact;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/** Set of ids backed by a bit set of graph indexes. Lookups cost one hash probe. */
+final class IndexedIdSet<ID> extends AbstractSet<ID> {
+
+    private final IndexedGraph<ID, ?> graph;
+    private final BitSet indexes;
+    private final int size;
+
+    IndexedIdSet(IndexedGraph<ID, ?> graph, BitSet indexes) {
+        this.graph = graph;
+        this.indexes = indexes;
+        this.size = indexes.cardinality();
+    }
+
+    @Override
+    public boolean contains(Object id) {
+        var index = graph.indexOf(id);
+        return index >= 0 && indexes.get(index);
+    }
+
+    @Override
+    public Iterator<ID> iterator() {
+        return new Iterator<>() {
+            private int next = indexes.nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public ID next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                var id = graph.idAt(next);
+                next = indexes.nextSetBit(next + 1);
+                return id;
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
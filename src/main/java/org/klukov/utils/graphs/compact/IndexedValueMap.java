@@ -0,0 +1,81 @@
+package org.klukov.utils.graphs.compact;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Map of ids backed by a bit set of graph indexes and a function of index giving the value; values
+ * may be {@code null}.
+ */
+final class IndexedValueMap<ID, V> extends AbstractMap<ID, V> {
+
+    private final IndexedGraph<ID, ?> graph;
+    private final BitSet indexes;
+    private final IntFunction<V> values;
+    private final int size;
+
+    IndexedValueMap(IndexedGraph<ID, ?> graph, BitSet indexes, IntFunction<V> values) {
+        this.graph = graph;
+        this.indexes = indexes;
+        this.values = values;
+        this.size = indexes.cardinality();
+    }
+
+    @Override
+    public boolean containsKey(Object id) {
+        return index(id) >= 0;
+    }
+
+    @Override
+    public V get(Object id) {
+        var index = index(id);
+        return index >= 0 ? values.apply(index) : null;
+    }
+
+    @Override
+    public Set<Entry<ID, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<ID, V>> iterator() {
+                return new Iterator<>() {
+                    private int next = indexes.nextSetBit(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return next >= 0;
+                    }
+
+                    @Override
+                    public Entry<ID, V> next() {
+                        if (next < 0) {
+                            throw new NoSuchElementException();
+                        }
+                        var index = next;
+                        next = indexes.nextSetBit(next + 1);
+                        return new SimpleImmutableEntry<>(graph.idAt(index), values.apply(index));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private int index(Object id) {
+        var index = graph.indexOf(id);
+        return index >= 0 && indexes.get(index) ? index : -1;
+    }
+}
@@ -0,0 +1,142 @@
+package org.klukov.utils.graphs.compact;
+
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * {@link CompactGraph} of primitive long ids, built by {@link LongCompactGraphBuilder}. Ids are
+ * read with {@link #longIdAt(int)} and {@link #indexOf(long)}; methods of {@link IndexedGraph}
+ * taking or giving ids box them, which costs nothing for traversals working on indexes only.
+ *
+ * @param <N> type of node objects
+ */
+public final class LongCompactGraph<N> implements IndexedGraph<Long, N> {
+
+    private final LongIdIndex ids;
+    private final Object[] nodes;
+    private final BitSet nodeIndexes;
+    private final int nodeCount;
+    private final int[] parentOffsets;
+    private final int[] parentTargets;
+    private final int[] childOffsets;
+    private final int[] childTargets;
+
+    LongCompactGraph(
+            LongIdIndex ids,
+            Object[] nodes,
+            BitSet nodeIndexes,
+            int[] parentOffsets,
+            int[] parentTargets,
+            int[] childOffsets,
+            int[] childTargets) {
+        this.ids = ids;
+        this.nodes = nodes;
+        this.nodeIndexes = nodeIndexes;
+        this.nodeCount = nodeIndexes.cardinality();
+        this.parentOffsets = parentOffsets;
+        this.parentTargets = parentTargets;
+        this.childOffsets = childOffsets;
+        this.childTargets = childTargets;
+    }
+
+    @Override
+    public int size() {
+        return ids.size();
+    }
+
+    @Override
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public int edgeCount() {
+        return parentTargets.length;
+    }
+
+    @Override
+    public boolean isNode(int index) {
+        return nodeIndexes.get(index);
+    }
+
+    /**
+     * @return index of id or -1 when id is unknown
+     */
+    public int indexOf(long id) {
+        return ids.indexOf(id);
+    }
+
+    @Override
+    public int indexOf(Object id) {
+        return id instanceof Long ? ids.indexOf((Long) id) : -1;
+    }
+
+    public long longIdAt(int index) {
+        return ids.idAt(index);
+    }
+
+    @Override
+    public Long idAt(int index) {
+        return ids.idAt(index);
+    }
+
+    /**
+     * @return ids with given indexes, in order of indexes
+     */
+    public long[] idArray(BitSet indexes) {
+        var result = new long[indexes.cardinality()];
+        var position = 0;
+        for (int index = indexes.nextSetBit(0); index >= 0; index = indexes.nextSetBit(index + 1)) {
+            result[position++] = ids.idAt(index);
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public N nodeAt(int index) {
+        return (N) nodes[index];
+    }
+
+    @Override
+    public int parentCount(int index) {
+        return parentOffsets[index + 1] - parentOffsets[index];
+    }
+
+    public int parentAt(int index, int position) {
+        return parentTargets[parentOffsets[index] + position];
+    }
+
+    @Override
+    public int childCount(int index) {
+        return childOffsets[index + 1] - childOffsets[index];
+    }
+
+    public int childAt(int index, int position) {
+        return childTargets[childOffsets[index] + position];
+    }
+
+    @Override
+    public void forEachParent(int index, IntConsumer action) {
+        for (int i = parentOffsets[index]; i < parentOffsets[index + 1]; i++) {
+            action.accept(parentTargets[i]);
+        }
+    }
+
+    @Override
+    public void forEachChild(int index, IntConsumer action) {
+        for (int i = childOffsets[index]; i < childOffsets[index + 1]; i++) {
+            action.accept(childTargets[i]);
+        }
+    }
+
+    @Override
+    public boolean anyChild(int index, IntPredicate predicate) {
+        for (int i = childOffsets[index]; i < childOffsets[index + 1]; i++) {
+            if (predicate.test(childTargets[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
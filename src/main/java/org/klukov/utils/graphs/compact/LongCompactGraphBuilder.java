@@ -0,0 +1,88 @@
+package org.klukov.utils.graphs.compact;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Collects nodes and edges of primitive long ids one by one and builds a {@link LongCompactGraph},
+ * the same way as {@link CompactGraphBuilder}.
+ *
+ * @param <N> type of node objects kept by the graph
+ */
+public final class LongCompactGraphBuilder<N> {
+
+    private final LongIdIndex ids;
+    private final BitSet nodeIndexes;
+    private final GrowableIntArray edgeParents;
+    private final GrowableIntArray edgeChildren;
+    private Object[] nodes;
+
+    public LongCompactGraphBuilder() {
+        this(0);
+    }
+
+    public LongCompactGraphBuilder(int expectedNodes) {
+        this.ids = new LongIdIndex(expectedNodes);
+        this.nodeIndexes = new BitSet(expectedNodes);
+        this.edgeParents = new GrowableIntArray(expectedNodes);
+        this.edgeChildren = new GrowableIntArray(expectedNodes);
+        this.nodes = new Object[Math.max(expectedNodes, 16)];
+    }
+
+    /**
+     * @param parentIds ids of parents, may be null when node has no parents
+     * @return {@code false} if node with the same id was already added, graph is not changed then
+     */
+    public boolean addNode(long id, long[] parentIds, N node) {
+        var index = ids.add(id);
+        if (nodeIndexes.get(index)) {
+            return false;
+        }
+        nodeIndexes.set(index);
+        if (index >= nodes.length) {
+            nodes = Arrays.copyOf(nodes, Math.max(nodes.length * 2, index + 1));
+        }
+        nodes[index] = node;
+        if (parentIds != null) {
+            for (var parentId : parentIds) {
+                edgeParents.add(ids.add(parentId));
+                edgeChildren.add(index);
+            }
+        }
+        return true;
+    }
+
+    /** Adds edge between ids which do not have to be added as nodes. */
+    public LongCompactGraphBuilder<N> addEdge(long parentId, long childId) {
+        edgeParents.add(ids.add(parentId));
+        edgeChildren.add(ids.add(childId));
+        return this;
+    }
+
+    public boolean containsNode(long id) {
+        var index = ids.indexOf(id);
+        return index >= 0 && nodeIndexes.get(index);
+    }
+
+    /** Builds adjacency as {@link CompactGraphBuilder#build()}. */
+    public LongCompactGraph<N> build() {
+        ids.trimToSize();
+        var size = ids.size();
+        var parentOffsets = new int[size + 1];
+        var parentTargets = new int[edgeChildren.size()];
+        CompactGraphBuilder.groupEdges(edgeChildren, edgeParents, parentOffsets, parentTargets);
+        var edgeCount = CompactGraphBuilder.removeDuplicates(parentOffsets, parentTargets);
+        parentTargets = Arrays.copyOf(parentTargets, edgeCount);
+        var childOffsets = new int[size + 1];
+        var childTargets = new int[edgeCount];
+        CompactGraphBuilder.invert(parentOffsets, parentTargets, childOffsets, childTargets);
+        return new LongCompactGraph<>(
+                ids,
+                Arrays.copyOf(nodes, size),
+                nodeIndexes,
+                parentOffsets,
+                parentTargets,
+                childOffsets,
+                childTargets);
+    }
+}
@@ -0,0 +1,105 @@
+package org.klukov.utils.graphs.compact;
+
+import java.util.Arrays;
+
+/**
+ * {@link IdIndex} of primitive long ids. Ids are kept in a {@code long[]} next to the int table, so
+ * an id takes 8 bytes and is never boxed.
+ */
+public final class LongIdIndex {
+
+    private static final int EMPTY = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] ids;
+    private int[] table;
+    private int mask;
+    private int size;
+
+    public LongIdIndex(int expectedSize) {
+        this.ids = new long[Math.max(expectedSize, MIN_CAPACITY)];
+        allocateTable(tableCapacityFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long idAt(int index) {
+        return ids[index];
+    }
+
+    /**
+     * @return index of id or -1 when id was not added
+     */
+    public int indexOf(long id) {
+        for (int slot = slot(id); ; slot = (slot + 1) & mask) {
+            var index = table[slot];
+            if (index == EMPTY || ids[index] == id) {
+                return index;
+            }
+        }
+    }
+
+    /**
+     * @return index of id, assigned now if id was not added before
+     */
+    public int add(long id) {
+        var slot = slot(id);
+        for (; ; slot = (slot + 1) & mask) {
+            var index = table[slot];
+            if (index == EMPTY) {
+                break;
+            }
+            if (ids[index] == id) {
+                return index;
+            }
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(ids.length * 2, MIN_CAPACITY));
+        }
+        ids[size] = id;
+        table[slot] = size;
+        if (++size > (table.length >> 2) * 3) {
+            rehash();
+        }
+        return size - 1;
+    }
+
+    void trimToSize() {
+        if (ids.length > size) {
+            ids = Arrays.copyOf(ids, size);
+        }
+    }
+
+    private void rehash() {
+        allocateTable(table.length * 2);
+        for (int index = 0; index < size; index++) {
+            var slot = slot(ids[index]);
+            while (table[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = index;
+        }
+    }
+
+    private void allocateTable(int capacity) {
+        this.table = new int[capacity];
+        Arrays.fill(this.table, EMPTY);
+        this.mask = capacity - 1;
+    }
+
+    /** Sequential ids are common, so all bits of the id are mixed before the slot is taken. */
+    private int slot(long id) {
+        var hash = id * 0x9e3779b97f4a7c15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int tableCapacityFor(int expectedSize) {
+        var capacity = MIN_CAPACITY;
+        while ((capacity >> 2) * 3 < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,61 @@
+package org.klukov.utils.graphs.compact;
+
+/**
+ * Edges from nodes to parents which are nodes too, copied to flat arrays, so depth first searches
+ * can resume reading parents of a node at any position.
+ */
+final class NodeParents {
+
+    private final int[] offsets;
+    private final int[] parents;
+
+    private NodeParents(int[] offsets, int[] parents) {
+        this.offsets = offsets;
+        this.parents = parents;
+    }
+
+    static NodeParents of(IndexedGraph<?, ?> graph) {
+        var size = graph.size();
+        var offsets = new int[size + 1];
+        for (int index = 0; index < size; index++) {
+            var count = new int[1];
+            if (graph.isNode(index)) {
+                graph.forEachParent(
+                        index,
+                        parent -> {
+                            if (graph.isNode(parent)) {
+                                count[0]++;
+                            }
+                        });
+            }
+            offsets[index + 1] = offsets[index] + count[0];
+        }
+        var parents = new int[offsets[size]];
+        for (int index = 0; index < size; index++) {
+            var position = new int[] {offsets[index]};
+            if (graph.isNode(index)) {
+                graph.forEachParent(
+                        index,
+                        parent -> {
+                            if (graph.isNode(parent)) {
+                                parents[position[0]++] = parent;
+                            }
+                        });
+            }
+        }
+        return new NodeParents(offsets, parents);
+    }
+
+    int size() {
+        return offsets.length - 1;
+    }
+
+    /** Position of the first parent of index; parents of index end at start of the next one. */
+    int start(int index) {
+        return offsets[index];
+    }
+
+    int parentAt(int position) {
+        return parents[position];
+    }
+}
@@ -0,0 +1,15 @@
+package org.klukov.utils.graphs.compact;
+
+/**
+ * Creates node objects of a {@link CompactGraph} on every access from its ids and adjacency, so
+ * the graph keeps no object per node.
+ *
+ * @param <ID> type of node ids
+ * @param <N> type of node objects
+ */
+@FunctionalInterface
+public interface NodeViews<ID, N> {
+
+    /** Called for indexes of nodes only. */
+    N nodeAt(CompactGraph<ID, N> graph, int index);
+}
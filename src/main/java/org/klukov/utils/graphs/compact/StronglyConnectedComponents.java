@@ -0,0 +1,173 @@
+package org.klukov.utils.graphs.compact;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Strongly connected components of an {@link IndexedGraph} over edges from nodes to their parents
+ * which are nodes too, found by an iterative Tarjan algorithm in O(n + e) without recursion.
+ *
+ * <p>Components are numbered in topological order of the condensation: a component of a parent is
+ * never greater than a component of its child, so processing components by growing numbers visits
+ * ancestors first. Ids which are not nodes form single, acyclic components.
+ */
+public final class StronglyConnectedComponents {
+
+    private final int[] components;
+    private final int[] componentSizes;
+    private final BitSet cyclicComponents;
+
+    private StronglyConnectedComponents(
+            int[] components, int[] componentSizes, BitSet cyclicComponents) {
+        this.components = components;
+        this.componentSizes = componentSizes;
+        this.cyclicComponents = cyclicComponents;
+    }
+
+    public static StronglyConnectedComponents of(IndexedGraph<?, ?> graph) {
+        return new Tarjan(graph).run();
+    }
+
+    public int size() {
+        return components.length;
+    }
+
+    public int componentCount() {
+        return componentSizes.length;
+    }
+
+    public int componentOf(int index) {
+        return components[index];
+    }
+
+    public int componentSize(int component) {
+        return componentSizes[component];
+    }
+
+    /**
+     * @return {@code true} if component has more than one node or its node is its own parent
+     */
+    public boolean isCyclic(int component) {
+        return cyclicComponents.get(component);
+    }
+
+    public boolean isAcyclic() {
+        return cyclicComponents.isEmpty();
+    }
+
+    /**
+     * @return all indexes grouped by components in growing order of components, so a parent comes
+     *     before its child unless both are in the same component; sorted by counting in O(n)
+     */
+    public int[] topologicalOrder() {
+        var positions = new int[componentSizes.length + 1];
+        for (int component = 0; component < componentSizes.length; component++) {
+            positions[component + 1] = positions[component] + componentSizes[component];
+        }
+        var result = new int[components.length];
+        for (int index = 0; index < components.length; index++) {
+            result[positions[components[index]]++] = index;
+        }
+        return result;
+    }
+
+    private static final class Tarjan {
+
+        private final NodeParents parents;
+        private final int[] order;
+        private final int[] low;
+        private final int[] components;
+        private final int[] stack;
+        private final int[] callStack;
+        private final int[] edgePositions;
+        private final BitSet cyclicComponents = new BitSet();
+        private int[] componentSizes = new int[16];
+        private int stackSize;
+        private int visited;
+        private int componentCount;
+
+        private Tarjan(IndexedGraph<?, ?> graph) {
+            this.parents = NodeParents.of(graph);
+            var size = parents.size();
+            this.order = new int[size];
+            this.low = new int[size];
+            this.components = new int[size];
+            this.stack = new int[size];
+            this.callStack = new int[size];
+            this.edgePositions = new int[size];
+            Arrays.fill(components, -1);
+        }
+
+        private StronglyConnectedComponents run() {
+            for (int index = 0; index < parents.size(); index++) {
+                if (order[index] == 0) {
+                    visit(index);
+                }
+            }
+            return new StronglyConnectedComponents(
+                    components, Arrays.copyOf(componentSizes, componentCount), cyclicComponents);
+        }
+
+        /** Depth first search with an explicit call stack; order numbers start from 1. */
+        private void visit(int root) {
+            var depth = 0;
+            enter(root);
+            callStack[depth++] = root;
+            while (depth > 0) {
+                var current = callStack[depth - 1];
+                if (edgePositions[current] < parents.start(current + 1)) {
+                    var parent = parents.parentAt(edgePositions[current]++);
+                    if (order[parent] == 0) {
+                        enter(parent);
+                        callStack[depth++] = parent;
+                    } else if (components[parent] < 0) {
+                        low[current] = Math.min(low[current], order[parent]);
+                    }
+                    continue;
+                }
+                depth--;
+                if (depth > 0) {
+                    var caller = callStack[depth - 1];
+                    low[caller] = Math.min(low[caller], low[current]);
+                }
+                if (low[current] == order[current]) {
+                    popComponent(current);
+                }
+            }
+        }
+
+        private void enter(int index) {
+            order[index] = ++visited;
+            low[index] = visited;
+            edgePositions[index] = parents.start(index);
+            stack[stackSize++] = index;
+        }
+
+        private void popComponent(int root) {
+            if (componentCount == componentSizes.length) {
+                componentSizes = Arrays.copyOf(componentSizes, componentCount * 2);
+            }
+            var size = 0;
+            int member;
+            do {
+                member = stack[--stackSize];
+                components[member] = componentCount;
+                size++;
+            } while (member != root);
+            componentSizes[componentCount] = size;
+            if (size > 1 || hasSelfLoop(root)) {
+                cyclicComponents.set(componentCount);
+            }
+            componentCount++;
+        }
+
+        private boolean hasSelfLoop(int index) {
+            for (int i = parents.start(index); i < parents.start(index + 1); i++) {
+                if (parents.parentAt(i) == index) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.klukov.utils.graphs.compact;
+
+import java.util.Arrays;
+
+/**
+ * Topological order of an {@link IndexedGraph} over edges from nodes to their parents which are
+ * nodes too, found by an iterative depth first search in O(n + e) without recursion, so chains of
+ * any length are handled. A parent finishes before its child, so post-order puts ancestors first.
+ * Search stops at the first edge closing a cycle.
+ */
+public final class TopologicalSort {
+
+    private static final byte NEW = 0;
+    private static final byte ON_PATH = 1;
+    private static final byte DONE = 2;
+
+    private final NodeParents parents;
+    private final byte[] states;
+    private final int[] callStack;
+    private final int[] edgePositions;
+    private final int[] order;
+    private int orderSize;
+    private int[] cycle;
+
+    private TopologicalSort(IndexedGraph<?, ?> graph) {
+        this.parents = NodeParents.of(graph);
+        var size = parents.size();
+        this.states = new byte[size];
+        this.callStack = new int[size];
+        this.edgePositions = new int[size];
+        this.order = new int[size];
+    }
+
+    /**
+     * @return all indexes with every parent before its children
+     * @throws IllegalArgumentException if graph has a cycle
+     */
+    public static int[] order(IndexedGraph<?, ?> graph) {
+        var sort = new TopologicalSort(graph);
+        if (!sort.run()) {
+            throw new IllegalArgumentException(
+                    "Graph has a cycle through index " + sort.cycle[0]);
+        }
+        return sort.order;
+    }
+
+    /**
+     * @return indexes of the first cycle found, each one a parent of the previous one and the first
+     *     a parent of the last one, or empty array if graph is acyclic
+     */
+    public static int[] findCycle(IndexedGraph<?, ?> graph) {
+        var sort = new TopologicalSort(graph);
+        return sort.run() ? new int[0] : sort.cycle;
+    }
+
+    private boolean run() {
+        for (int index = 0; index < states.length; index++) {
+            if (states[index] == NEW && !visit(index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean visit(int root) {
+        var depth = 0;
+        enter(root);
+        callStack[depth++] = root;
+        while (depth > 0) {
+            var current = callStack[depth - 1];
+            if (edgePositions[current] < parents.start(current + 1)) {
+                var parent = parents.parentAt(edgePositions[current]++);
+                if (states[parent] == NEW) {
+                    enter(parent);
+                    callStack[depth++] = parent;
+                } else if (states[parent] == ON_PATH) {
+                    cycle = cycleOnStack(depth, parent);
+                    return false;
+                }
+                continue;
+            }
+            depth--;
+            states[current] = DONE;
+            order[orderSize++] = current;
+        }
+        return true;
+    }
+
+    private void enter(int index) {
+        states[index] = ON_PATH;
+        edgePositions[index] = parents.start(index);
+    }
+
+    private int[] cycleOnStack(int depth, int first) {
+        var start = depth - 1;
+        while (callStack[start] != first) {
+            start--;
+        }
+        return Arrays.copyOfRange(callStack, start, depth);
+    }
+}
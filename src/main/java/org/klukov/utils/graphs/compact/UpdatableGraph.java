@@ -0,0 +1,265 @@
+package org.klukov.utils.graphs.compact;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Graph which accepts added and removed nodes on top of an immutable {@link CompactGraph}.
+ *
+ * <p>Changes are kept in a small overlay: replaced parent lists and added child lists of changed
+ * nodes only, so a change costs time proportional to the number of its edges. Once the overlay
+ * grows above 1/8 of the base graph it is merged into a new base, which keeps the amortized cost
+ * of a change proportional to its size. Removed nodes keep their index as ids which are not nodes
+ * and new ids get following indexes, so indexes change only when the graph is compacted. Ids which
+ * are neither nodes nor parents of nodes are dropped then and the rest are renumbered in the same
+ * order, so add and remove churn does not grow the graph.
+ *
+ * <p>Not thread-safe.
+ *
+ * @param <ID> type of node ids
+ * @param <N> type of node objects
+ */
+public final class UpdatableGraph<ID, N> implements IndexedGraph<ID, N> {
+
+    private static final int MIN_COMPACTION_THRESHOLD = 1024;
+    private static final Object REMOVED = new Object();
+    private static final int[] NO_PARENTS = new int[0];
+
+    private CompactGraph<ID, N> base;
+    private IdIndex<ID> addedIds;
+    private BitSet changedNodes;
+    private BitSet changedParents;
+    private BitSet addedChildren;
+    private Map<Integer, Object> nodeOverrides;
+    private Map<Integer, int[]> parentOverrides;
+    private Map<Integer, GrowableIntArray> childAdditions;
+    private int nodeCount;
+    private int overlaySize;
+
+    public UpdatableGraph(CompactGraph<ID, N> base) {
+        reset(base);
+    }
+
+    @Override
+    public int size() {
+        return base.size() + addedIds.size();
+    }
+
+    @Override
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public boolean isNode(int index) {
+        if (changedNodes.get(index)) {
+            return nodeOverrides.get(index) != REMOVED;
+        }
+        return index < base.size() && base.isNode(index);
+    }
+
+    @Override
+    public int indexOf(Object id) {
+        var index = base.indexOf(id);
+        if (index >= 0) {
+            return index;
+        }
+        var addedIndex = addedIds.indexOf(id);
+        return addedIndex < 0 ? -1 : base.size() + addedIndex;
+    }
+
+    @Override
+    public ID idAt(int index) {
+        return index < base.size() ? base.idAt(index) : addedIds.idAt(index - base.size());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public N nodeAt(int index) {
+        if (changedNodes.get(index)) {
+            var node = nodeOverrides.get(index);
+            return node == REMOVED ? null : (N) node;
+        }
+        return index < base.size() ? base.nodeAt(index) : null;
+    }
+
+    @Override
+    public int parentCount(int index) {
+        if (changedParents.get(index)) {
+            return parentOverrides.get(index).length;
+        }
+        return index < base.size() ? base.parentCount(index) : 0;
+    }
+
+    @Override
+    public int childCount(int index) {
+        var count = new int[1];
+        forEachChild(index, child -> count[0]++);
+        return count[0];
+    }
+
+    @Override
+    public void forEachParent(int index, IntConsumer action) {
+        if (changedParents.get(index)) {
+            for (var parent : parentOverrides.get(index)) {
+                action.accept(parent);
+            }
+        } else if (index < base.size()) {
+            base.forEachParent(index, action);
+        }
+    }
+
+    /** Children from the base graph are skipped when their parents were replaced. */
+    @Override
+    public void forEachChild(int index, IntConsumer action) {
+        if (index < base.size()) {
+            base.forEachChild(
+                    index,
+                    child -> {
+                        if (!changedParents.get(child)) {
+                            action.accept(child);
+                        }
+                    });
+        }
+        if (addedChildren.get(index)) {
+            childAdditions.get(index).forEach(action);
+        }
+    }
+
+    /**
+     * @return index of added node or -1 if node with the same id already exists, graph is not
+     *     changed then
+     */
+    public int addNode(ID id, Collection<ID> parentIds, N node) {
+        var index = indexOrAdd(id);
+        if (isNode(index)) {
+            return -1;
+        }
+        changedNodes.set(index);
+        nodeOverrides.put(index, node);
+        nodeCount++;
+        replaceParents(index, parentIndexes(parentIds));
+        return index;
+    }
+
+    /**
+     * Removes node and its edges to parents. Edges from children stay, so the id remains indexed
+     * when other nodes reference it.
+     *
+     * @return index of removed node or -1 if there was no such node
+     */
+    public int removeNode(ID id) {
+        var index = indexOf(id);
+        if (index < 0 || !isNode(index)) {
+            return -1;
+        }
+        changedNodes.set(index);
+        nodeOverrides.put(index, REMOVED);
+        nodeCount--;
+        replaceParents(index, NO_PARENTS);
+        return index;
+    }
+
+    /**
+     * Merges the overlay into a new base graph when it is big compared to the base graph.
+     *
+     * @return new indexes as returned by {@link #compact()}, {@code null} if graph was not
+     *     compacted and indexes did not change
+     */
+    public int[] compactIfNeeded() {
+        if (overlaySize > Math.max(MIN_COMPACTION_THRESHOLD, base.size() / 8)) {
+            return compact();
+        }
+        return null;
+    }
+
+    /**
+     * Merges the overlay into a new base graph in O(n + e). Ids which are neither nodes nor
+     * parents of nodes are dropped, the remaining ones keep their order. A base graph with node
+     * views passes them to the new one, so node objects are not kept either.
+     *
+     * @return new index of every previous index, -1 for dropped ids
+     */
+    public int[] compact() {
+        var newIndexes = new int[size()];
+        var builder = new CompactGraphBuilder<ID, N>(nodeCount, base.nodeViews());
+        for (int index = 0; index < newIndexes.length; index++) {
+            var referenced = isNode(index) || childCount(index) > 0;
+            newIndexes[index] = referenced ? builder.addId(idAt(index)) : -1;
+        }
+        for (int index = 0; index < newIndexes.length; index++) {
+            var child = newIndexes[index];
+            if (isNode(index)) {
+                builder.addIndexedNode(child, nodeAt(index));
+                forEachParent(
+                        index, parent -> builder.addIndexedEdge(newIndexes[parent], child));
+            }
+        }
+        reset(builder.build());
+        return newIndexes;
+    }
+
+    /**
+     * @return bit set of new indexes of given indexes, dropped indexes are skipped
+     */
+    public static BitSet remap(BitSet indexes, int[] newIndexes) {
+        var result = new BitSet();
+        indexes.stream()
+                .map(index -> newIndexes[index])
+                .filter(index -> index >= 0)
+                .forEach(result::set);
+        return result;
+    }
+
+    private void reset(CompactGraph<ID, N> newBase) {
+        this.base = newBase;
+        this.addedIds = new IdIndex<>(0);
+        this.changedNodes = new BitSet();
+        this.changedParents = new BitSet();
+        this.addedChildren = new BitSet();
+        this.nodeOverrides = new HashMap<>();
+        this.parentOverrides = new HashMap<>();
+        this.childAdditions = new HashMap<>();
+        this.nodeCount = newBase.nodeCount();
+        this.overlaySize = 0;
+    }
+
+    private int indexOrAdd(ID id) {
+        var index = indexOf(id);
+        if (index >= 0) {
+            return index;
+        }
+        overlaySize++;
+        return base.size() + addedIds.add(id);
+    }
+
+    private int[] parentIndexes(Collection<ID> parentIds) {
+        if (parentIds == null) {
+            return NO_PARENTS;
+        }
+        return parentIds.stream()
+                .filter(parentId -> parentId != null)
+                .mapToInt(this::indexOrAdd)
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    private void replaceParents(int index, int[] parents) {
+        if (changedParents.get(index)) {
+            for (var parent : parentOverrides.get(index)) {
+                childAdditions.get(parent).removeValue(index);
+            }
+        }
+        changedParents.set(index);
+        parentOverrides.put(index, parents);
+        for (var parent : parents) {
+            childAdditions.computeIfAbsent(parent, key -> new GrowableIntArray(4)).add(index);
+            addedChildren.set(parent);
+        }
+        overlaySize += parents.length + 1;
+    }
+}
@@ -0,0 +1,49 @@
+package org.klukov.utils.graphs.parser;
+
+import java.util.Collection;
+import org.klukov.utils.graphs.common.GraphProcessingException;
+import org.klukov.utils.graphs.common.TraversalLimits;
+
+/**
+ * {@link ParentGivenGraphParseUseCase} which keeps the graph indexed, so it can be searched with
+ * limits, for many start nodes at once, prepared for later queries and updated.
+ */
+public interface IndexedParentGivenGraphParseUseCase<
+                ID, T extends ParentGivenGraphNodeInput<ID, T>>
+        extends ParentGivenGraphParseUseCase<ID, T> {
+
+    /**
+     * Parses graph as {@link #parseGraphCollection(ParentGivenGraphParseInput)}, with main and
+     * connected nodes searched within limits applied to each of both searches.
+     *
+     * @throws GraphProcessingException also when a limit is reached and limits are strict
+     */
+    ParentGivenGraphParserResult<ID, T> parseGraphCollection(
+            ParentGivenGraphParseInput<ID, T> parentGivenGraphParseInput, TraversalLimits limits)
+            throws GraphProcessingException;
+
+    /**
+     * Parses graph once for many start nodes; validation is the same as for collection input,
+     * for every start node.
+     */
+    ParentGivenGraphBatchParserResult<ID, T> parseGraphBatch(
+            ParentGivenGraphBatchParseInput<ID, T> parentGivenGraphBatchParseInput)
+            throws GraphProcessingException;
+
+    /**
+     * Validates and indexes nodes once, so the graph can be parsed and queried for any start node
+     * without processing the input again. Checks are the same as for collection input, except
+     * for the start node, which is checked by every query.
+     */
+    PreparedGraph<ID, T> prepareGraph(Collection<T> graphInput) throws GraphProcessingException;
+
+    /**
+     * Applies delta to a previous, complete result, for the same start node. Only the part of the
+     * graph affected by the delta is processed. The previous result shares its data with the
+     * returned one and cannot be used afterwards.
+     */
+    ParentGivenGraphParserResult<ID, T> updateGraphCollection(
+            ParentGivenGraphParserResult<ID, T> previousResult,
+            ParentGivenGraphDelta<ID, T> parentGivenGraphDelta)
+            throws GraphProcessingException;
+}
@@ -0,0 +1,16 @@
+package org.klukov.utils.graphs.parser;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.klukov.utils.graphs.common.LongGraphEdge;
+
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor
+@ToString
+class LongGraphParserEdge implements LongGraphEdge {
+    private final long parentId;
+    private final long childId;
+}
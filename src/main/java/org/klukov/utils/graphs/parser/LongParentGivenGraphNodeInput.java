@@ -0,0 +1,20 @@
+package org.klukov.utils.graphs.parser;
+
+import org.klukov.utils.graphs.relation.LongGraphNodeInput;
+
+/** {@link ParentGivenGraphNodeInput} of primitive long ids. */
+public interface LongParentGivenGraphNodeInput<T> extends LongGraphNodeInput {
+
+    long getId();
+
+    /**
+     * @return ids of parents, may be null when node has no parents
+     */
+    long[] getParentIds();
+
+    T getObject();
+
+    default long[] getRelatedIds() {
+        return this.getParentIds();
+    }
+}
@@ -0,0 +1,21 @@
+package org.klukov.utils.graphs.parser;
+
+import java.util.Collection;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import org.klukov.utils.graphs.relation.LongRelationIdsFinderInput;
+
+@Getter
+@Builder
+@ToString
+public final class LongParentGivenGraphParseInput<T extends LongParentGivenGraphNodeInput<T>>
+        implements LongRelationIdsFinderInput<T> {
+    private final Collection<T> graphInput;
+    private final long startNodeId;
+
+    public LongParentGivenGraphParseInput(Collection<T> graphInput, long startNodeId) {
+        this.graphInput = graphInput;
+        this.startNodeId = startNodeId;
+    }
+}
@@ -0,0 +1,11 @@
+package org.klukov.utils.graphs.parser;
+
+import org.klukov.utils.graphs.common.GraphProcessingException;
+
+/** {@link ParentGivenGraphParseUseCase} of primitive long ids, which are never boxed. */
+public interface LongParentGivenGraphParseUseCase<T extends LongParentGivenGraphNodeInput<T>> {
+
+    LongParentGivenGraphParserResult<T> parseGraphCollection(
+            LongParentGivenGraphParseInput<T> longParentGivenGraphParseInput)
+            throws GraphProcessingException;
+}
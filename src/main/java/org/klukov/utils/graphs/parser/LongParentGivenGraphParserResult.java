@@ -0,0 +1,116 @@
+package org.klukov.utils.graphs.parser;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import org.klukov.utils.graphs.compact.LongCompactGraph;
+
+/**
+ * {@link ParentGivenGraphParserResult} of primitive long ids. Ids are given as {@code long[]} in
+ * order of first appearance in input and looked up in an open addressing table, so no id is
+ * boxed. As in the generic result, ids which are referenced only as parents are not nodes.
+ */
+public final class LongParentGivenGraphParserResult<T> {
+
+    private final LongCompactGraph<? extends LongParentGivenGraphNodeInput<T>> graph;
+    private final int startIndex;
+    private final BitSet mainIndexes;
+    private final BitSet connectedIndexes;
+
+    LongParentGivenGraphParserResult(
+            LongCompactGraph<? extends LongParentGivenGraphNodeInput<T>> graph,
+            int startIndex,
+            BitSet mainIndexes,
+            BitSet connectedIndexes) {
+        this.graph = graph;
+        this.startIndex = startIndex;
+        this.mainIndexes = mainIndexes;
+        this.connectedIndexes = connectedIndexes;
+    }
+
+    public long getStartNodeId() {
+        return graph.longIdAt(startIndex);
+    }
+
+    public int nodeCount() {
+        return graph.nodeCount();
+    }
+
+    public boolean containsNode(long id) {
+        return nodeIndexOf(id) >= 0;
+    }
+
+    /**
+     * @return path type of node, or {@code null} if there is no such node
+     */
+    public PathType pathType(long id) {
+        var index = nodeIndexOf(id);
+        return index < 0 ? null : pathTypeAt(index);
+    }
+
+    /**
+     * @return object of node, or {@code null} if there is no such node
+     */
+    public T getObject(long id) {
+        var index = nodeIndexOf(id);
+        return index < 0 ? null : graph.nodeAt(index).getObject();
+    }
+
+    /**
+     * @return ids of nodes with given path type, created in O(n)
+     */
+    public long[] getNodeIds(PathType pathType) {
+        var indexes = new BitSet(graph.size());
+        for (int index = 0; index < graph.size(); index++) {
+            indexes.set(index, graph.isNode(index) && pathTypeAt(index) == pathType);
+        }
+        return graph.idArray(indexes);
+    }
+
+    /**
+     * @return ids of parents which are nodes, in order of first appearance in input
+     * @throws IllegalArgumentException if there is no such node
+     */
+    public long[] getParentIds(long id) {
+        return neighbourIds(id, true);
+    }
+
+    /**
+     * @return ids of children, in order of first appearance in input
+     * @throws IllegalArgumentException if there is no such node
+     */
+    public long[] getChildIds(long id) {
+        return neighbourIds(id, false);
+    }
+
+    private long[] neighbourIds(long id, boolean parents) {
+        var index = nodeIndexOf(id);
+        if (index < 0) {
+            throw new IllegalArgumentException("Id is not a node: " + id);
+        }
+        var count = parents ? graph.parentCount(index) : graph.childCount(index);
+        var result = new long[count];
+        var written = 0;
+        for (int position = 0; position < count; position++) {
+            var neighbour =
+                    parents ? graph.parentAt(index, position) : graph.childAt(index, position);
+            if (graph.isNode(neighbour)) {
+                result[written++] = graph.longIdAt(neighbour);
+            }
+        }
+        return written == count ? result : Arrays.copyOf(result, written);
+    }
+
+    private int nodeIndexOf(long id) {
+        var index = graph.indexOf(id);
+        return index >= 0 && graph.isNode(index) ? index : -1;
+    }
+
+    private PathType pathTypeAt(int index) {
+        if (mainIndexes.get(index)) {
+            return PathType.MAIN;
+        } else if (connectedIndexes.get(index)) {
+            return PathType.CONNECTED;
+        }
+        return PathType.OUTER;
+    }
+}
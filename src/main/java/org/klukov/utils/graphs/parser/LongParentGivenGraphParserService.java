@@ -0,0 +1,116 @@
+package org.klukov.utils.graphs.parser;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.klukov.utils.graphs.common.GraphProcessingException;
+import org.klukov.utils.graphs.compact.LongCompactGraph;
+import org.klukov.utils.graphs.relation.BidirectionalIndexSearch;
+import org.klukov.utils.graphs.relation.DirectionalIndexSearch;
+import org.klukov.utils.graphs.relation.LongBidirectionalRelationIdsQuery;
+import org.klukov.utils.graphs.relation.LongDirectionalRelationIdsQuery;
+import org.klukov.utils.graphs.validation.LongGraphValidator;
+
+/**
+ * Graph is searched by indexes when queries are created by {@link
+ * org.klukov.utils.graphs.relation.GraphRelationFactory}, as in {@link
+ * ParentGivenGraphParserService}. Other queries are called with nodes and edges of the graph.
+ */
+@Slf4j
+class LongParentGivenGraphParserService<T extends LongParentGivenGraphNodeInput<T>>
+        implements LongParentGivenGraphParseUseCase<T> {
+
+    private final LongDirectionalRelationIdsQuery<T> directionalRelationIdsFinder;
+    private final LongBidirectionalRelationIdsQuery bidirectionalRelationIdsFinder;
+    private final LongGraphValidator<T> graphValidator;
+    private final DirectionalIndexSearch directionalIndexSearch;
+    private final BidirectionalIndexSearch bidirectionalIndexSearch;
+
+    LongParentGivenGraphParserService(
+            LongDirectionalRelationIdsQuery<T> directionalRelationIdsFinder,
+            LongBidirectionalRelationIdsQuery bidirectionalRelationIdsFinder,
+            LongGraphValidator<T> graphValidator) {
+        this.directionalRelationIdsFinder = directionalRelationIdsFinder;
+        this.bidirectionalRelationIdsFinder = bidirectionalRelationIdsFinder;
+        this.graphValidator = graphValidator;
+        this.directionalIndexSearch =
+                DirectionalIndexSearch.of(directionalRelationIdsFinder).orElse(null);
+        this.bidirectionalIndexSearch =
+                BidirectionalIndexSearch.of(bidirectionalRelationIdsFinder).orElse(null);
+    }
+
+    /**
+     * Nodes are validated while they are added to the graph, so input is read only once.
+     *
+     * @throws GraphProcessingException
+     */
+    @Override
+    public LongParentGivenGraphParserResult<T> parseGraphCollection(
+            LongParentGivenGraphParseInput<T> longParentGivenGraphParseInput)
+            throws GraphProcessingException {
+        log.debug("Starting parsing of input: {}", longParentGivenGraphParseInput);
+        var startNodeId = longParentGivenGraphParseInput.getStartNodeId();
+        var graph =
+                graphValidator.buildValidGraph(
+                        longParentGivenGraphParseInput.getGraphInput(), startNodeId);
+        var startIndex = graph.indexOf(startNodeId);
+        var mainNodeIndexes = findAllMainNodeIndexes(graph, startIndex);
+        log.debug("Found {} main nodes", mainNodeIndexes.cardinality());
+        var connectedNodeIndexes = findAllConnectedNodeIndexes(graph, startIndex);
+        log.debug("Found {} connected ids", connectedNodeIndexes.cardinality());
+        return new LongParentGivenGraphParserResult<>(
+                graph, startIndex, mainNodeIndexes, connectedNodeIndexes);
+    }
+
+    private BitSet findAllMainNodeIndexes(LongCompactGraph<T> graph, int startIndex)
+            throws GraphProcessingException {
+        if (directionalIndexSearch != null) {
+            return directionalIndexSearch.findAllConnectedIndexes(graph, startIndex);
+        }
+        var graphInput = new ArrayList<T>(graph.nodeCount());
+        for (int index = 0; index < graph.size(); index++) {
+            if (graph.isNode(index)) {
+                graphInput.add(graph.nodeAt(index));
+            }
+        }
+        return indexesOf(
+                graph,
+                directionalRelationIdsFinder.findAllConnectedIds(
+                        new LongParentGivenGraphParseInput<>(
+                                graphInput, graph.longIdAt(startIndex))));
+    }
+
+    private BitSet findAllConnectedNodeIndexes(LongCompactGraph<T> graph, int startIndex) {
+        if (bidirectionalIndexSearch != null) {
+            return bidirectionalIndexSearch.findAllConnectedIndexes(graph, startIndex);
+        }
+        return indexesOf(
+                graph,
+                bidirectionalRelationIdsFinder.findAllConnectedIds(
+                        graph.longIdAt(startIndex), edges(graph)));
+    }
+
+    private List<LongGraphParserEdge> edges(LongCompactGraph<T> graph) {
+        var edges = new ArrayList<LongGraphParserEdge>(graph.edgeCount());
+        for (int index = 0; index < graph.size(); index++) {
+            var childId = graph.longIdAt(index);
+            graph.forEachParent(
+                    index,
+                    parent -> edges.add(new LongGraphParserEdge(graph.longIdAt(parent), childId)));
+        }
+        return edges;
+    }
+
+    /** Ids which are not in the graph are skipped. */
+    private BitSet indexesOf(LongCompactGraph<T> graph, long[] ids) {
+        var indexes = new BitSet(graph.size());
+        for (var id : ids) {
+            var index = graph.indexOf(id);
+            if (index >= 0) {
+                indexes.set(index);
+            }
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,135 @@
+package org.klukov.utils.graphs.parser;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import org.klukov.utils.graphs.common.IdCodec;
+import org.klukov.utils.graphs.common.MappedFile;
+import org.klukov.utils.graphs.compact.IndexedGraph;
+
+/**
+ * Graph read directly from a mapped snapshot file. Nothing is loaded on opening; ids are decoded
+ * and nodes are created on every access.
+ */
+final class MappedSnapshotGraph<ID> implements IndexedGraph<ID, ParentGivenGraphSnapshotNode<ID>> {
+
+    private final MappedFile file;
+    private final SnapshotLayout layout;
+    private final IdCodec<ID> idCodec;
+    private final int nodeCount;
+
+    MappedSnapshotGraph(
+            MappedFile file, SnapshotLayout layout, IdCodec<ID> idCodec, int nodeCount) {
+        this.file = file;
+        this.layout = layout;
+        this.idCodec = idCodec;
+        this.nodeCount = nodeCount;
+    }
+
+    @Override
+    public int size() {
+        return layout.size();
+    }
+
+    @Override
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public boolean isNode(int index) {
+        var word = file.getLong(layout.nodes() + (long) (index >>> 6) * Long.BYTES);
+        return (word & (1L << index)) != 0;
+    }
+
+    /** Looks id up in the stored hash table and compares encoded bytes. */
+    @Override
+    public int indexOf(Object id) {
+        if (!idCodec.idType().isInstance(id)) {
+            return -1;
+        }
+        var typedId = idCodec.idType().cast(id);
+        var bytes = idCodec.toBytes(typedId);
+        var slot = layout.slotOf(idCodec.hash(typedId));
+        while (true) {
+            var entry = file.getInt(layout.hashSlots() + (long) slot * Integer.BYTES);
+            if (entry == 0) {
+                return -1;
+            }
+            if (Arrays.equals(bytes, idBytesAt(entry - 1))) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & (layout.hashCapacity() - 1);
+        }
+    }
+
+    @Override
+    public ID idAt(int index) {
+        return idCodec.fromBytes(idBytesAt(index));
+    }
+
+    @Override
+    public ParentGivenGraphSnapshotNode<ID> nodeAt(int index) {
+        return isNode(index) ? new ParentGivenGraphSnapshotNode<>(this, index) : null;
+    }
+
+    @Override
+    public int parentCount(int index) {
+        return count(layout.parentOffsets(), index);
+    }
+
+    @Override
+    public int childCount(int index) {
+        return count(layout.childOffsets(), index);
+    }
+
+    @Override
+    public void forEachParent(int index, IntConsumer action) {
+        forEach(layout.parentOffsets(), layout.parentTargets(), index, action);
+    }
+
+    @Override
+    public void forEachChild(int index, IntConsumer action) {
+        forEach(layout.childOffsets(), layout.childTargets(), index, action);
+    }
+
+    @Override
+    public boolean anyChild(int index, IntPredicate predicate) {
+        var from = offsetAt(layout.childOffsets(), index);
+        var to = offsetAt(layout.childOffsets(), index + 1);
+        for (int i = from; i < to; i++) {
+            if (predicate.test(targetAt(layout.childTargets(), i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private byte[] idBytesAt(int index) {
+        var from = file.getLong(layout.idOffsets() + (long) index * Long.BYTES);
+        var to = file.getLong(layout.idOffsets() + (index + 1L) * Long.BYTES);
+        if (from < 0 || from > to || to > layout.idDataLength()) {
+            throw new IllegalStateException("Graph snapshot has invalid id offsets");
+        }
+        return file.getBytes(layout.idData() + from, (int) (to - from));
+    }
+
+    private int count(long offsets, int index) {
+        return offsetAt(offsets, index + 1) - offsetAt(offsets, index);
+    }
+
+    private void forEach(long offsets, long targets, int index, IntConsumer action) {
+        var to = offsetAt(offsets, index + 1);
+        for (int i = offsetAt(offsets, index); i < to; i++) {
+            action.accept(targetAt(targets, i));
+        }
+    }
+
+    private int offsetAt(long offsets, int index) {
+        return file.getInt(offsets + (long) index * Integer.BYTES);
+    }
+
+    private int targetAt(long targets, int position) {
+        return file.getInt(targets + (long) position * Integer.BYTES);
+    }
+}
@@ -0,0 +1,621 @@
+package org.klukov.utils.graphs.parser;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.ToLongFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.klukov.utils.graphs.compact.IndexedGraph;
+import org.klukov.utils.graphs.compact.StronglyConnectedComponents;
+
+/**
+ * Values aggregated over ancestors or descendants of every node of a parsed graph at once, instead
+ * of one traversal per node. Ancestors are nodes reachable through one or more parents as in
+ * {@link ParentGivenGraphReachability}, so a node is its own ancestor and descendant only on a
+ * cycle.
+ *
+ * <p>Cycles are collapsed into strongly connected components, which are grouped into topological
+ * levels: a level is one more than the greatest level of parent components. Components of a level
+ * depend on lower levels only, so the levels are processed in order for ancestors and in reverse
+ * order for descendants, and a level bigger than {@link #PARALLEL_THRESHOLD} components is split
+ * among threads of the fork join pool when one is given.
+ *
+ * <ul>
+ *   <li>exact counts and sums are not linear: nodes are numbered in topological order and every
+ *       pass propagates bit masks of one block of these numbers through the whole graph, so
+ *       shared ancestors are counted once. Masks of all C components are kept for one block, so
+ *       a block holds {@code 64 * words} numbers, where {@code words} is the memory limit in
+ *       longs divided by C. Every pass still goes through all C components, those which cannot
+ *       reach the block are skipped, so n nodes and E edges between components take O(n / (64 *
+ *       words) * (C + E * words)). With the default {@link #DEFAULT_MEMORY_LIMIT} it is a single
+ *       pass only up to about 23 000 nodes without cycles and quadratic beyond; a million nodes
+ *       without cycles take about 2 000 passes. {@link #exactPassCount()} tells the number of
+ *       passes up front and a warning is logged when more than one is needed,
+ *   <li>estimated counts take a single linear pass: every component keeps a HyperLogLog sketch
+ *       of nodes reaching it, merged from parents or children register by register, so shared
+ *       ancestors are counted once. Sketches of all components fit in the memory limit, with 16
+ *       to 1024 registers each, so the standard error is between 26 and 3 percent; counts below
+ *       a few times the number of registers are close to exact,
+ *   <li>a custom combiner is applied once per edge of the condensation in a single pass; shared
+ *       ancestors are combined once per path, so it has to be associative, commutative and
+ *       idempotent, as minimum, maximum or union are.
+ * </ul>
+ *
+ * <p>Aggregates reflect the graph at the moment of building, later updates of the result are not
+ * visible. Maps returned are unmodifiable views which box values only when read.
+ *
+ * @param <ID> type of node ids
+ * @param <T> type of node objects
+ */
+@Slf4j
+public final class ParentGivenGraphAggregates<ID, T> {
+
+    /** Bytes of masks of exact counts and sums, and of sketches of estimated counts. */
+    public static final long DEFAULT_MEMORY_LIMIT = 64L << 20;
+
+    static final int PARALLEL_THRESHOLD = 1 << 12;
+
+    private static final int CHUNK_SIZE = 1 << 10;
+    private static final int MIN_SKETCH_REGISTERS = 1 << 4;
+    private static final int MAX_SKETCH_REGISTERS = 1 << 10;
+
+    private final IndexedGraph<ID, ? extends ParentGivenGraphNodeInput<ID, T>> graph;
+    private final ForkJoinPool forkJoinPool;
+    private final long memoryLimit;
+    private final BitSet nodes;
+    private final int[] components;
+    private final BitSet cyclicComponents;
+    private final int[] memberOffsets;
+    private final int[] members;
+    private final int[] parentOffsets;
+    private final int[] parents;
+    private final int[] childOffsets;
+    private final int[] children;
+    private final int[] levelOffsets;
+    private final int[] levelComponents;
+
+    private ParentGivenGraphAggregates(
+            IndexedGraph<ID, ? extends ParentGivenGraphNodeInput<ID, T>> graph,
+            ForkJoinPool forkJoinPool,
+            long memoryLimit) {
+        this.graph = graph;
+        this.forkJoinPool = forkJoinPool;
+        this.memoryLimit = memoryLimit;
+        var size = graph.size();
+        this.nodes = new BitSet(size);
+        for (int index = 0; index < size; index++) {
+            nodes.set(index, graph.isNode(index));
+        }
+        var scc = StronglyConnectedComponents.of(graph);
+        var componentCount = scc.componentCount();
+        this.components = new int[size];
+        for (int index = 0; index < size; index++) {
+            components[index] = scc.componentOf(index);
+        }
+        this.cyclicComponents = new BitSet(componentCount);
+        for (int component = 0; component < componentCount; component++) {
+            cyclicComponents.set(component, scc.isCyclic(component));
+        }
+        this.memberOffsets = new int[componentCount + 1];
+        this.members = members();
+        this.parentOffsets = new int[componentCount + 1];
+        this.parents = condensationParents();
+        this.childOffsets = new int[componentCount + 1];
+        this.children = condensationChildren();
+        var levels = levels();
+        var levelCount = 0;
+        for (var level : levels) {
+            levelCount = Math.max(levelCount, level + 1);
+        }
+        this.levelOffsets = new int[levelCount + 1];
+        this.levelComponents = groupByLevels(levels);
+    }
+
+    /** Builds topological levels in O(n + e), aggregates are computed sequentially. */
+    public static <ID, T> ParentGivenGraphAggregates<ID, T> of(
+            ParentGivenGraphParserResult<ID, T> result) {
+        return of(result, null);
+    }
+
+    /**
+     * @param forkJoinPool pool processing big levels, {@code null} to compute sequentially
+     */
+    public static <ID, T> ParentGivenGraphAggregates<ID, T> of(
+            ParentGivenGraphParserResult<ID, T> result, ForkJoinPool forkJoinPool) {
+        return of(result, forkJoinPool, DEFAULT_MEMORY_LIMIT);
+    }
+
+    /**
+     * @param forkJoinPool pool processing big levels, {@code null} to compute sequentially
+     * @param memoryLimit bytes of masks of one exact pass and of sketches of estimates; exact
+     *     passes keep at least one long per component and sketches at least 16 bytes
+     */
+    public static <ID, T> ParentGivenGraphAggregates<ID, T> of(
+            ParentGivenGraphParserResult<ID, T> result,
+            ForkJoinPool forkJoinPool,
+            long memoryLimit) {
+        if (memoryLimit <= 0) {
+            throw new IllegalArgumentException("Memory limit has to be positive");
+        }
+        result.checkNotUpdated();
+        return new ParentGivenGraphAggregates<>(result.graph(), forkJoinPool, memoryLimit);
+    }
+
+    /**
+     * @return number of topological levels, the length of the longest path of the condensation
+     */
+    public int levelCount() {
+        return levelOffsets.length - 1;
+    }
+
+    /**
+     * @return number of passes through the whole condensation taken by every exact count or sum,
+     *     one while masks of all nodes fit in the memory limit
+     */
+    public int exactPassCount() {
+        var blockSize = (long) maskWords() << 6;
+        return (int) ((members.length + blockSize - 1) / blockSize);
+    }
+
+    /** Exact number of ancestors of every node, see {@link #exactPassCount()} for its cost. */
+    public Map<ID, Integer> countAncestors() {
+        return counts(sumReachable(true, null));
+    }
+
+    /** Exact number of descendants of every node, see {@link #exactPassCount()} for its cost. */
+    public Map<ID, Integer> countDescendants() {
+        return counts(sumReachable(false, null));
+    }
+
+    /** Number of ancestors of every node estimated in a single linear pass. */
+    public Map<ID, Integer> estimateAncestors() {
+        return counts(estimateReachable(true));
+    }
+
+    /** Number of descendants of every node estimated in a single linear pass. */
+    public Map<ID, Integer> estimateDescendants() {
+        return counts(estimateReachable(false));
+    }
+
+    /** Exact sum of weights of objects of all ancestors of every node. */
+    public Map<ID, Long> sumAncestors(ToLongFunction<? super T> weight) {
+        return sums(sumReachable(true, weights(weight)));
+    }
+
+    /** Exact sum of weights of objects of all descendants of every node. */
+    public Map<ID, Long> sumDescendants(ToLongFunction<? super T> weight) {
+        return sums(sumReachable(false, weights(weight)));
+    }
+
+    /**
+     * Values of objects of all ancestors of every node combined, {@code identity} for nodes
+     * without ancestors.
+     *
+     * @param combiner associative, commutative and idempotent function
+     */
+    public <V> Map<ID, V> aggregateAncestors(
+            Function<? super T, ? extends V> value, V identity, BinaryOperator<V> combiner) {
+        return aggregate(true, value, identity, combiner);
+    }
+
+    /**
+     * Values of objects of all descendants of every node combined, {@code identity} for nodes
+     * without descendants.
+     *
+     * @param combiner associative, commutative and idempotent function
+     */
+    public <V> Map<ID, V> aggregateDescendants(
+            Function<? super T, ? extends V> value, V identity, BinaryOperator<V> combiner) {
+        return aggregate(false, value, identity, combiner);
+    }
+
+    private Map<ID, Integer> counts(long[] sums) {
+        return graph.valueMap(nodes, index -> (int) sums[components[index]]);
+    }
+
+    private Map<ID, Long> sums(long[] sums) {
+        return graph.valueMap(nodes, index -> sums[components[index]]);
+    }
+
+    /** Weights of nodes in order of their positions in members. */
+    private long[] weights(ToLongFunction<? super T> weight) {
+        var result = new long[members.length];
+        for (int position = 0; position < members.length; position++) {
+            result[position] = weight.applyAsLong(graph.nodeAt(members[position]).getObject());
+        }
+        return result;
+    }
+
+    /** Words of the mask of every component in one exact pass, at least one. */
+    private int maskWords() {
+        var componentCount = Math.max(memberOffsets.length - 1, 1);
+        var maxWords = Math.min(memoryLimit >>> 3, Integer.MAX_VALUE - 8);
+        return (int)
+                Math.max(1, Math.min((members.length + 63L) >>> 6, maxWords / componentCount));
+    }
+
+    private long[] sumReachable(boolean ancestors, long[] weights) {
+        var componentCount = memberOffsets.length - 1;
+        var words = maskWords();
+        var passCount = exactPassCount();
+        if (passCount > 1) {
+            log.warn(
+                    "Exact aggregates of {} nodes take {} passes through {} components, raise the"
+                            + " memory limit of {} bytes or estimate counts instead",
+                    members.length,
+                    passCount,
+                    componentCount,
+                    memoryLimit);
+        }
+        var pass = new ExactPass(ancestors, weights, words, componentCount);
+        for (int blockStart = 0; blockStart < members.length; blockStart += words << 6) {
+            pass.blockStart = blockStart;
+            pass.blockEnd = (int) Math.min(blockStart + ((long) words << 6), members.length);
+            forEachLevel(ancestors, pass::visit);
+        }
+        return pass.sums;
+    }
+
+    private long[] estimateReachable(boolean ancestors) {
+        var componentCount = memberOffsets.length - 1;
+        var maxRegisters =
+                Math.min(memoryLimit, Integer.MAX_VALUE - 8) / Math.max(componentCount, 1);
+        var registers =
+                Math.max(MIN_SKETCH_REGISTERS, Math.min(maxRegisters, MAX_SKETCH_REGISTERS));
+        var pass =
+                new EstimatePass(
+                        ancestors,
+                        Long.numberOfTrailingZeros(Long.highestOneBit(registers)),
+                        componentCount);
+        forEachLevel(ancestors, pass::visit);
+        return pass.estimates;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> Map<ID, V> aggregate(
+            boolean ancestors,
+            Function<? super T, ? extends V> value,
+            V identity,
+            BinaryOperator<V> combiner) {
+        var componentCount = memberOffsets.length - 1;
+        var exclusive = new Object[componentCount];
+        var inclusive = new Object[componentCount];
+        var offsets = ancestors ? parentOffsets : childOffsets;
+        var neighbours = ancestors ? parents : children;
+        forEachLevel(
+                ancestors,
+                component -> {
+                    var reached = identity;
+                    for (int i = offsets[component]; i < offsets[component + 1]; i++) {
+                        reached = combiner.apply(reached, (V) inclusive[neighbours[i]]);
+                    }
+                    V own = identity;
+                    for (int i = memberOffsets[component]; i < memberOffsets[component + 1]; i++) {
+                        var object = graph.nodeAt(members[i]).getObject();
+                        own = combiner.apply(own, value.apply(object));
+                    }
+                    var all = combiner.apply(reached, own);
+                    exclusive[component] = cyclicComponents.get(component) ? all : reached;
+                    inclusive[component] = all;
+                });
+        return graph.valueMap(nodes, index -> (V) exclusive[components[index]]);
+    }
+
+    /**
+     * Components of every level in topological order of levels or in reverse, levels bigger than
+     * the threshold split among threads of the pool.
+     */
+    private void forEachLevel(boolean ascending, IntConsumer action) {
+        var levelCount = levelCount();
+        for (int i = 0; i < levelCount; i++) {
+            var level = ascending ? i : levelCount - 1 - i;
+            var from = levelOffsets[level];
+            var to = levelOffsets[level + 1];
+            if (forkJoinPool == null || to - from < PARALLEL_THRESHOLD) {
+                for (int position = from; position < to; position++) {
+                    action.accept(levelComponents[position]);
+                }
+            } else {
+                forkJoinPool.invoke(new LevelTask(action, from, to));
+            }
+        }
+    }
+
+    /** Node indexes grouped by components, so members of a component have adjacent positions. */
+    private int[] members() {
+        for (int index = nodes.nextSetBit(0); index >= 0; index = nodes.nextSetBit(index + 1)) {
+            memberOffsets[components[index] + 1]++;
+        }
+        for (int component = 0; component + 1 < memberOffsets.length; component++) {
+            memberOffsets[component + 1] += memberOffsets[component];
+        }
+        var result = new int[nodes.cardinality()];
+        var positions = Arrays.copyOf(memberOffsets, memberOffsets.length - 1);
+        for (int index = nodes.nextSetBit(0); index >= 0; index = nodes.nextSetBit(index + 1)) {
+            result[positions[components[index]]++] = index;
+        }
+        return result;
+    }
+
+    /** Sorted, distinct parent components of every component; ids which are not nodes skipped. */
+    private int[] condensationParents() {
+        var edgeCount = new int[1];
+        for (var index : members) {
+            edgeCount[0] += graph.parentCount(index);
+        }
+        var edges = new long[edgeCount[0]];
+        edgeCount[0] = 0;
+        for (var index : members) {
+            var component = components[index];
+            graph.forEachParent(
+                    index,
+                    parent -> {
+                        if (nodes.get(parent) && components[parent] != component) {
+                            edges[edgeCount[0]++] =
+                                    ((long) component << 32) | components[parent];
+                        }
+                    });
+        }
+        Arrays.sort(edges, 0, edgeCount[0]);
+        var result = new int[edgeCount[0]];
+        var distinct = 0;
+        for (int i = 0; i < edgeCount[0]; i++) {
+            if (i == 0 || edges[i] != edges[i - 1]) {
+                parentOffsets[(int) (edges[i] >>> 32) + 1]++;
+                result[distinct++] = (int) edges[i];
+            }
+        }
+        for (int component = 0; component + 1 < parentOffsets.length; component++) {
+            parentOffsets[component + 1] += parentOffsets[component];
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+
+    private int[] condensationChildren() {
+        for (var parent : parents) {
+            childOffsets[parent + 1]++;
+        }
+        for (int component = 0; component + 1 < childOffsets.length; component++) {
+            childOffsets[component + 1] += childOffsets[component];
+        }
+        var result = new int[parents.length];
+        var positions = Arrays.copyOf(childOffsets, childOffsets.length - 1);
+        for (int component = 0; component + 1 < parentOffsets.length; component++) {
+            for (int i = parentOffsets[component]; i < parentOffsets[component + 1]; i++) {
+                result[positions[parents[i]]++] = component;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Level of every component with nodes, -1 for components of ids which are not nodes. Parent
+     * components have smaller numbers, so their levels are known before.
+     */
+    private int[] levels() {
+        var result = new int[memberOffsets.length - 1];
+        for (int component = 0; component < result.length; component++) {
+            if (memberOffsets[component] == memberOffsets[component + 1]) {
+                result[component] = -1;
+                continue;
+            }
+            var level = 0;
+            for (int i = parentOffsets[component]; i < parentOffsets[component + 1]; i++) {
+                level = Math.max(level, result[parents[i]] + 1);
+            }
+            result[component] = level;
+        }
+        return result;
+    }
+
+    private int[] groupByLevels(int[] levels) {
+        var count = 0;
+        for (var level : levels) {
+            if (level >= 0) {
+                levelOffsets[level + 1]++;
+                count++;
+            }
+        }
+        for (int level = 0; level + 1 < levelOffsets.length; level++) {
+            levelOffsets[level + 1] += levelOffsets[level];
+        }
+        var result = new int[count];
+        var positions = Arrays.copyOf(levelOffsets, levelOffsets.length - 1);
+        for (int component = 0; component < levels.length; component++) {
+            if (levels[component] >= 0) {
+                result[positions[levels[component]]++] = component;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Propagates masks of node positions of one block from parents to children for ancestors or
+     * the other way for descendants. Ancestors have lower positions than the node and descendants
+     * higher ones, unless they share a cycle, so a component whose members are all below the block
+     * for ancestors, or above it for descendants, has an empty mask and is skipped.
+     */
+    private final class ExactPass {
+
+        private final boolean ancestors;
+        private final long[] weights;
+        private final int words;
+        private final long[] masks;
+        private final long[] sums;
+        private final int[] offsets;
+        private final int[] neighbours;
+        private int blockStart;
+        private int blockEnd;
+
+        ExactPass(boolean ancestors, long[] weights, int words, int componentCount) {
+            this.ancestors = ancestors;
+            this.weights = weights;
+            this.words = words;
+            this.masks = new long[componentCount * words];
+            this.sums = new long[componentCount];
+            this.offsets = ancestors ? parentOffsets : childOffsets;
+            this.neighbours = ancestors ? parents : children;
+        }
+
+        void visit(int component) {
+            if (!canReachBlock(component)) {
+                return;
+            }
+            var mask = component * words;
+            Arrays.fill(masks, mask, mask + words, 0L);
+            for (int i = offsets[component]; i < offsets[component + 1]; i++) {
+                var neighbour = neighbours[i];
+                if (canReachBlock(neighbour)) {
+                    var neighbourMask = neighbour * words;
+                    for (int word = 0; word < words; word++) {
+                        masks[mask + word] |= masks[neighbourMask + word];
+                    }
+                }
+                addMembers(mask, neighbour);
+            }
+            if (cyclicComponents.get(component)) {
+                addMembers(mask, component);
+            }
+            sums[component] += sum(mask);
+        }
+
+        private boolean canReachBlock(int component) {
+            return ancestors
+                    ? memberOffsets[component + 1] > blockStart
+                    : memberOffsets[component] < blockEnd;
+        }
+
+        private void addMembers(int mask, int component) {
+            var from = Math.max(memberOffsets[component], blockStart) - blockStart;
+            var to = Math.min(memberOffsets[component + 1], blockEnd) - blockStart;
+            while (from < to) {
+                var word = from >>> 6;
+                var end = Math.min(to, (word + 1) << 6);
+                masks[mask + word] |= (-1L >>> (64 - (end - from))) << (from & 63);
+                from = end;
+            }
+        }
+
+        private long sum(int mask) {
+            var result = 0L;
+            for (int word = 0; word < words; word++) {
+                var bits = masks[mask + word];
+                if (weights == null) {
+                    result += Long.bitCount(bits);
+                    continue;
+                }
+                while (bits != 0) {
+                    result += weights[blockStart + (word << 6) + Long.numberOfTrailingZeros(bits)];
+                    bits &= bits - 1;
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Merges HyperLogLog sketches of node positions from parents to children for ancestors or the
+     * other way for descendants. A sketch keeps the highest rank of hashes of every register, so
+     * merging takes maximum of registers and a node reached through many paths is counted once.
+     */
+    private final class EstimatePass {
+
+        private final int[] offsets;
+        private final int[] neighbours;
+        private final int precision;
+        private final int registerCount;
+        private final byte[] registers;
+        private final long[] estimates;
+
+        EstimatePass(boolean ancestors, int precision, int componentCount) {
+            this.offsets = ancestors ? parentOffsets : childOffsets;
+            this.neighbours = ancestors ? parents : children;
+            this.precision = precision;
+            this.registerCount = 1 << precision;
+            this.registers = new byte[componentCount << precision];
+            this.estimates = new long[componentCount];
+        }
+
+        void visit(int component) {
+            var sketch = component << precision;
+            for (int i = offsets[component]; i < offsets[component + 1]; i++) {
+                var neighbourSketch = neighbours[i] << precision;
+                for (int register = 0; register < registerCount; register++) {
+                    registers[sketch + register] =
+                            (byte)
+                                    Math.max(
+                                            registers[sketch + register],
+                                            registers[neighbourSketch + register]);
+                }
+            }
+            if (!cyclicComponents.get(component)) {
+                estimates[component] = estimate(sketch);
+            }
+            for (int i = memberOffsets[component]; i < memberOffsets[component + 1]; i++) {
+                var hash = hash(i);
+                var register = sketch + (int) (hash >>> (64 - precision));
+                var rank = Math.min(Long.numberOfLeadingZeros(hash << precision), 64 - precision);
+                registers[register] = (byte) Math.max(registers[register], rank + 1);
+            }
+            if (cyclicComponents.get(component)) {
+                estimates[component] = estimate(sketch);
+            }
+        }
+
+        /** Harmonic mean of registers, linear counting of empty registers for small counts. */
+        private long estimate(int sketch) {
+            var sum = 0.0;
+            var empty = 0;
+            for (int register = 0; register < registerCount; register++) {
+                sum += Math.scalb(1.0, -registers[sketch + register]);
+                if (registers[sketch + register] == 0) {
+                    empty++;
+                }
+            }
+            var alpha = 0.7213 / (1 + 1.079 / registerCount);
+            var estimate = alpha * registerCount * registerCount / sum;
+            if (estimate <= 2.5 * registerCount && empty > 0) {
+                estimate = registerCount * Math.log((double) registerCount / empty);
+            }
+            return Math.min(Math.round(estimate), members.length);
+        }
+
+        /** Mixing function of SplitMix64 applied to the position of a node. */
+        private long hash(int position) {
+            var hash = position * 0x9E3779B97F4A7C15L;
+            hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+            hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+            return hash ^ (hash >>> 31);
+        }
+    }
+
+    private final class LevelTask extends RecursiveAction {
+
+        private final IntConsumer action;
+        private final int from;
+        private final int to;
+
+        LevelTask(IntConsumer action, int from, int to) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                for (int position = from; position < to; position++) {
+                    action.accept(levelComponents[position]);
+                }
+                return;
+            }
+            var middle = (from + to) >>> 1;
+            invokeAll(new LevelTask(action, from, middle), new LevelTask(action, middle, to));
+        }
+    }
+}
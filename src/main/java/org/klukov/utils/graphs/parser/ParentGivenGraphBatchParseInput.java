@@ -0,0 +1,22 @@
+package org.klukov.utils.graphs.parser;
+
+import java.util.Collection;
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/** Parse input of one graph classified relative to many start nodes. */
+@Getter
+@Builder
+@ToString
+public final class ParentGivenGraphBatchParseInput<
+        ID, T extends ParentGivenGraphNodeInput<ID, T>> {
+    private final Collection<T> graphInput;
+    private final List<ID> startNodeIds;
+
+    public ParentGivenGraphBatchParseInput(Collection<T> graphInput, List<ID> startNodeIds) {
+        this.graphInput = graphInput;
+        this.startNodeIds = startNodeIds;
+    }
+}
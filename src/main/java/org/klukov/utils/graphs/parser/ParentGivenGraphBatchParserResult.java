@@ -0,0 +1,110 @@
+package org.klukov.utils.graphs.parser;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.klukov.utils.graphs.compact.IndexedGraph;
+
+/**
+ * Result of parsing one graph for many start nodes. Every start node owns one bit of the main
+ * and connected masks of every index, so the result takes {@code 16n} bytes per 64 start nodes.
+ * Results of single start nodes are derived on access.
+ */
+public final class ParentGivenGraphBatchParserResult<ID, T> {
+
+    private final IndexedGraph<ID, ? extends ParentGivenGraphNodeInput<ID, T>> graph;
+    private final List<ID> startNodeIds;
+    private final int[] startIndexes;
+    private final Map<ID, Integer> positions;
+    private final long[][] mainMasks;
+    private final long[][] connectedMasks;
+
+    ParentGivenGraphBatchParserResult(
+            IndexedGraph<ID, ? extends ParentGivenGraphNodeInput<ID, T>> graph,
+            List<ID> startNodeIds,
+            int[] startIndexes,
+            long[][] mainMasks,
+            long[][] connectedMasks) {
+        this.graph = graph;
+        this.startNodeIds = startNodeIds;
+        this.startIndexes = startIndexes;
+        this.mainMasks = mainMasks;
+        this.connectedMasks = connectedMasks;
+        this.positions = new HashMap<>();
+        for (int position = 0; position < startNodeIds.size(); position++) {
+            positions.putIfAbsent(startNodeIds.get(position), position);
+        }
+    }
+
+    public List<ID> getStartNodeIds() {
+        return startNodeIds;
+    }
+
+    /**
+     * @return path type of node for given start node, or {@code null} if there is no such node
+     * @throws IllegalArgumentException if start node was not parsed
+     */
+    public PathType pathType(ID startNodeId, ID nodeId) {
+        var position = positionOf(startNodeId);
+        var index = graph.indexOf(nodeId);
+        return index >= 0 && graph.isNode(index) ? pathTypeAt(position, index) : null;
+    }
+
+    /**
+     * @return unmodifiable set of ids of nodes with given path type for given start node, created
+     *     in O(n)
+     * @throws IllegalArgumentException if start node was not parsed
+     */
+    public Set<ID> getNodeIds(ID startNodeId, PathType pathType) {
+        var position = positionOf(startNodeId);
+        var indexes = new BitSet(graph.size());
+        for (int index = 0; index < graph.size(); index++) {
+            indexes.set(index, graph.isNode(index) && pathTypeAt(position, index) == pathType);
+        }
+        return graph.idSet(indexes);
+    }
+
+    /**
+     * @return result equal to parsing the graph from given start node alone, created in O(n)
+     * @throws IllegalArgumentException if start node was not parsed
+     */
+    public ParentGivenGraphParserResult<ID, T> getResult(ID startNodeId) {
+        var position = positionOf(startNodeId);
+        return new ParentGivenGraphParserResult<>(
+                graph,
+                startIndexes[position],
+                indexesOf(mainMasks, position),
+                indexesOf(connectedMasks, position));
+    }
+
+    private int positionOf(ID startNodeId) {
+        var position = positions.get(startNodeId);
+        if (position == null) {
+            throw new IllegalArgumentException("Start node was not parsed: " + startNodeId);
+        }
+        return position;
+    }
+
+    private PathType pathTypeAt(int position, int index) {
+        if (isSet(mainMasks, position, index)) {
+            return PathType.MAIN;
+        } else if (isSet(connectedMasks, position, index)) {
+            return PathType.CONNECTED;
+        }
+        return PathType.OUTER;
+    }
+
+    private BitSet indexesOf(long[][] masks, int position) {
+        var result = new BitSet(graph.size());
+        for (int index = 0; index < graph.size(); index++) {
+            result.set(index, isSet(masks, position, index));
+        }
+        return result;
+    }
+
+    private static boolean isSet(long[][] masks, int position, int index) {
+        return (masks[position >>> 6][index] & (1L << position)) != 0;
+    }
+}
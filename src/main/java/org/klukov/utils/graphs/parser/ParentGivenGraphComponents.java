@@ -0,0 +1,98 @@
+package org.klukov.utils.graphs.parser;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.klukov.utils.graphs.compact.IndexedGraph;
+import org.klukov.utils.graphs.compact.StronglyConnectedComponents;
+
+/**
+ * Cycles and topological order of nodes of a parsed graph, found from its strongly connected
+ * components in O(n + e). Components are numbered so that ancestors come first. Reflects the graph
+ * at the moment of building, later updates of the result are not visible.
+ *
+ * @param <ID> type of node ids
+ */
+public final class ParentGivenGraphComponents<ID> {
+
+    private final IndexedGraph<ID, ?> graph;
+    private final StronglyConnectedComponents components;
+    private final BitSet nodes;
+
+    private ParentGivenGraphComponents(IndexedGraph<ID, ?> graph) {
+        this.graph = graph;
+        this.components = StronglyConnectedComponents.of(graph);
+        this.nodes = new BitSet(components.size());
+        for (int index = 0; index < components.size(); index++) {
+            nodes.set(index, graph.isNode(index));
+        }
+    }
+
+    public static <ID> ParentGivenGraphComponents<ID> of(
+            ParentGivenGraphParserResult<ID, ?> result) {
+        result.checkNotUpdated();
+        return new ParentGivenGraphComponents<>(result.graph());
+    }
+
+    public boolean isAcyclic() {
+        return components.isAcyclic();
+    }
+
+    /**
+     * @return number of component of node, which is not greater than numbers of components of its
+     *     children, or -1 if there is no such node
+     */
+    public int componentOf(ID id) {
+        var index = nodeIndex(id);
+        return index < 0 ? -1 : components.componentOf(index);
+    }
+
+    public boolean isOnCycle(ID id) {
+        var index = nodeIndex(id);
+        return index >= 0 && components.isCyclic(components.componentOf(index));
+    }
+
+    /**
+     * @return unmodifiable list of ids of nodes of every cycle, cycles sharing nodes are merged
+     */
+    public List<Set<ID>> getCycles() {
+        var result = new ArrayList<Set<ID>>();
+        var order = components.topologicalOrder();
+        var start = 0;
+        while (start < order.length) {
+            var component = components.componentOf(order[start]);
+            var end = start + components.componentSize(component);
+            if (components.isCyclic(component)) {
+                var cycle = new LinkedHashSet<ID>();
+                for (int i = start; i < end; i++) {
+                    cycle.add(graph.idAt(order[i]));
+                }
+                result.add(Collections.unmodifiableSet(cycle));
+            }
+            start = end;
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * @return unmodifiable list of ids of all nodes with ancestors before descendants; nodes of a
+     *     cycle are next to each other in any order
+     */
+    public List<ID> getTopologicalOrder() {
+        var result = new ArrayList<ID>(nodes.cardinality());
+        for (var index : components.topologicalOrder()) {
+            if (nodes.get(index)) {
+                result.add(graph.idAt(index));
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private int nodeIndex(ID id) {
+        var index = graph.indexOf(id);
+        return index >= 0 && nodes.get(index) ? index : -1;
+    }
+}
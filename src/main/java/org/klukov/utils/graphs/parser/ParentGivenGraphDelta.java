@@ -0,0 +1,24 @@
+package org.klukov.utils.graphs.parser;
+
+import java.util.Collection;
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Nodes added to and removed from an already parsed graph. Removals are applied first, so a node
+ * can be replaced by removing and adding it in the same delta.
+ */
+@Getter
+@Builder
+@ToString
+public final class ParentGivenGraphDelta<ID, T extends ParentGivenGraphNodeInput<ID, T>> {
+    private final Collection<T> addedNodes;
+    private final Collection<ID> removedNodeIds;
+
+    public ParentGivenGraphDelta(Collection<T> addedNodes, Collection<ID> removedNodeIds) {
+        this.addedNodes = addedNodes == null ? List.of() : addedNodes;
+        this.removedNodeIds = removedNodeIds == null ? List.of() : removedNodeIds;
+    }
+}
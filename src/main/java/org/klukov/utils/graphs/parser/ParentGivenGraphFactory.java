@@ -3,17 +3,29 @@ package org.klukov.utils.graphs.parser;
 import lombok.experimental.UtilityClass;
 import org.klukov.utils.graphs.relation.BidirectionalRelationIdsQuery;
 import org.klukov.utils.graphs.relation.DirectionalRelationIdsQuery;
+import org.klukov.utils.graphs.relation.LongBidirectionalRelationIdsQuery;
+import org.klukov.utils.graphs.relation.LongDirectionalRelationIdsQuery;
 import org.klukov.utils.graphs.validation.GraphValidator;
+import org.klukov.utils.graphs.validation.LongGraphValidator;
 
 @UtilityClass
 public class ParentGivenGraphFactory {
 
     public <ID, T extends ParentGivenGraphNodeInput<ID, T>>
-            ParentGivenGraphParseUseCase<ID, T> parentGivenGraphParser(
+            IndexedParentGivenGraphParseUseCase<ID, T> parentGivenGraphParser(
                     DirectionalRelationIdsQuery<ID, T> directionalRelationIdsFinder,
                     BidirectionalRelationIdsQuery<ID> bidirectionalRelationIdsFinder,
                     GraphValidator<ID, T> graphValidator) {
         return new ParentGivenGraphParserService<>(
                 directionalRelationIdsFinder, bidirectionalRelationIdsFinder, graphValidator);
     }
+
+    public <T extends LongParentGivenGraphNodeInput<T>>
+            LongParentGivenGraphParseUseCase<T> longParentGivenGraphParser(
+                    LongDirectionalRelationIdsQuery<T> directionalRelationIdsFinder,
+                    LongBidirectionalRelationIdsQuery bidirectionalRelationIdsFinder,
+                    LongGraphValidator<T> graphValidator) {
+        return new LongParentGivenGraphParserService<>(
+                directionalRelationIdsFinder, bidirectionalRelationIdsFinder, graphValidator);
+    }
 }
@@ -0,0 +1,58 @@
+package org.klukov.utils.graphs.parser;
+
+import java.util.List;
+import org.klukov.utils.graphs.relation.MergeBaseIndex;
+
+/**
+ * Merge bases and ancestry differences of nodes of a parsed graph answered by a {@link
+ * MergeBaseIndex}, e.g. to find the fork point of two versions and changes made on one of them
+ * only. Answers reflect the graph at the moment of building, later updates of the result are not
+ * visible.
+ *
+ * @param <ID> type of node ids
+ */
+public final class ParentGivenGraphMergeBases<ID> {
+
+    private final MergeBaseIndex<ID> index;
+    private final ID startNodeId;
+
+    private ParentGivenGraphMergeBases(MergeBaseIndex<ID> index, ID startNodeId) {
+        this.index = index;
+        this.startNodeId = startNodeId;
+    }
+
+    /** Builds index in O(n + e), see {@link MergeBaseIndex} for its memory usage. */
+    public static <ID> ParentGivenGraphMergeBases<ID> of(
+            ParentGivenGraphParserResult<ID, ?> result) {
+        result.checkNotUpdated();
+        var graph = result.graph();
+        return new ParentGivenGraphMergeBases<>(
+                MergeBaseIndex.of(graph), graph.idAt(result.startIndex()));
+    }
+
+    public int generation(ID nodeId) {
+        return index.generation(nodeId);
+    }
+
+    /** Merge bases of the parsed start node and given node. */
+    public List<ID> findMergeBases(ID nodeId) {
+        return index.findMergeBases(startNodeId, nodeId);
+    }
+
+    /**
+     * @see MergeBaseIndex#findMergeBases(Object, Object)
+     */
+    public List<ID> findMergeBases(ID firstId, ID secondId) {
+        return index.findMergeBases(firstId, secondId);
+    }
+
+    /**
+     * Main path nodes of the result of parsing the same graph from node, without main path nodes
+     * of the result of parsing it from the excluded node.
+     *
+     * @see MergeBaseIndex#findAncestorsExcluding(Object, Object)
+     */
+    public List<ID> findAncestorsExcluding(ID nodeId, ID excludedNodeId) {
+        return index.findAncestorsExcluding(nodeId, excludedNodeId);
+    }
+}
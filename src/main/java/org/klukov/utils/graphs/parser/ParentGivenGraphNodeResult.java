@@ -1,17 +1,17 @@
 package org.klukov.utils.graphs.parser;
 
-import java.util.HashSet;
 import java.util.Set;
+import java.util.function.Consumer;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 
-@Builder
 @Getter
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
-@RequiredArgsConstructor
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
 @ToString
 public final class ParentGivenGraphNodeResult<ID, T> {
 
@@ -21,25 +21,53 @@ public final class ParentGivenGraphNodeResult<ID, T> {
 
     private final PathType startNodePathType;
 
+    @Getter(AccessLevel.NONE)
     @ToString.Exclude
-    private final Set<ParentGivenGraphNodeResult<ID, T>> parentNodes = new HashSet<>();
+    private final ParentGivenGraphParserResult<ID, T> graph;
 
+    @Getter(AccessLevel.NONE)
     @ToString.Exclude
-    private final Set<ParentGivenGraphNodeResult<ID, T>> childNodes = new HashSet<>();
+    private final int index;
 
-    void addChild(ParentGivenGraphNodeResult<ID, T> node) {
-        childNodes.add(node);
-    }
-
-    void addParent(ParentGivenGraphNodeResult<ID, T> node) {
-        parentNodes.add(node);
+    /** Node which does not belong to a parsed graph, so it has neither parents nor children. */
+    @Builder
+    public ParentGivenGraphNodeResult(ID id, T object, PathType startNodePathType) {
+        this(id, object, startNodePathType, null, -1);
     }
 
+    /**
+     * @return unmodifiable view of parent nodes, read from the graph on access
+     */
     public Set<ParentGivenGraphNodeResult<ID, T>> getParentNodes() {
-        return Set.copyOf(parentNodes);
+        return graph == null ? Set.of() : graph.parentNodes(index);
     }
 
+    /**
+     * @return unmodifiable view of child nodes, read from the graph on access
+     */
     public Set<ParentGivenGraphNodeResult<ID, T>> getChildNodes() {
-        return Set.copyOf(childNodes);
+        return graph == null ? Set.of() : graph.childNodes(index);
+    }
+
+    public int getParentCount() {
+        return graph == null ? 0 : graph.neighbourNodeCount(index, true);
+    }
+
+    public int getChildCount() {
+        return graph == null ? 0 : graph.neighbourNodeCount(index, false);
+    }
+
+    /** Visits parent nodes without collecting them. */
+    public void forEachParent(Consumer<? super ParentGivenGraphNodeResult<ID, T>> action) {
+        if (graph != null) {
+            graph.forEachNeighbourNode(index, true, action);
+        }
+    }
+
+    /** Visits child nodes without collecting them. */
+    public void forEachChild(Consumer<? super ParentGivenGraphNodeResult<ID, T>> action) {
+        if (graph != null) {
+            graph.forEachNeighbourNode(index, false, action);
+        }
     }
 }
@@ -1,5 +1,6 @@
 package org.klukov.utils.graphs.parser;
 
+import java.util.ArrayList;
 import org.klukov.utils.graphs.common.GraphProcessingException;
 
 public interface ParentGivenGraphParseUseCase<ID, T extends ParentGivenGraphNodeInput<ID, T>> {
@@ -7,4 +8,21 @@ public interface ParentGivenGraphParseUseCase<ID, T extends ParentGivenGraphNode
     ParentGivenGraphParserResult<ID, T> parseGraphCollection(
             ParentGivenGraphParseInput<ID, T> parentGivenGraphParseInput)
             throws GraphProcessingException;
+
+    /**
+     * Parses nodes read one by one; validation is the same as for collection input. By default
+     * nodes are collected and parsed as collection input.
+     */
+    default ParentGivenGraphParserResult<ID, T> parseGraphStream(
+            ParentGivenGraphStreamParseInput<ID, T> parentGivenGraphStreamParseInput)
+            throws GraphProcessingException {
+        var graphInput = new ArrayList<T>();
+        var nodes = parentGivenGraphStreamParseInput.getGraphInput();
+        while (nodes != null && nodes.hasNext()) {
+            graphInput.add(nodes.next());
+        }
+        return parseGraphCollection(
+                new ParentGivenGraphParseInput<>(
+                        graphInput, parentGivenGraphStreamParseInput.getStartNodeId()));
+    }
 }
@@ -1,15 +1,301 @@
 package org.klukov.utils.graphs.parser;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import lombok.Builder;
-import lombok.RequiredArgsConstructor;
+import org.klukov.utils.graphs.common.TraversalLimit;
+import org.klukov.utils.graphs.compact.IndexedGraph;
 
-@Builder
-@RequiredArgsConstructor
+/**
+ * Result of parsing kept in compact form: graph adjacency and bit sets of main and connected
+ * indexes, from which {@link PathType} of every node is derived. Node results are created on
+ * access and are not stored. Results built from given nodes keep only them, so they can neither be
+ * updated nor indexed.
+ */
 public final class ParentGivenGraphParserResult<ID, T> {
+
+    private final IndexedGraph<ID, ? extends ParentGivenGraphNodeInput<ID, T>> graph;
+    private final int startIndex;
+    private final BitSet mainIndexes;
+    private final BitSet connectedIndexes;
+    private final TraversalLimit exceededLimit;
     private final Map<ID, ParentGivenGraphNodeResult<ID, T>> graphNodes;
+    private boolean updated;
+
+    ParentGivenGraphParserResult(
+            IndexedGraph<ID, ? extends ParentGivenGraphNodeInput<ID, T>> graph,
+            int startIndex,
+            BitSet mainIndexes,
+            BitSet connectedIndexes) {
+        this(graph, startIndex, mainIndexes, connectedIndexes, null);
+    }
+
+    ParentGivenGraphParserResult(
+            IndexedGraph<ID, ? extends ParentGivenGraphNodeInput<ID, T>> graph,
+            int startIndex,
+            BitSet mainIndexes,
+            BitSet connectedIndexes,
+            TraversalLimit exceededLimit) {
+        this.graph = graph;
+        this.startIndex = startIndex;
+        this.mainIndexes = mainIndexes;
+        this.connectedIndexes = connectedIndexes;
+        this.exceededLimit = exceededLimit;
+        this.graphNodes = new GraphNodesView();
+    }
+
+    @Builder
+    public ParentGivenGraphParserResult(Map<ID, ParentGivenGraphNodeResult<ID, T>> graphNodes) {
+        this.graph = null;
+        this.startIndex = -1;
+        this.mainIndexes = new BitSet();
+        this.connectedIndexes = new BitSet();
+        this.exceededLimit = null;
+        this.graphNodes = Map.copyOf(graphNodes);
+    }
 
+    /**
+     * @return unmodifiable view of nodes by their ids
+     */
     public Map<ID, ParentGivenGraphNodeResult<ID, T>> getGraphNodes() {
-        return Map.copyOf(graphNodes);
+        checkNotUpdated();
+        return graphNodes;
+    }
+
+    /**
+     * @return {@code true} if traversal was stopped by a limit; nodes which were not reached have
+     *     path type {@link PathType#OUTER} then
+     */
+    public boolean isTruncated() {
+        return exceededLimit != null;
+    }
+
+    /**
+     * @return first limit reached while parsing, or {@code null} if result is complete
+     */
+    public TraversalLimit getExceededLimit() {
+        return exceededLimit;
+    }
+
+    IndexedGraph<ID, ? extends ParentGivenGraphNodeInput<ID, T>> graph() {
+        if (graph == null) {
+            throw new IllegalStateException("Result was not created by parser and has no graph");
+        }
+        return graph;
+    }
+
+    int startIndex() {
+        return startIndex;
+    }
+
+    BitSet mainIndexes() {
+        return mainIndexes;
+    }
+
+    BitSet connectedIndexes() {
+        return connectedIndexes;
+    }
+
+    /** Marks result as replaced by an updated one, which took over its data. */
+    void markUpdated() {
+        checkNotUpdated();
+        updated = true;
+    }
+
+    PathType pathTypeAt(int index) {
+        if (mainIndexes.get(index)) {
+            return PathType.MAIN;
+        } else if (connectedIndexes.get(index)) {
+            return PathType.CONNECTED;
+        }
+        return PathType.OUTER;
+    }
+
+    ParentGivenGraphNodeResult<ID, T> nodeAt(int index) {
+        return new ParentGivenGraphNodeResult<>(
+                graph.idAt(index), graph.nodeAt(index).getObject(), pathTypeAt(index), this, index);
+    }
+
+    Set<ParentGivenGraphNodeResult<ID, T>> parentNodes(int index) {
+        checkNotUpdated();
+        return new NeighbourNodesView(index, true);
+    }
+
+    Set<ParentGivenGraphNodeResult<ID, T>> childNodes(int index) {
+        checkNotUpdated();
+        return new NeighbourNodesView(index, false);
+    }
+
+    void forEachNeighbourNode(
+            int index,
+            boolean parents,
+            Consumer<? super ParentGivenGraphNodeResult<ID, T>> action) {
+        checkNotUpdated();
+        forEachNeighbour(index, parents, neighbour -> action.accept(nodeAt(neighbour)));
+    }
+
+    int neighbourNodeCount(int index, boolean parents) {
+        checkNotUpdated();
+        var count = new int[1];
+        forEachNeighbour(index, parents, neighbour -> count[0]++);
+        return count[0];
+    }
+
+    /** Neighbours which are nodes; ids without nodes are skipped. */
+    private void forEachNeighbour(int index, boolean parents, IntConsumer action) {
+        IntConsumer nodeAction =
+                neighbour -> {
+                    if (graph.isNode(neighbour)) {
+                        action.accept(neighbour);
+                    }
+                };
+        if (parents) {
+            graph.forEachParent(index, nodeAction);
+        } else {
+            graph.forEachChild(index, nodeAction);
+        }
+    }
+
+    void checkNotUpdated() {
+        if (updated) {
+            throw new IllegalStateException("Result was updated and cannot be used anymore");
+        }
+    }
+
+    private final class GraphNodesView extends AbstractMap<ID, ParentGivenGraphNodeResult<ID, T>> {
+
+        private final Set<Entry<ID, ParentGivenGraphNodeResult<ID, T>>> entries = new EntriesView();
+
+        @Override
+        public ParentGivenGraphNodeResult<ID, T> get(Object id) {
+            checkNotUpdated();
+            var index = graph.indexOf(id);
+            return index >= 0 && graph.isNode(index) ? nodeAt(index) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object id) {
+            checkNotUpdated();
+            var index = graph.indexOf(id);
+            return index >= 0 && graph.isNode(index);
+        }
+
+        @Override
+        public int size() {
+            checkNotUpdated();
+            return graph.nodeCount();
+        }
+
+        @Override
+        public Set<Entry<ID, ParentGivenGraphNodeResult<ID, T>>> entrySet() {
+            return entries;
+        }
+    }
+
+    /**
+     * Parents or children of a node read from the graph on every access. Iteration copies only
+     * their indexes, node results are created one by one.
+     */
+    private final class NeighbourNodesView extends AbstractSet<ParentGivenGraphNodeResult<ID, T>> {
+
+        private final int index;
+        private final boolean parents;
+
+        private NeighbourNodesView(int index, boolean parents) {
+            this.index = index;
+            this.parents = parents;
+        }
+
+        @Override
+        public boolean contains(Object node) {
+            checkNotUpdated();
+            if (!(node instanceof ParentGivenGraphNodeResult)) {
+                return false;
+            }
+            var neighbourIndex = graph.indexOf(((ParentGivenGraphNodeResult<?, ?>) node).getId());
+            if (neighbourIndex < 0) {
+                return false;
+            }
+            var found = new boolean[1];
+            forEachNeighbour(index, parents, neighbour -> found[0] |= neighbour == neighbourIndex);
+            return found[0];
+        }
+
+        @Override
+        public Iterator<ParentGivenGraphNodeResult<ID, T>> iterator() {
+            checkNotUpdated();
+            var neighbours = new int[parents ? graph.parentCount(index) : graph.childCount(index)];
+            var count = new int[1];
+            forEachNeighbour(index, parents, neighbour -> neighbours[count[0]++] = neighbour);
+            return new Iterator<>() {
+                private int position;
+
+                @Override
+                public boolean hasNext() {
+                    return position < count[0];
+                }
+
+                @Override
+                public ParentGivenGraphNodeResult<ID, T> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return nodeAt(neighbours[position++]);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return neighbourNodeCount(index, parents);
+        }
+    }
+
+    private final class EntriesView
+            extends AbstractSet<Map.Entry<ID, ParentGivenGraphNodeResult<ID, T>>> {
+
+        @Override
+        public Iterator<Map.Entry<ID, ParentGivenGraphNodeResult<ID, T>>> iterator() {
+            checkNotUpdated();
+            return new Iterator<>() {
+                private int next = nextNode(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next < graph.size();
+                }
+
+                @Override
+                public Map.Entry<ID, ParentGivenGraphNodeResult<ID, T>> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    var node = nodeAt(next);
+                    next = nextNode(next + 1);
+                    return Map.entry(node.getId(), node);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            checkNotUpdated();
+            return graph.nodeCount();
+        }
+
+        private int nextNode(int from) {
+            var index = from;
+            while (index < graph.size() && !graph.isNode(index)) {
+                index++;
+            }
+            return index;
+        }
     }
 }
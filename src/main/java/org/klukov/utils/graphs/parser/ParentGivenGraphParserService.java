@@ -1,25 +1,61 @@
 package org.klukov.utils.graphs.parser;
 
+import static org.klukov.utils.graphs.common.ProcessingErrorType.DUPLICATED_NODES;
+import static org.klukov.utils.graphs.common.ProcessingErrorType.NULL_NODES;
+import static org.klukov.utils.graphs.common.ProcessingErrorType.NULL_START_ID;
+import static org.klukov.utils.graphs.common.ProcessingErrorType.STAR_NODE_NOT_IN_GRAPH;
+import static org.klukov.utils.graphs.common.ProcessingErrorType.TRAVERSAL_LIMIT_EXCEEDED;
+
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.Map;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
-import lombok.AllArgsConstructor;
+import java.util.stream.IntStream;
 import lombok.extern.slf4j.Slf4j;
-import org.klukov.utils.graphs.common.GraphEdge;
 import org.klukov.utils.graphs.common.GraphProcessingException;
+import org.klukov.utils.graphs.common.TraversalLimit;
+import org.klukov.utils.graphs.common.TraversalLimits;
+import org.klukov.utils.graphs.compact.CompactGraph;
+import org.klukov.utils.graphs.compact.CompactGraphBuilder;
+import org.klukov.utils.graphs.compact.IndexedGraph;
+import org.klukov.utils.graphs.compact.UpdatableGraph;
+import org.klukov.utils.graphs.relation.BidirectionalIndexSearch;
 import org.klukov.utils.graphs.relation.BidirectionalRelationIdsQuery;
+import org.klukov.utils.graphs.relation.DirectionalIndexSearch;
 import org.klukov.utils.graphs.relation.DirectionalRelationIdsQuery;
 import org.klukov.utils.graphs.validation.GraphValidator;
+import org.klukov.utils.graphs.validation.StreamingGraphValidation;
 
+/**
+ * Graph is indexed once and searched by indexes when queries are created by {@link
+ * org.klukov.utils.graphs.relation.GraphRelationFactory}. Other queries are called with nodes and
+ * edges of the graph, and ids they find are read back as indexes.
+ */
 @Slf4j
-@AllArgsConstructor
 class ParentGivenGraphParserService<ID, T extends ParentGivenGraphNodeInput<ID, T>>
-        implements ParentGivenGraphParseUseCase<ID, T> {
+        implements IndexedParentGivenGraphParseUseCase<ID, T> {
 
     private final DirectionalRelationIdsQuery<ID, T> directionalRelationIdsFinder;
     private final BidirectionalRelationIdsQuery<ID> bidirectionalRelationIdsFinder;
     private final GraphValidator<ID, T> graphValidator;
+    private final DirectionalIndexSearch directionalIndexSearch;
+    private final BidirectionalIndexSearch bidirectionalIndexSearch;
+
+    ParentGivenGraphParserService(
+            DirectionalRelationIdsQuery<ID, T> directionalRelationIdsFinder,
+            BidirectionalRelationIdsQuery<ID> bidirectionalRelationIdsFinder,
+            GraphValidator<ID, T> graphValidator) {
+        this.directionalRelationIdsFinder = directionalRelationIdsFinder;
+        this.bidirectionalRelationIdsFinder = bidirectionalRelationIdsFinder;
+        this.graphValidator = graphValidator;
+        this.directionalIndexSearch =
+                DirectionalIndexSearch.of(directionalRelationIdsFinder).orElse(null);
+        this.bidirectionalIndexSearch =
+                BidirectionalIndexSearch.of(bidirectionalRelationIdsFinder).orElse(null);
+    }
 
     /**
      * Parent ids could reference to not existing nodes
@@ -32,14 +68,307 @@ class ParentGivenGraphParserService<ID, T extends ParentGivenGraphNodeInput<ID,
             throws GraphProcessingException {
         log.debug("Starting validation of input: {}", parentGivenGraphParseInput);
         validate(parentGivenGraphParseInput);
-        log.debug("Validation finished. Starting generating edges");
-        var edges = generateEdges(parentGivenGraphParseInput.getGraphInput());
-        log.debug("Generated edges: {}", edges);
-        var nodesMap = generateNodesMap(parentGivenGraphParseInput, edges);
-        log.debug("Generated nodes: {}", nodesMap);
-        edges.forEach(graphParserEdge -> connectNodes(graphParserEdge, nodesMap));
-        log.debug("All edges are connected");
-        return ParentGivenGraphParserResult.<ID, T>builder().graphNodes(nodesMap).build();
+        log.debug("Validation finished. Starting building compact graph");
+        var graph =
+                CompactGraph.of(
+                        parentGivenGraphParseInput.getGraphInput(),
+                        ParentGivenGraphNodeInput::getId,
+                        ParentGivenGraphNodeInput::getParentIds);
+        return parseGraph(graph, parentGivenGraphParseInput.getStartNodeId());
+    }
+
+    /**
+     * Limits are checked only while graph is traversed, by each of the two searches on its own;
+     * validation and building of the graph take time linear in the size of input.
+     *
+     * @throws GraphProcessingException
+     */
+    @Override
+    public ParentGivenGraphParserResult<ID, T> parseGraphCollection(
+            ParentGivenGraphParseInput<ID, T> parentGivenGraphParseInput, TraversalLimits limits)
+            throws GraphProcessingException {
+        log.debug("Starting validation of input: {}", parentGivenGraphParseInput);
+        validate(parentGivenGraphParseInput);
+        var graph =
+                CompactGraph.of(
+                        parentGivenGraphParseInput.getGraphInput(),
+                        ParentGivenGraphNodeInput::getId,
+                        ParentGivenGraphNodeInput::getParentIds);
+        var startIndex = startIndex(graph, parentGivenGraphParseInput.getStartNodeId());
+        return parseGraph(graph, startIndex, limits);
+    }
+
+    /**
+     * Nodes are validated while they are added to the graph, so input is read only once and
+     * duplicates are found by the graph index.
+     *
+     * @throws GraphProcessingException
+     */
+    @Override
+    public ParentGivenGraphParserResult<ID, T> parseGraphStream(
+            ParentGivenGraphStreamParseInput<ID, T> parentGivenGraphStreamParseInput)
+            throws GraphProcessingException {
+        log.debug("Starting parsing of stream input: {}", parentGivenGraphStreamParseInput);
+        var startNodeId = parentGivenGraphStreamParseInput.getStartNodeId();
+        var validation = graphValidator.startStreamingValidation(startNodeId);
+        var builder =
+                new CompactGraphBuilder<ID, T>(0, parentGivenGraphStreamParseInput.getNodeViews());
+        var nodes = parentGivenGraphStreamParseInput.getGraphInput();
+        while (nodes != null && nodes.hasNext()) {
+            validation.validateNode(
+                    nodes.next(),
+                    node -> builder.addNode(node.getId(), node.getParentIds(), node));
+        }
+        validation.finish();
+        return parseGraph(builder.build(), startNodeId);
+    }
+
+    /**
+     * Main and connected indexes of all start nodes are found together, one bit of a long mask
+     * per start node, so the graph is traversed once per relation instead of once per start node.
+     * Nodes are validated while they are added to the graph, so the collection is indexed only
+     * once.
+     *
+     * @throws GraphProcessingException
+     */
+    @Override
+    public ParentGivenGraphBatchParserResult<ID, T> parseGraphBatch(
+            ParentGivenGraphBatchParseInput<ID, T> parentGivenGraphBatchParseInput)
+            throws GraphProcessingException {
+        log.debug("Starting parsing of batch input: {}", parentGivenGraphBatchParseInput);
+        var startNodeIds = parentGivenGraphBatchParseInput.getStartNodeIds();
+        validateStartNodeIds(startNodeIds);
+        var graph =
+                buildGraph(
+                        parentGivenGraphBatchParseInput.getGraphInput(),
+                        graphValidator.startStreamingValidation(startNodeIds.get(0)));
+        return parseGraphBatch(graph, startNodeIds);
+    }
+
+    /**
+     * Nodes are validated while they are added to the graph, as for stream input, so the
+     * collection is indexed only once.
+     *
+     * @throws GraphProcessingException
+     */
+    @Override
+    public PreparedGraph<ID, T> prepareGraph(Collection<T> graphInput)
+            throws GraphProcessingException {
+        log.debug(
+                "Starting preparation of graph with {} nodes",
+                graphInput == null ? 0 : graphInput.size());
+        var graph = buildGraph(graphInput, graphValidator.startStreamingValidation());
+        log.debug(
+                "Prepared graph with {} nodes and {} edges", graph.nodeCount(), graph.edgeCount());
+        return new PreparedGraph<>(this, graph);
+    }
+
+    private CompactGraph<ID, T> buildGraph(
+            Collection<T> graphInput, StreamingGraphValidation<ID, T> validation)
+            throws GraphProcessingException {
+        var builder = new CompactGraphBuilder<ID, T>(graphInput == null ? 0 : graphInput.size());
+        if (graphInput != null) {
+            for (var node : graphInput) {
+                validation.validateNode(
+                        node,
+                        validNode ->
+                                builder.addNode(
+                                        validNode.getId(), validNode.getParentIds(), validNode));
+            }
+        }
+        validation.finish();
+        return builder.build();
+    }
+
+    ParentGivenGraphParserResult<ID, T> parsePrepared(CompactGraph<ID, T> graph, ID startNodeId)
+            throws GraphProcessingException {
+        return parseGraph(graph, startNodeId);
+    }
+
+    ParentGivenGraphParserResult<ID, T> parsePrepared(
+            CompactGraph<ID, T> graph, ID startNodeId, TraversalLimits limits)
+            throws GraphProcessingException {
+        return parseGraph(graph, startIndex(graph, startNodeId), limits);
+    }
+
+    ParentGivenGraphBatchParserResult<ID, T> parseGraphBatch(
+            CompactGraph<ID, T> graph, List<ID> startNodeIds) throws GraphProcessingException {
+        validateStartNodeIds(startNodeIds);
+        var startIndexes = new int[startNodeIds.size()];
+        for (int i = 0; i < startIndexes.length; i++) {
+            startIndexes[i] = startIndex(graph, startNodeIds.get(i));
+        }
+        log.debug("Parsing graph for {} start nodes", startIndexes.length);
+        var mainNodeMasks = findAllMainNodeMasks(graph, startIndexes);
+        var connectedNodeMasks = findAllConnectedNodeMasks(graph, startIndexes);
+        return new ParentGivenGraphBatchParserResult<>(
+                graph,
+                List.copyOf(startNodeIds),
+                startIndexes,
+                mainNodeMasks,
+                connectedNodeMasks);
+    }
+
+    Set<ID> findDirectionalIds(CompactGraph<ID, T> graph, ID startNodeId)
+            throws GraphProcessingException {
+        return graph.idSet(findAllMainNodeIndexes(graph, startIndex(graph, startNodeId)));
+    }
+
+    Set<ID> findBidirectionalIds(CompactGraph<ID, T> graph, ID startNodeId)
+            throws GraphProcessingException {
+        return graph.idSet(findAllConnectedNodeIndexes(graph, startIndex(graph, startNodeId)));
+    }
+
+    private int startIndex(IndexedGraph<ID, T> graph, ID startNodeId)
+            throws GraphProcessingException {
+        if (startNodeId == null) {
+            throw new GraphProcessingException(NULL_START_ID, "Start node id is null");
+        }
+        var startIndex = graph.indexOf(startNodeId);
+        if (startIndex < 0 || !graph.isNode(startIndex)) {
+            throw new GraphProcessingException(
+                    STAR_NODE_NOT_IN_GRAPH, "Lack of start node " + startNodeId);
+        }
+        return startIndex;
+    }
+
+    private void validateStartNodeIds(List<ID> startNodeIds) throws GraphProcessingException {
+        if (startNodeIds == null
+                || startNodeIds.isEmpty()
+                || startNodeIds.stream().anyMatch(Objects::isNull)) {
+            throw new GraphProcessingException(
+                    NULL_START_ID, "Start node ids are null, empty or contain null");
+        }
+    }
+
+    private ParentGivenGraphParserResult<ID, T> parseGraph(CompactGraph<ID, T> graph, ID startId)
+            throws GraphProcessingException {
+        log.debug("Built graph with {} nodes and {} edges", graph.nodeCount(), graph.edgeCount());
+        var startIndex = startIndex(graph, startId);
+        var mainNodeIndexes = findAllMainNodeIndexes(graph, startIndex);
+        log.debug("Found {} main nodes", mainNodeIndexes.cardinality());
+        var connectedNodeIndexes = findAllConnectedNodeIndexes(graph, startIndex);
+        log.debug("Found {} connected ids", connectedNodeIndexes.cardinality());
+        return new ParentGivenGraphParserResult<>(
+                graph, startIndex, mainNodeIndexes, connectedNodeIndexes);
+    }
+
+    private ParentGivenGraphParserResult<ID, T> parseGraph(
+            CompactGraph<ID, T> graph, int startIndex, TraversalLimits limits)
+            throws GraphProcessingException {
+        var mainNodeIndexes = findAllMainNodeIndexes(graph, startIndex, limits);
+        var connectedNodeIndexes = findAllConnectedNodeIndexes(graph, startIndex, limits);
+        var exceededLimit =
+                mainNodeIndexes.exceededLimit() != null
+                        ? mainNodeIndexes.exceededLimit()
+                        : connectedNodeIndexes.exceededLimit();
+        log.debug(
+                "Found {} main nodes and {} connected ids within limits, exceeded limit: {}",
+                mainNodeIndexes.indexes().cardinality(),
+                connectedNodeIndexes.indexes().cardinality(),
+                exceededLimit);
+        return new ParentGivenGraphParserResult<>(
+                graph,
+                startIndex,
+                mainNodeIndexes.indexes(),
+                connectedNodeIndexes.indexes(),
+                exceededLimit);
+    }
+
+    /**
+     * Removals are applied first. Main indexes lose ancestors of removed main nodes only, which
+     * are then checked again together with added nodes. Connected indexes lose components cut off
+     * by removed edges, found by searches from their ends, and are extended from added nodes. The
+     * cost depends on the removed and added part of the graph, not on its size. Queries not
+     * created by {@link org.klukov.utils.graphs.relation.GraphRelationFactory} search the updated
+     * graph again.
+     *
+     * @throws GraphProcessingException
+     */
+    @Override
+    public ParentGivenGraphParserResult<ID, T> updateGraphCollection(
+            ParentGivenGraphParserResult<ID, T> previousResult,
+            ParentGivenGraphDelta<ID, T> parentGivenGraphDelta)
+            throws GraphProcessingException {
+        log.debug("Starting validation of delta: {}", parentGivenGraphDelta);
+        validateDelta(previousResult, parentGivenGraphDelta);
+        previousResult.markUpdated();
+        var graph = updatableGraph(previousResult);
+        if (directionalIndexSearch == null || bidirectionalIndexSearch == null) {
+            return parseUpdated(graph, previousResult.startIndex(), parentGivenGraphDelta);
+        }
+        var startIndex = previousResult.startIndex();
+        var mainNodeIndexes = previousResult.mainIndexes();
+        var connectedNodeIndexes = previousResult.connectedIndexes();
+        var mainRegion = new BitSet();
+        var cutIndexes = IntStream.builder();
+        for (var removedId : parentGivenGraphDelta.getRemovedNodeIds()) {
+            var index = graph.indexOf(removedId);
+            if (index < 0 || !graph.isNode(index)) {
+                continue;
+            }
+            if (mainNodeIndexes.get(index) && !mainRegion.get(index)) {
+                directionalIndexSearch.extendConnectedIndexes(graph, mainRegion, index);
+            }
+            if (connectedNodeIndexes.get(index)) {
+                graph.forEachParent(index, parent -> cutIndexes.add(index).add(parent));
+            }
+        }
+        for (var removedId : parentGivenGraphDelta.getRemovedNodeIds()) {
+            graph.removeNode(removedId);
+        }
+        bidirectionalIndexSearch.removeDisconnectedIndexes(
+                graph, connectedNodeIndexes, startIndex, cutIndexes.build().toArray());
+        var addedIndexes = new int[parentGivenGraphDelta.getAddedNodes().size()];
+        var added = 0;
+        for (var node : parentGivenGraphDelta.getAddedNodes()) {
+            addedIndexes[added++] = graph.addNode(node.getId(), node.getParentIds(), node);
+        }
+        log.debug(
+                "Applied delta, graph has {} nodes. Main nodes to check again: {}",
+                graph.nodeCount(),
+                mainRegion.cardinality());
+        mainNodeIndexes.andNot(mainRegion);
+        if (!mainNodeIndexes.get(startIndex)) {
+            directionalIndexSearch.extendConnectedIndexes(
+                    graph, mainNodeIndexes, startIndex);
+        }
+        extendMainNodeIndexes(graph, mainNodeIndexes, mainRegion.stream().toArray());
+        extendMainNodeIndexes(graph, mainNodeIndexes, addedIndexes);
+        if (connectedNodeIndexes.isEmpty()) {
+            connectedNodeIndexes = findAllConnectedNodeIndexes(graph, startIndex);
+        } else {
+            extendConnectedNodeIndexes(graph, connectedNodeIndexes, addedIndexes);
+        }
+        var newIndexes = graph.compactIfNeeded();
+        if (newIndexes != null) {
+            startIndex = newIndexes[startIndex];
+            mainNodeIndexes = UpdatableGraph.remap(mainNodeIndexes, newIndexes);
+            connectedNodeIndexes = UpdatableGraph.remap(connectedNodeIndexes, newIndexes);
+        }
+        return new ParentGivenGraphParserResult<>(
+                graph, startIndex, mainNodeIndexes, connectedNodeIndexes);
+    }
+
+    private ParentGivenGraphParserResult<ID, T> parseUpdated(
+            UpdatableGraph<ID, T> graph, int startIndex, ParentGivenGraphDelta<ID, T> delta)
+            throws GraphProcessingException {
+        for (var removedId : delta.getRemovedNodeIds()) {
+            graph.removeNode(removedId);
+        }
+        for (var node : delta.getAddedNodes()) {
+            graph.addNode(node.getId(), node.getParentIds(), node);
+        }
+        var newIndexes = graph.compactIfNeeded();
+        if (newIndexes != null) {
+            startIndex = newIndexes[startIndex];
+        }
+        log.debug("Applied delta, graph has {} nodes. Searching it again", graph.nodeCount());
+        return new ParentGivenGraphParserResult<>(
+                graph,
+                startIndex,
+                findAllMainNodeIndexes(graph, startIndex),
+                findAllConnectedNodeIndexes(graph, startIndex));
     }
 
     private void validate(ParentGivenGraphParseInput<ID, T> parentGivenGraphParseInput)
@@ -47,71 +376,200 @@ class ParentGivenGraphParserService<ID, T extends ParentGivenGraphNodeInput<ID,
         graphValidator.validate(parentGivenGraphParseInput);
     }
 
-    private void connectNodes(
-            GraphEdge<ID> graphEdge, Map<ID, ParentGivenGraphNodeResult<ID, T>> nodesMap) {
-        var parent = nodesMap.get(graphEdge.getParentId());
-        var child = nodesMap.get(graphEdge.getChildId());
-        if (parent != null && child != null) {
-            parent.addChild(child);
-            child.addParent(parent);
+    private void validateDelta(
+            ParentGivenGraphParserResult<ID, T> previousResult,
+            ParentGivenGraphDelta<ID, T> parentGivenGraphDelta)
+            throws GraphProcessingException {
+        previousResult.checkNotUpdated();
+        if (previousResult.isTruncated()) {
+            throw new GraphProcessingException(
+                    TRAVERSAL_LIMIT_EXCEEDED, "Truncated result cannot be updated");
+        }
+        var graph = previousResult.graph();
+        var removedIds = new HashSet<ID>();
+        for (var removedId : parentGivenGraphDelta.getRemovedNodeIds()) {
+            if (removedId == null) {
+                throw new GraphProcessingException(NULL_NODES, "Removed node id is null");
+            }
+            removedIds.add(removedId);
         }
+        var addedIds = new HashSet<ID>();
+        for (var node : parentGivenGraphDelta.getAddedNodes()) {
+            if (node == null || node.getId() == null) {
+                throw new GraphProcessingException(
+                        NULL_NODES, "At least one added node is null or has id null");
+            }
+            var index = graph.indexOf(node.getId());
+            var existing = index >= 0 && graph.isNode(index) && !removedIds.contains(node.getId());
+            if (!addedIds.add(node.getId()) || existing) {
+                throw new GraphProcessingException(
+                        DUPLICATED_NODES, "Added node already exists: " + node.getId());
+            }
+        }
+        var startId = graph.idAt(previousResult.startIndex());
+        if (removedIds.contains(startId) && !addedIds.contains(startId)) {
+            throw new GraphProcessingException(STAR_NODE_NOT_IN_GRAPH, "Start node is removed");
+        }
+        graphValidator.validateUpdate(graph, removedIds, parentGivenGraphDelta.getAddedNodes());
     }
 
-    private Map<ID, ParentGivenGraphNodeResult<ID, T>> generateNodesMap(
-            ParentGivenGraphParseInput<ID, T> parentGivenGraphParseInput,
-            Set<GraphParserEdge<ID>> graphParserEdges)
+    @SuppressWarnings("unchecked")
+    private UpdatableGraph<ID, T> updatableGraph(ParentGivenGraphParserResult<ID, T> result) {
+        var graph = result.graph();
+        if (graph instanceof UpdatableGraph) {
+            return (UpdatableGraph<ID, T>) graph;
+        } else if (graph instanceof CompactGraph) {
+            return new UpdatableGraph<>((CompactGraph<ID, T>) graph);
+        }
+        return new UpdatableGraph<>(CompactGraph.copyOf((IndexedGraph<ID, T>) graph));
+    }
+
+    /** A node which is checked becomes main when it is a parent of a main node. */
+    private void extendMainNodeIndexes(
+            IndexedGraph<ID, T> graph, BitSet mainNodeIndexes, int[] checkedIndexes) {
+        for (var index : checkedIndexes) {
+            if (!mainNodeIndexes.get(index)
+                    && graph.isNode(index)
+                    && anyChildIn(graph, index, mainNodeIndexes)) {
+                directionalIndexSearch.extendConnectedIndexes(graph, mainNodeIndexes, index);
+            }
+        }
+    }
+
+    /** An added node joins the component when it was referenced from it or references it. */
+    private void extendConnectedNodeIndexes(
+            IndexedGraph<ID, T> graph, BitSet connectedNodeIndexes, int[] addedIndexes) {
+        for (var index : addedIndexes) {
+            if (connectedNodeIndexes.get(index)
+                    || anyParentIn(graph, index, connectedNodeIndexes)) {
+                bidirectionalIndexSearch.extendConnectedIndexes(
+                        graph, connectedNodeIndexes, index);
+            }
+        }
+    }
+
+    private boolean anyChildIn(IndexedGraph<ID, T> graph, int index, BitSet indexes) {
+        var found = new boolean[1];
+        graph.forEachChild(index, child -> found[0] |= indexes.get(child));
+        return found[0];
+    }
+
+    private boolean anyParentIn(IndexedGraph<ID, T> graph, int index, BitSet indexes) {
+        var found = new boolean[1];
+        graph.forEachParent(index, parent -> found[0] |= indexes.get(parent));
+        return found[0];
+    }
+
+    private BitSet findAllMainNodeIndexes(IndexedGraph<ID, T> graph, int startIndex)
             throws GraphProcessingException {
-        var mainNodeIds = findAllMainNodeIds(parentGivenGraphParseInput);
-        log.debug("Found main node ids: {}", mainNodeIds);
-        var connectedNodeIds =
-                findAllConnectedNodeIds(
-                        parentGivenGraphParseInput.getStartNodeId(), graphParserEdges);
-        log.debug("Found connected commits ids: {}", connectedNodeIds);
-        return parentGivenGraphParseInput.getGraphInput().stream()
-                .map(nodeInput -> convertToResponseNode(nodeInput, mainNodeIds, connectedNodeIds))
-                .collect(Collectors.toMap(ParentGivenGraphNodeResult::getId, node -> node));
+        if (directionalIndexSearch != null) {
+            return directionalIndexSearch.findAllConnectedIndexes(graph, startIndex);
+        }
+        return indexesOf(
+                graph,
+                directionalRelationIdsFinder.findAllConnectedIds(parseInput(graph, startIndex)));
     }
 
-    private ParentGivenGraphNodeResult<ID, T> convertToResponseNode(
-            ParentGivenGraphNodeInput<ID, T> nodeInput,
-            Set<ID> mainNodeIds,
-            Set<ID> connectedNodeIds) {
-        var pathType = determinePathType(nodeInput.getId(), mainNodeIds, connectedNodeIds);
-        return ParentGivenGraphNodeResult.<ID, T>builder()
-                .id(nodeInput.getId())
-                .object(nodeInput.getObject())
-                .startNodePathType(pathType)
-                .build();
+    private BitSet findAllConnectedNodeIndexes(IndexedGraph<ID, T> graph, int startIndex) {
+        if (bidirectionalIndexSearch != null) {
+            return bidirectionalIndexSearch.findAllConnectedIndexes(graph, startIndex);
+        }
+        return indexesOf(
+                graph,
+                bidirectionalRelationIdsFinder.findAllConnectedIds(
+                        graph.idAt(startIndex), edges(graph)));
+    }
+
+    private LimitedIndexes findAllMainNodeIndexes(
+            IndexedGraph<ID, T> graph, int startIndex, TraversalLimits limits)
+            throws GraphProcessingException {
+        if (directionalIndexSearch == null) {
+            var found =
+                    directionalRelationIdsFinder.findAllConnectedIds(
+                            parseInput(graph, startIndex), limits);
+            return new LimitedIndexes(indexesOf(graph, found.getIds()), found.getExceededLimit());
+        }
+        var budget = limits.startBudget();
+        var indexes = directionalIndexSearch.findAllConnectedIndexes(graph, startIndex, budget);
+        budget.checkNotExceeded();
+        return new LimitedIndexes(indexes, budget.getExceededLimit());
     }
 
-    private PathType determinePathType(ID nodeId, Set<ID> mainNodeIds, Set<ID> connectedNodeIds) {
-        if (mainNodeIds.contains(nodeId)) {
-            return PathType.MAIN;
-        } else if (connectedNodeIds.contains(nodeId)) {
-            return PathType.CONNECTED;
+    private LimitedIndexes findAllConnectedNodeIndexes(
+            IndexedGraph<ID, T> graph, int startIndex, TraversalLimits limits)
+            throws GraphProcessingException {
+        if (bidirectionalIndexSearch == null) {
+            var found =
+                    bidirectionalRelationIdsFinder.findAllConnectedIds(
+                            graph.idAt(startIndex), edges(graph), limits);
+            return new LimitedIndexes(indexesOf(graph, found.getIds()), found.getExceededLimit());
         }
-        return PathType.OUTER;
+        var budget = limits.startBudget();
+        var indexes = bidirectionalIndexSearch.findAllConnectedIndexes(graph, startIndex, budget);
+        budget.checkNotExceeded();
+        return new LimitedIndexes(indexes, budget.getExceededLimit());
     }
 
-    private Set<ID> findAllMainNodeIds(ParentGivenGraphParseInput<ID, T> parentGivenGraphParseInput)
+    private long[][] findAllMainNodeMasks(IndexedGraph<ID, T> graph, int[] startIndexes)
             throws GraphProcessingException {
-        return directionalRelationIdsFinder.findAllConnectedIds(parentGivenGraphParseInput);
+        if (directionalIndexSearch != null) {
+            return directionalIndexSearch.findAllConnectedIndexMasks(graph, startIndexes);
+        }
+        var masks = new long[(startIndexes.length + 63) >>> 6][graph.size()];
+        for (int i = 0; i < startIndexes.length; i++) {
+            addToMasks(masks, i, findAllMainNodeIndexes(graph, startIndexes[i]));
+        }
+        return masks;
+    }
+
+    private long[][] findAllConnectedNodeMasks(IndexedGraph<ID, T> graph, int[] startIndexes) {
+        if (bidirectionalIndexSearch != null) {
+            return bidirectionalIndexSearch.findAllConnectedIndexMasks(graph, startIndexes);
+        }
+        var masks = new long[(startIndexes.length + 63) >>> 6][graph.size()];
+        for (int i = 0; i < startIndexes.length; i++) {
+            addToMasks(masks, i, findAllConnectedNodeIndexes(graph, startIndexes[i]));
+        }
+        return masks;
     }
 
-    private Set<ID> findAllConnectedNodeIds(
-            ID startNodeId, Set<GraphParserEdge<ID>> graphParserEdges) {
-        return bidirectionalRelationIdsFinder.findAllConnectedIds(startNodeId, graphParserEdges);
+    private void addToMasks(long[][] masks, int bit, BitSet indexes) {
+        indexes.stream().forEach(index -> masks[bit >>> 6][index] |= 1L << bit);
     }
 
-    private Set<GraphParserEdge<ID>> generateEdges(Collection<T> parserInput) {
-        return parserInput.stream()
-                .flatMap(
-                        nodeWrapper ->
-                                nodeWrapper.getParentIds().stream()
-                                        .map(
-                                                parentId ->
-                                                        new GraphParserEdge<>(
-                                                                parentId, nodeWrapper.getId())))
-                .collect(Collectors.toSet());
+    private ParentGivenGraphParseInput<ID, T> parseInput(
+            IndexedGraph<ID, T> graph, int startIndex) {
+        var graphInput = new ArrayList<T>(graph.nodeCount());
+        for (int index = 0; index < graph.size(); index++) {
+            if (graph.isNode(index)) {
+                graphInput.add(graph.nodeAt(index));
+            }
+        }
+        return new ParentGivenGraphParseInput<>(graphInput, graph.idAt(startIndex));
+    }
+
+    private List<GraphParserEdge<ID>> edges(IndexedGraph<ID, T> graph) {
+        var edges = new ArrayList<GraphParserEdge<ID>>();
+        for (int index = 0; index < graph.size(); index++) {
+            var childId = graph.idAt(index);
+            graph.forEachParent(
+                    index, parent -> edges.add(new GraphParserEdge<>(graph.idAt(parent), childId)));
+        }
+        return edges;
     }
+
+    /** Ids which are not in the graph are skipped. */
+    private BitSet indexesOf(IndexedGraph<ID, T> graph, Collection<ID> ids) {
+        var indexes = new BitSet(graph.size());
+        for (var id : ids) {
+            var index = graph.indexOf(id);
+            if (index >= 0) {
+                indexes.set(index);
+            }
+        }
+        return indexes;
+    }
+
+    /** Indexes found by a search with limits. */
+    private record LimitedIndexes(BitSet indexes, TraversalLimit exceededLimit) {}
 }
@@ -0,0 +1,62 @@
+package org.klukov.utils.graphs.parser;
+
+import org.klukov.utils.graphs.relation.ReachabilityIndex;
+
+/**
+ * Relations between any two nodes of a parsed graph answered by a {@link ReachabilityIndex}, so
+ * {@link PathType} can be checked for start nodes other than the parsed one without parsing the
+ * graph again. Answers reflect the graph at the moment of building, later updates of the result
+ * are not visible.
+ *
+ * @param <ID> type of node ids
+ */
+public final class ParentGivenGraphReachability<ID> {
+
+    private final ReachabilityIndex<ID> index;
+    private final ID startNodeId;
+
+    private ParentGivenGraphReachability(ReachabilityIndex<ID> index, ID startNodeId) {
+        this.index = index;
+        this.startNodeId = startNodeId;
+    }
+
+    /** Builds index in O(n + e), see {@link ReachabilityIndex} for its memory usage. */
+    public static <ID> ParentGivenGraphReachability<ID> of(
+            ParentGivenGraphParserResult<ID, ?> result) {
+        result.checkNotUpdated();
+        var graph = result.graph();
+        return new ParentGivenGraphReachability<>(
+                ReachabilityIndex.of(graph), graph.idAt(result.startIndex()));
+    }
+
+    public boolean isAncestor(ID ancestorId, ID nodeId) {
+        return index.isAncestor(ancestorId, nodeId);
+    }
+
+    public boolean isDescendant(ID descendantId, ID nodeId) {
+        return index.isDescendant(descendantId, nodeId);
+    }
+
+    /** Path type of node as in the parsed result. */
+    public PathType pathType(ID nodeId) {
+        return pathType(startNodeId, nodeId);
+    }
+
+    /**
+     * Path type of node in the result of parsing the same graph from another start node.
+     *
+     * @throws IllegalArgumentException if any of ids is not a node
+     */
+    public PathType pathType(ID startNodeId, ID nodeId) {
+        if (!index.isNode(startNodeId) || !index.isNode(nodeId)) {
+            throw new IllegalArgumentException("Both ids have to be nodes of the graph");
+        }
+        if (startNodeId.equals(nodeId) || index.isAncestor(nodeId, startNodeId)) {
+            return PathType.MAIN;
+        }
+        if (index.areConnected(startNodeId, nodeId)) {
+            return PathType.CONNECTED;
+        }
+        return PathType.OUTER;
+    }
+}
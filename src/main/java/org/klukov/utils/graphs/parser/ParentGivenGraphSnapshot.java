@@ -0,0 +1,345 @@
+package org.klukov.utils.graphs.parser;
+
+import static org.klukov.utils.graphs.parser.SnapshotLayout.HEADER_SIZE;
+import static org.klukov.utils.graphs.parser.SnapshotLayout.MAGIC;
+import static org.klukov.utils.graphs.parser.SnapshotLayout.VERSION;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+import org.klukov.utils.graphs.common.IdCodec;
+import org.klukov.utils.graphs.common.MappedFile;
+import org.klukov.utils.graphs.compact.IndexedGraph;
+
+/**
+ * Parse result stored in a versioned binary file: id table with a hash index, adjacency and bit
+ * sets from which path types are derived (see {@link SnapshotLayout}).
+ *
+ * <p>Opening a snapshot maps the file and reads only its header and two bit sets, so it takes
+ * time proportional to the number of ids divided by 64. Ids, adjacency and nodes are read from
+ * the file when they are accessed. The result must not be used after the snapshot is closed.
+ */
+public final class ParentGivenGraphSnapshot<ID> implements Closeable {
+
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    private final MappedFile file;
+    private final ParentGivenGraphParserResult<ID, ParentGivenGraphSnapshotNode<ID>> result;
+
+    private ParentGivenGraphSnapshot(
+            MappedFile file,
+            ParentGivenGraphParserResult<ID, ParentGivenGraphSnapshotNode<ID>> result) {
+        this.file = file;
+        this.result = result;
+    }
+
+    /**
+     * Writes complete result in O(n + e). Every id is encoded once and written right away, so
+     * encoded ids are not kept in memory; the header and id offsets, known only then, are written
+     * over their placeholders at the end.
+     */
+    public static <ID> void write(
+            ParentGivenGraphParserResult<ID, ?> result, IdCodec<ID> idCodec, Path path)
+            throws IOException {
+        result.checkNotUpdated();
+        if (result.isTruncated()) {
+            throw new IllegalArgumentException("Truncated result cannot be written");
+        }
+        var graph = result.graph();
+        var size = graph.size();
+        var idOffsets = new long[size + 1];
+        var hashSlots = new int[SnapshotLayout.hashCapacityFor(size)];
+        var edgeCount = 0L;
+        for (int index = 0; index < size; index++) {
+            edgeCount += graph.parentCount(index);
+        }
+        try (var channel =
+                        FileChannel.open(
+                                path,
+                                StandardOpenOption.CREATE,
+                                StandardOpenOption.TRUNCATE_EXISTING,
+                                StandardOpenOption.WRITE);
+                var output =
+                        new SnapshotOutput(
+                                new DataOutputStream(
+                                        new BufferedOutputStream(
+                                                Channels.newOutputStream(channel),
+                                                OUTPUT_BUFFER_SIZE)))) {
+            output.alignTo(HEADER_SIZE + (size + 1L) * Long.BYTES);
+            for (int index = 0; index < size; index++) {
+                var id = graph.idAt(index);
+                var bytes = idCodec.toBytes(id);
+                output.write(bytes);
+                idOffsets[index + 1] = idOffsets[index] + bytes.length;
+                var slot = SnapshotLayout.slotOf(idCodec.hash(id), hashSlots.length);
+                while (hashSlots[slot] != 0) {
+                    slot = (slot + 1) & (hashSlots.length - 1);
+                }
+                hashSlots[slot] = index + 1;
+            }
+            var layout = new SnapshotLayout(size, hashSlots.length, edgeCount, idOffsets[size]);
+            output.alignTo(layout.hashSlots());
+            for (var hashSlot : hashSlots) {
+                output.writeInt(hashSlot);
+            }
+            output.alignTo(layout.nodes());
+            var nodes = new BitSet(size);
+            for (int index = 0; index < size; index++) {
+                nodes.set(index, graph.isNode(index));
+            }
+            output.writeBitSet(nodes, layout.bitSetWords());
+            output.writeBitSet(result.mainIndexes(), layout.bitSetWords());
+            output.writeBitSet(result.connectedIndexes(), layout.bitSetWords());
+            writeAdjacency(
+                    output,
+                    graph,
+                    layout.parentOffsets(),
+                    layout.parentTargets(),
+                    edgeCount,
+                    IndexedGraph::forEachParent);
+            writeAdjacency(
+                    output,
+                    graph,
+                    layout.childOffsets(),
+                    layout.childTargets(),
+                    edgeCount,
+                    IndexedGraph::forEachChild);
+            output.alignTo(layout.end());
+            output.flush();
+            var header = ByteBuffer.allocate(OUTPUT_BUFFER_SIZE);
+            header.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(size)
+                    .putInt(graph.nodeCount())
+                    .putInt(result.startIndex())
+                    .putInt(hashSlots.length)
+                    .putLong(edgeCount)
+                    .putLong(idOffsets[size]);
+            var position = 0L;
+            for (var idOffset : idOffsets) {
+                if (!header.hasRemaining()) {
+                    position = writeAt(channel, header, position);
+                }
+                header.putLong(idOffset);
+            }
+            writeAt(channel, header, position);
+        }
+    }
+
+    /**
+     * @throws IOException when file cannot be read, is not a snapshot of supported version or is
+     *     truncated
+     */
+    public static <ID> ParentGivenGraphSnapshot<ID> open(Path path, IdCodec<ID> idCodec)
+            throws IOException {
+        var file = MappedFile.open(path);
+        try {
+            if (file.size() < 2 * Integer.BYTES
+                    || file.getInt(0) != MAGIC
+                    || file.getInt(Integer.BYTES) != VERSION) {
+                throw new IOException("Not a graph snapshot of version " + VERSION + ": " + path);
+            }
+            if (file.size() < HEADER_SIZE) {
+                throw new IOException("Graph snapshot is truncated: " + path);
+            }
+            var layout = readLayout(file, path);
+            var graph = new MappedSnapshotGraph<>(file, layout, idCodec, file.getInt(12));
+            var result =
+                    new ParentGivenGraphParserResult<>(
+                            graph,
+                            file.getInt(16),
+                            readBitSet(file, layout.main(), layout.bitSetWords()),
+                            readBitSet(file, layout.connected(), layout.bitSetWords()));
+            return new ParentGivenGraphSnapshot<>(file, result);
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    public ParentGivenGraphParserResult<ID, ParentGivenGraphSnapshotNode<ID>> getResult() {
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    private static void writeAdjacency(
+            SnapshotOutput output,
+            IndexedGraph<?, ?> graph,
+            long offsetsPosition,
+            long targetsPosition,
+            long edgeCount,
+            AdjacencyReader adjacency)
+            throws IOException {
+        var targets = new TargetBuffer();
+        output.alignTo(offsetsPosition);
+        output.writeInt(0);
+        var offset = 0L;
+        for (int index = 0; index < graph.size(); index++) {
+            targets.clear();
+            adjacency.forEach(graph, index, targets);
+            offset += targets.size;
+            output.writeInt(Math.toIntExact(offset));
+        }
+        if (offset != edgeCount) {
+            throw new IllegalStateException("Numbers of parent and child edges differ");
+        }
+        output.alignTo(targetsPosition);
+        for (int index = 0; index < graph.size(); index++) {
+            targets.clear();
+            adjacency.forEach(graph, index, targets);
+            for (int i = 0; i < targets.size; i++) {
+                output.writeInt(targets.values[i]);
+            }
+        }
+    }
+
+    /**
+     * Checks numbers of the header before sections are derived from them: every section is not
+     * bigger than the file, so their positions are increasing and cannot overflow, and the last
+     * one ends with the file.
+     */
+    private static SnapshotLayout readLayout(MappedFile file, Path path) throws IOException {
+        var fileSize = file.size();
+        var size = file.getInt(8);
+        var nodeCount = file.getInt(12);
+        var startIndex = file.getInt(16);
+        var hashCapacity = file.getInt(20);
+        var edgeCount = file.getLong(24);
+        var idDataLength = file.getLong(32);
+        if (size < 0
+                || (size + 1L) * Long.BYTES > fileSize
+                || nodeCount < 0
+                || nodeCount > size
+                || startIndex < 0
+                || startIndex >= size
+                || hashCapacity <= size
+                || Integer.bitCount(hashCapacity) != 1
+                || (long) hashCapacity * Integer.BYTES > fileSize
+                || edgeCount < 0
+                || edgeCount > fileSize / Integer.BYTES
+                || idDataLength < 0
+                || idDataLength > fileSize) {
+            throw new IOException("Graph snapshot has invalid header: " + path);
+        }
+        var layout = new SnapshotLayout(size, hashCapacity, edgeCount, idDataLength);
+        if (fileSize != layout.end()) {
+            throw new IOException("Graph snapshot is truncated: " + path);
+        }
+        if (file.getLong(layout.idOffsets()) != 0
+                || file.getLong(layout.idData() - Long.BYTES) != idDataLength) {
+            throw new IOException("Graph snapshot has invalid id offsets: " + path);
+        }
+        return layout;
+    }
+
+    /** Writes buffered bytes at the position of the file and clears the buffer. */
+    private static long writeAt(FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+        return position;
+    }
+
+    private static BitSet readBitSet(MappedFile file, long position, int words) {
+        var result = new long[words];
+        for (int i = 0; i < words; i++) {
+            result[i] = file.getLong(position + (long) i * Long.BYTES);
+        }
+        return BitSet.valueOf(result);
+    }
+
+    @FunctionalInterface
+    private interface AdjacencyReader {
+        void forEach(IndexedGraph<?, ?> graph, int index, IntConsumer action);
+    }
+
+    /** Adjacency of a single index, reused between indexes. */
+    private static final class TargetBuffer implements IntConsumer {
+
+        private int[] values = new int[16];
+        private int size;
+
+        @Override
+        public void accept(int target) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = target;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * Data output which counts written bytes in a long, as {@link DataOutputStream#size()} stops
+     * at 2 GB.
+     */
+    private static final class SnapshotOutput implements Closeable {
+
+        private final DataOutputStream output;
+        private long position;
+
+        private SnapshotOutput(DataOutputStream output) {
+            this.output = output;
+        }
+
+        void writeInt(int value) throws IOException {
+            output.writeInt(value);
+            position += Integer.BYTES;
+        }
+
+        void writeLong(long value) throws IOException {
+            output.writeLong(value);
+            position += Long.BYTES;
+        }
+
+        void write(byte[] bytes) throws IOException {
+            output.write(bytes);
+            position += bytes.length;
+        }
+
+        void writeBitSet(BitSet bitSet, int words) throws IOException {
+            var values = bitSet.toLongArray();
+            for (int i = 0; i < words; i++) {
+                writeLong(i < values.length ? values[i] : 0L);
+            }
+        }
+
+        void flush() throws IOException {
+            output.flush();
+        }
+
+        void alignTo(long target) throws IOException {
+            if (position > target) {
+                throw new IllegalStateException("Section written beyond its end");
+            }
+            while (position < target) {
+                output.writeByte(0);
+                position++;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            output.close();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.klukov.utils.graphs.parser;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+
+/** Node of a reopened snapshot; its id and parent ids are read from the file on every call. */
+public final class ParentGivenGraphSnapshotNode<ID>
+        implements ParentGivenGraphNodeInput<ID, ParentGivenGraphSnapshotNode<ID>> {
+
+    private final MappedSnapshotGraph<ID> graph;
+    private final int index;
+
+    ParentGivenGraphSnapshotNode(MappedSnapshotGraph<ID> graph, int index) {
+        this.graph = graph;
+        this.index = index;
+    }
+
+    @Override
+    public ID getId() {
+        return graph.idAt(index);
+    }
+
+    @Override
+    public Collection<ID> getParentIds() {
+        var result = new ArrayList<ID>(graph.parentCount(index));
+        graph.forEachParent(index, parent -> result.add(graph.idAt(parent)));
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public ParentGivenGraphSnapshotNode<ID> getObject() {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "ParentGivenGraphSnapshotNode{id=" + getId() + '}';
+    }
+}
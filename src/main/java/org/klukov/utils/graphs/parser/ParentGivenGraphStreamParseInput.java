@@ -0,0 +1,44 @@
+package org.klukov.utils.graphs.parser;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+import lombok.Getter;
+import lombok.ToString;
+import org.klukov.utils.graphs.compact.NodeViews;
+
+/**
+ * Parse input whose nodes are read once, one by one, so they do not have to be collected before
+ * parsing. Parser keeps only nodes and compact adjacency, or only the adjacency when node views
+ * are given.
+ */
+@Getter
+@ToString
+public final class ParentGivenGraphStreamParseInput<
+        ID, T extends ParentGivenGraphNodeInput<ID, T>> {
+    @ToString.Exclude private final Iterator<? extends T> graphInput;
+    private final ID startNodeId;
+    @ToString.Exclude private final NodeViews<ID, T> nodeViews;
+
+    public ParentGivenGraphStreamParseInput(Iterator<? extends T> graphInput, ID startNodeId) {
+        this(graphInput, startNodeId, null);
+    }
+
+    /**
+     * @param nodeViews views creating nodes of the parsed graph from its adjacency, nodes read are
+     *     not kept then; {@code null} to keep them
+     */
+    public ParentGivenGraphStreamParseInput(
+            Iterator<? extends T> graphInput, ID startNodeId, NodeViews<ID, T> nodeViews) {
+        this.graphInput = graphInput;
+        this.startNodeId = startNodeId;
+        this.nodeViews = nodeViews;
+    }
+
+    /** Stream is consumed sequentially, also when it is parallel. */
+    public static <ID, T extends ParentGivenGraphNodeInput<ID, T>>
+            ParentGivenGraphStreamParseInput<ID, T> of(
+                    Stream<? extends T> graphInput, ID startNodeId) {
+        return new ParentGivenGraphStreamParseInput<>(
+                graphInput == null ? null : graphInput.iterator(), startNodeId);
+    }
+}
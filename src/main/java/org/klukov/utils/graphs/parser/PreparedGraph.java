@@ -0,0 +1,75 @@
+package org.klukov.utils.graphs.parser;
+
+import java.util.List;
+import java.util.Set;
+import org.klukov.utils.graphs.common.GraphProcessingException;
+import org.klukov.utils.graphs.common.TraversalLimits;
+import org.klukov.utils.graphs.compact.CompactGraph;
+
+/**
+ * Validated and indexed graph, parsed and queried for any start node without processing its input
+ * again. Every query costs O(n + e) of the graph only. Graph is immutable, so queries can run
+ * concurrently; results share it.
+ *
+ * @param <ID> type of node ids
+ * @param <T> type of nodes
+ */
+public final class PreparedGraph<ID, T extends ParentGivenGraphNodeInput<ID, T>> {
+
+    private final ParentGivenGraphParserService<ID, T> parser;
+    private final CompactGraph<ID, T> graph;
+
+    PreparedGraph(ParentGivenGraphParserService<ID, T> parser, CompactGraph<ID, T> graph) {
+        this.parser = parser;
+        this.graph = graph;
+    }
+
+    public int nodeCount() {
+        return graph.nodeCount();
+    }
+
+    /**
+     * @throws GraphProcessingException when start node id is null or is not a node
+     */
+    public ParentGivenGraphParserResult<ID, T> parse(ID startNodeId)
+            throws GraphProcessingException {
+        return parser.parsePrepared(graph, startNodeId);
+    }
+
+    /**
+     * Parses graph searching main and connected nodes within limits.
+     *
+     * @throws GraphProcessingException when start node id is null or is not a node, or when a limit
+     *     is reached and limits are strict
+     */
+    public ParentGivenGraphParserResult<ID, T> parse(ID startNodeId, TraversalLimits limits)
+            throws GraphProcessingException {
+        return parser.parsePrepared(graph, startNodeId, limits);
+    }
+
+    /**
+     * @throws GraphProcessingException when start node ids are empty, contain null or any of them
+     *     is not a node
+     */
+    public ParentGivenGraphBatchParserResult<ID, T> parseBatch(List<ID> startNodeIds)
+            throws GraphProcessingException {
+        return parser.parseGraphBatch(graph, startNodeIds);
+    }
+
+    /**
+     * @return ids of start node and nodes reachable from it through parents
+     * @throws GraphProcessingException when start node id is null or is not a node
+     */
+    public Set<ID> findDirectionalIds(ID startNodeId) throws GraphProcessingException {
+        return parser.findDirectionalIds(graph, startNodeId);
+    }
+
+    /**
+     * @return ids connected with start node by edges of any direction, including ids which are not
+     *     nodes, or empty set when start node has no edges
+     * @throws GraphProcessingException when start node id is null or is not a node
+     */
+    public Set<ID> findBidirectionalIds(ID startNodeId) throws GraphProcessingException {
+        return parser.findBidirectionalIds(graph, startNodeId);
+    }
+}
@@ -0,0 +1,97 @@
+package org.klukov.utils.graphs.parser;
+
+/**
+ * Positions of sections of a graph snapshot, all numbers big-endian and every section aligned to
+ * 8 bytes:
+ *
+ * <pre>
+ * header         int magic 'KGSN', int version, int size, int nodeCount, int startIndex,
+ *                int hashCapacity, long edgeCount, long idDataLength
+ * idOffsets      long[size + 1], positions of encoded ids in idData
+ * idData         encoded ids
+ * hashSlots      int[hashCapacity], index + 1 of id with given hash or 0, linear probing
+ * nodes          long words of bit set of indexes which are nodes
+ * main           long words of bit set of main indexes
+ * connected      long words of bit set of connected indexes
+ * parentOffsets  int[size + 1]
+ * parentTargets  int[edgeCount]
+ * childOffsets   int[size + 1]
+ * childTargets   int[edgeCount]
+ * </pre>
+ */
+record SnapshotLayout(int size, int hashCapacity, long edgeCount, long idDataLength) {
+
+    static final int MAGIC = 0x4B47534E;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 40;
+
+    long idOffsets() {
+        return HEADER_SIZE;
+    }
+
+    long idData() {
+        return idOffsets() + (size + 1L) * Long.BYTES;
+    }
+
+    long hashSlots() {
+        return align(idData() + idDataLength);
+    }
+
+    long nodes() {
+        return align(hashSlots() + (long) hashCapacity * Integer.BYTES);
+    }
+
+    long main() {
+        return nodes() + bitSetWords() * Long.BYTES;
+    }
+
+    long connected() {
+        return main() + bitSetWords() * Long.BYTES;
+    }
+
+    long parentOffsets() {
+        return connected() + bitSetWords() * Long.BYTES;
+    }
+
+    long parentTargets() {
+        return align(parentOffsets() + (size + 1L) * Integer.BYTES);
+    }
+
+    long childOffsets() {
+        return align(parentTargets() + edgeCount * Integer.BYTES);
+    }
+
+    long childTargets() {
+        return align(childOffsets() + (size + 1L) * Integer.BYTES);
+    }
+
+    long end() {
+        return align(childTargets() + edgeCount * Integer.BYTES);
+    }
+
+    int bitSetWords() {
+        return (size + 63) >>> 6;
+    }
+
+    int slotOf(int hash) {
+        return slotOf(hash, hashCapacity);
+    }
+
+    static int slotOf(int hash, int hashCapacity) {
+        var mixed = hash * 0x9E3779B9;
+        return (mixed ^ (mixed >>> 16)) & (hashCapacity - 1);
+    }
+
+    /** Power of two at least twice as big as number of ids. */
+    static int hashCapacityFor(int size) {
+        var capacity = 2;
+        while (capacity < 2L * size) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+}
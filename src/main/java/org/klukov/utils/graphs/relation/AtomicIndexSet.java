@@ -0,0 +1,43 @@
+package org.klukov.utils.graphs.relation;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/** Fixed-size set of int indexes which many threads can add to without locking. */
+final class AtomicIndexSet {
+
+    private final AtomicLongArray words;
+
+    AtomicIndexSet(int size) {
+        this.words = new AtomicLongArray((size + 63) >>> 6);
+    }
+
+    boolean contains(int index) {
+        return (words.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    /**
+     * @return {@code true} if index was added by this call, {@code false} if it was already there
+     */
+    boolean add(int index) {
+        var word = index >>> 6;
+        var mask = 1L << index;
+        var current = words.get(word);
+        while ((current & mask) == 0) {
+            var witness = words.compareAndExchange(word, current, current | mask);
+            if (witness == current) {
+                return true;
+            }
+            current = witness;
+        }
+        return false;
+    }
+
+    BitSet toBitSet() {
+        var result = new long[words.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = words.get(i);
+        }
+        return BitSet.valueOf(result);
+    }
+}
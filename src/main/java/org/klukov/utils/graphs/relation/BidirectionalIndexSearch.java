@@ -0,0 +1,166 @@
+package org.klukov.utils.graphs.relation;
+
+import java.util.BitSet;
+import java.util.Optional;
+import java.util.function.IntConsumer;
+import org.klukov.utils.graphs.common.TraversalBudget;
+import org.klukov.utils.graphs.compact.IndexedGraph;
+
+/**
+ * Search through edges of any direction of an already built graph behind bidirectional queries
+ * of {@link GraphRelationFactory}. It is given only for those queries, as {@link
+ * DirectionalIndexSearch} is.
+ */
+public final class BidirectionalIndexSearch {
+
+    BidirectionalIndexSearch() {}
+
+    /**
+     * @return search of the query, empty when the query is not created by {@link
+     *     GraphRelationFactory}
+     */
+    public static Optional<BidirectionalIndexSearch> of(BidirectionalRelationIdsQuery<?> query) {
+        return query instanceof BidirectionalRelationIdsFinder<?> finder
+                ? Optional.of(finder.indexSearch())
+                : Optional.empty();
+    }
+
+    /**
+     * @return search of the query, empty when the query is not created by {@link
+     *     GraphRelationFactory}
+     */
+    public static Optional<BidirectionalIndexSearch> of(LongBidirectionalRelationIdsQuery query) {
+        return query instanceof LongBidirectionalRelationIdsFinder finder
+                ? Optional.of(finder.indexSearch())
+                : Optional.empty();
+    }
+
+    /**
+     * Finds indexes connected with the start index by edges of any direction, including ids which
+     * are not nodes. Result is empty when the start index has no edges.
+     */
+    public BitSet findAllConnectedIndexes(IndexedGraph<?, ?> graph, int startIndex) {
+        var result = new BitSet(graph.size());
+        if (graph.parentCount(startIndex) + graph.childCount(startIndex) > 0) {
+            extendConnectedIndexes(graph, result, startIndex);
+        }
+        return result;
+    }
+
+    /**
+     * Marks index and all not marked indexes connected with it, at cost proportional to the newly
+     * marked part.
+     */
+    public void extendConnectedIndexes(IndexedGraph<?, ?> graph, BitSet connected, int index) {
+        var queue = new IndexQueue(64);
+        IntConsumer visitor =
+                next -> {
+                    if (!connected.get(next)) {
+                        connected.set(next);
+                        queue.offer(next);
+                    }
+                };
+        connected.set(index);
+        queue.offer(index);
+        while (!queue.isEmpty()) {
+            var current = queue.poll();
+            graph.forEachParent(current, visitor);
+            graph.forEachChild(current, visitor);
+        }
+    }
+
+    /** Finds indexes allowed by budget, level by level, so ids closest to the start come first. */
+    public BitSet findAllConnectedIndexes(
+            IndexedGraph<?, ?> graph, int startIndex, TraversalBudget budget) {
+        var result = new BitSet(graph.size());
+        if (graph.parentCount(startIndex) + graph.childCount(startIndex) == 0 || !budget.visit(0)) {
+            return result;
+        }
+        var queue = new IndexQueue(64);
+        result.set(startIndex);
+        queue.offer(startIndex);
+        for (int depth = 1; !queue.isEmpty() && !budget.isStopped(); depth++) {
+            var nextDepth = depth;
+            IntConsumer visitor =
+                    next -> {
+                        if (!result.get(next) && budget.visit(nextDepth)) {
+                            result.set(next);
+                            queue.offer(next);
+                        }
+                    };
+            for (int i = queue.size(); i > 0 && !budget.isStopped(); i--) {
+                var current = queue.poll();
+                graph.forEachParent(current, visitor);
+                graph.forEachChild(current, visitor);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Clears indexes which lost connection with the start index after edges of cut indexes, both
+     * ends of every removed edge, were removed from the graph. Every index is cleared when the
+     * start index has no edges left.
+     *
+     * <p>Searches start from every cut index and take turns, one index each; searches which meet
+     * are merged. Once at most one search is not finished, every finished search has visited a
+     * whole component. They are cleared, unless one of them holds the start index and becomes the
+     * only component kept, so the remaining component is visited only until the searches meet.
+     */
+    public void removeDisconnectedIndexes(
+            IndexedGraph<?, ?> graph, BitSet connected, int startIndex, int[] cutIndexes) {
+        var searches = new CutSearches(cutIndexes.length);
+        for (int search = 0; search < cutIndexes.length; search++) {
+            searches.visit(search, cutIndexes[search]);
+        }
+        while (searches.unfinishedCount() > 1) {
+            for (int search = 0; search < cutIndexes.length; search++) {
+                if (searches.isUnfinishedRoot(search)) {
+                    var visitingSearch = search;
+                    IntConsumer visitor = next -> searches.visit(visitingSearch, next);
+                    var current = searches.poll(search);
+                    graph.forEachParent(current, visitor);
+                    graph.forEachChild(current, visitor);
+                }
+            }
+        }
+        var startSearch = searches.finishedSearchOf(startIndex);
+        if (startSearch < 0) {
+            searches.forEachFinished(connected::clear);
+        } else {
+            connected.clear();
+            if (graph.parentCount(startIndex) + graph.childCount(startIndex) > 0) {
+                searches.forEachVisited(startSearch, connected::set);
+            }
+        }
+    }
+
+    /**
+     * Finds indexes connected with many start indexes in a single pass over the graph, with masks
+     * as {@link DirectionalIndexSearch#findAllConnectedIndexMasks(IndexedGraph, int[])}. Weak
+     * components are found once; every index takes the mask of its component.
+     */
+    public long[][] findAllConnectedIndexMasks(IndexedGraph<?, ?> graph, int[] startIndexes) {
+        var size = graph.size();
+        var unionFind = new IntUnionFind(size);
+        unionFind.growTo(size);
+        for (int index = 0; index < size; index++) {
+            var child = index;
+            graph.forEachParent(index, parent -> unionFind.union(child, parent));
+        }
+        var masks = new long[(startIndexes.length + 63) >>> 6][size];
+        for (int i = 0; i < startIndexes.length; i++) {
+            var startIndex = startIndexes[i];
+            if (graph.parentCount(startIndex) + graph.childCount(startIndex) > 0) {
+                masks[i >>> 6][unionFind.find(startIndex)] |= 1L << i;
+            }
+        }
+        for (int index = 0; index < size; index++) {
+            var root = unionFind.find(index);
+            for (var mask : masks) {
+                mask[index] = mask[root];
+            }
+        }
+        return masks;
+    }
+}
@@ -1,18 +1,45 @@
 package org.klukov.utils.graphs.relation;
 
 import java.util.Collection;
-import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
 import org.klukov.utils.graphs.common.GraphEdge;
+import org.klukov.utils.graphs.common.GraphProcessingException;
+import org.klukov.utils.graphs.common.TraversalLimits;
+import org.klukov.utils.graphs.compact.CompactGraph;
 
 class BidirectionalRelationIdsFinder<ID> implements BidirectionalRelationIdsQuery<ID> {
 
+    private final BidirectionalIndexSearch indexSearch = new BidirectionalIndexSearch();
+
     public <E extends GraphEdge<ID>> Set<ID> findAllConnectedIds(
             ID startId, Collection<E> graphEdges) {
         if (graphEdges == null || graphEdges.isEmpty()) {
-            return Collections.emptySet();
+            return new HashSet<>();
+        }
+        return prepare(graphEdges).getRelatedIds(startId);
+    }
+
+    /** Edges are indexed once in O(e); only the search is bounded by limits. */
+    @Override
+    public <E extends GraphEdge<ID>> LimitedRelationIds<ID> findAllConnectedIds(
+            ID startId, Collection<E> graphEdges, TraversalLimits limits)
+            throws GraphProcessingException {
+        if (graphEdges == null || graphEdges.isEmpty()) {
+            return new LimitedRelationIds<>(new HashSet<>(), null);
+        }
+        var graph = CompactGraph.ofEdges(graphEdges);
+        var startIndex = graph.indexOf(startId);
+        if (startIndex < 0) {
+            return new LimitedRelationIds<>(new HashSet<>(), null);
         }
-        var solver = new BidirectionalRelationSolver<>(graphEdges);
-        return solver.getRelatedIds(startId);
+        var budget = limits.startBudget();
+        var connected = indexSearch.findAllConnectedIndexes(graph, startIndex, budget);
+        budget.checkNotExceeded();
+        return new LimitedRelationIds<>(graph.idSet(connected), budget.getExceededLimit());
+    }
+
+    BidirectionalIndexSearch indexSearch() {
+        return indexSearch;
     }
 }
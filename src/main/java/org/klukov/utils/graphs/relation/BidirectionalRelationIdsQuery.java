@@ -3,8 +3,43 @@ package org.klukov.utils.graphs.relation;
 import java.util.Collection;
 import java.util.Set;
 import org.klukov.utils.graphs.common.GraphEdge;
+import org.klukov.utils.graphs.common.GraphProcessingException;
+import org.klukov.utils.graphs.common.TraversalLimits;
 
 public interface BidirectionalRelationIdsQuery<ID> {
 
     <E extends GraphEdge<ID>> Set<ID> findAllConnectedIds(ID startId, Collection<E> graphEdges);
+
+    /**
+     * Finds ids as {@link #findAllConnectedIds(Object, Collection)}, level by level, stopping at
+     * the first reached limit. By default ids are found in full first and only the result is
+     * bounded by limits; queries of {@link GraphRelationFactory} also bound the search.
+     *
+     * @throws GraphProcessingException when a limit is reached and limits are strict
+     */
+    default <E extends GraphEdge<ID>> LimitedRelationIds<ID> findAllConnectedIds(
+            ID startId, Collection<E> graphEdges, TraversalLimits limits)
+            throws GraphProcessingException {
+        return LimitedIdSearch.limitBidirectional(
+                startId, graphEdges, findAllConnectedIds(startId, graphEdges), limits);
+    }
+
+    /** Labels weakly connected components of all ids in edges in one pass over edges. */
+    default <E extends GraphEdge<ID>> ComponentLabelling<ID> findAllComponents(
+            Collection<E> graphEdges) {
+        return prepare(graphEdges).labelComponents();
+    }
+
+    /**
+     * Reads edges once into a solver, which callers keep to find ids connected with many start ids
+     * by {@link BidirectionalRelationSolver#getRelatedIds(Object)} without reading edges again.
+     *
+     * @param graphEdges edges, {@code null} is treated as no edges
+     */
+    default <E extends GraphEdge<ID>> BidirectionalRelationSolver<ID> prepare(
+            Collection<E> graphEdges) {
+        return graphEdges == null
+                ? new BidirectionalRelationSolver<>()
+                : new BidirectionalRelationSolver<>(graphEdges);
+    }
 }
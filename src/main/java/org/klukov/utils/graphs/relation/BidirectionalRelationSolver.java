@@ -1,71 +1,127 @@
 package org.klukov.utils.graphs.relation;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
 import org.klukov.utils.graphs.common.GraphEdge;
+import org.klukov.utils.graphs.compact.IdIndex;
 
-class BidirectionalRelationSolver<ID> {
+/**
+ * Incremental solver of weakly connected components. Ids are mapped to int indexes and kept in a
+ * union-find structure, so adding an edge costs amortized almost constant time and edges can be
+ * added in batches at any moment without rebuilding. Finding ids related to a start id costs time
+ * proportional to the size of its component. Solvers of disjoint chunks of edges can be merged, so
+ * a big graph can be solved in parallel.
+ *
+ * <p>Not thread-safe.
+ */
+public final class BidirectionalRelationSolver<ID> {
 
-    private final Map<Integer, Set<ID>> edgeBlocks;
-    private final Map<ID, Integer> idToBlockMap;
-    private Integer blockIterator = 0;
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private final IdIndex<ID> ids;
+    private final IntUnionFind components;
+
+    public BidirectionalRelationSolver() {
+        this(Collections.emptyList());
+    }
 
     public <E extends GraphEdge<ID>> BidirectionalRelationSolver(Collection<E> edges) {
-        this.edgeBlocks = new HashMap<>();
-        this.idToBlockMap = new HashMap<>();
-        edges.forEach(this::processEdge);
+        this.ids = new IdIndex<>(edges.size());
+        this.components = new IntUnionFind(edges.size());
+        addEdges(edges);
     }
 
-    private void processEdge(GraphEdge<ID> edge) {
-        var parent = edge.getParentId();
-        var child = edge.getChildId();
-        var parentBlockNumber = idToBlockMap.get(parent);
-        var childBlockNumber = idToBlockMap.get(child);
-        if (parentBlockNumber == null && childBlockNumber == null) {
-            createNewBlock(parent, child);
-        } else if (parentBlockNumber == null) {
-            addIdToBlock(parent, childBlockNumber);
-        } else if (childBlockNumber == null) {
-            addIdToBlock(child, parentBlockNumber);
-        } else {
-            mergeBlocks(parentBlockNumber, childBlockNumber);
+    /**
+     * Builds solvers of chunks of edges on fork join pool and merges them into the biggest one, so
+     * every id of a chunk is indexed once more. Pays off when chunks share few ids, e.g. for
+     * edges grouped by shards of a graph.
+     */
+    public static <ID, E extends GraphEdge<ID>> BidirectionalRelationSolver<ID> parallel(
+            List<E> edges, ForkJoinPool forkJoinPool) {
+        var chunks = new ArrayList<ForkJoinTask<BidirectionalRelationSolver<ID>>>();
+        for (int from = 0; from < edges.size(); from += CHUNK_SIZE) {
+            var chunk = edges.subList(from, Math.min(from + CHUNK_SIZE, edges.size()));
+            chunks.add(forkJoinPool.submit(() -> new BidirectionalRelationSolver<ID>(chunk)));
         }
+        var solvers = chunks.stream().map(ForkJoinTask::join).collect(Collectors.toList());
+        var result =
+                solvers.stream()
+                        .max(Comparator.comparingInt(BidirectionalRelationSolver::idCount))
+                        .orElseGet(BidirectionalRelationSolver::new);
+        solvers.stream().filter(solver -> solver != result).forEach(result::merge);
+        return result;
+    }
+
+    public <E extends GraphEdge<ID>> BidirectionalRelationSolver<ID> addEdges(Collection<E> edges) {
+        edges.forEach(this::addEdge);
+        return this;
+    }
+
+    public BidirectionalRelationSolver<ID> addEdge(GraphEdge<ID> edge) {
+        var parent = ids.add(edge.getParentId());
+        var child = ids.add(edge.getChildId());
+        components.growTo(ids.size());
+        components.union(parent, child);
+        return this;
     }
 
-    private void createNewBlock(ID parent, ID child) {
-        var blockNumber = blockIterator++;
-        edgeBlocks.put(blockNumber, new HashSet<>(List.of(parent, child)));
-        idToBlockMap.put(parent, blockNumber);
-        idToBlockMap.put(child, blockNumber);
+    public boolean areRelated(ID firstId, ID secondId) {
+        var first = ids.indexOf(firstId);
+        var second = ids.indexOf(secondId);
+        return first >= 0 && second >= 0 && components.find(first) == components.find(second);
     }
 
-    private void addIdToBlock(ID newId, Integer blockNumber) {
-        edgeBlocks.get(blockNumber).add(newId);
-        idToBlockMap.put(newId, blockNumber);
+    /**
+     * @return number of ids in edges
+     */
+    public int idCount() {
+        return ids.size();
     }
 
-    private void mergeBlocks(Integer parentBlockNumber, Integer childBlockNumber) {
-        var parentBlockIds = edgeBlocks.get(parentBlockNumber);
-        var childBlockIds = edgeBlocks.get(childBlockNumber);
-        if (parentBlockIds.size() < childBlockIds.size()) {
-            childBlockIds.addAll(parentBlockIds);
-            parentBlockIds.forEach(id -> idToBlockMap.put(id, childBlockNumber));
-        } else {
-            parentBlockIds.addAll(childBlockIds);
-            childBlockIds.forEach(id -> idToBlockMap.put(id, parentBlockNumber));
+    public int componentCount() {
+        return components.setCount();
+    }
+
+    /**
+     * Adds components of other solver, as if its edges were added here, in time proportional to
+     * the number of its ids. Other solver is not changed.
+     */
+    public BidirectionalRelationSolver<ID> merge(BidirectionalRelationSolver<ID> other) {
+        var mapped = new int[other.ids.size()];
+        for (int index = 0; index < mapped.length; index++) {
+            mapped[index] = ids.add(other.ids.idAt(index));
+        }
+        components.growTo(ids.size());
+        for (int index = 0; index < mapped.length; index++) {
+            components.union(mapped[index], mapped[other.components.find(index)]);
         }
+        return this;
     }
 
+    /** Labels components of all ids in O(n). */
+    public ComponentLabelling<ID> labelComponents() {
+        return new ComponentLabelling<>(ids, IndexComponents.of(components));
+    }
+
+    /**
+     * @return new set of ids connected with start id, including start id, or empty set when start
+     *     id is not in any edge
+     */
     public Set<ID> getRelatedIds(ID startId) {
-        return Optional.ofNullable(startId)
-                .map(idToBlockMap::get)
-                .map(edgeBlocks::get)
-                .orElse(Collections.emptySet());
+        var start = ids.indexOf(startId);
+        if (start < 0) {
+            return new HashSet<>();
+        }
+        var result = new HashSet<ID>(components.setSize(start) * 4 / 3 + 1);
+        components.forEachInSet(start, index -> result.add(ids.idAt(index)));
+        return result;
     }
 }
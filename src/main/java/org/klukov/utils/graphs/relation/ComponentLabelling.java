@@ -0,0 +1,88 @@
+package org.klukov.utils.graphs.relation;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.klukov.utils.graphs.compact.IdIndex;
+
+/**
+ * Weakly connected components of all ids in edges, for splitting a graph into parts which can be
+ * processed separately. Components are numbered from 0 in order of first appearance of their ids;
+ * ids have indexes in the same order, so {@link #getLabels()} maps index of every id to its
+ * component. Taken at one moment, it does not change when the solver it comes from gets new edges.
+ *
+ * @param <ID> type of ids
+ */
+public final class ComponentLabelling<ID> {
+
+    private final IdIndex<ID> ids;
+    private final IndexComponents components;
+
+    ComponentLabelling(IdIndex<ID> ids, IndexComponents components) {
+        this.ids = ids;
+        this.components = components;
+    }
+
+    /**
+     * @return number of ids in edges
+     */
+    public int idCount() {
+        return components.size();
+    }
+
+    public ID idAt(int index) {
+        return ids.idAt(index);
+    }
+
+    public int componentCount() {
+        return components.componentCount();
+    }
+
+    /**
+     * @return component of id, or -1 when id is not in any edge
+     */
+    public int componentOf(ID id) {
+        var index = ids.indexOf(id);
+        return index >= 0 && index < components.size() ? components.labelOf(index) : -1;
+    }
+
+    /**
+     * @return component of every id, indexed as {@link #idAt(int)}; a copy, which may be changed
+     */
+    public int[] getLabels() {
+        return components.labels();
+    }
+
+    public int componentSize(int component) {
+        return components.componentSize(component);
+    }
+
+    public int[] getComponentSizes() {
+        return components.componentSizes();
+    }
+
+    /**
+     * @return unmodifiable view of ids of component, in order of their indexes
+     */
+    public List<ID> getComponentIds(int component) {
+        var size = components.componentSize(component);
+        return new AbstractList<>() {
+            @Override
+            public ID get(int position) {
+                if (position < 0 || position >= size) {
+                    throw new IndexOutOfBoundsException(position);
+                }
+                return ids.idAt(components.memberAt(component, position));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    public void forEachInComponent(int component, Consumer<? super ID> action) {
+        components.forEachMember(component, index -> action.accept(ids.idAt(index)));
+    }
+}
@@ -0,0 +1,97 @@
+package org.klukov.utils.graphs.relation;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Breadth first searches from ends of removed edges behind {@link
+ * BidirectionalIndexSearch#removeDisconnectedIndexes}. Searches which visit the same index are
+ * merged and share the queue of their union-find root; a search is finished when it is empty.
+ */
+final class CutSearches {
+
+    private final IntUnionFind searches;
+    private final IndexQueue[] queues;
+    private final Map<Integer, Integer> visitedBy = new HashMap<>();
+
+    CutSearches(int count) {
+        this.searches = new IntUnionFind(count);
+        this.searches.growTo(count);
+        this.queues = new IndexQueue[count];
+        for (int search = 0; search < count; search++) {
+            queues[search] = new IndexQueue(16);
+        }
+    }
+
+    void visit(int search, int index) {
+        var visitor = visitedBy.putIfAbsent(index, search);
+        if (visitor == null) {
+            queues[searches.find(search)].offer(index);
+        } else if (searches.find(search) != searches.find(visitor)) {
+            merge(search, visitor);
+        }
+    }
+
+    boolean isUnfinishedRoot(int search) {
+        return searches.find(search) == search && !queues[search].isEmpty();
+    }
+
+    int poll(int search) {
+        return queues[search].poll();
+    }
+
+    int unfinishedCount() {
+        var count = 0;
+        for (int search = 0; search < queues.length; search++) {
+            if (isUnfinishedRoot(search)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return root of the finished search which visited index, -1 if there is none
+     */
+    int finishedSearchOf(int index) {
+        var search = visitedBy.get(index);
+        if (search == null || !isFinished(search)) {
+            return -1;
+        }
+        return searches.find(search);
+    }
+
+    void forEachVisited(int root, IntConsumer action) {
+        visitedBy.forEach(
+                (index, search) -> {
+                    if (searches.find(search) == root) {
+                        action.accept(index);
+                    }
+                });
+    }
+
+    void forEachFinished(IntConsumer action) {
+        visitedBy.forEach(
+                (index, search) -> {
+                    if (isFinished(search)) {
+                        action.accept(index);
+                    }
+                });
+    }
+
+    private boolean isFinished(int search) {
+        return queues[searches.find(search)].isEmpty();
+    }
+
+    private void merge(int search, int other) {
+        var firstRoot = searches.find(search);
+        var secondRoot = searches.find(other);
+        searches.union(firstRoot, secondRoot);
+        var root = searches.find(firstRoot);
+        var absorbed = queues[root == firstRoot ? secondRoot : firstRoot];
+        while (!absorbed.isEmpty()) {
+            queues[root].offer(absorbed.poll());
+        }
+    }
+}
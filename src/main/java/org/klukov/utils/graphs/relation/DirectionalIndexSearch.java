@@ -0,0 +1,146 @@
+package org.klukov.utils.graphs.relation;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Optional;
+import org.klukov.utils.graphs.common.TraversalBudget;
+import org.klukov.utils.graphs.compact.IndexedGraph;
+import org.klukov.utils.graphs.compact.StronglyConnectedComponents;
+
+/**
+ * Search through parents of an already built graph behind directional queries of {@link
+ * GraphRelationFactory}. It is given only for those queries, so parsers read their graphs with it
+ * directly and call other implementations of {@link DirectionalRelationIdsQuery} with ids.
+ */
+public class DirectionalIndexSearch {
+
+    DirectionalIndexSearch() {}
+
+    /**
+     * @return search of the query, empty when the query is not created by {@link
+     *     GraphRelationFactory}
+     */
+    public static Optional<DirectionalIndexSearch> of(DirectionalRelationIdsQuery<?, ?> query) {
+        return query instanceof DirectionalRelationIdsFinder<?, ?> finder
+                ? Optional.of(finder.indexSearch())
+                : Optional.empty();
+    }
+
+    /**
+     * @return search of the query, empty when the query is not created by {@link
+     *     GraphRelationFactory}
+     */
+    public static Optional<DirectionalIndexSearch> of(LongDirectionalRelationIdsQuery<?> query) {
+        return query instanceof LongDirectionalRelationIdsFinder<?> finder
+                ? Optional.of(finder.indexSearch())
+                : Optional.empty();
+    }
+
+    /** Finds indexes of nodes reachable from the start node through parents. */
+    public BitSet findAllConnectedIndexes(IndexedGraph<?, ?> graph, int startIndex) {
+        var result = new BitSet(graph.size());
+        extendConnectedIndexes(graph, result, startIndex);
+        return result;
+    }
+
+    /**
+     * Marks index and all not marked indexes reachable from it through parents, at cost
+     * proportional to the newly marked part. Breadth first search over an int queue; ids which are
+     * not nodes are skipped.
+     */
+    public void extendConnectedIndexes(IndexedGraph<?, ?> graph, BitSet connected, int index) {
+        var queue = new IndexQueue(64);
+        connected.set(index);
+        queue.offer(index);
+        while (!queue.isEmpty()) {
+            graph.forEachParent(
+                    queue.poll(),
+                    parent -> {
+                        if (graph.isNode(parent) && !connected.get(parent)) {
+                            connected.set(parent);
+                            queue.offer(parent);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Finds indexes allowed by budget, level by level, so nodes closest to the start are found
+     * first; a level is not finished once budget is stopped.
+     */
+    public BitSet findAllConnectedIndexes(
+            IndexedGraph<?, ?> graph, int startIndex, TraversalBudget budget) {
+        var result = new BitSet(graph.size());
+        if (!budget.visit(0)) {
+            return result;
+        }
+        var queue = new IndexQueue(64);
+        result.set(startIndex);
+        queue.offer(startIndex);
+        for (int depth = 1; !queue.isEmpty() && !budget.isStopped(); depth++) {
+            var parentDepth = depth;
+            for (int i = queue.size(); i > 0 && !budget.isStopped(); i--) {
+                graph.forEachParent(
+                        queue.poll(),
+                        parent -> {
+                            if (graph.isNode(parent)
+                                    && !result.get(parent)
+                                    && budget.visit(parentDepth)) {
+                                result.set(parent);
+                                queue.offer(parent);
+                            }
+                        });
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds nodes reachable from many start indexes in a single pass over the graph. Bit {@code i %
+     * 64} of {@code result[i / 64][index]} is set when index is reachable from {@code
+     * startIndexes[i]}.
+     *
+     * <p>Every start index owns one bit of a mask. Masks flow from children to parents, components
+     * taken from descendants to ancestors, so a mask is complete before it is passed on and each
+     * edge is read once for all start indexes; members of a cycle share one mask.
+     */
+    public long[][] findAllConnectedIndexMasks(IndexedGraph<?, ?> graph, int[] startIndexes) {
+        var masks = new long[(startIndexes.length + 63) >>> 6][graph.size()];
+        for (int i = 0; i < startIndexes.length; i++) {
+            masks[i >>> 6][startIndexes[i]] |= 1L << i;
+        }
+        var components = StronglyConnectedComponents.of(graph);
+        var order = components.topologicalOrder();
+        var componentMask = new long[masks.length];
+        var end = order.length;
+        while (end > 0) {
+            var component = components.componentOf(order[end - 1]);
+            var start = end - components.componentSize(component);
+            Arrays.fill(componentMask, 0L);
+            for (int i = start; i < end; i++) {
+                for (int word = 0; word < masks.length; word++) {
+                    componentMask[word] |= masks[word][order[i]];
+                }
+            }
+            for (int i = start; i < end; i++) {
+                var index = order[i];
+                for (int word = 0; word < masks.length; word++) {
+                    masks[word][index] = componentMask[word];
+                }
+                if (graph.isNode(index)) {
+                    graph.forEachParent(
+                            index,
+                            parent -> {
+                                if (graph.isNode(parent)) {
+                                    for (int word = 0; word < masks.length; word++) {
+                                        masks[word][parent] |= componentMask[word];
+                                    }
+                                }
+                            });
+                }
+            }
+            end = start;
+        }
+        return masks;
+    }
+}
@@ -1,17 +1,12 @@
 package org.klukov.utils.graphs.relation;
 
-import java.util.Collection;
-import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.klukov.utils.graphs.common.GraphProcessingException;
+import org.klukov.utils.graphs.common.TraversalLimits;
+import org.klukov.utils.graphs.compact.CompactGraph;
 import org.klukov.utils.graphs.validation.GraphValidator;
 
 @Slf4j
@@ -20,39 +15,44 @@ class DirectionalRelationIdsFinder<ID, T extends GraphNodeInput<ID>>
         implements DirectionalRelationIdsQuery<ID, T> {
 
     private final GraphValidator<ID, T> graphValidator;
+    private final DirectionalIndexSearch indexSearch;
 
     @Override
     public Set<ID> findAllConnectedIds(RelationIdsFinderInput<ID, T> input)
             throws GraphProcessingException {
         validateInput(input);
-        var graphElementsMap = getGraphElementsMap(input.getGraphInput());
-        var result = new HashSet<ID>();
-        var queue = new LinkedList<T>();
-        queue.add(graphElementsMap.get(input.getStartNodeId()));
-        while (!queue.isEmpty()) {
-            var element = queue.poll();
-            result.add(element.getId());
-            queue.addAll(getNextGraphElements(element.getRelatedIds(), graphElementsMap, result));
-        }
-        return result;
+        var graph =
+                CompactGraph.of(
+                        input.getGraphInput(),
+                        GraphNodeInput::getId,
+                        GraphNodeInput::getRelatedIds);
+        var startIndex = graph.indexOf(input.getStartNodeId());
+        return new HashSet<>(graph.idSet(indexSearch.findAllConnectedIndexes(graph, startIndex)));
     }
 
-    private Collection<T> getNextGraphElements(
-            Collection<ID> relatedIds, Map<ID, T> graphElementsMap, HashSet<ID> result) {
-        return Optional.ofNullable(relatedIds).orElse(Collections.emptyList()).stream()
-                .filter(id -> !result.contains(id))
-                .map(graphElementsMap::get)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+    @Override
+    public LimitedRelationIds<ID> findAllConnectedIds(
+            RelationIdsFinderInput<ID, T> input, TraversalLimits limits)
+            throws GraphProcessingException {
+        validateInput(input);
+        var graph =
+                CompactGraph.of(
+                        input.getGraphInput(),
+                        GraphNodeInput::getId,
+                        GraphNodeInput::getRelatedIds);
+        var startIndex = graph.indexOf(input.getStartNodeId());
+        var budget = limits.startBudget();
+        var connected = indexSearch.findAllConnectedIndexes(graph, startIndex, budget);
+        budget.checkNotExceeded();
+        return new LimitedRelationIds<>(graph.idSet(connected), budget.getExceededLimit());
+    }
+
+    DirectionalIndexSearch indexSearch() {
+        return indexSearch;
     }
 
     private void validateInput(RelationIdsFinderInput<ID, T> input)
             throws GraphProcessingException {
         graphValidator.validate(input);
     }
-
-    private Map<ID, T> getGraphElementsMap(Collection<T> graphElements) {
-        return graphElements.stream()
-                .collect(Collectors.toMap(GraphNodeInput::getId, graphElement -> graphElement));
-    }
 }
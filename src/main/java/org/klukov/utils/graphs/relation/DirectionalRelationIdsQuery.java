@@ -2,9 +2,23 @@ package org.klukov.utils.graphs.relation;
 
 import java.util.Set;
 import org.klukov.utils.graphs.common.GraphProcessingException;
+import org.klukov.utils.graphs.common.TraversalLimits;
 
 public interface DirectionalRelationIdsQuery<ID, T extends GraphNodeInput<ID>> {
 
     Set<ID> findAllConnectedIds(RelationIdsFinderInput<ID, T> input)
             throws GraphProcessingException;
+
+    /**
+     * Finds ids as {@link #findAllConnectedIds(RelationIdsFinderInput)}, level by level, stopping
+     * at the first reached limit. By default ids are found in full first and only the result is
+     * bounded by limits; queries of {@link GraphRelationFactory} also bound the search.
+     *
+     * @throws GraphProcessingException also when a limit is reached and limits are strict
+     */
+    default LimitedRelationIds<ID> findAllConnectedIds(
+            RelationIdsFinderInput<ID, T> input, TraversalLimits limits)
+            throws GraphProcessingException {
+        return LimitedIdSearch.limitDirectional(input, findAllConnectedIds(input), limits);
+    }
 }
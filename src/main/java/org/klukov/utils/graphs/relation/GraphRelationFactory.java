@@ -1,7 +1,9 @@
 package org.klukov.utils.graphs.relation;
 
+import java.util.concurrent.ForkJoinPool;
 import lombok.experimental.UtilityClass;
 import org.klukov.utils.graphs.validation.GraphValidator;
+import org.klukov.utils.graphs.validation.LongGraphValidator;
 
 @UtilityClass
 public class GraphRelationFactory {
@@ -13,6 +15,45 @@ public class GraphRelationFactory {
     public <ID, T extends GraphNodeInput<ID>>
             DirectionalRelationIdsQuery<ID, T> directionalRelationIdsQuery(
                     GraphValidator<ID, T> graphValidator) {
-        return new DirectionalRelationIdsFinder<>(graphValidator);
+        return new DirectionalRelationIdsFinder<>(graphValidator, new DirectionalIndexSearch());
+    }
+
+    /**
+     * Query giving the same results as {@link #directionalRelationIdsQuery(GraphValidator)}, which
+     * searches big graphs level by level in parallel on the common pool.
+     */
+    public <ID, T extends GraphNodeInput<ID>>
+            DirectionalRelationIdsQuery<ID, T> parallelDirectionalRelationIdsQuery(
+                    GraphValidator<ID, T> graphValidator) {
+        return parallelDirectionalRelationIdsQuery(graphValidator, ForkJoinPool.commonPool());
+    }
+
+    public <ID, T extends GraphNodeInput<ID>>
+            DirectionalRelationIdsQuery<ID, T> parallelDirectionalRelationIdsQuery(
+                    GraphValidator<ID, T> graphValidator, ForkJoinPool forkJoinPool) {
+        return new DirectionalRelationIdsFinder<>(
+                graphValidator, new ParallelDirectionalIndexSearch(forkJoinPool));
+    }
+
+    public LongBidirectionalRelationIdsQuery longBidirectionalRelationIdsQuery() {
+        return new LongBidirectionalRelationIdsFinder(new BidirectionalIndexSearch());
+    }
+
+    public <T extends LongGraphNodeInput>
+            LongDirectionalRelationIdsQuery<T> longDirectionalRelationIdsQuery(
+                    LongGraphValidator<T> graphValidator) {
+        return new LongDirectionalRelationIdsFinder<>(graphValidator, new DirectionalIndexSearch());
+    }
+
+    /**
+     * Query giving the same results as {@link
+     * #longDirectionalRelationIdsQuery(LongGraphValidator)}, which searches big graphs level by
+     * level in parallel.
+     */
+    public <T extends LongGraphNodeInput>
+            LongDirectionalRelationIdsQuery<T> parallelLongDirectionalRelationIdsQuery(
+                    LongGraphValidator<T> graphValidator, ForkJoinPool forkJoinPool) {
+        return new LongDirectionalRelationIdsFinder<>(
+                graphValidator, new ParallelDirectionalIndexSearch(forkJoinPool));
     }
 }
@@ -0,0 +1,89 @@
+package org.klukov.utils.graphs.relation;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Components of union-find elements numbered in order of their first element. Members of every
+ * component are kept together in ascending order, so a component is iterated without touching
+ * others and the whole labelling takes three ints per element.
+ */
+final class IndexComponents {
+
+    private final int[] labels;
+    private final int[] offsets;
+    private final int[] members;
+
+    private IndexComponents(int[] labels, int[] offsets, int[] members) {
+        this.labels = labels;
+        this.offsets = offsets;
+        this.members = members;
+    }
+
+    /** Labels all elements in O(n); union-find is only read. */
+    static IndexComponents of(IntUnionFind unionFind) {
+        var size = unionFind.size();
+        var labels = new int[size];
+        var rootLabels = new int[size];
+        Arrays.fill(rootLabels, -1);
+        var componentCount = 0;
+        for (int element = 0; element < size; element++) {
+            var root = unionFind.find(element);
+            if (rootLabels[root] < 0) {
+                rootLabels[root] = componentCount++;
+            }
+            labels[element] = rootLabels[root];
+        }
+        var offsets = new int[componentCount + 1];
+        for (var label : labels) {
+            offsets[label + 1]++;
+        }
+        for (int component = 0; component < componentCount; component++) {
+            offsets[component + 1] += offsets[component];
+        }
+        var positions = Arrays.copyOf(offsets, componentCount);
+        var members = new int[size];
+        for (int element = 0; element < size; element++) {
+            members[positions[labels[element]]++] = element;
+        }
+        return new IndexComponents(labels, offsets, members);
+    }
+
+    int size() {
+        return labels.length;
+    }
+
+    int componentCount() {
+        return offsets.length - 1;
+    }
+
+    int labelOf(int element) {
+        return labels[element];
+    }
+
+    int[] labels() {
+        return labels.clone();
+    }
+
+    int componentSize(int component) {
+        return offsets[component + 1] - offsets[component];
+    }
+
+    int[] componentSizes() {
+        var sizes = new int[componentCount()];
+        for (int component = 0; component < sizes.length; component++) {
+            sizes[component] = componentSize(component);
+        }
+        return sizes;
+    }
+
+    int memberAt(int component, int position) {
+        return members[offsets[component] + position];
+    }
+
+    void forEachMember(int component, IntConsumer action) {
+        for (int i = offsets[component]; i < offsets[component + 1]; i++) {
+            action.accept(members[i]);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.klukov.utils.graphs.relation;
+
+import java.util.Arrays;
+
+/** First in, first out queue of int indexes backed by a growing array. */
+final class IndexQueue {
+
+    private int[] elements;
+    private int head;
+    private int tail;
+
+    IndexQueue(int initialCapacity) {
+        this.elements = new int[Math.max(initialCapacity, 16)];
+    }
+
+    void offer(int index) {
+        if (tail == elements.length) {
+            elements = Arrays.copyOf(elements, elements.length * 2);
+        }
+        elements[tail++] = index;
+    }
+
+    int poll() {
+        return elements[head++];
+    }
+
+    boolean isEmpty() {
+        return head == tail;
+    }
+
+    int size() {
+        return tail - head;
+    }
+
+    /**
+     * @return indexes which were offered and not polled yet
+     */
+    int[] toArray() {
+        return Arrays.copyOfRange(elements, head, tail);
+    }
+}
@@ -0,0 +1,93 @@
+package org.klukov.utils.graphs.relation;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Disjoint sets of int elements with path halving and union by size, so every operation costs
+ * amortized almost constant time. Members of every set are additionally linked in a cycle, which
+ * lets a set be iterated in time proportional to its size.
+ */
+final class IntUnionFind {
+
+    private int[] parents;
+    private int[] sizes;
+    private int[] nextMembers;
+    private int size;
+    private int setCount;
+
+    IntUnionFind(int initialCapacity) {
+        var capacity = Math.max(initialCapacity, 16);
+        this.parents = new int[capacity];
+        this.sizes = new int[capacity];
+        this.nextMembers = new int[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int setCount() {
+        return setCount;
+    }
+
+    /** Adds singleton sets until there are given number of elements. */
+    void growTo(int newSize) {
+        if (newSize > parents.length) {
+            var capacity = Math.max(newSize, parents.length * 2);
+            parents = Arrays.copyOf(parents, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+            nextMembers = Arrays.copyOf(nextMembers, capacity);
+        }
+        for (int element = size; element < newSize; element++) {
+            parents[element] = element;
+            sizes[element] = 1;
+            nextMembers[element] = element;
+            setCount++;
+        }
+        size = Math.max(size, newSize);
+    }
+
+    int find(int element) {
+        while (parents[element] != element) {
+            parents[element] = parents[parents[element]];
+            element = parents[element];
+        }
+        return element;
+    }
+
+    /**
+     * @return {@code true} if elements were in different sets
+     */
+    boolean union(int first, int second) {
+        var firstRoot = find(first);
+        var secondRoot = find(second);
+        if (firstRoot == secondRoot) {
+            return false;
+        }
+        if (sizes[firstRoot] < sizes[secondRoot]) {
+            var swap = firstRoot;
+            firstRoot = secondRoot;
+            secondRoot = swap;
+        }
+        parents[secondRoot] = firstRoot;
+        sizes[firstRoot] += sizes[secondRoot];
+        var next = nextMembers[firstRoot];
+        nextMembers[firstRoot] = nextMembers[secondRoot];
+        nextMembers[secondRoot] = next;
+        setCount--;
+        return true;
+    }
+
+    int setSize(int element) {
+        return sizes[find(element)];
+    }
+
+    void forEachInSet(int element, IntConsumer action) {
+        var member = element;
+        do {
+            action.accept(member);
+            member = nextMembers[member];
+        } while (member != element);
+    }
+}
@@ -0,0 +1,66 @@
+package org.klukov.utils.graphs.relation;
+
+import java.util.Collection;
+import java.util.Set;
+import lombok.experimental.UtilityClass;
+import org.klukov.utils.graphs.common.GraphEdge;
+import org.klukov.utils.graphs.common.GraphProcessingException;
+import org.klukov.utils.graphs.common.TraversalLimits;
+import org.klukov.utils.graphs.compact.CompactGraph;
+
+/**
+ * Bounds ids found by any query with limits. Ids are searched again level by level within found
+ * ids only, so when a limit is reached, ids closest to the start are kept, as searches of {@link
+ * GraphRelationFactory} queries keep them.
+ */
+@UtilityClass
+class LimitedIdSearch {
+
+    <ID, T extends GraphNodeInput<ID>> LimitedRelationIds<ID> limitDirectional(
+            RelationIdsFinderInput<ID, T> input, Set<ID> connectedIds, TraversalLimits limits)
+            throws GraphProcessingException {
+        var graph =
+                CompactGraph.of(
+                        input.getGraphInput().stream()
+                                .filter(node -> connectedIds.contains(node.getId()))
+                                .toList(),
+                        GraphNodeInput::getId,
+                        GraphNodeInput::getRelatedIds);
+        var startIndex = graph.indexOf(input.getStartNodeId());
+        if (startIndex < 0) {
+            return new LimitedRelationIds<>(connectedIds, null);
+        }
+        var budget = limits.startBudget();
+        var connected =
+                new DirectionalIndexSearch().findAllConnectedIndexes(graph, startIndex, budget);
+        budget.checkNotExceeded();
+        return budget.getExceededLimit() == null
+                ? new LimitedRelationIds<>(connectedIds, null)
+                : new LimitedRelationIds<>(graph.idSet(connected), budget.getExceededLimit());
+    }
+
+    <ID, E extends GraphEdge<ID>> LimitedRelationIds<ID> limitBidirectional(
+            ID startId, Collection<E> graphEdges, Set<ID> connectedIds, TraversalLimits limits)
+            throws GraphProcessingException {
+        if (graphEdges == null || connectedIds.isEmpty()) {
+            return new LimitedRelationIds<>(connectedIds, null);
+        }
+        var graph =
+                CompactGraph.ofEdges(
+                        graphEdges.stream()
+                                .filter(edge -> connectedIds.contains(edge.getParentId()))
+                                .filter(edge -> connectedIds.contains(edge.getChildId()))
+                                .toList());
+        var startIndex = graph.indexOf(startId);
+        if (startIndex < 0) {
+            return new LimitedRelationIds<>(connectedIds, null);
+        }
+        var budget = limits.startBudget();
+        var connected =
+                new BidirectionalIndexSearch().findAllConnectedIndexes(graph, startIndex, budget);
+        budget.checkNotExceeded();
+        return budget.getExceededLimit() == null
+                ? new LimitedRelationIds<>(connectedIds, null)
+                : new LimitedRelationIds<>(graph.idSet(connected), budget.getExceededLimit());
+    }
+}
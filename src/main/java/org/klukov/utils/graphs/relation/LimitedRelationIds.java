@@ -0,0 +1,23 @@
+package org.klukov.utils.graphs.relation;
+
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.klukov.utils.graphs.common.TraversalLimit;
+
+/** Ids found by a traversal with limits; partial when a limit was reached. */
+@Getter
+@ToString
+@AllArgsConstructor
+public final class LimitedRelationIds<ID> {
+
+    @ToString.Exclude private final Set<ID> ids;
+
+    /** First limit which was reached, {@code null} when ids are complete. */
+    private final TraversalLimit exceededLimit;
+
+    public boolean isTruncated() {
+        return exceededLimit != null;
+    }
+}
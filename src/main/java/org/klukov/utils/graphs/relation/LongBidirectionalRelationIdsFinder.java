@@ -0,0 +1,30 @@
+package org.klukov.utils.graphs.relation;
+
+import java.util.Collection;
+import lombok.AllArgsConstructor;
+import org.klukov.utils.graphs.common.LongGraphEdge;
+
+@AllArgsConstructor
+class LongBidirectionalRelationIdsFinder implements LongBidirectionalRelationIdsQuery {
+
+    private final BidirectionalIndexSearch indexSearch;
+
+    @Override
+    public long[] findAllConnectedIds(
+            long startId, Collection<? extends LongGraphEdge> graphEdges) {
+        if (graphEdges == null || graphEdges.isEmpty()) {
+            return new long[0];
+        }
+        return prepare(graphEdges).getRelatedIds(startId);
+    }
+
+    @Override
+    public LongComponentLabelling findAllComponents(
+            Collection<? extends LongGraphEdge> graphEdges) {
+        return prepare(graphEdges).labelComponents();
+    }
+
+    BidirectionalIndexSearch indexSearch() {
+        return indexSearch;
+    }
+}
@@ -0,0 +1,30 @@
+package org.klukov.utils.graphs.relation;
+
+import java.util.Collection;
+import org.klukov.utils.graphs.common.LongGraphEdge;
+
+/** {@link BidirectionalRelationIdsQuery} of primitive long ids. */
+public interface LongBidirectionalRelationIdsQuery {
+
+    /**
+     * @return ids connected with start id, including start id, or empty array when start id is
+     *     not in any edge
+     */
+    long[] findAllConnectedIds(long startId, Collection<? extends LongGraphEdge> graphEdges);
+
+    /** Labels weakly connected components of all ids in edges in one pass over edges. */
+    LongComponentLabelling findAllComponents(Collection<? extends LongGraphEdge> graphEdges);
+
+    /**
+     * Reads edges once into a solver, as {@link BidirectionalRelationIdsQuery#prepare(Collection)}
+     * does.
+     *
+     * @param graphEdges edges, {@code null} is treated as no edges
+     */
+    default LongBidirectionalRelationSolver prepare(
+            Collection<? extends LongGraphEdge> graphEdges) {
+        return graphEdges == null
+                ? new LongBidirectionalRelationSolver()
+                : new LongBidirectionalRelationSolver(graphEdges);
+    }
+}
@@ -0,0 +1,126 @@
+package org.klukov.utils.graphs.relation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import org.klukov.utils.graphs.common.LongGraphEdge;
+import org.klukov.utils.graphs.compact.LongIdIndex;
+
+/**
+ * {@link BidirectionalRelationSolver} of primitive long ids, which are kept in a {@link
+ * LongIdIndex} and never boxed.
+ *
+ * <p>Not thread-safe.
+ */
+public final class LongBidirectionalRelationSolver {
+
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private final LongIdIndex ids;
+    private final IntUnionFind components;
+
+    public LongBidirectionalRelationSolver() {
+        this(Collections.emptyList());
+    }
+
+    public LongBidirectionalRelationSolver(Collection<? extends LongGraphEdge> edges) {
+        this.ids = new LongIdIndex(edges.size());
+        this.components = new IntUnionFind(edges.size());
+        addEdges(edges);
+    }
+
+    /**
+     * Builds solver of chunks of edges on fork join pool, as {@link
+     * BidirectionalRelationSolver#parallel(List, ForkJoinPool)}.
+     */
+    public static LongBidirectionalRelationSolver parallel(
+            List<? extends LongGraphEdge> edges, ForkJoinPool forkJoinPool) {
+        var chunks = new ArrayList<ForkJoinTask<LongBidirectionalRelationSolver>>();
+        for (int from = 0; from < edges.size(); from += CHUNK_SIZE) {
+            var chunk = edges.subList(from, Math.min(from + CHUNK_SIZE, edges.size()));
+            chunks.add(forkJoinPool.submit(() -> new LongBidirectionalRelationSolver(chunk)));
+        }
+        var solvers = chunks.stream().map(ForkJoinTask::join).collect(Collectors.toList());
+        var result =
+                solvers.stream()
+                        .max(Comparator.comparingInt(LongBidirectionalRelationSolver::idCount))
+                        .orElseGet(LongBidirectionalRelationSolver::new);
+        solvers.stream().filter(solver -> solver != result).forEach(result::merge);
+        return result;
+    }
+
+    public LongBidirectionalRelationSolver addEdges(Collection<? extends LongGraphEdge> edges) {
+        edges.forEach(this::addEdge);
+        return this;
+    }
+
+    public LongBidirectionalRelationSolver addEdge(LongGraphEdge edge) {
+        return addEdge(edge.getParentId(), edge.getChildId());
+    }
+
+    public LongBidirectionalRelationSolver addEdge(long parentId, long childId) {
+        var parent = ids.add(parentId);
+        var child = ids.add(childId);
+        components.growTo(ids.size());
+        components.union(parent, child);
+        return this;
+    }
+
+    public boolean areRelated(long firstId, long secondId) {
+        var first = ids.indexOf(firstId);
+        var second = ids.indexOf(secondId);
+        return first >= 0 && second >= 0 && components.find(first) == components.find(second);
+    }
+
+    /**
+     * @return number of ids in edges
+     */
+    public int idCount() {
+        return ids.size();
+    }
+
+    public int componentCount() {
+        return components.setCount();
+    }
+
+    /**
+     * Adds components of other solver, as if its edges were added here, in time proportional to
+     * the number of its ids. Other solver is not changed.
+     */
+    public LongBidirectionalRelationSolver merge(LongBidirectionalRelationSolver other) {
+        var mapped = new int[other.ids.size()];
+        for (int index = 0; index < mapped.length; index++) {
+            mapped[index] = ids.add(other.ids.idAt(index));
+        }
+        components.growTo(ids.size());
+        for (int index = 0; index < mapped.length; index++) {
+            components.union(mapped[index], mapped[other.components.find(index)]);
+        }
+        return this;
+    }
+
+    /** Labels components of all ids in O(n). */
+    public LongComponentLabelling labelComponents() {
+        return new LongComponentLabelling(ids, IndexComponents.of(components));
+    }
+
+    /**
+     * @return ids connected with start id, including start id, or empty array when start id is
+     *     not in any edge
+     */
+    public long[] getRelatedIds(long startId) {
+        var start = ids.indexOf(startId);
+        if (start < 0) {
+            return new long[0];
+        }
+        var result = new long[components.setSize(start)];
+        var position = new int[1];
+        components.forEachInSet(start, index -> result[position[0]++] = ids.idAt(index));
+        return result;
+    }
+}
@@ -0,0 +1,69 @@
+package org.klukov.utils.graphs.relation;
+
+import java.util.function.LongConsumer;
+import org.klukov.utils.graphs.compact.LongIdIndex;
+
+/** {@link ComponentLabelling} of primitive long ids. */
+public final class LongComponentLabelling {
+
+    private final LongIdIndex ids;
+    private final IndexComponents components;
+
+    LongComponentLabelling(LongIdIndex ids, IndexComponents components) {
+        this.ids = ids;
+        this.components = components;
+    }
+
+    /**
+     * @return number of ids in edges
+     */
+    public int idCount() {
+        return components.size();
+    }
+
+    public long idAt(int index) {
+        return ids.idAt(index);
+    }
+
+    public int componentCount() {
+        return components.componentCount();
+    }
+
+    /**
+     * @return component of id, or -1 when id is not in any edge
+     */
+    public int componentOf(long id) {
+        var index = ids.indexOf(id);
+        return index >= 0 && index < components.size() ? components.labelOf(index) : -1;
+    }
+
+    /**
+     * @return component of every id, indexed as {@link #idAt(int)}; a copy, which may be changed
+     */
+    public int[] getLabels() {
+        return components.labels();
+    }
+
+    public int componentSize(int component) {
+        return components.componentSize(component);
+    }
+
+    public int[] getComponentSizes() {
+        return components.componentSizes();
+    }
+
+    /**
+     * @return ids of component, in order of their indexes
+     */
+    public long[] getComponentIds(int component) {
+        var result = new long[components.componentSize(component)];
+        for (int position = 0; position < result.length; position++) {
+            result[position] = ids.idAt(components.memberAt(component, position));
+        }
+        return result;
+    }
+
+    public void forEachInComponent(int component, LongConsumer action) {
+        components.forEachMember(component, index -> action.accept(ids.idAt(index)));
+    }
+}
@@ -0,0 +1,27 @@
+package org.klukov.utils.graphs.relation;
+
+import lombok.AllArgsConstructor;
+import org.klukov.utils.graphs.common.GraphProcessingException;
+import org.klukov.utils.graphs.validation.LongGraphValidator;
+
+/** Searches indexes of the graph with a search which never reads its ids. */
+@AllArgsConstructor
+class LongDirectionalRelationIdsFinder<T extends LongGraphNodeInput>
+        implements LongDirectionalRelationIdsQuery<T> {
+
+    private final LongGraphValidator<T> graphValidator;
+    private final DirectionalIndexSearch indexSearch;
+
+    @Override
+    public long[] findAllConnectedIds(LongRelationIdsFinderInput<T> input)
+            throws GraphProcessingException {
+        var startNodeId = input.getStartNodeId();
+        var graph = graphValidator.buildValidGraph(input.getGraphInput(), startNodeId);
+        return graph.idArray(
+                indexSearch.findAllConnectedIndexes(graph, graph.indexOf(startNodeId)));
+    }
+
+    DirectionalIndexSearch indexSearch() {
+        return indexSearch;
+    }
+}
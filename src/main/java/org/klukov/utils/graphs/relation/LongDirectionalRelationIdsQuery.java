@@ -0,0 +1,14 @@
+package org.klukov.utils.graphs.relation;
+
+import org.klukov.utils.graphs.common.GraphProcessingException;
+
+/** {@link DirectionalRelationIdsQuery} of primitive long ids. */
+public interface LongDirectionalRelationIdsQuery<T extends LongGraphNodeInput> {
+
+    /**
+     * @return ids of nodes reachable from the start node through parents, including the start
+     *     node, in order of first appearance in input
+     */
+    long[] findAllConnectedIds(LongRelationIdsFinderInput<T> input)
+            throws GraphProcessingException;
+}
@@ -0,0 +1,10 @@
+package org.klukov.utils.graphs.relation;
+
+import org.klukov.utils.graphs.validation.LongValidatableGraphNodeInput;
+
+public interface LongGraphNodeInput extends LongValidatableGraphNodeInput {
+
+    long getId();
+
+    long[] getRelatedIds();
+}
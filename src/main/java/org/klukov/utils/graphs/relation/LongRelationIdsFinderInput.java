@@ -0,0 +1,10 @@
+package org.klukov.utils.graphs.relation;
+
+import java.util.Collection;
+
+public interface LongRelationIdsFinderInput<T extends LongGraphNodeInput> {
+
+    long getStartNodeId();
+
+    Collection<T> getGraphInput();
+}
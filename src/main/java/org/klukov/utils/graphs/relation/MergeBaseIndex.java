@@ -0,0 +1,298 @@
+package org.klukov.utils.graphs.relation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import org.klukov.utils.graphs.compact.IndexedGraph;
+
+/**
+ * Finds merge bases, the best common ancestors of two nodes, and nodes reachable from one node but
+ * not from another, as {@code git merge-base} and {@code git rev-list B..A} do for commits. A node
+ * counts as its own ancestor here, so the merge base of a node and its descendant is the node.
+ *
+ * <p>Index extends {@link ReachabilityIndex} by a generation number of every strongly connected
+ * component, one more than the largest generation of its parents, and members of components. An
+ * ancestor always has smaller generation than its descendant, so walks visiting the greatest
+ * generation first see every component after all its descendants were seen. They stop as soon as
+ * the remaining components cannot change the answer, which keeps them close to both nodes instead
+ * of going through the whole history; members of a cycle are always returned together.
+ *
+ * <p>Besides the reachability index it keeps {@code 4n + 8c} bytes for {@code n} ids and {@code c}
+ * components and is built in O(n + e). Index is immutable, so it can be queried by many threads.
+ *
+ * @param <ID> type of node ids
+ */
+public final class MergeBaseIndex<ID> {
+
+    private final IndexedGraph<ID, ?> graph;
+    private final ReachabilityIndex<ID> reachability;
+    private final int[] generations;
+    private final int[] memberOffsets;
+    private final int[] members;
+
+    private MergeBaseIndex(IndexedGraph<ID, ?> graph) {
+        this.graph = graph;
+        this.reachability = ReachabilityIndex.of(graph);
+        var componentCount = reachability.componentCount();
+        this.generations = new int[componentCount];
+        var max = new int[1];
+        for (int component = 0; component < componentCount; component++) {
+            max[0] = 0;
+            reachability.forEachDagParent(
+                    component, parent -> max[0] = Math.max(max[0], generations[parent]));
+            generations[component] = max[0] + 1;
+        }
+        this.memberOffsets = new int[componentCount + 1];
+        this.members = members();
+    }
+
+    public static <ID> MergeBaseIndex<ID> of(IndexedGraph<ID, ?> graph) {
+        return new MergeBaseIndex<>(graph);
+    }
+
+    public ReachabilityIndex<ID> reachability() {
+        return reachability;
+    }
+
+    /**
+     * @return 1 for nodes without parents, otherwise one more than the greatest generation of their
+     *     parents; members of a cycle share the generation
+     * @throws IllegalArgumentException if id is not a node
+     */
+    public int generation(ID nodeId) {
+        return generations[reachability.componentOf(requireNode(nodeId))];
+    }
+
+    /**
+     * Common ancestors of both nodes which are not ancestors of other common ancestors, the nearest
+     * ones first. Nodes of a cycle are returned together, since each of them is an ancestor of the
+     * others.
+     *
+     * @return merge bases, empty if nodes have no common ancestor
+     * @throws IllegalArgumentException if any of ids is not a node
+     */
+    public List<ID> findMergeBases(ID firstId, ID secondId) {
+        var first = reachability.componentOf(requireNode(firstId));
+        var second = reachability.componentOf(requireNode(secondId));
+        var result = new ArrayList<ID>();
+        if (first == second || reachability.reaches(second, first)) {
+            addMembers(first, result);
+        } else if (reachability.reaches(first, second)) {
+            addMembers(second, result);
+        } else {
+            paintDownToCommon(first, second, result);
+        }
+        return result;
+    }
+
+    /**
+     * Nodes which are the first node or its ancestors, but neither the excluded node nor any of its
+     * ancestors, in descending order of generations. Components known to be ancestors of the
+     * excluded node are not entered, so the walk stops at the boundary of the excluded history.
+     *
+     * @throws IllegalArgumentException if any of ids is not a node
+     */
+    public List<ID> findAncestorsExcluding(ID nodeId, ID excludedNodeId) {
+        var start = reachability.componentOf(requireNode(nodeId));
+        var excluded = reachability.componentOf(requireNode(excludedNodeId));
+        var result = new ArrayList<ID>();
+        if (isExcluded(start, excluded)) {
+            return result;
+        }
+        var queue = new ComponentQueue();
+        var queued = new BitSet();
+        queued.set(start);
+        queue.push(key(start));
+        while (!queue.isEmpty()) {
+            var component = (int) queue.pop();
+            addMembers(component, result);
+            reachability.forEachDagParent(
+                    component,
+                    parent -> {
+                        if (!queued.get(parent) && !isExcluded(parent, excluded)) {
+                            queued.set(parent);
+                            queue.push(key(parent));
+                        }
+                    });
+        }
+        return result;
+    }
+
+    /**
+     * Walk of {@code git merge-base} ordered by generations. Components reachable from the first or
+     * second node are painted with its flag; a component painted with both is a merge base unless
+     * it is stale, which means a merge base already reached it. Stale flag flows to ancestors as
+     * well and the walk ends when only stale components are queued. A component is popped only
+     * after all its descendants, so it has its final flags by then and is popped once.
+     */
+    private void paintDownToCommon(int first, int second, List<ID> result) {
+        var walk = new PaintWalk();
+        walk.paint(first, PaintWalk.FIRST);
+        walk.paint(second, PaintWalk.SECOND);
+        while (walk.activeCount > 0) {
+            var component = (int) walk.queue.pop();
+            walk.queued.clear(component);
+            var flags = walk.flags(component);
+            if ((flags & PaintWalk.STALE) == 0) {
+                walk.activeCount--;
+                if (flags == PaintWalk.BOTH) {
+                    addMembers(component, result);
+                    flags |= PaintWalk.STALE;
+                }
+            }
+            var parentFlags = flags;
+            reachability.forEachDagParent(component, parent -> walk.paint(parent, parentFlags));
+        }
+    }
+
+    private boolean isExcluded(int component, int excluded) {
+        return component == excluded || reachability.reaches(excluded, component);
+    }
+
+    private void addMembers(int component, List<ID> result) {
+        for (int i = memberOffsets[component]; i < memberOffsets[component + 1]; i++) {
+            result.add(graph.idAt(members[i]));
+        }
+    }
+
+    private int requireNode(ID id) {
+        var index = reachability.nodeIndex(id);
+        if (index < 0) {
+            throw new IllegalArgumentException("Id " + id + " is not a node of the graph");
+        }
+        return index;
+    }
+
+    /** Queue key ordering by generation first, component is kept in the lower half. */
+    private long key(int component) {
+        return ((long) generations[component] << 32) | component;
+    }
+
+    /** Node indexes grouped by components, counted the same way as topological order. */
+    private int[] members() {
+        var nodeCount = 0;
+        for (int index = 0; index < graph.size(); index++) {
+            if (graph.isNode(index)) {
+                memberOffsets[reachability.componentOf(index) + 1]++;
+                nodeCount++;
+            }
+        }
+        for (int component = 0; component + 1 < memberOffsets.length; component++) {
+            memberOffsets[component + 1] += memberOffsets[component];
+        }
+        var result = new int[nodeCount];
+        var positions = Arrays.copyOf(memberOffsets, memberOffsets.length - 1);
+        for (int index = 0; index < graph.size(); index++) {
+            if (graph.isNode(index)) {
+                result[positions[reachability.componentOf(index)]++] = index;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Flags of a single merge base walk, kept in bit sets growing with the greatest visited
+     * component; active count tracks queued components which are not stale.
+     */
+    private final class PaintWalk {
+
+        static final int FIRST = 1;
+        static final int SECOND = 2;
+        static final int BOTH = FIRST | SECOND;
+        static final int STALE = 4;
+
+        private final BitSet first = new BitSet();
+        private final BitSet second = new BitSet();
+        private final BitSet stale = new BitSet();
+        private final BitSet queued = new BitSet();
+        private final ComponentQueue queue = new ComponentQueue();
+        private int activeCount;
+
+        int flags(int component) {
+            return (first.get(component) ? FIRST : 0)
+                    | (second.get(component) ? SECOND : 0)
+                    | (stale.get(component) ? STALE : 0);
+        }
+
+        void paint(int component, int flags) {
+            var current = flags(component);
+            if ((current & flags) == flags) {
+                return;
+            }
+            if ((flags & FIRST) != 0) {
+                first.set(component);
+            }
+            if ((flags & SECOND) != 0) {
+                second.set(component);
+            }
+            var becomesStale = (flags & STALE) != 0 && (current & STALE) == 0;
+            if (becomesStale) {
+                stale.set(component);
+            }
+            if (queued.get(component)) {
+                if (becomesStale) {
+                    activeCount--;
+                }
+            } else {
+                queued.set(component);
+                queue.push(key(component));
+                if ((current & STALE) == 0 && !becomesStale) {
+                    activeCount++;
+                }
+            }
+        }
+    }
+
+    /** Binary max heap of packed keys, so walks do not box components. */
+    private static final class ComponentQueue {
+
+        private long[] heap = new long[16];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(long key) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            var position = size++;
+            while (position > 0) {
+                var parent = (position - 1) >>> 1;
+                if (heap[parent] >= key) {
+                    break;
+                }
+                heap[position] = heap[parent];
+                position = parent;
+            }
+            heap[position] = key;
+        }
+
+        /**
+         * @return lower half of the greatest key
+         */
+        long pop() {
+            var result = heap[0];
+            var last = heap[--size];
+            var position = 0;
+            while (true) {
+                var child = 2 * position + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && heap[child + 1] > heap[child]) {
+                    child++;
+                }
+                if (heap[child] <= last) {
+                    break;
+                }
+                heap[position] = heap[child];
+                position = child;
+            }
+            heap[position] = last;
+            return result & 0xffffffffL;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package org.klukov.utils.graphs.relation;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import lombok.extern.slf4j.Slf4j;
+import org.klukov.utils.graphs.compact.IndexedGraph;
+
+/**
+ * Finds the same indexes as {@link DirectionalIndexSearch} with a level-synchronous breadth
+ * first search run on a {@link ForkJoinPool}. Every level is processed in one of two ways:
+ *
+ * <ul>
+ *   <li>top-down: parents of the frontier are claimed in an {@link AtomicIndexSet}, which is
+ *       cheap while the frontier is small,
+ *   <li>bottom-up: every not visited node checks whether any of its children is in the frontier
+ *       and stops at the first one, which is cheaper when the frontier is a big part of the graph.
+ * </ul>
+ *
+ * <p>Direction is switched with the heuristic of Beamer et al.: bottom-up once edges of the
+ * frontier exceed 1/14 of edges of not visited nodes, back to top-down when the frontier shrinks
+ * below 1/24 of all ids. Graphs smaller than {@link #PARALLEL_THRESHOLD} ids, extending of an
+ * existing result and searches with limits are handled sequentially. Graph must not be changed
+ * during the search.
+ */
+@Slf4j
+class ParallelDirectionalIndexSearch extends DirectionalIndexSearch {
+
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private static final int CHUNK_SIZE = 1 << 11;
+    private static final int TOP_DOWN_EDGE_FACTOR = 14;
+    private static final int BOTTOM_UP_SIZE_FACTOR = 24;
+
+    private final ForkJoinPool forkJoinPool;
+
+    ParallelDirectionalIndexSearch(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    @Override
+    public BitSet findAllConnectedIndexes(IndexedGraph<?, ?> graph, int startIndex) {
+        if (graph.size() < PARALLEL_THRESHOLD) {
+            return super.findAllConnectedIndexes(graph, startIndex);
+        }
+        var visited = new AtomicIndexSet(graph.size());
+        visited.add(startIndex);
+        var frontier = new int[] {startIndex};
+        var unexploredEdges = forkJoinPool.invoke(new ParentCountTask(graph, 0, graph.size()));
+        var bottomUp = false;
+        var levels = 0;
+        while (frontier.length > 0) {
+            var frontierEdges = parentCount(graph, frontier);
+            unexploredEdges -= frontierEdges;
+            if (!bottomUp && frontierEdges > unexploredEdges / TOP_DOWN_EDGE_FACTOR) {
+                bottomUp = true;
+            } else if (bottomUp && frontier.length < graph.size() / BOTTOM_UP_SIZE_FACTOR) {
+                bottomUp = false;
+            }
+            frontier =
+                    bottomUp
+                            ? forkJoinPool.invoke(
+                                    new BottomUpTask(
+                                            graph, visited, toBitSet(frontier), 0, graph.size()))
+                            : forkJoinPool.invoke(
+                                    new TopDownTask(graph, visited, frontier, 0, frontier.length));
+            levels++;
+        }
+        log.debug("Parallel search finished after {} levels", levels);
+        return visited.toBitSet();
+    }
+
+    private long parentCount(IndexedGraph<?, ?> graph, int[] indexes) {
+        var count = 0L;
+        for (var index : indexes) {
+            count += graph.parentCount(index);
+        }
+        return count;
+    }
+
+    private static BitSet toBitSet(int[] indexes) {
+        var result = new BitSet();
+        for (var index : indexes) {
+            result.set(index);
+        }
+        return result;
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        if (first.length == 0) {
+            return second;
+        } else if (second.length == 0) {
+            return first;
+        }
+        var result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static final class ParentCountTask extends RecursiveTask<Long> {
+
+        private final IndexedGraph<?, ?> graph;
+        private final int from;
+        private final int to;
+
+        private ParentCountTask(IndexedGraph<?, ?> graph, int from, int to) {
+            this.graph = graph;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from > CHUNK_SIZE) {
+                var middle = (from + to) >>> 1;
+                var left = new ParentCountTask(graph, from, middle);
+                left.fork();
+                var right = new ParentCountTask(graph, middle, to).compute();
+                return left.join() + right;
+            }
+            var count = 0L;
+            for (int index = from; index < to; index++) {
+                count += graph.parentCount(index);
+            }
+            return count;
+        }
+    }
+
+    /** Claims not visited parents of frontier[from, to); returns claimed indexes. */
+    private static final class TopDownTask extends RecursiveTask<int[]> {
+
+        private final IndexedGraph<?, ?> graph;
+        private final AtomicIndexSet visited;
+        private final int[] frontier;
+        private final int from;
+        private final int to;
+
+        private TopDownTask(
+                IndexedGraph<?, ?> graph,
+                AtomicIndexSet visited,
+                int[] frontier,
+                int from,
+                int to) {
+            this.graph = graph;
+            this.visited = visited;
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from > CHUNK_SIZE) {
+                var middle = (from + to) >>> 1;
+                var left = new TopDownTask(graph, visited, frontier, from, middle);
+                left.fork();
+                var right = new TopDownTask(graph, visited, frontier, middle, to).compute();
+                return concat(left.join(), right);
+            }
+            var next = new IndexQueue(to - from);
+            for (int i = from; i < to; i++) {
+                graph.forEachParent(
+                        frontier[i],
+                        parent -> {
+                            if (graph.isNode(parent) && visited.add(parent)) {
+                                next.offer(parent);
+                            }
+                        });
+            }
+            return next.toArray();
+        }
+    }
+
+    /** Visits not visited nodes in [from, to) which have a child in the frontier. */
+    private static final class BottomUpTask extends RecursiveTask<int[]> {
+
+        private final IndexedGraph<?, ?> graph;
+        private final AtomicIndexSet visited;
+        private final BitSet frontier;
+        private final int from;
+        private final int to;
+
+        private BottomUpTask(
+                IndexedGraph<?, ?> graph,
+                AtomicIndexSet visited,
+                BitSet frontier,
+                int from,
+                int to) {
+            this.graph = graph;
+            this.visited = visited;
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from > CHUNK_SIZE) {
+                var middle = (from + to) >>> 1;
+                var left = new BottomUpTask(graph, visited, frontier, from, middle);
+                left.fork();
+                var right = new BottomUpTask(graph, visited, frontier, middle, to).compute();
+                return concat(left.join(), right);
+            }
+            var next = new IndexQueue(64);
+            for (int index = from; index < to; index++) {
+                if (!visited.contains(index)
+                        && graph.isNode(index)
+                        && graph.anyChild(index, frontier::get)) {
+                    visited.add(index);
+                    next.offer(index);
+                }
+            }
+            return next.toArray();
+        }
+    }
+}
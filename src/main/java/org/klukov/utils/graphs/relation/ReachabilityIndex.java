@@ -0,0 +1,320 @@
+package org.klukov.utils.graphs.relation;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+import org.klukov.utils.graphs.compact.IndexedGraph;
+import org.klukov.utils.graphs.compact.StronglyConnectedComponents;
+
+/**
+ * Answers whether one node is an ancestor of another, reachable through parents which are nodes
+ * as in {@link DirectionalRelationIdsQuery}, and whether two ids are connected by edges of any
+ * direction as in {@link BidirectionalRelationIdsQuery}.
+ *
+ * <p>Cycles are collapsed into strongly connected components. Every component of the resulting
+ * DAG gets its topological number, an interval of a depth first spanning forest and two interval
+ * labels of GRAIL (Yildirim et al.) computed for opposite orders of parents. A query costs
+ * constant time when the numbers or labels exclude reachability or the spanning forest confirms
+ * it, which covers all queries on trees. Otherwise the DAG is searched from the descendant,
+ * skipping components whose labels exclude the ancestor and stopping at the first one whose
+ * spanning subtree contains it.
+ *
+ * <p>Besides the graph it keeps {@code 8n + 4e + 28c} bytes for {@code n} ids, {@code e} edges and
+ * {@code c} components and is built in O(n + e). Index reflects the graph at the moment of building
+ * and is immutable, so it can be queried by many threads.
+ *
+ * @param <ID> type of node ids
+ */
+public final class ReachabilityIndex<ID> {
+
+    private static final int LABELS = 2;
+
+    private final IndexedGraph<ID, ?> graph;
+    private final int size;
+    private final BitSet nodes;
+    private final BitSet hasEdges;
+    private final int[] weakComponents;
+    private final int[] components;
+    private final BitSet cyclicComponents;
+    private final int[] dagOffsets;
+    private final int[] dagParents;
+    private final int[] treeStart;
+    private final int[] treeEnd;
+    private final int[][] labelLow;
+    private final int[][] labelRank;
+
+    private ReachabilityIndex(IndexedGraph<ID, ?> graph) {
+        this.graph = graph;
+        this.size = graph.size();
+        this.nodes = new BitSet(size);
+        this.hasEdges = new BitSet(size);
+        this.weakComponents = weakComponents();
+        var scc = StronglyConnectedComponents.of(graph);
+        var componentCount = scc.componentCount();
+        this.components = new int[size];
+        for (int index = 0; index < size; index++) {
+            components[index] = scc.componentOf(index);
+        }
+        this.cyclicComponents = new BitSet(componentCount);
+        for (int component = 0; component < componentCount; component++) {
+            cyclicComponents.set(component, scc.isCyclic(component));
+        }
+        this.dagOffsets = new int[componentCount + 1];
+        this.dagParents = dagParents();
+        this.treeStart = new int[componentCount];
+        this.treeEnd = new int[componentCount];
+        this.labelLow = new int[LABELS][componentCount];
+        this.labelRank = new int[LABELS][componentCount];
+        for (int label = 0; label < LABELS; label++) {
+            label(label);
+        }
+    }
+
+    public static <ID> ReachabilityIndex<ID> of(IndexedGraph<ID, ?> graph) {
+        return new ReachabilityIndex<>(graph);
+    }
+
+    /**
+     * @return {@code true} if ancestor is reachable from node through one or more parents; a node
+     *     is its own ancestor only on a cycle, ids which are not nodes have no relations
+     */
+    public boolean isAncestor(ID ancestorId, ID nodeId) {
+        var ancestor = nodeIndex(ancestorId);
+        var node = nodeIndex(nodeId);
+        return ancestor >= 0 && node >= 0 && reaches(components[node], components[ancestor]);
+    }
+
+    public boolean isDescendant(ID descendantId, ID nodeId) {
+        return isAncestor(nodeId, descendantId);
+    }
+
+    /**
+     * @return {@code true} if both ids are connected by edges of any direction; an id without
+     *     edges is not connected even with itself
+     */
+    public boolean areConnected(ID firstId, ID secondId) {
+        var first = index(firstId);
+        var second = index(secondId);
+        return first >= 0
+                && second >= 0
+                && hasEdges.get(first)
+                && weakComponents[first] == weakComponents[second];
+    }
+
+    public boolean isNode(ID id) {
+        return nodeIndex(id) >= 0;
+    }
+
+    public boolean hasEdges(ID id) {
+        var index = index(id);
+        return index >= 0 && hasEdges.get(index);
+    }
+
+    private int index(ID id) {
+        var index = graph.indexOf(id);
+        return index < size ? index : -1;
+    }
+
+    /**
+     * @return index of id or -1 if id is not a node
+     */
+    int nodeIndex(ID id) {
+        var index = index(id);
+        return index >= 0 && nodes.get(index) ? index : -1;
+    }
+
+    int componentCount() {
+        return dagOffsets.length - 1;
+    }
+
+    /**
+     * @return strongly connected component of index; a parent component is never greater than the
+     *     component of its child
+     */
+    int componentOf(int index) {
+        return components[index];
+    }
+
+    /** Visits distinct parent components of component in the condensation, in ascending order. */
+    void forEachDagParent(int component, IntConsumer action) {
+        for (int i = dagOffsets[component]; i < dagOffsets[component + 1]; i++) {
+            action.accept(dagParents[i]);
+        }
+    }
+
+    /**
+     * @return {@code true} if component {@code to} is reachable from {@code from} through one or
+     *     more parents
+     */
+    boolean reaches(int from, int to) {
+        if (from == to) {
+            return cyclicComponents.get(from);
+        }
+        if (to > from || excluded(from, to)) {
+            return false;
+        }
+        return inTree(from, to) || search(from, to);
+    }
+
+    /** Components in a subtree of the spanning forest are reachable from its root. */
+    private boolean inTree(int from, int to) {
+        return treeStart[from] <= treeStart[to] && treeEnd[to] <= treeEnd[from];
+    }
+
+    /** Label of a component contains labels of all components reachable from it. */
+    private boolean excluded(int from, int to) {
+        for (int label = 0; label < LABELS; label++) {
+            if (labelLow[label][to] < labelLow[label][from]
+                    || labelRank[label][to] > labelRank[label][from]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Components on a path have numbers between both ends, so the ones below the ancestor are
+     * skipped. Parents with the smallest numbers are pushed last to go towards the ancestor first.
+     */
+    private boolean search(int from, int to) {
+        var visited = new BitSet();
+        var pending = new int[16];
+        var pendingSize = 0;
+        pending[pendingSize++] = from;
+        while (pendingSize > 0) {
+            var current = pending[--pendingSize];
+            for (int i = dagOffsets[current + 1] - 1; i >= dagOffsets[current]; i--) {
+                var parent = dagParents[i];
+                if (inTree(parent, to)) {
+                    return true;
+                }
+                if (parent > to && !visited.get(parent - to) && !excluded(parent, to)) {
+                    visited.set(parent - to);
+                    if (pendingSize == pending.length) {
+                        pending = Arrays.copyOf(pending, pendingSize * 2);
+                    }
+                    pending[pendingSize++] = parent;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int[] weakComponents() {
+        var unionFind = new IntUnionFind(size);
+        unionFind.growTo(size);
+        for (int index = 0; index < size; index++) {
+            nodes.set(index, graph.isNode(index));
+            var child = index;
+            graph.forEachParent(
+                    index,
+                    parent -> {
+                        hasEdges.set(child);
+                        hasEdges.set(parent);
+                        unionFind.union(child, parent);
+                    });
+        }
+        var result = new int[size];
+        for (int index = 0; index < size; index++) {
+            result[index] = unionFind.find(index);
+        }
+        return result;
+    }
+
+    /** Condensation as sorted, distinct parent components of every component. */
+    private int[] dagParents() {
+        var edgeCount = new int[1];
+        for (int index = 0; index < size; index++) {
+            if (nodes.get(index)) {
+                edgeCount[0] += graph.parentCount(index);
+            }
+        }
+        var edges = new long[edgeCount[0]];
+        edgeCount[0] = 0;
+        for (int index = 0; index < size; index++) {
+            if (!nodes.get(index)) {
+                continue;
+            }
+            var component = components[index];
+            graph.forEachParent(
+                    index,
+                    parent -> {
+                        if (nodes.get(parent) && components[parent] != component) {
+                            edges[edgeCount[0]++] =
+                                    ((long) component << 32) | components[parent];
+                        }
+                    });
+        }
+        Arrays.sort(edges, 0, edgeCount[0]);
+        var parents = new int[edgeCount[0]];
+        var distinct = 0;
+        for (int i = 0; i < edgeCount[0]; i++) {
+            if (i == 0 || edges[i] != edges[i - 1]) {
+                dagOffsets[(int) (edges[i] >>> 32) + 1]++;
+                parents[distinct++] = (int) edges[i];
+            }
+        }
+        for (int component = 0; component + 1 < dagOffsets.length; component++) {
+            dagOffsets[component + 1] += dagOffsets[component];
+        }
+        return Arrays.copyOf(parents, distinct);
+    }
+
+    /**
+     * Post-order ranks of a depth first search over the DAG from descendants, visiting parents in
+     * ascending order for the first label and descending for the second one; low is the smallest
+     * rank reachable from a component. The first search gives intervals of its spanning forest.
+     */
+    private void label(int label) {
+        var componentCount = dagOffsets.length - 1;
+        var rank = labelRank[label];
+        var low = labelLow[label];
+        var visited = new BitSet(componentCount);
+        var callStack = new int[componentCount];
+        var positions = new int[componentCount];
+        var nextRank = 0;
+        var tick = 0;
+        for (int root = componentCount - 1; root >= 0; root--) {
+            if (visited.get(root)) {
+                continue;
+            }
+            var depth = 0;
+            visited.set(root);
+            if (label == 0) {
+                treeStart[root] = tick++;
+            }
+            callStack[depth++] = root;
+            while (depth > 0) {
+                var current = callStack[depth - 1];
+                var degree = dagOffsets[current + 1] - dagOffsets[current];
+                if (positions[current] < degree) {
+                    var position = positions[current]++;
+                    var parent =
+                            dagParents[
+                                    dagOffsets[current]
+                                            + (label == 0 ? position : degree - 1 - position)];
+                    if (!visited.get(parent)) {
+                        visited.set(parent);
+                        if (label == 0) {
+                            treeStart[parent] = tick++;
+                        }
+                        callStack[depth++] = parent;
+                    }
+                } else {
+                    depth--;
+                    rank[current] = nextRank++;
+                    if (label == 0) {
+                        treeEnd[current] = tick++;
+                    }
+                }
+            }
+        }
+        for (int component = 0; component < componentCount; component++) {
+            var min = rank[component];
+            for (int i = dagOffsets[component]; i < dagOffsets[component + 1]; i++) {
+                min = Math.min(min, low[dagParents[i]]);
+            }
+            low[component] = min;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.klukov.utils.graphs.validation;
+
+import static org.klukov.utils.graphs.common.ProcessingErrorType.DUPLICATED_NODES;
+import static org.klukov.utils.graphs.common.ProcessingErrorType.NULL_NODES;
+import static org.klukov.utils.graphs.common.ProcessingErrorType.NULL_OR_EMPTY_GRAPH;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+import org.klukov.utils.graphs.common.GraphProcessingException;
+
+/**
+ * Streaming validation of validators which check only whole collections. Nodes are kept until
+ * input ends and then validated together; start node is the first node when its id is null.
+ */
+class CollectingGraphValidation<ID, T extends ValidatableGraphNodeInput<ID>>
+        implements StreamingGraphValidation<ID, T> {
+
+    private final GraphValidator<ID, T> graphValidator;
+    private final ID startNodeId;
+    private final List<T> nodes;
+
+    CollectingGraphValidation(GraphValidator<ID, T> graphValidator, ID startNodeId) {
+        this.graphValidator = graphValidator;
+        this.startNodeId = startNodeId;
+        this.nodes = new ArrayList<>();
+    }
+
+    @Override
+    public void validateNode(T node, Predicate<? super T> uniqueNodeConsumer)
+            throws GraphProcessingException {
+        if (node == null || node.getId() == null) {
+            throw new GraphProcessingException(
+                    NULL_NODES, "At least one wrapped node is null or has id null");
+        }
+        if (!uniqueNodeConsumer.test(node)) {
+            throw new GraphProcessingException(DUPLICATED_NODES, "Nodes have duplicates");
+        }
+        nodes.add(node);
+    }
+
+    @Override
+    public void finish() throws GraphProcessingException {
+        if (nodes.isEmpty()) {
+            throw new GraphProcessingException(
+                    NULL_OR_EMPTY_GRAPH, "Input with graph is null or empty");
+        }
+        var start = startNodeId == null ? nodes.get(0).getId() : startNodeId;
+        graphValidator.validate(
+                new ValidatableGraphInput<>() {
+                    @Override
+                    public ID getStartNodeId() {
+                        return start;
+                    }
+
+                    @Override
+                    public Collection<T> getGraphInput() {
+                        return nodes;
+                    }
+                });
+    }
+}
@@ -1,8 +1,46 @@
 package org.klukov.utils.graphs.validation;
 
+import static org.klukov.utils.graphs.common.ProcessingErrorType.NULL_START_ID;
+
+import java.util.Collection;
+import java.util.Set;
 import org.klukov.utils.graphs.common.GraphProcessingException;
+import org.klukov.utils.graphs.compact.IndexedGraph;
 
 public interface GraphValidator<ID, T extends ValidatableGraphNodeInput<ID>> {
 
     void validate(ValidatableGraphInput<ID, T> input) throws GraphProcessingException;
+
+    /**
+     * Starts validation of nodes which are not available as a collection. By default nodes are
+     * collected and passed to {@link #validate(ValidatableGraphInput)} when input ends.
+     *
+     * @throws GraphProcessingException when start node id is null
+     */
+    default StreamingGraphValidation<ID, T> startStreamingValidation(ID startNodeId)
+            throws GraphProcessingException {
+        if (startNodeId == null) {
+            throw new GraphProcessingException(NULL_START_ID, "Start node id is null");
+        }
+        return new CollectingGraphValidation<>(this, startNodeId);
+    }
+
+    /**
+     * Starts validation of nodes given one by one, when start node is not known yet. By default
+     * nodes are collected and validated when input ends, with the first node as start node.
+     */
+    default StreamingGraphValidation<ID, T> startStreamingValidation() {
+        return new CollectingGraphValidation<>(this, null);
+    }
+
+    /**
+     * Validates an update of a valid graph before it is applied: nodes with removed ids are taken
+     * out of the graph and added nodes are put in. Added nodes are already checked for nulls and
+     * duplicates. By default nothing more is checked.
+     *
+     * @throws GraphProcessingException when updated graph would not be valid
+     */
+    default void validateUpdate(
+            IndexedGraph<ID, ?> graph, Set<ID> removedIds, Collection<T> addedNodes)
+            throws GraphProcessingException {}
 }
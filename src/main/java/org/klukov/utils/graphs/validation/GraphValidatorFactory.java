@@ -6,6 +6,20 @@ import lombok.experimental.UtilityClass;
 public class GraphValidatorFactory {
 
     public <ID, T extends ValidatableGraphNodeInput<ID>> GraphValidator<ID, T> graphValidator() {
-        return new GraphValidatorService<>();
+        return graphValidator(ValidationLevel.STRUCTURE);
+    }
+
+    public <ID, T extends ValidatableGraphNodeInput<ID>> GraphValidator<ID, T> graphValidator(
+            ValidationLevel validationLevel) {
+        return new GraphValidatorService<>(validationLevel);
+    }
+
+    public <T extends LongValidatableGraphNodeInput> LongGraphValidator<T> longGraphValidator() {
+        return longGraphValidator(ValidationLevel.STRUCTURE);
+    }
+
+    public <T extends LongValidatableGraphNodeInput> LongGraphValidator<T> longGraphValidator(
+            ValidationLevel validationLevel) {
+        return new LongGraphValidatorService<>(validationLevel);
     }
 }
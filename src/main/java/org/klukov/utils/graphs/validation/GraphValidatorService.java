@@ -1,18 +1,30 @@
 package org.klukov.utils.graphs.validation;
 
+import static org.klukov.utils.graphs.common.ProcessingErrorType.CYCLIC_GRAPH;
 import static org.klukov.utils.graphs.common.ProcessingErrorType.DUPLICATED_NODES;
 import static org.klukov.utils.graphs.common.ProcessingErrorType.NULL_NODES;
 import static org.klukov.utils.graphs.common.ProcessingErrorType.NULL_OR_EMPTY_GRAPH;
 import static org.klukov.utils.graphs.common.ProcessingErrorType.NULL_START_ID;
 import static org.klukov.utils.graphs.common.ProcessingErrorType.STAR_NODE_NOT_IN_GRAPH;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Set;
 import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
 import org.klukov.utils.graphs.common.GraphProcessingException;
+import org.klukov.utils.graphs.compact.CompactGraph;
+import org.klukov.utils.graphs.compact.IndexedGraph;
+import org.klukov.utils.graphs.compact.TopologicalSort;
 
+@AllArgsConstructor
 class GraphValidatorService<ID, T extends ValidatableGraphNodeInput<ID>>
         implements GraphValidator<ID, T> {
 
+    private static final int REPORTED_CYCLE_IDS = 10;
+
+    private final ValidationLevel validationLevel;
+
     public void validate(ValidatableGraphInput<ID, T> input) throws GraphProcessingException {
         var startNodeId = input.getStartNodeId();
         var parserInput = input.getGraphInput();
@@ -37,6 +49,66 @@ class GraphValidatorService<ID, T extends ValidatableGraphNodeInput<ID>>
         if (!allNodesIds.contains(startNodeId)) {
             throw new GraphProcessingException(STAR_NODE_NOT_IN_GRAPH, "Lack of start node");
         }
+        if (validationLevel == ValidationLevel.ACYCLIC) {
+            validateAcyclic(
+                    CompactGraph.of(
+                            parserInput,
+                            ValidatableGraphNodeInput::getId,
+                            ValidatableGraphNodeInput::getRelatedIds));
+        }
+    }
+
+    /**
+     * Only cycles going through added nodes are looked for, since removals cannot close a cycle;
+     * the graph is expected to be acyclic already.
+     */
+    @Override
+    public void validateUpdate(
+            IndexedGraph<ID, ?> graph, Set<ID> removedIds, Collection<T> addedNodes)
+            throws GraphProcessingException {
+        if (validationLevel == ValidationLevel.ACYCLIC && !addedNodes.isEmpty()) {
+            validateAcyclic(UpdatedGraphRegion.of(graph, removedIds, addedNodes));
+        }
+    }
+
+    @Override
+    public StreamingGraphValidation<ID, T> startStreamingValidation(ID startNodeId)
+            throws GraphProcessingException {
+        if (startNodeId == null) {
+            throw new GraphProcessingException(NULL_START_ID, "Start node id is null");
+        }
+        return new StreamingGraphValidationService<>(startNodeId, graphCheck());
+    }
+
+    @Override
+    public StreamingGraphValidation<ID, T> startStreamingValidation() {
+        return new StreamingGraphValidationService<>(null, graphCheck());
+    }
+
+    private StreamingGraphValidationService.GraphCheck<ID> graphCheck() {
+        return validationLevel == ValidationLevel.ACYCLIC
+                ? GraphValidatorService::validateAcyclic
+                : null;
+    }
+
+    /** Search stops at the first cycle, which is reported by its first ids, child before parent. */
+    static void validateAcyclic(IndexedGraph<?, ?> graph) throws GraphProcessingException {
+        var cycle = TopologicalSort.findCycle(graph);
+        if (cycle.length > 0) {
+            var ids =
+                    Arrays.stream(cycle)
+                            .limit(REPORTED_CYCLE_IDS)
+                            .mapToObj(graph::idAt)
+                            .map(String::valueOf)
+                            .collect(Collectors.joining(" -> "));
+            throw new GraphProcessingException(
+                    CYCLIC_GRAPH,
+                    "Graph has a cycle of "
+                            + cycle.length
+                            + " nodes: "
+                            + ids
+                            + (cycle.length > REPORTED_CYCLE_IDS ? " -> ..." : ""));
+        }
     }
 
     private boolean anyNodeIsNullOrHasNullId(Collection<T> parserInput) {
@@ -0,0 +1,22 @@
+package org.klukov.utils.graphs.validation;
+
+import java.util.Collection;
+import org.klukov.utils.graphs.common.GraphProcessingException;
+import org.klukov.utils.graphs.compact.LongCompactGraph;
+
+/**
+ * Validation of nodes with primitive long ids. Ids cannot be null, so checks are the ones of
+ * {@link GraphValidator#validate(ValidatableGraphInput)} without null ids; they are done while
+ * graph is built, so input is read only once.
+ */
+public interface LongGraphValidator<T extends LongValidatableGraphNodeInput> {
+
+    /**
+     * @return graph of validated nodes
+     * @throws GraphProcessingException when input is null or empty, a node is null or duplicated,
+     *     start node is not in the input or graph has a cycle, when {@link ValidationLevel#ACYCLIC}
+     *     is used
+     */
+    LongCompactGraph<T> buildValidGraph(Collection<? extends T> graphInput, long startNodeId)
+            throws GraphProcessingException;
+}
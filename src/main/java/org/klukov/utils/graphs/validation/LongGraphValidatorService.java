@@ -0,0 +1,46 @@
+package org.klukov.utils.graphs.validation;
+
+import static org.klukov.utils.graphs.common.ProcessingErrorType.DUPLICATED_NODES;
+import static org.klukov.utils.graphs.common.ProcessingErrorType.NULL_NODES;
+import static org.klukov.utils.graphs.common.ProcessingErrorType.NULL_OR_EMPTY_GRAPH;
+import static org.klukov.utils.graphs.common.ProcessingErrorType.STAR_NODE_NOT_IN_GRAPH;
+
+import java.util.Collection;
+import lombok.AllArgsConstructor;
+import org.klukov.utils.graphs.common.GraphProcessingException;
+import org.klukov.utils.graphs.compact.LongCompactGraph;
+import org.klukov.utils.graphs.compact.LongCompactGraphBuilder;
+
+@AllArgsConstructor
+class LongGraphValidatorService<T extends LongValidatableGraphNodeInput>
+        implements LongGraphValidator<T> {
+
+    private final ValidationLevel validationLevel;
+
+    @Override
+    public LongCompactGraph<T> buildValidGraph(
+            Collection<? extends T> graphInput, long startNodeId)
+            throws GraphProcessingException {
+        if (graphInput == null || graphInput.isEmpty()) {
+            throw new GraphProcessingException(
+                    NULL_OR_EMPTY_GRAPH, "Input collection with graph is null or empty");
+        }
+        var builder = new LongCompactGraphBuilder<T>(graphInput.size());
+        for (var node : graphInput) {
+            if (node == null) {
+                throw new GraphProcessingException(NULL_NODES, "At least one wrapped node is null");
+            }
+            if (!builder.addNode(node.getId(), node.getRelatedIds(), node)) {
+                throw new GraphProcessingException(DUPLICATED_NODES, "Nodes have duplicates");
+            }
+        }
+        if (!builder.containsNode(startNodeId)) {
+            throw new GraphProcessingException(STAR_NODE_NOT_IN_GRAPH, "Lack of start node");
+        }
+        var graph = builder.build();
+        if (validationLevel == ValidationLevel.ACYCLIC) {
+            GraphValidatorService.validateAcyclic(graph);
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,8 @@
+package org.klukov.utils.graphs.validation;
+
+public interface LongValidatableGraphNodeInput {
+
+    long getId();
+
+    long[] getRelatedIds();
+}
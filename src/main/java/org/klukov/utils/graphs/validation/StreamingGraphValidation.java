@@ -0,0 +1,27 @@
+package org.klukov.utils.graphs.validation;
+
+import java.util.function.Predicate;
+import org.klukov.utils.graphs.common.GraphProcessingException;
+
+/**
+ * Validation of nodes given one by one, for inputs which are read only once. Checks are the same
+ * as in {@link GraphValidator#validate(ValidatableGraphInput)}, but errors are reported for the
+ * first invalid node encountered, not in order of checks.
+ */
+public interface StreamingGraphValidation<ID, T extends ValidatableGraphNodeInput<ID>> {
+
+    /**
+     * Validates node and passes it to consumer, which keeps ids of nodes and tells whether id was
+     * not consumed before. Ids are not stored by the validation itself.
+     *
+     * @throws GraphProcessingException when node is null, has null id or id was consumed before
+     */
+    void validateNode(T node, Predicate<? super T> uniqueNodeConsumer)
+            throws GraphProcessingException;
+
+    /**
+     * @throws GraphProcessingException when there were no nodes, none of them was the start node
+     *     or graph has a cycle, when {@link ValidationLevel#ACYCLIC} is used
+     */
+    void finish() throws GraphProcessingException;
+}
@@ -0,0 +1,67 @@
+package org.klukov.utils.graphs.validation;
+
+import static org.klukov.utils.graphs.common.ProcessingErrorType.DUPLICATED_NODES;
+import static org.klukov.utils.graphs.common.ProcessingErrorType.NULL_NODES;
+import static org.klukov.utils.graphs.common.ProcessingErrorType.NULL_OR_EMPTY_GRAPH;
+import static org.klukov.utils.graphs.common.ProcessingErrorType.STAR_NODE_NOT_IN_GRAPH;
+
+import java.util.function.Predicate;
+import org.klukov.utils.graphs.common.GraphProcessingException;
+import org.klukov.utils.graphs.compact.CompactGraphBuilder;
+import org.klukov.utils.graphs.compact.IndexedGraph;
+
+/**
+ * Keeps only counters, unless graph check is given; edges are collected then to check the whole
+ * graph when input ends. Start node is not looked for when its id is null.
+ */
+class StreamingGraphValidationService<ID, T extends ValidatableGraphNodeInput<ID>>
+        implements StreamingGraphValidation<ID, T> {
+
+    private final ID startNodeId;
+    private final GraphCheck<ID> graphCheck;
+    private final CompactGraphBuilder<ID, Void> graphBuilder;
+    private long nodeCount;
+    private boolean startNodeFound;
+
+    StreamingGraphValidationService(ID startNodeId, GraphCheck<ID> graphCheck) {
+        this.startNodeId = startNodeId;
+        this.graphCheck = graphCheck;
+        this.graphBuilder = graphCheck == null ? null : new CompactGraphBuilder<>();
+    }
+
+    @Override
+    public void validateNode(T node, Predicate<? super T> uniqueNodeConsumer)
+            throws GraphProcessingException {
+        if (node == null || node.getId() == null) {
+            throw new GraphProcessingException(
+                    NULL_NODES, "At least one wrapped node is null or has id null");
+        }
+        if (!uniqueNodeConsumer.test(node)) {
+            throw new GraphProcessingException(DUPLICATED_NODES, "Nodes have duplicates");
+        }
+        nodeCount++;
+        startNodeFound |= node.getId().equals(startNodeId);
+        if (graphBuilder != null) {
+            graphBuilder.addNode(node.getId(), node.getRelatedIds(), null);
+        }
+    }
+
+    @Override
+    public void finish() throws GraphProcessingException {
+        if (nodeCount == 0) {
+            throw new GraphProcessingException(
+                    NULL_OR_EMPTY_GRAPH, "Input with graph is null or empty");
+        }
+        if (startNodeId != null && !startNodeFound) {
+            throw new GraphProcessingException(STAR_NODE_NOT_IN_GRAPH, "Lack of start node");
+        }
+        if (graphCheck != null) {
+            graphCheck.check(graphBuilder.build());
+        }
+    }
+
+    interface GraphCheck<ID> {
+
+        void check(IndexedGraph<ID, ?> graph) throws GraphProcessingException;
+    }
+}
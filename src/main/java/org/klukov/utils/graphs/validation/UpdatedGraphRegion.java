@@ -0,0 +1,154 @@
+package org.klukov.utils.graphs.validation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import org.klukov.utils.graphs.compact.CompactGraph;
+import org.klukov.utils.graphs.compact.CompactGraphBuilder;
+import org.klukov.utils.graphs.compact.IndexedGraph;
+
+/**
+ * Part of a graph after an update which holds every cycle going through added nodes. Such a cycle
+ * consists of ancestors of added nodes which are their descendants as well, so ancestors and
+ * descendants are collected in turns and the set complete first is used; appending new children
+ * to a long history visits only the few descendants. Graph is read as if removed nodes were
+ * replaced by added ones, so the update does not have to be applied before it is checked.
+ */
+final class UpdatedGraphRegion<ID, T extends ValidatableGraphNodeInput<ID>> {
+
+    private final IndexedGraph<ID, ?> graph;
+    private final Set<ID> removedIds;
+    private final Map<ID, T> addedNodes = new HashMap<>();
+    private final Map<ID, List<ID>> addedChildren = new HashMap<>();
+
+    private UpdatedGraphRegion(
+            IndexedGraph<ID, ?> graph, Set<ID> removedIds, Collection<T> addedNodes) {
+        this.graph = graph;
+        this.removedIds = removedIds;
+        for (var node : addedNodes) {
+            this.addedNodes.put(node.getId(), node);
+            forEachRelatedId(
+                    node,
+                    parentId ->
+                            addedChildren
+                                    .computeIfAbsent(parentId, key -> new ArrayList<>())
+                                    .add(node.getId()));
+        }
+    }
+
+    /**
+     * @return graph of nodes in the region and edges between them
+     */
+    static <ID, T extends ValidatableGraphNodeInput<ID>> CompactGraph<ID, Void> of(
+            IndexedGraph<ID, ?> graph, Set<ID> removedIds, Collection<T> addedNodes) {
+        return new UpdatedGraphRegion<>(graph, removedIds, addedNodes).find();
+    }
+
+    private CompactGraph<ID, Void> find() {
+        var ancestors = new Search(addedNodes.keySet());
+        var descendants = new Search(addedNodes.keySet());
+        while (true) {
+            if (ancestors.step(this::forEachParent)) {
+                return regionGraph(ancestors.visited);
+            }
+            if (descendants.step(this::forEachChild)) {
+                return regionGraph(descendants.visited);
+            }
+        }
+    }
+
+    private CompactGraph<ID, Void> regionGraph(Set<ID> region) {
+        var builder = new CompactGraphBuilder<ID, Void>(region.size());
+        for (var id : region) {
+            if (isNode(id)) {
+                var parentIds = new ArrayList<ID>();
+                forEachParent(
+                        id,
+                        parentId -> {
+                            if (region.contains(parentId)) {
+                                parentIds.add(parentId);
+                            }
+                        });
+                builder.addNode(id, parentIds, null);
+            }
+        }
+        return builder.build();
+    }
+
+    private boolean isNode(ID id) {
+        if (addedNodes.containsKey(id)) {
+            return true;
+        }
+        var index = graph.indexOf(id);
+        return index >= 0 && graph.isNode(index) && !removedIds.contains(id);
+    }
+
+    private void forEachParent(ID id, Consumer<ID> action) {
+        var addedNode = addedNodes.get(id);
+        if (addedNode != null) {
+            forEachRelatedId(addedNode, action);
+            return;
+        }
+        if (isNode(id)) {
+            graph.forEachParent(graph.indexOf(id), parent -> action.accept(graph.idAt(parent)));
+        }
+    }
+
+    /** Children kept from the graph are those which are not removed, added ones are appended. */
+    private void forEachChild(ID id, Consumer<ID> action) {
+        var index = graph.indexOf(id);
+        if (index >= 0) {
+            graph.forEachChild(
+                    index,
+                    child -> {
+                        var childId = graph.idAt(child);
+                        if (!removedIds.contains(childId)) {
+                            action.accept(childId);
+                        }
+                    });
+        }
+        addedChildren.getOrDefault(id, List.of()).forEach(action);
+    }
+
+    private void forEachRelatedId(T node, Consumer<ID> action) {
+        if (node.getRelatedIds() != null) {
+            node.getRelatedIds().stream().filter(id -> id != null).forEach(action);
+        }
+    }
+
+    /** Breadth first search over ids which is advanced by one id per step. */
+    private final class Search {
+
+        private final Set<ID> visited;
+        private final Queue<ID> queue;
+
+        Search(Collection<ID> startIds) {
+            this.visited = new LinkedHashSet<>(startIds);
+            this.queue = new ArrayDeque<>(startIds);
+        }
+
+        /**
+         * @return {@code true} if search is complete
+         */
+        boolean step(BiConsumer<ID, Consumer<ID>> neighbours) {
+            if (!queue.isEmpty()) {
+                neighbours.accept(
+                        queue.poll(),
+                        next -> {
+                            if (visited.add(next)) {
+                                queue.add(next);
+                            }
+                        });
+            }
+            return queue.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.klukov.utils.graphs.validation;
+
+public enum ValidationLevel {
+    /** Nodes, their ids and the start node are checked. */
+    STRUCTURE,
+    /**
+     * Additionally no node can be its own ancestor; costs building the graph once more. Updates
+     * are checked only around added nodes.
+     */
+    ACYCLIC
+}
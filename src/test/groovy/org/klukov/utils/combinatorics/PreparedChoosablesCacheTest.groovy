@@ -0,0 +1,112 @@
+package org.klukov.utils.combinatorics
+
+import org.klukov.utils.combinatorics.choose.ChoosableWrapper
+import spock.lang.Specification
+
+class PreparedChoosablesCacheTest extends Specification {
+
+    RandomFrictionQuery randomFrictionQuery = Mock()
+
+    CombinatoricsFacade sub = new CombinatoricsFacade(randomFrictionQuery, 2)
+
+    def choosables = [
+            ChoosableWrapper.of("A"),
+            ChoosableWrapper.of(2 as BigDecimal, "B"),
+            ChoosableWrapper.of(3 as BigDecimal, "C"),
+    ]
+
+    def "should choose the same objects as not cached methods"() {
+        given:
+        randomFrictionQuery.getRandomFraction() >>> [0.9, 0.1, 0.5, 0.9, 0.1, 0.5]
+
+        expect:
+        sub.chooseCachedWithoutRepetition(choosables, 3) == sub.chooseWithoutRepetition(choosables, 3)
+        sub.chooseCachedWithRepetition("KEY", choosables, 3) == sub.chooseWithRepetition(choosables, 3)
+    }
+
+    def "should reuse prepared objects with equal content or key"() {
+        given:
+        randomFrictionQuery.getRandomFraction() >> 0.0
+
+        when:
+        sub.chooseCachedWithRepetition(choosables, 1)
+        sub.chooseCachedWithoutRepetition(new ArrayList<>(choosables), 2)
+        sub.chooseCachedWithRepetition("KEY", choosables, 1)
+        def result = sub.chooseCachedWithRepetition("KEY", null, 1)
+
+        then:
+        result == ["A"]
+        with(sub.preparedCacheStatistics()) {
+            hits() == 2
+            misses() == 2
+            size() == 2
+            hitRate() == 0.5d
+        }
+    }
+
+    def "should compare coefficients by value and objects by type"() {
+        given:
+        randomFrictionQuery.getRandomFraction() >> 0.0
+
+        when:
+        sub.chooseCachedWithRepetition([ChoosableWrapper.of(new BigDecimal("1.0"), "A")], 1)
+        sub.chooseCachedWithRepetition([ChoosableWrapper.of(new BigDecimal("1.00"), "A")], 1)
+        List<Object> linkedResult = sub.chooseCachedWithRepetition([ChoosableWrapper.of(new LinkedList<>([1]))], 1)
+        List<Object> arrayResult = sub.chooseCachedWithRepetition([ChoosableWrapper.of(new ArrayList<>([1]))], 1)
+
+        then:
+        linkedResult[0] instanceof LinkedList
+        arrayResult[0] instanceof ArrayList
+        with(sub.preparedCacheStatistics()) {
+            hits() == 1
+            misses() == 3
+        }
+    }
+
+    def "should evict least recently used prepared objects"() {
+        given:
+        randomFrictionQuery.getRandomFraction() >> 0.0
+
+        when:
+        sub.chooseCachedWithRepetition("FIRST", choosables, 1)
+        sub.chooseCachedWithRepetition("SECOND", choosables, 1)
+        sub.chooseCachedWithRepetition("FIRST", choosables, 1)
+        sub.chooseCachedWithRepetition("THIRD", choosables, 1)
+        sub.chooseCachedWithRepetition("FIRST", choosables, 1)
+        sub.chooseCachedWithRepetition("SECOND", choosables, 1)
+
+        then:
+        with(sub.preparedCacheStatistics()) {
+            hits() == 2
+            misses() == 4
+            evictions() == 2
+            size() == 2
+        }
+    }
+
+    def "should prepare objects again after invalidation"() {
+        given:
+        randomFrictionQuery.getRandomFraction() >> 0.0
+        sub.chooseCachedWithRepetition("KEY", choosables, 1)
+
+        when:
+        sub.invalidatePrepared("KEY")
+        def result = sub.chooseCachedWithRepetition("KEY", [ChoosableWrapper.of("Z")], 1)
+
+        then:
+        result == ["Z"]
+        sub.preparedCacheStatistics().misses() == 2
+    }
+
+    def "should not cache invalid objects"() {
+        when:
+        sub.chooseCachedWithRepetition("KEY", objects, 1)
+
+        then:
+        thrown(IllegalArgumentException.class)
+        sub.preparedCacheStatistics().size() == 0
+
+        where:
+        objects << [null, [], [ChoosableWrapper.of(BigDecimal.ZERO, "A")]]
+    }
+}
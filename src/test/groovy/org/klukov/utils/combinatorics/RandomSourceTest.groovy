@@ -0,0 +1,113 @@
+package org.klukov.utils.combinatorics
+
+import org.klukov.utils.combinatorics.choose.ChoosableWrapper
+import spock.lang.Specification
+
+class RandomSourceTest extends Specification {
+
+    def "should generate fractions from range [0, 1)"() {
+        given:
+        def doubles = new double[1000]
+
+        when:
+        randomSource.fill(doubles)
+
+        then:
+        doubles.every { it >= 0.0d && it < 1.0d }
+        randomSource.nextDouble() < 1.0d
+        randomSource.getRandomFraction() < BigDecimal.ONE
+
+        where:
+        randomSource << [
+                RandomSource.threadLocal(),
+                RandomSource.seeded(1L),
+                RandomSource.splittable(),
+                RandomSource.secure(),
+                RandomSource.of(new Random(1L)),
+        ]
+    }
+
+    def "should reproduce the same numbers for the same seed"() {
+        given:
+        def first = RandomSource.seeded(42L)
+        def second = RandomSource.seeded(42L)
+        def doubles = new double[100]
+        def longs = new long[100]
+
+        when:
+        first.fill(doubles)
+        first.fill(longs)
+
+        then:
+        (0..99).every { doubles[it] == second.nextDouble() }
+        (0..99).every { longs[it] == second.nextLong() }
+    }
+
+    def "should split into independent reproducible sources"() {
+        when:
+        def first = RandomSource.seeded(42L).split()
+        def second = RandomSource.seeded(42L).split()
+
+        then:
+        first.nextLong() == second.nextLong()
+        RandomSource.seeded(42L).split().nextLong() != RandomSource.seeded(42L).nextLong()
+    }
+
+    def "should adapt random friction query"() {
+        given:
+        RandomFrictionQuery randomFrictionQuery = Mock()
+        randomFrictionQuery.getRandomFraction() >>> [0.25, 0.5, 0.75]
+        def doubles = new double[3]
+
+        when:
+        def adapter = RandomSource.of(randomFrictionQuery)
+        adapter.fill(doubles)
+
+        then:
+        doubles == [0.25d, 0.5d, 0.75d] as double[]
+    }
+
+    def "should keep long built from fractions within bounds when fraction is 1"() {
+        given:
+        RandomFrictionQuery randomFrictionQuery = Mock()
+        randomFrictionQuery.getRandomFraction() >>> [1.0, 1.0, 0.5, 0.0]
+
+        when:
+        def adapter = RandomSource.of(randomFrictionQuery)
+
+        then:
+        adapter.nextLong() == -1L
+        adapter.nextLong() == Long.MIN_VALUE
+    }
+
+    def "should use one shared secure source and accept lambdas as sources"() {
+        given:
+        RandomSource constant = { -> 0.5d }
+
+        expect:
+        RandomSource.secure().is(RandomSource.secure())
+        constant.nextDouble() == 0.5d
+        constant.nextLong() == (Long.MIN_VALUE | 0x80000000L)
+    }
+
+    def "should not wrap random source"() {
+        given:
+        def randomSource = RandomSource.threadLocal()
+
+        expect:
+        RandomSource.of(randomSource as RandomFrictionQuery).is(randomSource)
+    }
+
+    def "should choose the same objects for the same seed"() {
+        given:
+        def choosables = (1..100).collect { ChoosableWrapper.of(it as BigDecimal, it) }
+
+        when:
+        def first = new CombinatoricsFacade(RandomSource.seeded(7L))
+        def second = new CombinatoricsFacade(RandomSource.seeded(7L))
+
+        then:
+        first.chooseWithRepetition(choosables, 50) == second.chooseWithRepetition(choosables, 50)
+        first.chooseWithoutRepetition(choosables, 50) == second.chooseWithoutRepetition(choosables, 50)
+    }
+}
@@ -0,0 +1,141 @@
+package org.klukov.utils.combinatorics.choose
+
+import java.util.concurrent.ForkJoinPool
+import org.klukov.utils.combinatorics.CombinatoricsFacade
+import org.klukov.utils.combinatorics.RandomFrictionQuery
+import spock.lang.Specification
+
+class AliasMethodSamplerTest extends Specification {
+
+    RandomFrictionQuery randomFrictionQuery = Mock()
+
+    CombinatoricsFacade sub = new CombinatoricsFacade(randomFrictionQuery)
+
+    def "should throw exception when input is invalid"() {
+        when:
+        sub.prepareWithRepetition(objects as Collection<ChoosableWrapper<String>>)
+
+        then:
+        thrown(IllegalArgumentException.class)
+
+        where:
+        objects                                                                || _
+        null                                                                   || _
+        Collections.emptyList()                                                || _
+        [ChoosableWrapper.of(BigDecimal.ZERO, "A")]                            || _
+        [ChoosableWrapper.of("A"), ChoosableWrapper.of(-1 as BigDecimal, "B")] || _
+    }
+
+    def "should throw exception when number of objects to choose is invalid"() {
+        given:
+        def sampler = sub.prepareWithRepetition(ChoosableDataGenerator.sampleStringChoosables())
+
+        when:
+        sampler.choose(k)
+
+        then:
+        thrown(IllegalArgumentException.class)
+
+        where:
+        k << [-1, 0]
+    }
+
+    def "should return element from input for boundary random fractions"() {
+        given:
+        def choosables = ChoosableDataGenerator.sampleStringChoosables()
+        randomFrictionQuery.getRandomFraction() >> random
+        def sampler = sub.prepareWithRepetition(choosables)
+
+        when:
+        def result = sampler.choose(3)
+
+        then:
+        result.size() == 3
+        choosables.collect { it.wrappedObject() }.containsAll(result)
+
+        where:
+        random << [0.0, 0.5, 0.999999, 1.0]
+    }
+
+    def "should reproduce weights distribution over evenly spread random fractions"() {
+        given:
+        def choosables = ChoosableDataGenerator.sampleStringChoosables()
+        def draws = 15000
+        def drawsPerColumn = draws.intdiv(choosables.size())
+        def counter = 0
+        randomFrictionQuery.getRandomFraction() >> {
+            def draw = (counter++).intdiv(2)
+            counter % 2 == 1
+                    ? (draw + 0.5) / draws as BigDecimal
+                    : (draw % drawsPerColumn + 0.5) / drawsPerColumn as BigDecimal
+        }
+        def sampler = sub.prepareWithRepetition(choosables)
+
+        when:
+        def result = sampler.choose(draws).countBy { it }
+
+        then:
+        choosables.each { choosable ->
+            def expected = draws * choosable.probabilityCoefficient() / 15
+            assert (result[choosable.wrappedObject()] - expected).abs() <= 5
+        }
+    }
+
+    def "should be reusable for many calls"() {
+        given:
+        randomFrictionQuery.getRandomFraction() >> 0.5
+        def sampler = sub.prepareWithRepetition([ChoosableWrapper.of("A")])
+
+        expect:
+        sampler.choose(2) == ["A", "A"]
+        sampler.chooseOne() == "A"
+        sampler.size() == 1
+    }
+
+    def "should choose the same indexes for the same seed regardless of parallelism"() {
+        given:
+        def sampler = sub.prepareWithRepetition(ChoosableDataGenerator.sampleStringChoosables())
+        def k = 100_000
+        def forkJoinPool = new ForkJoinPool(1)
+
+        when:
+        def commonPoolResult = sampler.chooseIndexes(k, 42L)
+        def singleThreadResult = sampler.chooseIndexes(k, 42L, forkJoinPool)
+        def streamResult = sampler.streamIndexes(k, 42L).parallel().toArray()
+
+        then:
+        commonPoolResult == singleThreadResult
+        commonPoolResult == streamResult
+        commonPoolResult != sampler.chooseIndexes(k, 43L)
+        0 * randomFrictionQuery.getRandomFraction()
+
+        cleanup:
+        forkJoinPool.shutdown()
+    }
+
+    def "should choose indexes according to probability coefficients"() {
+        given:
+        def sampler = sub.prepareWithRepetition(ChoosableDataGenerator.sampleStringChoosables())
+        def k = 150_000
+
+        when:
+        def counts = sampler.chooseIndexes(k, 7L).toList().countBy { it }
+
+        then:
+        (0..4).each { index ->
+            def expected = k * (index + 1) / 15
+            assert (counts[index] - expected).abs() < expected * 0.05
+        }
+    }
+
+    def "should throw exception when number of indexes to choose is invalid"() {
+        given:
+        def sampler = sub.prepareWithRepetition(ChoosableDataGenerator.sampleStringChoosables())
+
+        when:
+        sampler.streamIndexes(0L, 42L)
+
+        then:
+        thrown(IllegalArgumentException.class)
+    }
+}
@@ -0,0 +1,129 @@
+package org.klukov.utils.combinatorics.choose
+
+import org.klukov.utils.combinatorics.CombinatoricsFacade
+import org.klukov.utils.combinatorics.RandomFrictionQuery
+import spock.lang.Specification
+
+class ChoosablePoolTest extends Specification {
+
+    RandomFrictionQuery randomFrictionQuery = Mock()
+
+    CombinatoricsFacade sub = new CombinatoricsFacade(randomFrictionQuery)
+
+    def "should choose the same elements as variation with repetition"() {
+        given:
+        def choosables = ChoosableDataGenerator.sampleStringChoosables()
+        randomFrictionQuery.getRandomFraction() >>> [0.5, 0.3, 0.1, 0.01, 1.0]
+        def pool = sub.choosablePool(choosables)
+
+        when:
+        def result = pool.chooseWithRepetition(5)
+
+        then:
+        result == [3, 2, 1, 0, 4].collect { choosables[it].wrappedObject() }
+    }
+
+    def "should choose the same elements as variation without repetition and keep them in pool"() {
+        given:
+        def choosables = ChoosableDataGenerator.sampleStringChoosables()
+        randomFrictionQuery.getRandomFraction() >>> [0.3, 0.8, 0.1, 0.8]
+        def pool = sub.choosablePool(choosables)
+
+        when:
+        def result = pool.chooseWithoutRepetition(4)
+
+        then:
+        result == [2, 4, 0, 3].collect { choosables[it].wrappedObject() }
+        pool.size() == choosables.size()
+    }
+
+    def "should not choose removed objects and choose added ones"() {
+        given:
+        randomFrictionQuery.getRandomFraction() >> 0.0
+        def pool = sub.choosablePool(ChoosableDataGenerator.sampleStringChoosables())
+
+        when:
+        pool.remove("A")
+        pool.remove("B")
+
+        then:
+        pool.chooseOne() == "C"
+        !pool.contains("A")
+
+        when:
+        pool.add(ChoosableWrapper.of("F"))
+        pool.remove("C")
+        pool.remove("D")
+        pool.remove("E")
+
+        then:
+        pool.chooseOne() == "F"
+        pool.size() == 1
+    }
+
+    def "should choose according to updated probability coefficients"() {
+        given:
+        randomFrictionQuery.getRandomFraction() >> 0.5
+        def pool = sub.choosablePool([ChoosableWrapper.of("A"), ChoosableWrapper.of("B")])
+
+        expect:
+        pool.chooseOne() == "B"
+        pool.updateProbabilityCoefficient("A", 3 as BigDecimal)
+        pool.chooseOne() == "A"
+        !pool.updateProbabilityCoefficient("C", 3 as BigDecimal)
+    }
+
+    def "should grow when many objects are added"() {
+        given:
+        randomFrictionQuery.getRandomFraction() >> 0.999
+        def pool = sub.choosablePool([])
+
+        when:
+        (1..1000).each { pool.add(ChoosableWrapper.of(it)) }
+
+        then:
+        pool.size() == 1000
+        pool.chooseOne() == 1000
+        pool.chooseWithoutRepetition(1000).toSet().size() == 1000
+    }
+
+    def "should throw exception when input is invalid"() {
+        given:
+        def pool = sub.choosablePool(ChoosableDataGenerator.sampleStringChoosables())
+
+        when:
+        action(pool)
+
+        then:
+        thrown(IllegalArgumentException.class)
+
+        where:
+        action << [
+                { ChoosablePool p -> p.add(ChoosableWrapper.of("A")) },
+                { ChoosablePool p -> p.add(ChoosableWrapper.of(BigDecimal.ZERO, "Z")) },
+                { ChoosablePool p -> p.add(null) },
+                { ChoosablePool p -> p.updateProbabilityCoefficient("A", -1 as BigDecimal) },
+                { ChoosablePool p -> p.chooseWithRepetition(0) },
+                { ChoosablePool p -> p.chooseWithoutRepetition(6) },
+        ]
+    }
+
+    def "should throw exception when objects are null"() {
+        when:
+        sub.choosablePool(null)
+
+        then:
+        thrown(IllegalArgumentException.class)
+    }
+
+    def "should throw exception when choosing from empty pool"() {
+        given:
+        def pool = sub.choosablePool([])
+
+        when:
+        pool.chooseOne()
+
+        then:
+        thrown(IllegalArgumentException.class)
+    }
+}
@@ -0,0 +1,104 @@
+package org.klukov.utils.combinatorics.choose
+
+import org.klukov.utils.combinatorics.CombinatoricsFacade
+import org.klukov.utils.combinatorics.RandomFrictionQuery
+import spock.lang.Specification
+
+class DoubleVariationTest extends Specification {
+
+    static final List<String> OBJECTS = ["A", "B", "C", "D", "E"]
+    static final double[] WEIGHTS = [1.0d, 2.0d, 3.0d, 4.0d, 5.0d] as double[]
+
+    RandomFrictionQuery randomFrictionQuery = Mock()
+
+    CombinatoricsFacade sub = new CombinatoricsFacade(randomFrictionQuery)
+
+    def "should throw exception when input is invalid"() {
+        when:
+        sub.chooseWithRepetition(objects, weights as double[], k)
+
+        then:
+        thrown(IllegalArgumentException.class)
+
+        when:
+        sub.chooseWithoutRepetition(objects, weights as double[], k)
+
+        then:
+        thrown(IllegalArgumentException.class)
+
+        where:
+        objects    | weights                          | k
+        OBJECTS    | WEIGHTS                          | 0
+        OBJECTS    | WEIGHTS                          | -1
+        OBJECTS    | null                             | 1
+        OBJECTS    | []                               | 1
+        ["A"]      | WEIGHTS                          | 1
+        ["A", "B"] | [1.0d, 0.0d]                     | 1
+        ["A", "B"] | [1.0d, Double.NaN]               | 1
+        ["A", "B"] | [1.0d, -2.0d]                    | 1
+        ["A", "B"] | [Double.POSITIVE_INFINITY, 1.0d] | 1
+    }
+
+    def "should return the same element as big decimal engine when k is equal 1"() {
+        given:
+        randomFrictionQuery.getRandomFraction() >> random
+
+        when:
+        def result = sub.chooseWithRepetition(OBJECTS, WEIGHTS, 1)
+
+        then:
+        result == [OBJECTS[expectedElement]]
+
+        where:
+        random || expectedElement
+        1.0    || 4
+        0.8    || 4
+        0.6    || 3
+        0.4    || 3
+        0.3    || 2
+        0.1    || 1
+        0.01   || 0
+        0.0    || 0
+    }
+
+    def "should return correct indexes with repetition"() {
+        given:
+        randomFrictionQuery.getRandomFraction() >>> [0.5, 0.3, 0.1, 0.01]
+
+        expect:
+        sub.chooseIndexesWithRepetition(WEIGHTS, 4) == [3, 2, 1, 0] as int[]
+    }
+
+    def "should choose distinct objects without repetition"() {
+        given:
+        def random = new Random(42)
+        randomFrictionQuery.getRandomFraction() >> { random.nextDouble() as BigDecimal }
+
+        when:
+        def result = sub.chooseWithoutRepetition(OBJECTS, WEIGHTS, k)
+
+        then:
+        result.size() == k
+        result.toSet().size() == k
+        OBJECTS.containsAll(result)
+
+        where:
+        k << [1, 3, 5]
+    }
+
+    def "should order by weights when every random fraction is 1"() {
+        given:
+        randomFrictionQuery.getRandomFraction() >> 1.0
+
+        expect:
+        sub.chooseIndexesWithoutRepetition(WEIGHTS, 4) == [4, 3, 2, 1] as int[]
+    }
+
+    def "should throw exception when k is higher than number of weights"() {
+        when:
+        sub.chooseIndexesWithoutRepetition(WEIGHTS, 6)
+
+        then:
+        thrown(IllegalArgumentException.class)
+    }
+}
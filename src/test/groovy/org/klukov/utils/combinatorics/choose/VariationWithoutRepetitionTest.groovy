@@ -26,6 +26,17 @@ class VariationWithoutRepetitionTest extends Specification {
         Collections.emptyList()                         | 2                                                          || _
     }
 
+    def "should report that k is higher than number of objects"() {
+        def choosables = ChoosableDataGenerator.sampleStringChoosables()
+
+        when:
+        sub.chooseWithoutRepetition(choosables, choosables.size() + 1)
+
+        then:
+        def exception = thrown(IllegalArgumentException.class)
+        exception.message == "Number of objects to choose must not be higher than number of objects"
+    }
+
     def "should return proper number of elements"() {
         def choosables = ChoosableDataGenerator.sampleStringChoosables()
         randomFrictionQuery.getRandomFraction() >> 0.9
@@ -101,4 +112,21 @@ class VariationWithoutRepetitionTest extends Specification {
         3 | [0.01, 0.01, 0.01]             || [0, 1, 2]
         2 | [0.3, 0.1]                     || [2, 1]
     }
+
+    def "should choose distinct objects when k is big"() {
+        given:
+        def random = new Random(42)
+        def choosables = (1..2000).collect { ChoosableWrapper.of((it % 7 + 1) as BigDecimal, it) }
+        randomFrictionQuery.getRandomFraction() >> { random.nextDouble() as BigDecimal }
+
+        when:
+        def result = sub.chooseWithoutRepetition(choosables, k)
+
+        then:
+        result.size() == k
+        result.toSet().size() == k
+
+        where:
+        k << [1000, 2000]
+    }
 }
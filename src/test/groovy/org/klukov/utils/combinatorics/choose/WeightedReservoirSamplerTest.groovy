@@ -0,0 +1,122 @@
+package org.klukov.utils.combinatorics.choose
+
+import java.util.stream.IntStream
+import org.klukov.utils.combinatorics.CombinatoricsFacade
+import org.klukov.utils.combinatorics.RandomFrictionQuery
+import org.klukov.utils.combinatorics.RandomSource
+import spock.lang.Specification
+
+class WeightedReservoirSamplerTest extends Specification {
+
+    CombinatoricsFacade sub = new CombinatoricsFacade(RandomSource.seeded(42L))
+
+    def "should throw exception when input is invalid"() {
+        when:
+        sub.chooseWithoutRepetitionFromIterator(objects.iterator(), k)
+
+        then:
+        thrown(IllegalArgumentException.class)
+
+        where:
+        objects                                          | k
+        ChoosableDataGenerator.sampleStringChoosables()  | 0
+        ChoosableDataGenerator.sampleStringChoosables()  | -1
+        ChoosableDataGenerator.sampleStringChoosables()  | 6
+        []                                               | 1
+        [ChoosableWrapper.of(BigDecimal.ZERO, "A")]      | 1
+        [ChoosableWrapper.of(-1 as BigDecimal, "A")]     | 1
+        [ChoosableWrapper.of(null as BigDecimal, "A")]   | 1
+    }
+
+    def "should choose all objects when k is equal to number of objects"() {
+        given:
+        def choosables = ChoosableDataGenerator.sampleStringChoosables()
+
+        when:
+        def result = sub.chooseWithoutRepetitionFromIterator(choosables.iterator(), choosables.size())
+
+        then:
+        result.toSet() == choosables.collect { it.wrappedObject() }.toSet()
+    }
+
+    def "should choose distinct objects from big sequential and parallel streams"() {
+        given:
+        def stream = IntStream.range(0, 100_000)
+                .mapToObj { ChoosableWrapper.of((it % 10 + 1) as BigDecimal, it) }
+
+        when:
+        def result = sub.chooseWithoutRepetitionFromStream(parallel ? stream.parallel() : stream, 1000)
+
+        then:
+        result.size() == 1000
+        result.toSet().size() == 1000
+
+        where:
+        parallel << [false, true]
+    }
+
+    def "should sample parallel stream on one thread when random source is not thread-safe"() {
+        given:
+        def threads = Collections.synchronizedSet(new HashSet<Thread>())
+        def random = new Random(7)
+        RandomFrictionQuery randomFrictionQuery = { ->
+            threads.add(Thread.currentThread())
+            random.nextDouble() as BigDecimal
+        }
+        def stream = IntStream.range(0, 100_000)
+                .mapToObj { ChoosableWrapper.of((it % 10 + 1) as BigDecimal, it) }
+                .parallel()
+
+        when:
+        def result = new CombinatoricsFacade(randomFrictionQuery)
+                .chooseWithoutRepetitionFromStream(stream, 100)
+
+        then:
+        result.toSet().size() == 100
+        threads.size() == 1
+    }
+
+    def "should merge reservoirs filled from disjoint parts of input"() {
+        given:
+        def first = new WeightedReservoirSampler<Integer>(10, RandomSource.seeded(1L))
+        def second = new WeightedReservoirSampler<Integer>(10, RandomSource.seeded(2L))
+        (0..<50).each { first.offer(ChoosableWrapper.of(it)) }
+        (50..<55).each { second.offer(ChoosableWrapper.of(it)) }
+
+        when:
+        def result = first.merge(second).result()
+
+        then:
+        result.size() == 10
+        result.toSet().size() == 10
+        result.every { it >= 0 && it < 55 }
+    }
+
+    def "should prefer objects with higher probability coefficients"() {
+        given:
+        def choosables = [ChoosableWrapper.of(1000 as BigDecimal, "HEAVY")] +
+                (1..99).collect { ChoosableWrapper.of("LIGHT" + it) }
+
+        when:
+        def firstChosen = (1..1000).collect {
+            sub.chooseWithoutRepetitionFromIterator(choosables.iterator(), 3)[0]
+        }
+
+        then:
+        firstChosen.count("HEAVY") > 850
+    }
+
+    def "should order by probability coefficients when every random fraction is 1"() {
+        given:
+        RandomFrictionQuery randomFrictionQuery = Mock()
+        randomFrictionQuery.getRandomFraction() >> 1.0
+        def choosables = (1..5).collect { ChoosableWrapper.of(it as BigDecimal, "W" + it) }
+
+        when:
+        def result = new CombinatoricsFacade(randomFrictionQuery)
+                .chooseWithoutRepetitionFromIterator(choosables.iterator(), 4)
+
+        then:
+        result == ["W5", "W4", "W3", "W2"]
+    }
+}
@@ -0,0 +1,94 @@
+package org.klukov.utils.combinatorics.enumerate
+
+import spock.lang.Specification
+
+class IndexTupleEnumeratorTest extends Specification {
+
+    def "should enumerate tuples in lexicographic order"() {
+        when:
+        def result = []
+        enumerator.forEachRemaining { result << (it.clone() as List) }
+
+        then:
+        result == expected
+        enumerator.count() == expected.size()
+
+        where:
+        enumerator                                                         | expected
+        IndexTupleEnumeratorFactory.combinations(4, 2)                     | [[0, 1], [0, 2], [0, 3], [1, 2], [1, 3], [2, 3]]
+        IndexTupleEnumeratorFactory.permutations(3)                        | [[0, 1, 2], [0, 2, 1], [1, 0, 2], [1, 2, 0], [2, 0, 1], [2, 1, 0]]
+        IndexTupleEnumeratorFactory.variationsWithoutRepetition(3, 2)      | [[0, 1], [0, 2], [1, 0], [1, 2], [2, 0], [2, 1]]
+        IndexTupleEnumeratorFactory.variationsWithRepetition(2, 2)         | [[0, 0], [0, 1], [1, 0], [1, 1]]
+        IndexTupleEnumeratorFactory.combinations(3, 0)                     | [[]]
+        IndexTupleEnumeratorFactory.combinations(2, 3)                     | []
+    }
+
+    def "should jump to tuple with given rank"() {
+        given:
+        def sequential = enumerator()
+        def all = []
+        sequential.forEachRemaining { all << (it.clone() as List) }
+
+        expect:
+        (0..<all.size()).every { rank ->
+            (enumerator().skipTo(rank).next() as List) == all[rank]
+        }
+
+        where:
+        enumerator << [
+                { IndexTupleEnumeratorFactory.combinations(9, 4) },
+                { IndexTupleEnumeratorFactory.permutations(5) },
+                { IndexTupleEnumeratorFactory.variationsWithoutRepetition(7, 3) },
+                { IndexTupleEnumeratorFactory.variationsWithRepetition(4, 4) },
+        ]
+    }
+
+    def "should reuse cursor between tuples"() {
+        given:
+        def enumerator = IndexTupleEnumeratorFactory.combinations(5, 3)
+
+        expect:
+        enumerator.next().is(enumerator.next())
+    }
+
+    def "should process all tuples once in parallel stream"() {
+        given:
+        def enumerator = IndexTupleEnumeratorFactory.combinations(24, 6)
+
+        when:
+        def result = enumerator.stream(true)
+                .map { Arrays.toString(it) }
+                .distinct()
+                .count()
+
+        then:
+        result == 134_596
+    }
+
+    def "should throw exception when space is too big or input is invalid"() {
+        when:
+        action()
+
+        then:
+        thrown(exception)
+
+        where:
+        action                                                           | exception
+        { -> IndexTupleEnumeratorFactory.permutations(21) }              | ArithmeticException
+        { -> IndexTupleEnumeratorFactory.combinations(-1, 2) }           | IllegalArgumentException
+        { -> IndexTupleEnumeratorFactory.combinations(5, 2).skipTo(11) } | IllegalArgumentException
+        { -> IndexTupleEnumeratorFactory.permutations(0).limitTo(2) }    | IllegalArgumentException
+    }
+
+    def "should throw exception when enumeration is finished"() {
+        given:
+        def enumerator = IndexTupleEnumeratorFactory.combinations(2, 2)
+        enumerator.next()
+
+        when:
+        enumerator.next()
+
+        then:
+        thrown(NoSuchElementException.class)
+    }
+}
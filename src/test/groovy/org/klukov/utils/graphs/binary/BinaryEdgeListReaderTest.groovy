@@ -0,0 +1,108 @@
+package org.klukov.utils.graphs.binary
+
+import java.nio.file.Files
+import java.nio.file.Path
+import org.klukov.utils.graphs.GraphFacade
+import org.klukov.utils.graphs.common.GraphProcessingException
+import org.klukov.utils.graphs.common.ProcessingErrorType
+import org.klukov.utils.graphs.parser.PathType
+import spock.lang.Specification
+import spock.lang.TempDir
+
+class BinaryEdgeListReaderTest extends Specification {
+
+    @TempDir
+    Path directory
+
+    def "should read nodes in order they were written"() {
+        given:
+        def file = directory.resolve("graph.bin")
+        new BinaryEdgeListWriter(file).withCloseable {
+            it.writeNode(1L)
+            it.writeNode(2L, 1L, 3L)
+            it.writeNode(-5L, 2L)
+        }
+
+        when:
+        def reader = BinaryEdgeListReader.open(file)
+        def nodes = reader.nodes().toList()
+        reader.close()
+
+        then:
+        reader.recordCount() == 4
+        nodes*.id == [1L, 2L, -5L]
+        nodes*.parentIds == [[], [1L, 3L], [2L]]
+    }
+
+    def "should parse binary edge list"() {
+        given:
+        def file = directory.resolve("graph.bin")
+        new BinaryEdgeListWriter(file).withCloseable { writer ->
+            (0L..<10_000L).each { writer.writeNode(it, it == 0 ? new long[0] : [it - 1] as long[]) }
+            writer.writeNode(20_000L, 5L)
+        }
+
+        when:
+        def result = GraphFacade.parseBinaryEdgeList(file, 9_999L)
+
+        then:
+        def nodesMap = result.graphNodes
+        nodesMap.size() == 10_001
+        nodesMap[0L].startNodePathType == PathType.MAIN
+        nodesMap[20_000L].startNodePathType == PathType.CONNECTED
+        nodesMap[5L].childNodes*.id.toSet() == [6L, 20_000L].toSet()
+        nodesMap[20_000L].object.parentIds == [5L]
+        nodesMap[0L].object.parentIds.isEmpty()
+    }
+
+    def "should throw exception if node is written twice"() {
+        given:
+        def file = directory.resolve("graph.bin")
+        new BinaryEdgeListWriter(file).withCloseable {
+            it.writeNode(1L, 2L)
+            it.writeNode(2L)
+            it.writeNode(1L)
+        }
+
+        when:
+        GraphFacade.parseBinaryEdgeList(file, 1L)
+
+        then:
+        def exception = thrown(GraphProcessingException.class)
+        exception.processingErrorType == ProcessingErrorType.DUPLICATED_NODES
+    }
+
+    def "should not open file which is not a binary edge list"() {
+        given:
+        def file = directory.resolve("graph.bin")
+        Files.write(file, content as byte[])
+
+        when:
+        BinaryEdgeListReader.open(file)
+
+        then:
+        thrown(IOException.class)
+
+        where:
+        content << [[1, 2, 3], new byte[24], new byte[23]]
+    }
+
+    def "should not write reserved id"() {
+        given:
+        def writer = new BinaryEdgeListWriter(directory.resolve("graph.bin"))
+
+        when:
+        writer.writeNode(id, parentIds as long[])
+
+        then:
+        thrown(IllegalArgumentException.class)
+
+        cleanup:
+        writer.close()
+
+        where:
+        id             | parentIds
+        Long.MIN_VALUE | []
+        1L             | [Long.MIN_VALUE]
+    }
+}
@@ -0,0 +1,109 @@
+package org.klukov.utils.graphs.compact
+
+import spock.lang.Specification
+
+class CompactGraphTest extends Specification {
+
+    def "should index nodes and ids referenced only as parents"() {
+        when:
+        def graph = CompactGraph.of(
+                [["A", ["UNKNOWN"]], ["B", ["A", "A"]], ["C", ["A", "B", null]]],
+                { it[0] },
+                { it[1] })
+
+        then:
+        graph.size() == 4
+        graph.nodeCount() == 3
+        graph.edgeCount() == 4
+        graph.isNode(graph.indexOf("A"))
+        !graph.isNode(graph.indexOf("UNKNOWN"))
+        graph.nodeAt(graph.indexOf("UNKNOWN")) == null
+        graph.indexOf("NOT-EXISTING") == -1
+        parentIds(graph, "C") == ["A", "B"] as Set
+        parentIds(graph, "B") == ["A"] as Set
+        childIds(graph, "A") == ["B", "C"] as Set
+        childIds(graph, "UNKNOWN") == ["A"] as Set
+        parentIds(graph, "UNKNOWN").isEmpty()
+    }
+
+    def "should build graph of edges only"() {
+        when:
+        def graph = CompactGraph.ofEdges([])
+
+        then:
+        graph.size() == 0
+        graph.edgeCount() == 0
+    }
+
+    def "should keep adjacency of big graph"() {
+        given:
+        def nodes = (0..<10_000).collect { [it, it == 0 ? [] : [it.intdiv(2), it - 1]] }
+
+        when:
+        def graph = CompactGraph.of(nodes, { it[0] }, { it[1] })
+
+        then:
+        graph.nodeCount() == 10_000
+        graph.edgeCount() == 19_996
+        (1..<10_000).every { parentIds(graph, it) == [it.intdiv(2), it - 1] as Set }
+        childIds(graph, 5000) == [5001] as Set
+    }
+
+    def "should create node objects by views instead of keeping them"() {
+        given:
+        def builder = new CompactGraphBuilder<String, List<String>>(0, { graph, index -> [graph.idAt(index), graph.parentCount(index)] })
+
+        when:
+        builder.addNode("A", ["UNKNOWN"], null)
+        builder.addNode("B", ["A", "UNKNOWN"], ["NOT", "KEPT"])
+        def graph = builder.build()
+        def updatable = new UpdatableGraph<>(graph)
+        updatable.addNode("C", ["B"], ["NOT", "KEPT"])
+        updatable.compact()
+
+        then:
+        graph.nodeAt(graph.indexOf("A")) == ["A", 1]
+        graph.nodeAt(graph.indexOf("B")) == ["B", 2]
+        graph.nodeAt(graph.indexOf("UNKNOWN")) == null
+        updatable.nodeAt(updatable.indexOf("C")) == ["C", 1]
+    }
+
+    def "should throw exception when node id is duplicated or null"() {
+        when:
+        CompactGraph.of(nodes, { it[0] }, { it[1] })
+
+        then:
+        thrown(IllegalArgumentException.class)
+
+        where:
+        nodes << [[["A", []], ["A", ["B"]]], [[null, []]]]
+    }
+
+    def "should expose ids of given indexes as set"() {
+        given:
+        def graph = CompactGraph.of([["A", []], ["B", ["A"]], ["C", ["B"]]], { it[0] }, { it[1] })
+        def indexes = new BitSet()
+        indexes.set(graph.indexOf("A"))
+        indexes.set(graph.indexOf("C"))
+
+        when:
+        def result = graph.idSet(indexes)
+
+        then:
+        result == ["A", "C"] as Set
+        result.contains("C")
+        !result.contains("B")
+        !result.contains("D")
+    }
+
+    private static Set parentIds(CompactGraph graph, Object id) {
+        def index = graph.indexOf(id)
+        (0..<graph.parentCount(index)).collect { graph.idAt(graph.parentAt(index, it)) }.toSet()
+    }
+
+    private static Set childIds(CompactGraph graph, Object id) {
+        def result = [] as Set
+        graph.forEachChild(graph.indexOf(id)) { result << graph.idAt(it) }
+        result
+    }
+}
@@ -0,0 +1,60 @@
+package org.klukov.utils.graphs.compact
+
+import spock.lang.Specification
+
+class TopologicalSortTest extends Specification {
+
+    def "should order parents before children"() {
+        given:
+        def graph = CompactGraph.of(
+                [["C", ["A", "B"]], ["B", ["A", "UNKNOWN"]], ["A", []], ["D", ["C"]]],
+                { it[0] },
+                { it[1] })
+
+        when:
+        def order = TopologicalSort.order(graph).collect { graph.idAt(it) }
+
+        then:
+        order.size() == 5
+        order.indexOf("A") < order.indexOf("B")
+        order.indexOf("B") < order.indexOf("C")
+        order.indexOf("C") < order.indexOf("D")
+        TopologicalSort.findCycle(graph).length == 0
+    }
+
+    def "should find cycle"() {
+        given:
+        def graph = CompactGraph.of(
+                [["A", ["C"]], ["B", ["A"]], ["C", ["B"]], ["D", ["C"]]],
+                { it[0] },
+                { it[1] })
+
+        when:
+        def cycle = TopologicalSort.findCycle(graph).collect { graph.idAt(it) }
+
+        then:
+        cycle.size() == 3
+        cycle.toSet() == ["A", "B", "C"] as Set
+
+        when:
+        TopologicalSort.order(graph)
+
+        then:
+        thrown(IllegalArgumentException.class)
+    }
+
+    def "should sort long chain without recursion"() {
+        given:
+        def graph = CompactGraph.of(
+                (0..<200_000).collect { [it, it == 0 ? [] : [it - 1]] },
+                { it[0] },
+                { it[1] })
+
+        when:
+        def order = TopologicalSort.order(graph)
+
+        then:
+        (0..<200_000).every { graph.idAt(order[it]) == it }
+        StronglyConnectedComponents.of(graph).isAcyclic()
+    }
+}
@@ -0,0 +1,30 @@
+package org.klukov.utils.graphs.parser
+
+class LongParentGivenGraphNodeInputTestImpl implements LongParentGivenGraphNodeInput<LongParentGivenGraphNodeInputTestImpl> {
+
+    private long id
+    private long[] parentIds
+
+    @Override
+    long getId() {
+        return id
+    }
+
+    @Override
+    long[] getParentIds() {
+        return parentIds
+    }
+
+    @Override
+    LongParentGivenGraphNodeInputTestImpl getObject() {
+        return this
+    }
+
+    @Override
+    String toString() {
+        return "LongParentGivenGraphNodeInputTestImpl{" +
+                "id=" + id +
+                ", parentIds=" + Arrays.toString(parentIds) +
+                '}'
+    }
+}
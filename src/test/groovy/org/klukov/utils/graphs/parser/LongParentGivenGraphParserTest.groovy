@@ -0,0 +1,149 @@
+package org.klukov.utils.graphs.parser
+
+import org.klukov.utils.graphs.GraphFacade
+import org.klukov.utils.graphs.common.GraphProcessingException
+import org.klukov.utils.graphs.common.LongGraphEdge
+import org.klukov.utils.graphs.common.ProcessingErrorType
+import org.klukov.utils.graphs.relation.LongBidirectionalRelationIdsQuery
+import org.klukov.utils.graphs.relation.LongComponentLabelling
+import org.klukov.utils.graphs.relation.LongDirectionalRelationIdsQuery
+import org.klukov.utils.graphs.relation.LongRelationIdsFinderInput
+import org.klukov.utils.graphs.validation.GraphValidatorFactory
+import spock.lang.Specification
+
+class LongParentGivenGraphParserTest extends Specification {
+
+    def "should parse simple graph"() {
+        when:
+        def result = GraphFacade.parseLongGraphCollection(new LongParentGivenGraphParseInput(generateSimpleGraph(), 5L))
+
+        then:
+        result.startNodeId == 5L
+        result.nodeCount() == 6
+        result.getNodeIds(PathType.MAIN) == [1L, 2L, 3L, 4L, 5L] as long[]
+        result.getNodeIds(PathType.CONNECTED) == [6L] as long[]
+        result.getNodeIds(PathType.OUTER) == [] as long[]
+        result.pathType(6L) == PathType.CONNECTED
+        result.pathType(100L) == null
+        !result.containsNode(100L)
+        result.getObject(3L).id == 3L
+        result.getObject(100L) == null
+        result.getParentIds(1L) == [] as long[]
+        result.getParentIds(5L) == [4L] as long[]
+        result.getChildIds(4L) == [5L, 6L] as long[]
+    }
+
+    def "should give the same path types as parsing graph of boxed ids"() {
+        given:
+        def random = new Random(22)
+        def nodes = (0..<2000).collect { longNode(it * 7L, (0..<random.nextInt(4)).collect { random.nextInt(2100) * 7L }) }
+        def boxedNodes = nodes.collect { new ParentGivenGraphNodeInputTestImpl(id: String.valueOf(it.id), parentIds: it.parentIds.collect { String.valueOf(it) }) }
+
+        when:
+        def result = GraphFacade.parseLongGraphCollection(new LongParentGivenGraphParseInput(nodes, 700L))
+
+        then:
+        def expected = GraphFacade.parseGraphCollection(new ParentGivenGraphParseInput(boxedNodes, "700")).graphNodes
+        result.nodeCount() == expected.size()
+        expected.every { id, node ->
+            result.pathType(Long.parseLong(id)) == node.startNodePathType &&
+                    result.getParentIds(Long.parseLong(id)).collect { String.valueOf(it) }.toSet() == node.parentNodes*.id.toSet() &&
+                    result.getChildIds(Long.parseLong(id)).collect { String.valueOf(it) }.toSet() == node.childNodes*.id.toSet()
+        }
+    }
+
+    def "should parse with ids found by custom queries"() {
+        given:
+        def directionalQuery = new FixedDirectionalQuery(ids: [5L, 4L, 99L] as long[])
+        def bidirectionalQuery = new FixedBidirectionalQuery(ids: [5L, 4L, 1L] as long[])
+        def parser = ParentGivenGraphFactory.longParentGivenGraphParser(
+                directionalQuery, bidirectionalQuery, GraphValidatorFactory.longGraphValidator())
+
+        when:
+        def result = parser.parseGraphCollection(new LongParentGivenGraphParseInput(generateSimpleGraph(), 5L))
+
+        then:
+        result.getNodeIds(PathType.MAIN) == [4L, 5L] as long[]
+        result.getNodeIds(PathType.CONNECTED) == [1L] as long[]
+        result.getNodeIds(PathType.OUTER) == [2L, 3L, 6L] as long[]
+        directionalQuery.lastInput.startNodeId == 5L
+        directionalQuery.lastInput.graphInput*.id == [1L, 2L, 3L, 4L, 5L, 6L]
+        bidirectionalQuery.lastStartId == 5L
+        bidirectionalQuery.lastEdges.size() == 7
+    }
+
+    def "should throw exception if input is invalid"() {
+        when:
+        GraphFacade.parseLongGraphCollection(new LongParentGivenGraphParseInput(graphInput, 1L))
+
+        then:
+        def exception = thrown(GraphProcessingException.class)
+        exception.processingErrorType == errorType
+
+        where:
+        graphInput                             || errorType
+        null                                   || ProcessingErrorType.NULL_OR_EMPTY_GRAPH
+        []                                     || ProcessingErrorType.NULL_OR_EMPTY_GRAPH
+        [longNode(1L, []), null]               || ProcessingErrorType.NULL_NODES
+        [longNode(1L, []), longNode(1L, [2L])] || ProcessingErrorType.DUPLICATED_NODES
+        [longNode(2L, [1L])]                   || ProcessingErrorType.STAR_NODE_NOT_IN_GRAPH
+    }
+
+    def "should throw exception when neighbours of not existing node are read"() {
+        given:
+        def result = GraphFacade.parseLongGraphCollection(new LongParentGivenGraphParseInput(generateSimpleGraph(), 5L))
+
+        when:
+        result.getParentIds(0L)
+
+        then:
+        thrown(IllegalArgumentException.class)
+    }
+
+    private static LongParentGivenGraphNodeInputTestImpl longNode(long id, List<Long> parentIds) {
+        new LongParentGivenGraphNodeInputTestImpl(id: id, parentIds: parentIds as long[])
+    }
+
+    private static List<LongParentGivenGraphNodeInputTestImpl> generateSimpleGraph() {
+        [
+                longNode(1L, [0L]),
+                longNode(2L, [1L]),
+                longNode(3L, [2L, 1L, 2L]),
+                longNode(4L, [3L]),
+                longNode(5L, [4L]),
+                longNode(6L, [4L]),
+        ]
+    }
+
+    private static class FixedDirectionalQuery
+            implements LongDirectionalRelationIdsQuery<LongParentGivenGraphNodeInputTestImpl> {
+
+        long[] ids
+        LongRelationIdsFinderInput<LongParentGivenGraphNodeInputTestImpl> lastInput
+
+        @Override
+        long[] findAllConnectedIds(LongRelationIdsFinderInput<LongParentGivenGraphNodeInputTestImpl> input) {
+            lastInput = input
+            ids
+        }
+    }
+
+    private static class FixedBidirectionalQuery implements LongBidirectionalRelationIdsQuery {
+
+        long[] ids
+        long lastStartId
+        Collection<? extends LongGraphEdge> lastEdges
+
+        @Override
+        long[] findAllConnectedIds(long startId, Collection<? extends LongGraphEdge> graphEdges) {
+            lastStartId = startId
+            lastEdges = graphEdges
+            ids
+        }
+
+        @Override
+        LongComponentLabelling findAllComponents(Collection<? extends LongGraphEdge> graphEdges) {
+            prepare(graphEdges).labelComponents()
+        }
+    }
+}
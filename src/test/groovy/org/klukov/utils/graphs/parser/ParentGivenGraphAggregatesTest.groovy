@@ -0,0 +1,162 @@
+package org.klukov.utils.graphs.parser
+
+import java.util.concurrent.ForkJoinPool
+import org.klukov.utils.graphs.GraphFacade
+import spock.lang.Shared
+import spock.lang.Specification
+
+class ParentGivenGraphAggregatesTest extends Specification {
+
+    @Shared
+    ForkJoinPool forkJoinPool = new ForkJoinPool(2)
+
+    def cleanupSpec() {
+        forkJoinPool.shutdown()
+    }
+
+    def "should count ancestors and descendants once for every node"() {
+        when:
+        def aggregates = GraphFacade.buildAggregates(parse(generateGraph()))
+
+        then:
+        aggregates.levelCount() == 5
+        aggregates.countAncestors() == [
+                "001": 0,
+                "002": 1,
+                "003": 1,
+                "004": 3,
+                "LOOP1": 6,
+                "LOOP2": 6,
+                "START": 6,
+                "SINGLE": 0,
+        ]
+        aggregates.countDescendants() == [
+                "001": 6,
+                "002": 4,
+                "003": 4,
+                "004": 3,
+                "LOOP1": 3,
+                "LOOP2": 3,
+                "START": 0,
+                "SINGLE": 0,
+        ]
+    }
+
+    def "should sum and combine values of ancestors and descendants"() {
+        given:
+        def aggregates = GraphFacade.buildAggregates(parse(generateGraph()))
+
+        when:
+        def ancestorSums = aggregates.sumAncestors { it.id.length() as long }
+        def descendantSums = aggregates.sumDescendants { it.id.length() as long }
+        def ancestorIds = aggregates.aggregateAncestors({ [it.id] as Set }, [] as Set, { a, b -> a + b })
+        def descendantMax = aggregates.aggregateDescendants({ it.id }, "", { a, b -> a > b ? a : b })
+
+        then:
+        ancestorSums["004"] == 9
+        ancestorSums["LOOP1"] == 22
+        ancestorSums["001"] == 0
+        descendantSums["001"] == 24
+        descendantSums["START"] == 0
+        ancestorIds["START"] == ["001", "002", "003", "004", "LOOP1", "LOOP2"] as Set
+        ancestorIds["LOOP2"] == ["001", "002", "003", "004", "LOOP1", "LOOP2"] as Set
+        ancestorIds["SINGLE"] == [] as Set
+        descendantMax["001"] == "START"
+        descendantMax["LOOP1"] == "START"
+        descendantMax["START"] == ""
+    }
+
+    def "should give the same counts as traversal from every node"() {
+        given:
+        def random = new Random(25)
+        def graphInput = (0..<80).collect {
+            ParentGivenGraphDataGenerator.node("N$it", (0..<random.nextInt(3)).collect { "N" + random.nextInt(85) })
+        }
+        def reachability = GraphFacade.buildReachability(parse(graphInput))
+
+        when:
+        def aggregates = GraphFacade.buildAggregates(parse(graphInput), pool, memoryLimit)
+
+        then:
+        aggregates.exactPassCount() == passCount
+        def ancestors = aggregates.countAncestors()
+        def descendants = aggregates.countDescendants()
+        graphInput*.id.every { id ->
+            ancestors[id] == graphInput.count { reachability.isAncestor(it.id, id) } &&
+                    descendants[id] == graphInput.count { reachability.isDescendant(it.id, id) }
+        }
+
+        where:
+        pool         | memoryLimit                                      | passCount
+        null         | ParentGivenGraphAggregates.DEFAULT_MEMORY_LIMIT | 1
+        forkJoinPool | ParentGivenGraphAggregates.DEFAULT_MEMORY_LIMIT | 1
+        null         | 8                                                | 2
+        forkJoinPool | 8                                                | 2
+    }
+
+    def "should estimate counts of ancestors and descendants"() {
+        given:
+        def random = new Random(25)
+        def graphInput = (0..<2000).collect { index ->
+            ParentGivenGraphDataGenerator.node("N$index", (0..<(index == 0 ? 0 : 1 + random.nextInt(3))).collect { "N" + random.nextInt(index) })
+        }
+        def exact = GraphFacade.buildAggregates(parse(graphInput))
+        def ancestors = exact.countAncestors()
+        def descendants = exact.countDescendants()
+
+        when:
+        def aggregates = GraphFacade.buildAggregates(parse(graphInput), pool)
+        def estimatedAncestors = aggregates.estimateAncestors()
+        def estimatedDescendants = aggregates.estimateDescendants()
+        def small = GraphFacade.buildAggregates(parse(generateGraph()), pool)
+
+        then:
+        small.estimateAncestors() == small.countAncestors()
+        small.estimateDescendants() == small.countDescendants()
+        graphInput*.id.every { id ->
+            Math.abs(estimatedAncestors[id] - ancestors[id]) <= Math.max(2d, ancestors[id] * 0.25d) &&
+                    Math.abs(estimatedDescendants[id] - descendants[id]) <= Math.max(2d, descendants[id] * 0.25d)
+        }
+
+        where:
+        pool << [null, forkJoinPool]
+    }
+
+    def "should not accept memory limit which is not positive"() {
+        when:
+        ParentGivenGraphAggregates.of(parse(generateGraph()), null, 0)
+
+        then:
+        thrown(IllegalArgumentException.class)
+    }
+
+    def "should not aggregate updated result"() {
+        given:
+        def result = parse(generateGraph())
+        GraphFacade.updateGraphCollection(result, new ParentGivenGraphDelta([ParentGivenGraphDataGenerator.node("NEW", ["START"])], []))
+
+        when:
+        GraphFacade.buildAggregates(result)
+
+        then:
+        thrown(IllegalStateException.class)
+    }
+
+    private static ParentGivenGraphParserResult<String, ParentGivenGraphNodeInputTestImpl> parse(
+            List<ParentGivenGraphNodeInputTestImpl> graphInput) {
+        GraphFacade.parseGraphCollection(new ParentGivenGraphParseInput(graphInput, graphInput[0].id))
+    }
+
+    private static List<ParentGivenGraphNodeInputTestImpl> generateGraph() {
+        [
+                ParentGivenGraphDataGenerator.node("START", ["LOOP1"]),
+                ParentGivenGraphDataGenerator.node("001", ["UNKNOWN"]),
+                ParentGivenGraphDataGenerator.node("002", ["001"]),
+                ParentGivenGraphDataGenerator.node("003", ["001"]),
+                ParentGivenGraphDataGenerator.node("004", ["002", "003"]),
+                ParentGivenGraphDataGenerator.node("LOOP1", ["004", "LOOP2"]),
+                ParentGivenGraphDataGenerator.node("LOOP2", ["LOOP1"]),
+                ParentGivenGraphDataGenerator.node("SINGLE", []),
+        ]
+    }
+}
@@ -0,0 +1,83 @@
+package org.klukov.utils.graphs.parser
+
+import org.klukov.utils.graphs.GraphFacade
+import org.klukov.utils.graphs.common.GraphProcessingException
+import org.klukov.utils.graphs.common.ProcessingErrorType
+import spock.lang.Specification
+
+class ParentGivenGraphBatchParserTest extends Specification {
+
+    def "should give the same path types as parsing for every start node"() {
+        given:
+        def random = new Random(17)
+        def graphInput = (0..<200).collect {
+            ParentGivenGraphDataGenerator.node("N$it", (0..<random.nextInt(3)).collect { "N" + random.nextInt(210) })
+        }
+        def startNodeIds = (0..<150).collect { "N" + random.nextInt(200) }
+
+        when:
+        def result = GraphFacade.parseGraphBatch(new ParentGivenGraphBatchParseInput(graphInput, startNodeIds))
+
+        then:
+        startNodeIds.every { startNodeId ->
+            def expected = GraphFacade.parseGraphCollection(new ParentGivenGraphParseInput(graphInput, startNodeId))
+            def single = result.getResult(startNodeId)
+            expected.graphNodes.every { id, node ->
+                result.pathType(startNodeId, id) == node.startNodePathType &&
+                        single.graphNodes[id].startNodePathType == node.startNodePathType &&
+                        result.getNodeIds(startNodeId, node.startNodePathType).contains(id)
+            }
+        }
+    }
+
+    def "should find node ids of every path type"() {
+        when:
+        def result = GraphFacade.parseGraphBatch(new ParentGivenGraphBatchParseInput([
+                ParentGivenGraphDataGenerator.node("001", ["UNKNOWN"]),
+                ParentGivenGraphDataGenerator.node("002", ["001"]),
+                ParentGivenGraphDataGenerator.node("OTHER", ["002"]),
+                ParentGivenGraphDataGenerator.node("START", ["002"]),
+                ParentGivenGraphDataGenerator.node("SINGLE", []),
+        ], ["START", "OTHER", "SINGLE"]))
+
+        then:
+        result.startNodeIds == ["START", "OTHER", "SINGLE"]
+        result.getNodeIds("START", PathType.MAIN) == ["START", "002", "001"] as Set
+        result.getNodeIds("START", PathType.CONNECTED) == ["OTHER"] as Set
+        result.getNodeIds("START", PathType.OUTER) == ["SINGLE"] as Set
+        result.getNodeIds("SINGLE", PathType.MAIN) == ["SINGLE"] as Set
+        result.getNodeIds("SINGLE", PathType.CONNECTED).isEmpty()
+        result.pathType("OTHER", "START") == PathType.CONNECTED
+        result.pathType("OTHER", "UNKNOWN") == null
+    }
+
+    def "should throw exception if start node was not parsed"() {
+        given:
+        def result = GraphFacade.parseGraphBatch(new ParentGivenGraphBatchParseInput([ParentGivenGraphDataGenerator.node("START", [])], ["START"]))
+
+        when:
+        result.getResult("OTHER")
+
+        then:
+        thrown(IllegalArgumentException.class)
+    }
+
+    def "should throw exception if input is invalid"() {
+        when:
+        GraphFacade.parseGraphBatch(new ParentGivenGraphBatchParseInput(graphInput, startNodeIds))
+
+        then:
+        def exception = thrown(GraphProcessingException.class)
+        exception.processingErrorType == errorType
+
+        where:
+        graphInput                                                                                         | startNodeIds    || errorType
+        []                                                                                                 | ["START"]       || ProcessingErrorType.NULL_OR_EMPTY_GRAPH
+        [ParentGivenGraphDataGenerator.node("START", [])]                                                  | []              || ProcessingErrorType.NULL_START_ID
+        [ParentGivenGraphDataGenerator.node("START", [])]                                                  | null            || ProcessingErrorType.NULL_START_ID
+        [ParentGivenGraphDataGenerator.node("START", [])]                                                  | ["START", null] || ProcessingErrorType.NULL_START_ID
+        [ParentGivenGraphDataGenerator.node("START", ["UNKNOWN"])]                                         | ["UNKNOWN"]     || ProcessingErrorType.STAR_NODE_NOT_IN_GRAPH
+        [ParentGivenGraphDataGenerator.node("START", ["UNKNOWN"])]                                         | ["START", "NO"] || ProcessingErrorType.STAR_NODE_NOT_IN_GRAPH
+        [ParentGivenGraphDataGenerator.node("START", []), ParentGivenGraphDataGenerator.node("START", [])] | ["START"]       || ProcessingErrorType.DUPLICATED_NODES
+    }
+}
@@ -0,0 +1,145 @@
+package org.klukov.utils.graphs.parser
+
+import org.klukov.utils.graphs.GraphFacade
+import org.klukov.utils.graphs.common.GraphProcessingException
+import org.klukov.utils.graphs.common.ProcessingErrorType
+import org.klukov.utils.graphs.relation.GraphRelationFactory
+import org.klukov.utils.graphs.validation.GraphValidatorFactory
+import org.klukov.utils.graphs.validation.ValidationLevel
+import spock.lang.Specification
+
+class ParentGivenGraphComponentsTest extends Specification {
+
+    def "should find cycles and order nodes of graph with cycles"() {
+        given:
+        def graphInput = generateGraphWithCycles()
+
+        when:
+        def components = GraphFacade.findComponents(parse(graphInput))
+
+        then:
+        !components.acyclic
+        components.cycles.collect { it.toSet() }.toSet() == [
+                ["M04", "M05", "M06", "M08", "M09", "M10"] as Set,
+                ["C100", "C101", "C102"] as Set,
+        ] as Set
+        components.isOnCycle("M05")
+        !components.isOnCycle("START")
+        !components.isOnCycle("UNKNOWN")
+        components.componentOf("UNKNOWN") == -1
+        def order = components.topologicalOrder
+        order.size() == graphInput.size()
+        graphInput.every { node ->
+            node.parentIds.findAll { order.contains(it) }.every { parentId ->
+                order.indexOf(parentId) < order.indexOf(node.id) ||
+                        components.componentOf(parentId) == components.componentOf(node.id)
+            }
+        }
+    }
+
+    def "should find no cycles in acyclic graph"() {
+        when:
+        def components = GraphFacade.findComponents(parse([
+                ParentGivenGraphDataGenerator.node("M01", ["UNKNOWN"]),
+                ParentGivenGraphDataGenerator.node("START", ["M02", "M01"]),
+                ParentGivenGraphDataGenerator.node("M02", ["M01"]),
+        ]))
+
+        then:
+        components.acyclic
+        components.cycles.isEmpty()
+        components.topologicalOrder == ["M01", "M02", "START"]
+    }
+
+    def "should reject graph with cycle when acyclic validation is used"() {
+        given:
+        def validator = GraphValidatorFactory.graphValidator(ValidationLevel.ACYCLIC)
+        def parser = ParentGivenGraphFactory.parentGivenGraphParser(
+                GraphRelationFactory.directionalRelationIdsQuery(validator),
+                GraphRelationFactory.bidirectionalRelationIdsQuery(),
+                validator)
+
+        when:
+        parseWith(parser, generateGraphWithCycles())
+
+        then:
+        def exception = thrown(GraphProcessingException.class)
+        exception.processingErrorType == ProcessingErrorType.CYCLIC_GRAPH
+
+        when:
+        def result = parseWith(parser, [ParentGivenGraphDataGenerator.node("M01", ["UNKNOWN"]), ParentGivenGraphDataGenerator.node("START", ["M01"])])
+
+        then:
+        result.graphNodes.size() == 2
+
+        where:
+        parseWith << [
+                { ParentGivenGraphParseUseCase p, List<ParentGivenGraphNodeInputTestImpl> input ->
+                    p.parseGraphCollection(new ParentGivenGraphParseInput(input, "START"))
+                },
+                { ParentGivenGraphParseUseCase p, List<ParentGivenGraphNodeInputTestImpl> input ->
+                    p.parseGraphStream(ParentGivenGraphStreamParseInput.of(input.stream(), "START"))
+                },
+        ]
+    }
+
+    def "should reject update closing a cycle when acyclic validation is used"() {
+        given:
+        def validator = GraphValidatorFactory.graphValidator(ValidationLevel.ACYCLIC)
+        def parser = ParentGivenGraphFactory.parentGivenGraphParser(
+                GraphRelationFactory.directionalRelationIdsQuery(validator),
+                GraphRelationFactory.bidirectionalRelationIdsQuery(),
+                validator)
+        def result = parser.parseGraphCollection(new ParentGivenGraphParseInput([
+                ParentGivenGraphDataGenerator.node("M01", ["UNKNOWN"]),
+                ParentGivenGraphDataGenerator.node("M02", ["M01"]),
+                ParentGivenGraphDataGenerator.node("START", ["M02"]),
+        ], "START"))
+
+        when:
+        parser.updateGraphCollection(result, new ParentGivenGraphDelta(added, removed))
+
+        then:
+        def exception = thrown(GraphProcessingException.class)
+        exception.processingErrorType == ProcessingErrorType.CYCLIC_GRAPH
+
+        when:
+        def updated = parser.updateGraphCollection(result, new ParentGivenGraphDelta(
+                [ParentGivenGraphDataGenerator.node("UNKNOWN", []), ParentGivenGraphDataGenerator.node("NEXT", ["START"])], []))
+
+        then:
+        updated.graphNodes.size() == 5
+        updated.graphNodes['UNKNOWN'].startNodePathType == PathType.MAIN
+
+        where:
+        added                                                         | removed
+        [ParentGivenGraphDataGenerator.node("UNKNOWN", ["START"])]    | []
+        [ParentGivenGraphDataGenerator.node("M01", ["M02"])]          | ["M01"]
+        [ParentGivenGraphDataGenerator.node("SELF", ["SELF", "M01"])] | []
+    }
+
+    private static ParentGivenGraphParserResult<String, ParentGivenGraphNodeInputTestImpl> parse(
+            List<ParentGivenGraphNodeInputTestImpl> graphInput) {
+        GraphFacade.parseGraphCollection(new ParentGivenGraphParseInput(graphInput, "START"))
+    }
+
+    private static List<ParentGivenGraphNodeInputTestImpl> generateGraphWithCycles() {
+        [
+                ParentGivenGraphDataGenerator.node("M01", ["UNKNOWN"]),
+                ParentGivenGraphDataGenerator.node("M02", ["M01"]),
+                ParentGivenGraphDataGenerator.node("M03", ["M02"]),
+                ParentGivenGraphDataGenerator.node("C030", ["M03"]),
+                ParentGivenGraphDataGenerator.node("M04", ["M03", "M08"]),
+                ParentGivenGraphDataGenerator.node("M05", ["M04"]),
+                ParentGivenGraphDataGenerator.node("M06", ["M05", "M07"]),
+                ParentGivenGraphDataGenerator.node("M07", []),
+                ParentGivenGraphDataGenerator.node("M08", ["M09"]),
+                ParentGivenGraphDataGenerator.node("M09", ["M10"]),
+                ParentGivenGraphDataGenerator.node("M10", ["M06"]),
+                ParentGivenGraphDataGenerator.node("START", ["M10"]),
+                ParentGivenGraphDataGenerator.node("C100", ["M10", "C102"]),
+                ParentGivenGraphDataGenerator.node("C101", ["C100"]),
+                ParentGivenGraphDataGenerator.node("C102", ["C101"]),
+        ]
+    }
+}
@@ -0,0 +1,8 @@
+package org.klukov.utils.graphs.parser
+
+class ParentGivenGraphDataGenerator {
+
+    static ParentGivenGraphNodeInputTestImpl node(String id, List<String> parentIds) {
+        new ParentGivenGraphNodeInputTestImpl(id: id, parentIds: parentIds)
+    }
+}
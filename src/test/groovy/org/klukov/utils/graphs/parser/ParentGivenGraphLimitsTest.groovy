@@ -0,0 +1,152 @@
+package org.klukov.utils.graphs.parser
+
+import java.time.Instant
+import org.klukov.utils.graphs.GraphFacade
+import org.klukov.utils.graphs.common.CancellationToken
+import org.klukov.utils.graphs.common.GraphProcessingException
+import org.klukov.utils.graphs.common.ProcessingErrorType
+import org.klukov.utils.graphs.common.TraversalLimit
+import org.klukov.utils.graphs.common.TraversalLimits
+import spock.lang.Specification
+
+class ParentGivenGraphLimitsTest extends Specification {
+
+    def "should give the same result as parsing without limits when no limit is reached"() {
+        given:
+        def input = new ParentGivenGraphParseInput(generateSimpleGraph(), "START")
+
+        when:
+        def result = GraphFacade.parseGraphCollection(input, limits)
+
+        then:
+        !result.truncated
+        result.exceededLimit == null
+        def expected = GraphFacade.parseGraphCollection(input).graphNodes
+        result.graphNodes.collectEntries { id, node -> [id, node.startNodePathType] } ==
+                expected.collectEntries { id, node -> [id, node.startNodePathType] }
+
+        where:
+        limits << [
+                TraversalLimits.none(),
+                TraversalLimits.builder().maxVisitedNodes(20).maxDepth(10).build(),
+                TraversalLimits.builder().deadline(Instant.now().plusSeconds(60)).strict(true).build(),
+        ]
+    }
+
+    def "should find main nodes up to max depth"() {
+        when:
+        def result = GraphFacade.parseGraphCollection(
+                new ParentGivenGraphParseInput(generateSimpleGraph(), "START"),
+                TraversalLimits.builder().maxDepth(2).build())
+
+        then:
+        result.truncated
+        result.exceededLimit == TraversalLimit.DEPTH
+        def nodesMap = result.graphNodes
+        nodesMap['START'].startNodePathType == PathType.MAIN
+        nodesMap['004'].startNodePathType == PathType.MAIN
+        nodesMap['003'].startNodePathType == PathType.MAIN
+        nodesMap['002'].startNodePathType == PathType.OUTER
+        nodesMap['SIDE'].startNodePathType == PathType.CONNECTED
+    }
+
+    def "should stop after max visited nodes"() {
+        when:
+        def result = GraphFacade.parseGraphCollection(
+                new ParentGivenGraphParseInput(generateChain(5000), "N4999"),
+                TraversalLimits.builder().maxVisitedNodes(100).build())
+
+        then:
+        result.truncated
+        result.exceededLimit == TraversalLimit.VISITED_NODES
+        result.graphNodes.values().count { it.startNodePathType == PathType.MAIN } == 100
+        result.graphNodes['N4900'].startNodePathType == PathType.MAIN
+        result.graphNodes['N4899'].startNodePathType == PathType.OUTER
+    }
+
+    def "should count visited nodes of main and connected search separately"() {
+        when:
+        def result = GraphFacade.parseGraphCollection(
+                new ParentGivenGraphParseInput(generateChain(100), "N99"),
+                TraversalLimits.builder().maxVisitedNodes(100).strict(true).build())
+
+        then:
+        !result.truncated
+        result.graphNodes.values().every { it.startNodePathType == PathType.MAIN }
+    }
+
+    def "should stop when deadline passed or traversal is cancelled"() {
+        given:
+        def cancellationToken = new CancellationToken()
+        if (cancelled) {
+            cancellationToken.cancel()
+        }
+
+        when:
+        def result = GraphFacade.parseGraphCollection(
+                new ParentGivenGraphParseInput(generateChain(5000), "N4999"),
+                TraversalLimits.builder().deadline(deadline).cancellationToken(cancellationToken).build())
+
+        then:
+        result.truncated
+        result.exceededLimit == exceededLimit
+
+        where:
+        deadline                      | cancelled || exceededLimit
+        Instant.now().minusSeconds(1) | false     || TraversalLimit.DEADLINE
+        null                          | true      || TraversalLimit.CANCELLATION
+    }
+
+    def "should throw exception if limit is reached and limits are strict"() {
+        when:
+        GraphFacade.parseGraphCollection(
+                new ParentGivenGraphParseInput(generateSimpleGraph(), "START"),
+                TraversalLimits.builder().maxVisitedNodes(2).strict(true).build())
+
+        then:
+        def exception = thrown(GraphProcessingException.class)
+        exception.processingErrorType == ProcessingErrorType.TRAVERSAL_LIMIT_EXCEEDED
+    }
+
+    def "should not allow to update truncated result"() {
+        given:
+        def result = GraphFacade.parseGraphCollection(
+                new ParentGivenGraphParseInput(generateSimpleGraph(), "START"),
+                TraversalLimits.builder().maxDepth(1).build())
+
+        when:
+        GraphFacade.updateGraphCollection(result, new ParentGivenGraphDelta([], []))
+
+        then:
+        def exception = thrown(GraphProcessingException.class)
+        exception.processingErrorType == ProcessingErrorType.TRAVERSAL_LIMIT_EXCEEDED
+    }
+
+    def "should parse prepared graph within limits"() {
+        given:
+        def prepared = GraphFacade.prepareGraph(generateSimpleGraph())
+
+        when:
+        def result = prepared.parse("START", TraversalLimits.builder().maxDepth(1).build())
+
+        then:
+        result.truncated
+        result.graphNodes.findAll { id, node -> node.startNodePathType == PathType.MAIN }.keySet() ==
+                ['START', '004'] as Set
+    }
+
+    private static List<ParentGivenGraphNodeInputTestImpl> generateChain(int size) {
+        (0..<size).collect { ParentGivenGraphDataGenerator.node("N$it".toString(), it == 0 ? [] : ["N" + (it - 1)]) }
+    }
+
+    private static List<ParentGivenGraphNodeInputTestImpl> generateSimpleGraph() {
+        [
+                ParentGivenGraphDataGenerator.node("001", ["UNKNOWN"]),
+                ParentGivenGraphDataGenerator.node("002", ["001"]),
+                ParentGivenGraphDataGenerator.node("003", ["002"]),
+                ParentGivenGraphDataGenerator.node("004", ["003"]),
+                ParentGivenGraphDataGenerator.node("SIDE", ["004"]),
+                ParentGivenGraphDataGenerator.node("START", ["004"]),
+        ]
+    }
+}
@@ -0,0 +1,105 @@
+package org.klukov.utils.graphs.parser
+
+import org.klukov.utils.graphs.GraphFacade
+import spock.lang.Specification
+
+class ParentGivenGraphMergeBasesTest extends Specification {
+
+    def "should find merge bases"() {
+        given:
+        def mergeBases = GraphFacade.buildMergeBases(parse(generateHistory(), "MAIN"))
+
+        expect:
+        mergeBases.findMergeBases(firstId, secondId) as Set == expected as Set
+
+        where:
+        firstId   | secondId  || expected
+        "FEATURE" | "MAIN"    || ["FORK"]
+        "MAIN"    | "FEATURE" || ["FORK"]
+        "FORK"    | "MAIN"    || ["FORK"]
+        "MAIN"    | "MAIN"    || ["MAIN"]
+        "CROSS_A" | "CROSS_B" || ["LEFT", "RIGHT"]
+        "MAIN"    | "OTHER"   || []
+        "LOOP_A"  | "LOOP_B"  || ["LOOP_A", "LOOP_B"]
+        "AFTER"   | "MAIN"    || ["LOOP_A", "LOOP_B"]
+    }
+
+    def "should find ancestors excluding ancestors of other node"() {
+        given:
+        def mergeBases = GraphFacade.buildMergeBases(parse(generateHistory(), "MAIN"))
+
+        expect:
+        mergeBases.findAncestorsExcluding("FEATURE", "MAIN") == ["FEATURE", "F1"]
+        mergeBases.findAncestorsExcluding("MAIN", "FEATURE") == ["MAIN", "M2", "M1"]
+        mergeBases.findAncestorsExcluding("FORK", "MAIN") == []
+        mergeBases.findMergeBases("FEATURE") == ["FORK"]
+        mergeBases.generation("ROOT") == 1
+        mergeBases.generation("FEATURE") == 5
+    }
+
+    def "should give the same answers as intersection of main paths"() {
+        given:
+        def random = new Random(24)
+        def graphInput = (0..<60).collect {
+            ParentGivenGraphDataGenerator.node("N$it", (0..<random.nextInt(3)).collect { "N" + random.nextInt(65) })
+        }
+        def mainPaths = graphInput*.id.collectEntries { id ->
+            [id, parse(graphInput, id).graphNodes.findAll { it.value.startNodePathType == PathType.MAIN }.keySet()]
+        }
+
+        when:
+        def mergeBases = GraphFacade.buildMergeBases(parse(graphInput, "N0"))
+
+        then:
+        graphInput*.id.every { firstId ->
+            graphInput*.id.every { secondId ->
+                def common = mainPaths[firstId].intersect(mainPaths[secondId])
+                def expected = common.findAll { candidate ->
+                    !common.any { mainPaths[it].contains(candidate) && !mainPaths[candidate].contains(it) }
+                }
+                mergeBases.findMergeBases(firstId, secondId) as Set == expected as Set &&
+                        mergeBases.findAncestorsExcluding(firstId, secondId) as Set ==
+                        mainPaths[firstId] - mainPaths[secondId]
+            }
+        }
+    }
+
+    def "should throw exception if id is not a node"() {
+        given:
+        def mergeBases = GraphFacade.buildMergeBases(parse([ParentGivenGraphDataGenerator.node("START", ["UNKNOWN"])], "START"))
+
+        when:
+        mergeBases.findMergeBases("START", id)
+
+        then:
+        thrown(IllegalArgumentException.class)
+
+        where:
+        id << ["UNKNOWN", "NOT_EXISTING"]
+    }
+
+    private static ParentGivenGraphParserResult<String, ParentGivenGraphNodeInputTestImpl> parse(
+            List<ParentGivenGraphNodeInputTestImpl> graphInput, String startNodeId) {
+        GraphFacade.parseGraphCollection(new ParentGivenGraphParseInput(graphInput, startNodeId))
+    }
+
+    private static List<ParentGivenGraphNodeInputTestImpl> generateHistory() {
+        [
+                ParentGivenGraphDataGenerator.node("ROOT", []),
+                ParentGivenGraphDataGenerator.node("LOOP_A", ["ROOT", "LOOP_B"]),
+                ParentGivenGraphDataGenerator.node("LOOP_B", ["LOOP_A"]),
+                ParentGivenGraphDataGenerator.node("FORK", ["LOOP_B"]),
+                ParentGivenGraphDataGenerator.node("F1", ["FORK"]),
+                ParentGivenGraphDataGenerator.node("FEATURE", ["F1"]),
+                ParentGivenGraphDataGenerator.node("M1", ["FORK"]),
+                ParentGivenGraphDataGenerator.node("M2", ["M1"]),
+                ParentGivenGraphDataGenerator.node("MAIN", ["M2"]),
+                ParentGivenGraphDataGenerator.node("AFTER", ["LOOP_A"]),
+                ParentGivenGraphDataGenerator.node("LEFT", ["ROOT"]),
+                ParentGivenGraphDataGenerator.node("RIGHT", ["ROOT"]),
+                ParentGivenGraphDataGenerator.node("CROSS_A", ["LEFT", "RIGHT"]),
+                ParentGivenGraphDataGenerator.node("CROSS_B", ["RIGHT", "LEFT"]),
+                ParentGivenGraphDataGenerator.node("OTHER", []),
+        ]
+    }
+}
@@ -1,8 +1,15 @@
 package org.klukov.utils.graphs.parser
 
 import org.klukov.utils.graphs.GraphFacade
+import org.klukov.utils.graphs.common.GraphEdge
 import org.klukov.utils.graphs.common.GraphProcessingException
 import org.klukov.utils.graphs.common.ProcessingErrorType
+import org.klukov.utils.graphs.relation.BidirectionalRelationIdsQuery
+import org.klukov.utils.graphs.relation.DirectionalRelationIdsQuery
+import org.klukov.utils.graphs.relation.RelationIdsFinderInput
+import org.klukov.utils.graphs.validation.GraphValidator
+import org.klukov.utils.graphs.validation.GraphValidatorFactory
+import org.klukov.utils.graphs.validation.ValidatableGraphInput
 import spock.lang.Specification
 
 class ParentGivenGraphParserTest extends Specification {
@@ -186,6 +193,116 @@ class ParentGivenGraphParserTest extends Specification {
         assertGraphNode(nodesMap['START'], graphInput[5], PathType.MAIN, [nodesMap['M05']], [])
     }
 
+    def "should give neighbour views, counts and visitors equal to neighbour sets"() {
+        given:
+        def graphInput = generateSimpleGraphWithCycles()
+
+        when:
+        ParentGivenGraphParserResult<String, ParentGivenGraphNodeInputTestImpl> result =
+                GraphFacade.parseGraphCollection(new ParentGivenGraphParseInput(graphInput, 'START'))
+
+        then:
+        def nodesMap = result.graphNodes
+        def node = nodesMap['M05']
+        node.parentCount == 1
+        node.childCount == 2
+        node.childNodes.size() == 2
+        node.childNodes.contains(nodesMap['START'])
+        !node.childNodes.contains(nodesMap['M01'])
+        nodesMap['M01'].parentCount == 0
+        def visited = []
+        node.forEachChild { visited << it.id }
+        visited.toSet() == ['M02', 'START'] as Set
+
+        when:
+        node.parentNodes.add(nodesMap['M01'])
+
+        then:
+        thrown(UnsupportedOperationException.class)
+    }
+
+    def "should build results and nodes outside of parser"() {
+        given:
+        def node = ParentGivenGraphNodeResult.builder().id('A').object('a').startNodePathType(PathType.MAIN).build()
+
+        when:
+        def result = ParentGivenGraphParserResult.builder().graphNodes([A: node]).build()
+
+        then:
+        result.graphNodes == [A: new ParentGivenGraphNodeResult('A', 'a', PathType.MAIN)]
+        result.graphNodes['A'].startNodePathType == PathType.MAIN
+        node.parentNodes.isEmpty()
+        node.childCount == 0
+        !result.truncated
+
+        when:
+        ParentGivenGraphReachability.of(result)
+
+        then:
+        thrown(IllegalStateException.class)
+    }
+
+    def "should parse with ids found by custom queries"() {
+        given:
+        def graphInput = generateComplexGraphWithCycles()
+        def directionalQuery = new FixedDirectionalQuery(ids: ['START', 'M10', 'UNKNOWN'] as Set)
+        def bidirectionalQuery = new FixedBidirectionalQuery(ids: ['START', 'M10', 'AS00', 'OUTER00'] as Set)
+        def parser = ParentGivenGraphFactory.parentGivenGraphParser(
+                directionalQuery, bidirectionalQuery, new CollectionOnlyValidator())
+        def expected = ['START': PathType.MAIN, 'M10': PathType.MAIN, 'AS00': PathType.CONNECTED, 'OUTER00': PathType.CONNECTED]
+
+        when:
+        def collectionResult = parser.parseGraphCollection(new ParentGivenGraphParseInput(graphInput, 'START'))
+        def streamResult = parser.parseGraphStream(new ParentGivenGraphStreamParseInput(graphInput.iterator(), 'START'))
+        def preparedResult = parser.prepareGraph(graphInput).parse('START')
+
+        then:
+        [collectionResult, streamResult, preparedResult].each { result ->
+            assert result.graphNodes.size() == graphInput.size()
+            assert result.graphNodes.findAll { it.value.startNodePathType != PathType.OUTER }
+                    .collectEntries { [it.key, it.value.startNodePathType] } == expected
+        }
+        directionalQuery.lastInput.startNodeId == 'START'
+        directionalQuery.lastInput.graphInput as Set == graphInput as Set
+        bidirectionalQuery.lastStartId == 'START'
+        bidirectionalQuery.lastEdges.size() == graphInput.sum { it.parentIds.size() }
+
+        when:
+        def batchResult = parser.parseGraphBatch(new ParentGivenGraphBatchParseInput(graphInput, ['START', 'M01']))
+
+        then:
+        batchResult.getNodeIds('M01', PathType.MAIN) == ['START', 'M10'] as Set
+        batchResult.getNodeIds('M01', PathType.CONNECTED) == ['AS00', 'OUTER00'] as Set
+        directionalQuery.lastInput.startNodeId == 'M01'
+        bidirectionalQuery.lastStartId == 'M01'
+
+        when:
+        parser.parseGraphStream(new ParentGivenGraphStreamParseInput(graphInput.iterator(), 'notMatchedId'))
+
+        then:
+        def exception = thrown(GraphProcessingException.class)
+        exception.processingErrorType == ProcessingErrorType.STAR_NODE_NOT_IN_GRAPH
+    }
+
+    def "should update result with ids found again by custom queries"() {
+        given:
+        def graphInput = generateComplexGraphWithCycles()
+        def directionalQuery = new FixedDirectionalQuery(ids: ['START', 'M10'] as Set)
+        def parser = ParentGivenGraphFactory.parentGivenGraphParser(
+                directionalQuery, new FixedBidirectionalQuery(ids: [] as Set), new CollectionOnlyValidator())
+        def previousResult = parser.parseGraphCollection(new ParentGivenGraphParseInput(graphInput, 'START'))
+        directionalQuery.ids = ['START', 'NEW'] as Set
+
+        when:
+        def result = parser.updateGraphCollection(previousResult, new ParentGivenGraphDelta(
+                [new ParentGivenGraphNodeInputTestImpl(id: 'NEW', parentIds: ['START'])], ['AS02']))
+
+        then:
+        result.graphNodes.size() == graphInput.size()
+        result.graphNodes.findAll { it.value.startNodePathType == PathType.MAIN }.keySet() == ['START', 'NEW'] as Set
+        directionalQuery.lastInput.graphInput*.id as Set == (graphInput*.id - 'AS02' + 'NEW') as Set
+    }
+
     def "should parse complex graph with cycles"() {
         given:
         def graphInput = generateComplexGraphWithCycles()
@@ -369,4 +486,40 @@ class ParentGivenGraphParserTest extends Specification {
                 new ParentGivenGraphNodeInputTestImpl(id: "OUTER02", parentIds: ["OUTER01"]),
         ]
     }
+
+    private static class FixedDirectionalQuery
+            implements DirectionalRelationIdsQuery<String, ParentGivenGraphNodeInputTestImpl> {
+
+        Set<String> ids
+        RelationIdsFinderInput<String, ParentGivenGraphNodeInputTestImpl> lastInput
+
+        @Override
+        Set<String> findAllConnectedIds(RelationIdsFinderInput<String, ParentGivenGraphNodeInputTestImpl> input) {
+            lastInput = input
+            ids
+        }
+    }
+
+    private static class FixedBidirectionalQuery implements BidirectionalRelationIdsQuery<String> {
+
+        Set<String> ids
+        String lastStartId
+        Collection<? extends GraphEdge<String>> lastEdges
+
+        @Override
+        <E extends GraphEdge<String>> Set<String> findAllConnectedIds(String startId, Collection<E> graphEdges) {
+            lastStartId = startId
+            lastEdges = graphEdges
+            ids
+        }
+    }
+
+    private static class CollectionOnlyValidator
+            implements GraphValidator<String, ParentGivenGraphNodeInputTestImpl> {
+
+        @Override
+        void validate(ValidatableGraphInput<String, ParentGivenGraphNodeInputTestImpl> input) {
+            GraphValidatorFactory.graphValidator().validate(input)
+        }
+    }
 }
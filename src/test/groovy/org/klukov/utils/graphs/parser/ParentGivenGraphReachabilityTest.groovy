@@ -0,0 +1,64 @@
+package org.klukov.utils.graphs.parser
+
+import org.klukov.utils.graphs.GraphFacade
+import spock.lang.Specification
+
+class ParentGivenGraphReachabilityTest extends Specification {
+
+    def "should give the same path types as parsing from every start node"() {
+        given:
+        def random = new Random(16)
+        def graphInput = (0..<100).collect {
+            ParentGivenGraphDataGenerator.node("N$it", (0..<random.nextInt(3)).collect { "N" + random.nextInt(110) })
+        }
+
+        when:
+        def sub = GraphFacade.buildReachability(parse(graphInput, "N0"))
+
+        then:
+        graphInput*.id.every { startId ->
+            parse(graphInput, startId).graphNodes.every { id, node ->
+                sub.pathType(startId, id) == node.startNodePathType
+            }
+        }
+    }
+
+    def "should use start node of parsed result"() {
+        when:
+        def sub = GraphFacade.buildReachability(parse([
+                ParentGivenGraphDataGenerator.node("001", ["UNKNOWN"]),
+                ParentGivenGraphDataGenerator.node("002", ["001"]),
+                ParentGivenGraphDataGenerator.node("OTHER", ["002"]),
+                ParentGivenGraphDataGenerator.node("START", ["002"]),
+                ParentGivenGraphDataGenerator.node("SINGLE", []),
+        ], "START"))
+
+        then:
+        sub.pathType("START") == PathType.MAIN
+        sub.pathType("001") == PathType.MAIN
+        sub.pathType("OTHER") == PathType.CONNECTED
+        sub.pathType("SINGLE") == PathType.OUTER
+        sub.pathType("SINGLE", "SINGLE") == PathType.MAIN
+        sub.isAncestor("001", "OTHER")
+        !sub.isDescendant("OTHER", "START")
+    }
+
+    def "should throw exception if id is not a node"() {
+        given:
+        def sub = GraphFacade.buildReachability(parse([ParentGivenGraphDataGenerator.node("START", ["UNKNOWN"])], "START"))
+
+        when:
+        sub.pathType("START", id)
+
+        then:
+        thrown(IllegalArgumentException.class)
+
+        where:
+        id << ["UNKNOWN", "NOT_EXISTING"]
+    }
+
+    private static ParentGivenGraphParserResult<String, ParentGivenGraphNodeInputTestImpl> parse(
+            List<ParentGivenGraphNodeInputTestImpl> graphInput, String startNodeId) {
+        GraphFacade.parseGraphCollection(new ParentGivenGraphParseInput(graphInput, startNodeId))
+    }
+}
@@ -0,0 +1,112 @@
+package org.klukov.utils.graphs.parser
+
+import java.nio.ByteBuffer
+import java.nio.file.Files
+import java.nio.file.Path
+import org.klukov.utils.graphs.GraphFacade
+import org.klukov.utils.graphs.common.IdCodec
+import spock.lang.Specification
+import spock.lang.TempDir
+
+class ParentGivenGraphSnapshotTest extends Specification {
+
+    @TempDir
+    Path directory
+
+    def "should reopen the same graph from snapshot"() {
+        given:
+        def random = new Random(8)
+        def graphInput = (0..<1000).collect {
+            ParentGivenGraphDataGenerator.node("N$it", (0..<random.nextInt(4)).collect { "N" + random.nextInt(1010) })
+        }
+        def result = GraphFacade.parseGraphCollection(new ParentGivenGraphParseInput(graphInput, 'N3'))
+        def file = directory.resolve("graph.snapshot")
+
+        when:
+        GraphFacade.writeSnapshot(result, IdCodec.strings(), file)
+        def snapshot = GraphFacade.openSnapshot(file, IdCodec.strings())
+
+        then:
+        def expected = result.graphNodes
+        def nodesMap = snapshot.result.graphNodes
+        nodesMap.size() == expected.size()
+        expected.every { id, node ->
+            nodesMap[id].startNodePathType == node.startNodePathType &&
+                    nodesMap[id].object.id == id &&
+                    nodesMap[id].object.parentIds.toSet() == node.object.parentIds.toSet() &&
+                    nodesMap[id].parentNodes*.id.toSet() == node.parentNodes*.id.toSet() &&
+                    nodesMap[id].childNodes*.id.toSet() == node.childNodes*.id.toSet()
+        }
+        !nodesMap.containsKey('N1005')
+        nodesMap[3] == null
+
+        cleanup:
+        snapshot?.close()
+    }
+
+    def "should write snapshot of updated result with long ids"() {
+        given:
+        def result = GraphFacade.parseGraphCollection(new ParentGivenGraphParseInput(
+                [longNode(1L, [2L]), longNode(2L, []), longNode(3L, [])], 1L))
+        result = GraphFacade.updateGraphCollection(result, new ParentGivenGraphDelta(
+                [longNode(4L, [1L, 3L])], [2L]))
+        def file = directory.resolve("graph.snapshot")
+
+        when:
+        GraphFacade.writeSnapshot(result, IdCodec.longs(), file)
+        def snapshot = GraphFacade.openSnapshot(file, IdCodec.longs())
+
+        then:
+        def nodesMap = snapshot.result.graphNodes
+        nodesMap.keySet() == [1L, 3L, 4L].toSet()
+        nodesMap[1L].startNodePathType == PathType.MAIN
+        nodesMap[3L].startNodePathType == PathType.CONNECTED
+        nodesMap[4L].parentNodes*.id.toSet() == [1L, 3L].toSet()
+
+        cleanup:
+        snapshot?.close()
+    }
+
+    def "should not open file which is not a snapshot"() {
+        given:
+        def file = directory.resolve("graph.snapshot")
+        GraphFacade.writeSnapshot(
+                GraphFacade.parseGraphCollection(new ParentGivenGraphParseInput([ParentGivenGraphDataGenerator.node("START", [])], 'START')),
+                IdCodec.strings(),
+                file)
+        def bytes = Files.readAllBytes(file)
+        Files.write(file, content(bytes))
+
+        when:
+        GraphFacade.openSnapshot(file, IdCodec.strings())
+
+        then:
+        thrown(IOException.class)
+
+        where:
+        content << [
+                { byte[] bytes -> new byte[10] },
+                { byte[] bytes -> Arrays.copyOf(bytes, bytes.length - 8) },
+                { byte[] bytes -> bytes[7] = 2; bytes },
+                { byte[] bytes -> ByteBuffer.wrap(bytes).putInt(8, Integer.MAX_VALUE); bytes },
+                { byte[] bytes -> ByteBuffer.wrap(bytes).putInt(16, 1); bytes },
+                { byte[] bytes -> ByteBuffer.wrap(bytes).putInt(20, 3); bytes },
+                { byte[] bytes -> ByteBuffer.wrap(bytes).putLong(24, -1L); bytes },
+                { byte[] bytes -> ByteBuffer.wrap(bytes).putLong(32, Long.MAX_VALUE); bytes },
+                { byte[] bytes -> ByteBuffer.wrap(bytes).putLong(40, 1L); bytes },
+        ]
+    }
+
+    private static LongNode longNode(long id, List<Long> parentIds) {
+        new LongNode(id: id, parentIds: parentIds)
+    }
+
+    private static class LongNode implements ParentGivenGraphNodeInput<Long, LongNode> {
+        Long id
+        Collection<Long> parentIds
+
+        LongNode getObject() {
+            this
+        }
+    }
+}
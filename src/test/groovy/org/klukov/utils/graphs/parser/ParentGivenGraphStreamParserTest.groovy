@@ -0,0 +1,63 @@
+package org.klukov.utils.graphs.parser
+
+import org.klukov.utils.graphs.GraphFacade
+import org.klukov.utils.graphs.common.GraphProcessingException
+import org.klukov.utils.graphs.common.ProcessingErrorType
+import spock.lang.Specification
+
+class ParentGivenGraphStreamParserTest extends Specification {
+
+    def "should parse stream the same way as collection"() {
+        given:
+        def random = new Random(3)
+        def graphInput = (0..<500).collect {
+            ParentGivenGraphDataGenerator.node("N$it", (0..<random.nextInt(4)).collect { "N" + random.nextInt(520) })
+        }
+
+        when:
+        def result = GraphFacade.parseGraphStream(ParentGivenGraphStreamParseInput.of(graphInput.stream(), 'N7'))
+
+        then:
+        def expected = GraphFacade.parseGraphCollection(new ParentGivenGraphParseInput(graphInput, 'N7')).graphNodes
+        def nodesMap = result.graphNodes
+        nodesMap.size() == expected.size()
+        expected.every { id, node ->
+            nodesMap[id].object.is(node.object) &&
+                    nodesMap[id].startNodePathType == node.startNodePathType &&
+                    nodesMap[id].parentNodes*.id.toSet() == node.parentNodes*.id.toSet()
+        }
+    }
+
+    def "should read iterator only once"() {
+        given:
+        def graphInput = [ParentGivenGraphDataGenerator.node("001", ["UNKNOWN"]), ParentGivenGraphDataGenerator.node("START", ["001"])].iterator()
+        def reads = 0
+        def iterator = [hasNext: { graphInput.hasNext() }, next: { reads++; graphInput.next() }] as Iterator
+
+        when:
+        def result = GraphFacade.parseGraphStream(new ParentGivenGraphStreamParseInput(iterator, 'START'))
+
+        then:
+        reads == 2
+        result.graphNodes['001'].startNodePathType == PathType.MAIN
+    }
+
+    def "should throw exception if stream input is invalid"() {
+        when:
+        GraphFacade.parseGraphStream(new ParentGivenGraphStreamParseInput(graphInput?.iterator(), startNodeId))
+
+        then:
+        def exception = thrown(GraphProcessingException.class)
+        exception.processingErrorType == errorType
+
+        where:
+        graphInput                                                                                         | startNodeId || errorType
+        [ParentGivenGraphDataGenerator.node("START", [])]                                                  | null        || ProcessingErrorType.NULL_START_ID
+        null                                                                                               | 'START'     || ProcessingErrorType.NULL_OR_EMPTY_GRAPH
+        []                                                                                                 | 'START'     || ProcessingErrorType.NULL_OR_EMPTY_GRAPH
+        [ParentGivenGraphDataGenerator.node("START", []), null]                                            | 'START'     || ProcessingErrorType.NULL_NODES
+        [ParentGivenGraphDataGenerator.node(null, [])]                                                     | 'START'     || ProcessingErrorType.NULL_NODES
+        [ParentGivenGraphDataGenerator.node("START", []), ParentGivenGraphDataGenerator.node("START", [])] | 'START'     || ProcessingErrorType.DUPLICATED_NODES
+        [ParentGivenGraphDataGenerator.node("001", [])]                                                    | 'START'     || ProcessingErrorType.STAR_NODE_NOT_IN_GRAPH
+    }
+}
@@ -0,0 +1,186 @@
+package org.klukov.utils.graphs.parser
+
+import org.klukov.utils.graphs.GraphFacade
+import org.klukov.utils.graphs.common.GraphProcessingException
+import org.klukov.utils.graphs.common.ProcessingErrorType
+import spock.lang.Specification
+
+class ParentGivenGraphUpdateTest extends Specification {
+
+    def "should extend main and connected nodes with added nodes"() {
+        given:
+        def result = parse(generateSimpleGraph())
+        def delta = new ParentGivenGraphDelta([
+                ParentGivenGraphDataGenerator.node("UNKNOWN", []),
+                ParentGivenGraphDataGenerator.node("SIDE", ["003"]),
+                ParentGivenGraphDataGenerator.node("OTHER", ["NOWHERE"]),
+        ], [])
+
+        when:
+        def updated = GraphFacade.updateGraphCollection(result, delta)
+
+        then:
+        def nodesMap = updated.graphNodes
+        nodesMap.size() == 8
+        nodesMap['UNKNOWN'].startNodePathType == PathType.MAIN
+        nodesMap['001'].parentNodes*.id == ['UNKNOWN']
+        nodesMap['SIDE'].startNodePathType == PathType.CONNECTED
+        nodesMap['003'].childNodes*.id.toSet() == ['004', 'SIDE'].toSet()
+        nodesMap['OTHER'].startNodePathType == PathType.OUTER
+    }
+
+    def "should recompute path types when main node is removed or replaced"() {
+        given:
+        def result = parse(generateSimpleGraph())
+
+        when:
+        def updated = GraphFacade.updateGraphCollection(result, new ParentGivenGraphDelta(
+                [ParentGivenGraphDataGenerator.node("003", [])], ["003", "NOT_EXISTING"]))
+
+        then:
+        def nodesMap = updated.graphNodes
+        nodesMap.size() == 5
+        nodesMap['004'].startNodePathType == PathType.MAIN
+        nodesMap['003'].startNodePathType == PathType.MAIN
+        nodesMap['002'].startNodePathType == PathType.OUTER
+        nodesMap['001'].startNodePathType == PathType.OUTER
+        nodesMap['002'].childNodes.isEmpty()
+
+        when:
+        def removed = GraphFacade.updateGraphCollection(updated, new ParentGivenGraphDelta([], ["004"]))
+
+        then:
+        removed.graphNodes.size() == 4
+        removed.graphNodes['START'].parentNodes.isEmpty()
+        removed.graphNodes['003'].startNodePathType == PathType.OUTER
+        removed.graphNodes['001'].startNodePathType == PathType.OUTER
+    }
+
+    def "should keep nodes connected through ids of removed nodes and clear parts cut off"() {
+        given:
+        def result = parse(generateSimpleGraph() + [ParentGivenGraphDataGenerator.node("SIDE", ["003"])])
+
+        when:
+        def updated = GraphFacade.updateGraphCollection(result, new ParentGivenGraphDelta([], ["003"]))
+
+        then:
+        def nodesMap = updated.graphNodes
+        nodesMap.size() == 5
+        nodesMap['004'].startNodePathType == PathType.MAIN
+        nodesMap['SIDE'].startNodePathType == PathType.CONNECTED
+        nodesMap['002'].startNodePathType == PathType.OUTER
+        nodesMap['001'].startNodePathType == PathType.OUTER
+    }
+
+    def "should drop ids which are no longer referenced when graph is compacted"() {
+        given:
+        def chain = (0..<100).collect { ParentGivenGraphDataGenerator.node("C$it".toString(), it == 0 ? [] : ["C" + (it - 1)]) }
+        def result = parse(chain + [ParentGivenGraphDataGenerator.node("START", ["C99"])])
+
+        when:
+        1000.times {
+            result = GraphFacade.updateGraphCollection(result, new ParentGivenGraphDelta(
+                    [ParentGivenGraphDataGenerator.node("N$it".toString(), ["START", "P$it".toString()])],
+                    it == 0 ? [] : ["N" + (it - 1)]))
+        }
+
+        then:
+        result.graph().size() < 500
+        def nodesMap = result.graphNodes
+        nodesMap.size() == 102
+        nodesMap['C0'].startNodePathType == PathType.MAIN
+        nodesMap['N999'].startNodePathType == PathType.CONNECTED
+        nodesMap['START'].childNodes*.id == ['N999']
+    }
+
+    def "should give the same result as parsing whole graph after many updates"() {
+        given:
+        def random = new Random(5)
+        def current = (0..<2000).collectEntries { ["N$it".toString(), randomNode("N$it", random)] }
+        def result = parse(current.values().toList(), "N0")
+
+        when:
+        100.times {
+            def removed = current.keySet().findAll { it != "N0" && random.nextInt(50) == 0 }.toList()
+            def added = (0..<30).collect { "N" + random.nextInt(2100) }.unique()
+                    .findAll { !current.containsKey(it) || removed.contains(it) }
+                    .collect { randomNode(it, random) }
+            result = GraphFacade.updateGraphCollection(result, new ParentGivenGraphDelta(added, removed))
+            removed.each { current.remove(it) }
+            added.each { current[it.id] = it }
+        }
+
+        then:
+        def expected = parse(current.values().toList(), "N0").graphNodes
+        def nodesMap = result.graphNodes
+        nodesMap.size() == expected.size()
+        expected.every { id, node ->
+            nodesMap[id].startNodePathType == node.startNodePathType &&
+                    nodesMap[id].object.is(node.object) &&
+                    nodesMap[id].parentNodes*.id.toSet() == node.parentNodes*.id.toSet() &&
+                    nodesMap[id].childNodes*.id.toSet() == node.childNodes*.id.toSet()
+        }
+    }
+
+    def "should throw exception if delta is invalid"() {
+        given:
+        def result = parse(generateSimpleGraph())
+
+        when:
+        GraphFacade.updateGraphCollection(result, new ParentGivenGraphDelta(added, removed))
+
+        then:
+        def exception = thrown(GraphProcessingException.class)
+        exception.processingErrorType == errorType
+
+        where:
+        added                                                                                          | removed   || errorType
+        [null]                                                                                         | []        || ProcessingErrorType.NULL_NODES
+        [ParentGivenGraphDataGenerator.node(null, [])]                                                 | []        || ProcessingErrorType.NULL_NODES
+        []                                                                                             | [null]    || ProcessingErrorType.NULL_NODES
+        [ParentGivenGraphDataGenerator.node("002", [])]                                                | []        || ProcessingErrorType.DUPLICATED_NODES
+        [ParentGivenGraphDataGenerator.node("NEW", []), ParentGivenGraphDataGenerator.node("NEW", [])] | []        || ProcessingErrorType.DUPLICATED_NODES
+        []                                                                                             | ["START"] || ProcessingErrorType.STAR_NODE_NOT_IN_GRAPH
+    }
+
+    def "should not allow to use result after it was updated"() {
+        given:
+        def result = parse(generateSimpleGraph())
+        def startNode = result.graphNodes['START']
+        GraphFacade.updateGraphCollection(result, new ParentGivenGraphDelta([ParentGivenGraphDataGenerator.node("NEW", [])], []))
+
+        when:
+        action(result, startNode)
+
+        then:
+        thrown(IllegalStateException.class)
+
+        where:
+        action << [
+                { ParentGivenGraphParserResult r, ParentGivenGraphNodeResult n -> r.graphNodes },
+                { ParentGivenGraphParserResult r, ParentGivenGraphNodeResult n -> n.parentNodes },
+                { ParentGivenGraphParserResult r, ParentGivenGraphNodeResult n ->
+                    GraphFacade.updateGraphCollection(r, new ParentGivenGraphDelta([], []))
+                },
+        ]
+    }
+
+    private static ParentGivenGraphParserResult<String, ParentGivenGraphNodeInputTestImpl> parse(
+            List<ParentGivenGraphNodeInputTestImpl> graphInput, String startNodeId = "START") {
+        GraphFacade.parseGraphCollection(new ParentGivenGraphParseInput(graphInput, startNodeId))
+    }
+
+    private static ParentGivenGraphNodeInputTestImpl randomNode(String id, Random random) {
+        ParentGivenGraphDataGenerator.node(id, (0..<random.nextInt(4)).collect { "N" + random.nextInt(2100) })
+    }
+
+    private static List<ParentGivenGraphNodeInputTestImpl> generateSimpleGraph() {
+        [
+                ParentGivenGraphDataGenerator.node("001", ["UNKNOWN"]),
+                ParentGivenGraphDataGenerator.node("002", ["001"]),
+                ParentGivenGraphDataGenerator.node("003", ["002"]),
+                ParentGivenGraphDataGenerator.node("004", ["003"]),
+                ParentGivenGraphDataGenerator.node("START", ["004"]),
+        ]
+    }
+}
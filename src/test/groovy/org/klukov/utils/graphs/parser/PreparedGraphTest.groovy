@@ -0,0 +1,79 @@
+package org.klukov.utils.graphs.parser
+
+import org.klukov.utils.graphs.GraphFacade
+import org.klukov.utils.graphs.common.GraphProcessingException
+import org.klukov.utils.graphs.common.ProcessingErrorType
+import spock.lang.Specification
+
+class PreparedGraphTest extends Specification {
+
+    def "should parse prepared graph the same as collection for every start node"() {
+        given:
+        def random = new Random(20)
+        def graphInput = (0..<100).collect {
+            ParentGivenGraphDataGenerator.node("N$it", (0..<random.nextInt(3)).collect { "N" + random.nextInt(110) })
+        }
+
+        when:
+        def prepared = GraphFacade.prepareGraph(graphInput)
+
+        then:
+        prepared.nodeCount() == 100
+        graphInput*.id.every { startNodeId ->
+            def expected = GraphFacade.parseGraphCollection(new ParentGivenGraphParseInput(graphInput, startNodeId))
+            def result = prepared.parse(startNodeId)
+            expected.graphNodes.every { id, node -> result.graphNodes[id].startNodePathType == node.startNodePathType }
+        }
+    }
+
+    def "should find directional and bidirectional ids"() {
+        given:
+        def prepared = GraphFacade.prepareGraph([
+                ParentGivenGraphDataGenerator.node("001", ["UNKNOWN"]),
+                ParentGivenGraphDataGenerator.node("002", ["001"]),
+                ParentGivenGraphDataGenerator.node("OTHER", ["002"]),
+                ParentGivenGraphDataGenerator.node("START", ["002"]),
+                ParentGivenGraphDataGenerator.node("SINGLE", []),
+        ])
+
+        expect:
+        prepared.findDirectionalIds("START") == ["START", "002", "001"] as Set
+        prepared.findBidirectionalIds("START") == ["START", "OTHER", "002", "001", "UNKNOWN"] as Set
+        prepared.findBidirectionalIds("SINGLE").isEmpty()
+        prepared.parseBatch(["START", "SINGLE"]).pathType("SINGLE", "SINGLE") == PathType.MAIN
+    }
+
+    def "should throw exception if input is invalid"() {
+        when:
+        GraphFacade.prepareGraph(graphInput)
+
+        then:
+        def exception = thrown(GraphProcessingException.class)
+        exception.processingErrorType == errorType
+
+        where:
+        graphInput                                                                                         || errorType
+        null                                                                                               || ProcessingErrorType.NULL_OR_EMPTY_GRAPH
+        []                                                                                                 || ProcessingErrorType.NULL_OR_EMPTY_GRAPH
+        [ParentGivenGraphDataGenerator.node("START", []), null]                                            || ProcessingErrorType.NULL_NODES
+        [ParentGivenGraphDataGenerator.node("START", []), ParentGivenGraphDataGenerator.node("START", [])] || ProcessingErrorType.DUPLICATED_NODES
+    }
+
+    def "should throw exception if start node is not in graph"() {
+        given:
+        def prepared = GraphFacade.prepareGraph([ParentGivenGraphDataGenerator.node("START", ["UNKNOWN"])])
+
+        when:
+        prepared.parse(startNodeId)
+
+        then:
+        def exception = thrown(GraphProcessingException.class)
+        exception.processingErrorType == errorType
+
+        where:
+        startNodeId || errorType
+        null        || ProcessingErrorType.NULL_START_ID
+        "UNKNOWN"   || ProcessingErrorType.STAR_NODE_NOT_IN_GRAPH
+        "OTHER"     || ProcessingErrorType.STAR_NODE_NOT_IN_GRAPH
+    }
+}
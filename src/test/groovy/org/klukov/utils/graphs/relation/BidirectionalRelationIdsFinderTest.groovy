@@ -1,6 +1,10 @@
 package org.klukov.utils.graphs.relation
 
 import org.klukov.utils.graphs.common.GraphEdge
+import org.klukov.utils.graphs.common.GraphProcessingException
+import org.klukov.utils.graphs.common.ProcessingErrorType
+import org.klukov.utils.graphs.common.TraversalLimit
+import org.klukov.utils.graphs.common.TraversalLimits
 import spock.lang.Specification
 import spock.lang.Subject
 
@@ -46,6 +50,81 @@ class BidirectionalRelationIdsFinderTest extends Specification {
         "START" | getComplexGraph() + getOuterEdges()                   || _
     }
 
+    def "should find ids connected with many start ids reading edges once"() {
+        given:
+        def parentReads = 0
+        def graphEdges = (getComplexGraph() + getOuterEdges()).collect { edge ->
+            [getParentId: { parentReads++; edge.parentId }, getChildId: { edge.childId }] as GraphEdge<String>
+        }
+        def solver = sub.prepare(graphEdges)
+        def parentReadsOfPrepare = parentReads
+
+        when:
+        def result = ["START", "C102", "OUTER02", "NON-EXIST"].collect { solver.getRelatedIds(it) }
+
+        then:
+        parentReadsOfPrepare == graphEdges.size()
+        parentReads == parentReadsOfPrepare
+        result[0] == sub.findAllConnectedIds("START", getComplexGraph())
+        result[1] == result[0]
+        result[2] == ["OUTER-UNKNOWN", "OUTER00", "OUTER01", "OUTER02"] as Set
+        result[3].isEmpty()
+    }
+
+    def "should find ids connected with start id up to limits"() {
+        when:
+        def result = sub.findAllConnectedIds("START", getComplexGraph() + getOuterEdges(), limits)
+
+        then:
+        result.ids == expectedIds as Set
+        result.exceededLimit == exceededLimit
+
+        where:
+        limits                                               || expectedIds                                         | exceededLimit
+        TraversalLimits.none()                               || sub.findAllConnectedIds("START", getComplexGraph()) | null
+        TraversalLimits.builder().maxDepth(1).build()        || ["START", "M10", "AS00", "AS01"]                    | TraversalLimit.DEPTH
+        TraversalLimits.builder().maxVisitedNodes(3).build() || ["START", "M10", "AS00"]                            | TraversalLimit.VISITED_NODES
+    }
+
+    def "should throw exception if limit is reached and limits are strict"() {
+        when:
+        sub.findAllConnectedIds(
+                "START", getComplexGraph(), TraversalLimits.builder().maxDepth(1).strict(true).build())
+
+        then:
+        def exception = thrown(GraphProcessingException.class)
+        exception.processingErrorType == ProcessingErrorType.TRAVERSAL_LIMIT_EXCEEDED
+    }
+
+    def "should bound ids found by query implementing only search without limits"() {
+        given:
+        def query = new IdsOnlyQuery(delegate: sub)
+        def edges = getComplexGraph() + getOuterEdges()
+
+        when:
+        def result = query.findAllConnectedIds("START", edges, limits)
+
+        then:
+        result.ids == sub.findAllConnectedIds("START", edges, limits).ids
+        result.exceededLimit == exceededLimit
+
+        where:
+        limits                                               || exceededLimit
+        TraversalLimits.none()                               || null
+        TraversalLimits.builder().maxDepth(1).build()        || TraversalLimit.DEPTH
+        TraversalLimits.builder().maxVisitedNodes(3).build() || TraversalLimit.VISITED_NODES
+    }
+
+    def "should throw exception if limit of query without limits is reached and limits are strict"() {
+        when:
+        new IdsOnlyQuery(delegate: sub).findAllConnectedIds(
+                "START", getComplexGraph(), TraversalLimits.builder().maxDepth(1).strict(true).build())
+
+        then:
+        def exception = thrown(GraphProcessingException.class)
+        exception.processingErrorType == ProcessingErrorType.TRAVERSAL_LIMIT_EXCEEDED
+    }
+
     private static List<GraphEdge<String>> getComplexGraph() { // graph without cycles
         [
                 new GraphEdgeTestImpl(parentId: "UNKNOWN", childId: "M01"),
@@ -95,4 +174,14 @@ class BidirectionalRelationIdsFinderTest extends Specification {
     private static GraphEdge<String> getSelfConnectedEdge(String id) {
         new GraphEdgeTestImpl(parentId: id, childId: id)
     }
+
+    private static class IdsOnlyQuery implements BidirectionalRelationIdsQuery<String> {
+
+        BidirectionalRelationIdsQuery<String> delegate
+
+        @Override
+        <E extends GraphEdge<String>> Set<String> findAllConnectedIds(String startId, Collection<E> graphEdges) {
+            delegate.findAllConnectedIds(startId, graphEdges)
+        }
+    }
 }
@@ -0,0 +1,113 @@
+package org.klukov.utils.graphs.relation
+
+import java.util.concurrent.ForkJoinPool
+import spock.lang.Specification
+
+class BidirectionalRelationSolverTest extends Specification {
+
+    def "should merge components when edges are added in batches"() {
+        given:
+        def sub = new BidirectionalRelationSolver<String>([edge("A", "B"), edge("C", "D")])
+
+        expect:
+        sub.getRelatedIds("A") == ["A", "B"] as Set
+        sub.componentCount() == 2
+        !sub.areRelated("A", "D")
+
+        when:
+        sub.addEdges([edge("B", "C"), edge("E", "E")])
+
+        then:
+        sub.getRelatedIds("D") == ["A", "B", "C", "D"] as Set
+        sub.getRelatedIds("E") == ["E"] as Set
+        sub.areRelated("A", "D")
+        sub.componentCount() == 2
+        sub.idCount() == 5
+    }
+
+    def "should return empty set for ids not in edges"() {
+        given:
+        def sub = new BidirectionalRelationSolver<String>().addEdge(edge("A", "B"))
+
+        expect:
+        sub.getRelatedIds(id).isEmpty()
+        !sub.areRelated(id, "A")
+
+        where:
+        id << [null, "NOT-EXISTING"]
+    }
+
+    def "should connect long chains added in reversed order"() {
+        given:
+        def sub = new BidirectionalRelationSolver<String>()
+
+        when:
+        (100_000..1).each { sub.addEdge(new GraphEdgeTestImpl(parentId: "${it - 1}", childId: "$it")) }
+
+        then:
+        sub.componentCount() == 1
+        sub.getRelatedIds("0").size() == 100_001
+    }
+
+    def "should label all components"() {
+        given:
+        def sub = new BidirectionalRelationSolver<String>([edge("A", "B"), edge("C", "D"), edge("B", "E"), edge("F", "F")])
+
+        when:
+        def result = sub.labelComponents()
+
+        then:
+        result.idCount() == 6
+        result.componentCount() == 3
+        result.componentSizes == [3, 2, 1] as int[]
+        result.labels == [0, 0, 1, 1, 0, 2] as int[]
+        result.componentOf("E") == 0
+        result.componentOf("NOT-EXISTING") == -1
+        result.getComponentIds(0) == ["A", "B", "E"]
+        result.getComponentIds(1) == ["C", "D"]
+        def ids = []
+        result.forEachInComponent(2) { ids << it }
+        ids == ["F"]
+    }
+
+    def "should merge solvers of disjoint chunks of edges"() {
+        given:
+        def sub = new BidirectionalRelationSolver<String>([edge("A", "B"), edge("C", "D")])
+
+        when:
+        sub.merge(new BidirectionalRelationSolver<String>([edge("D", "E"), edge("B", "C"), edge("X", "Y")]))
+
+        then:
+        sub.getRelatedIds("A") == ["A", "B", "C", "D", "E"] as Set
+        sub.getRelatedIds("Y") == ["X", "Y"] as Set
+        sub.componentCount() == 2
+        sub.idCount() == 7
+    }
+
+    def "should find the same components when built in parallel"() {
+        given:
+        def random = new Random(23)
+        def edges = (0..<300_000).collect { edge("N" + random.nextInt(400_000), "N" + random.nextInt(400_000)) }
+        def forkJoinPool = new ForkJoinPool(4)
+
+        when:
+        def result = BidirectionalRelationSolver.parallel(edges, forkJoinPool).labelComponents()
+
+        then:
+        def expected = new BidirectionalRelationSolver<String>(edges).labelComponents()
+        result.idCount() == expected.idCount()
+        result.componentCount() == expected.componentCount()
+        result.componentSizes.sort() == expected.componentSizes.sort()
+        (0..<expected.componentCount()).every { component ->
+            def ids = expected.getComponentIds(component)
+            ids.every { result.componentOf(it) == result.componentOf(ids[0]) }
+        }
+
+        cleanup:
+        forkJoinPool.shutdown()
+    }
+
+    private static GraphEdgeTestImpl edge(String parentId, String childId) {
+        new GraphEdgeTestImpl(parentId: parentId, childId: childId)
+    }
+}
@@ -2,6 +2,8 @@ package org.klukov.utils.graphs.relation
 
 import org.klukov.utils.graphs.common.GraphProcessingException
 import org.klukov.utils.graphs.common.ProcessingErrorType
+import org.klukov.utils.graphs.common.TraversalLimit
+import org.klukov.utils.graphs.common.TraversalLimits
 import org.klukov.utils.graphs.validation.GraphValidatorFactory
 import spock.lang.Specification
 import spock.lang.Subject
@@ -124,6 +126,36 @@ class DirectionalRelationIdsFinderTest extends Specification {
         generateComplexGraphWithCycles() || _
     }
 
+    def "should bound ids found by query implementing only search without limits"() {
+        given:
+        def query = new IdsOnlyQuery(delegate: sub)
+        def input = new RelationIdsFinderInputTestImpl(startNodeId: 'START', graphInput: generateComplexGraphWithCycles())
+
+        when:
+        def result = query.findAllConnectedIds(input, limits)
+
+        then:
+        result.ids == expectedIds as Set
+        result.exceededLimit == exceededLimit
+
+        where:
+        limits                                               || expectedIds                                                                   | exceededLimit
+        TraversalLimits.none()                               || ['START', 'M10', 'M06', 'M05', 'M07', 'M04', 'M03', 'M08', 'M09', 'M02', 'M01'] | null
+        TraversalLimits.builder().maxDepth(1).build()        || ['START', 'M10']                                                              | TraversalLimit.DEPTH
+        TraversalLimits.builder().maxVisitedNodes(3).build() || ['START', 'M10', 'M06']                                                       | TraversalLimit.VISITED_NODES
+    }
+
+    def "should throw exception if limit of query without limits is reached and limits are strict"() {
+        when:
+        new IdsOnlyQuery(delegate: sub).findAllConnectedIds(
+                new RelationIdsFinderInputTestImpl(startNodeId: 'START', graphInput: generateComplexGraphWithCycles()),
+                TraversalLimits.builder().maxDepth(1).strict(true).build())
+
+        then:
+        def exception = thrown(GraphProcessingException.class)
+        exception.processingErrorType == ProcessingErrorType.TRAVERSAL_LIMIT_EXCEEDED
+    }
+
     private static List<GraphNodeInputTestImpl> generateGraphWithNullNodes() {
         [
                 new GraphNodeInputTestImpl(id: "001", relatedIds: ["UNKNOWN"]),
@@ -253,4 +285,14 @@ class DirectionalRelationIdsFinderTest extends Specification {
                 new GraphNodeInputTestImpl(id: "OUTER02", relatedIds: ["OUTER01"]),
         ]
     }
+
+    private static class IdsOnlyQuery implements DirectionalRelationIdsQuery<String, GraphNodeInputTestImpl> {
+
+        DirectionalRelationIdsQuery<String, GraphNodeInputTestImpl> delegate
+
+        @Override
+        Set<String> findAllConnectedIds(RelationIdsFinderInput<String, GraphNodeInputTestImpl> input) {
+            delegate.findAllConnectedIds(input)
+        }
+    }
 }
@@ -0,0 +1,27 @@
+package org.klukov.utils.graphs.relation
+
+import org.klukov.utils.graphs.common.LongGraphEdge
+
+class LongGraphEdgeTestImpl implements LongGraphEdge {
+
+    private long parentId
+    private long childId
+
+    @Override
+    long getParentId() {
+        return parentId
+    }
+
+    @Override
+    long getChildId() {
+        return childId
+    }
+
+    @Override
+    String toString() {
+        return "LongGraphEdgeTestImpl{" +
+                "parentId=" + parentId +
+                ", childId=" + childId +
+                '}'
+    }
+}
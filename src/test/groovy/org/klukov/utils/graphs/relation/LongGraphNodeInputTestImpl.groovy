@@ -0,0 +1,25 @@
+package org.klukov.utils.graphs.relation
+
+class LongGraphNodeInputTestImpl implements LongGraphNodeInput {
+
+    private long id
+    private long[] relatedIds
+
+    @Override
+    long getId() {
+        return id
+    }
+
+    @Override
+    long[] getRelatedIds() {
+        return relatedIds
+    }
+
+    @Override
+    String toString() {
+        return "LongGraphNodeInputTestImpl{" +
+                "id=" + id +
+                ", relatedIds=" + Arrays.toString(relatedIds) +
+                '}'
+    }
+}
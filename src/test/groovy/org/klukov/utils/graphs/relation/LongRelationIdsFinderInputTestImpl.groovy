@@ -0,0 +1,25 @@
+package org.klukov.utils.graphs.relation
+
+class LongRelationIdsFinderInputTestImpl implements LongRelationIdsFinderInput<LongGraphNodeInputTestImpl> {
+
+    private long startNodeId
+    private Collection<LongGraphNodeInputTestImpl> graphInput
+
+    @Override
+    long getStartNodeId() {
+        return startNodeId
+    }
+
+    @Override
+    Collection<LongGraphNodeInputTestImpl> getGraphInput() {
+        return graphInput
+    }
+
+    @Override
+    String toString() {
+        return "LongRelationIdsFinderInputTestImpl{" +
+                "startNodeId=" + startNodeId +
+                ", graphInput=" + graphInput +
+                '}'
+    }
+}
@@ -0,0 +1,132 @@
+package org.klukov.utils.graphs.relation
+
+import java.util.concurrent.ForkJoinPool
+import org.klukov.utils.graphs.common.GraphProcessingException
+import org.klukov.utils.graphs.common.ProcessingErrorType
+import org.klukov.utils.graphs.validation.GraphValidatorFactory
+import org.klukov.utils.graphs.validation.ValidationLevel
+import spock.lang.Shared
+import spock.lang.Specification
+
+class LongRelationIdsFinderTest extends Specification {
+
+    @Shared
+    ForkJoinPool forkJoinPool = new ForkJoinPool(4)
+
+    def cleanupSpec() {
+        forkJoinPool.shutdown()
+    }
+
+    def "should find ids through parents"() {
+        when:
+        def result = query.findAllConnectedIds(new LongRelationIdsFinderInputTestImpl(
+                startNodeId: 10L,
+                graphInput: [
+                        node(1L, [-1L]),
+                        node(2L, [1L]),
+                        node(3L, [2L]),
+                        node(10L, [2L]),
+                ]))
+
+        then:
+        result == [1L, 2L, 10L] as long[]
+
+        where:
+        query << [
+                GraphRelationFactory.longDirectionalRelationIdsQuery(GraphValidatorFactory.longGraphValidator()),
+                GraphRelationFactory.parallelLongDirectionalRelationIdsQuery(GraphValidatorFactory.longGraphValidator(), forkJoinPool),
+        ]
+    }
+
+    def "should find the same ids as search of boxed ids"() {
+        given:
+        def random = new Random(seed)
+        def graphInput = (0..<50_000).collect { node(it, (0..<random.nextInt(4)).collect { random.nextInt(50_100) as long }) }
+        def boxedGraphInput = graphInput.collect { new GraphNodeInputTestImpl(id: String.valueOf(it.id), relatedIds: it.relatedIds.collect { String.valueOf(it) }) }
+        def startNodeId = 49_999L - random.nextInt(100)
+
+        when:
+        def result = GraphRelationFactory.parallelLongDirectionalRelationIdsQuery(GraphValidatorFactory.longGraphValidator(), forkJoinPool)
+                .findAllConnectedIds(new LongRelationIdsFinderInputTestImpl(startNodeId: startNodeId, graphInput: graphInput))
+
+        then:
+        def expected = GraphRelationFactory.directionalRelationIdsQuery(GraphValidatorFactory.graphValidator())
+                .findAllConnectedIds(new RelationIdsFinderInputTestImpl(startNodeId: String.valueOf(startNodeId), graphInput: boxedGraphInput))
+        result.length == expected.size()
+        expected.containsAll(result.collect { String.valueOf(it) })
+
+        where:
+        seed << [1, 2]
+    }
+
+    def "should throw exception if input is invalid"() {
+        when:
+        GraphRelationFactory.longDirectionalRelationIdsQuery(GraphValidatorFactory.longGraphValidator(ValidationLevel.ACYCLIC))
+                .findAllConnectedIds(new LongRelationIdsFinderInputTestImpl(startNodeId: 1L, graphInput: graphInput))
+
+        then:
+        def exception = thrown(GraphProcessingException.class)
+        exception.processingErrorType == errorType
+
+        where:
+        graphInput                           || errorType
+        []                                   || ProcessingErrorType.NULL_OR_EMPTY_GRAPH
+        [node(1L, []), null]                 || ProcessingErrorType.NULL_NODES
+        [node(1L, []), node(1L, [])]         || ProcessingErrorType.DUPLICATED_NODES
+        [node(2L, [])]                       || ProcessingErrorType.STAR_NODE_NOT_IN_GRAPH
+        [node(1L, [2L]), node(2L, [1L])]     || ProcessingErrorType.CYCLIC_GRAPH
+    }
+
+    def "should find ids connected by edges of any direction"() {
+        given:
+        def sub = GraphRelationFactory.longBidirectionalRelationIdsQuery()
+        def edges = [edge(1L, 2L), edge(3L, 2L), edge(4L, 5L)]
+
+        expect:
+        (sub.findAllConnectedIds(1L, edges) as List).toSet() == [1L, 2L, 3L] as Set
+        sub.findAllConnectedIds(6L, edges).length == 0
+        sub.findAllConnectedIds(1L, []).length == 0
+    }
+
+    def "should merge components of long ids when edges are added"() {
+        given:
+        def sub = new LongBidirectionalRelationSolver([edge(Long.MIN_VALUE, 0L), edge(Long.MAX_VALUE, 7L)])
+
+        expect:
+        !sub.areRelated(Long.MIN_VALUE, 7L)
+        sub.componentCount() == 2
+
+        when:
+        sub.addEdge(0L, 7L)
+
+        then:
+        sub.areRelated(Long.MIN_VALUE, Long.MAX_VALUE)
+        (sub.getRelatedIds(7L) as List).toSet() == [Long.MIN_VALUE, 0L, Long.MAX_VALUE, 7L] as Set
+        sub.getRelatedIds(1L).length == 0
+        sub.idCount() == 4
+    }
+
+    def "should label all components of long ids"() {
+        given:
+        def edges = [edge(10L, 20L), edge(30L, 40L), edge(20L, 50L)]
+
+        when:
+        def result = GraphRelationFactory.longBidirectionalRelationIdsQuery().findAllComponents(edges)
+
+        then:
+        result.componentCount() == 2
+        result.componentSizes == [3, 2] as int[]
+        result.componentOf(50L) == 0
+        result.componentOf(60L) == -1
+        result.getComponentIds(1) == [30L, 40L] as long[]
+        LongBidirectionalRelationSolver.parallel(edges, forkJoinPool).labelComponents().componentCount() == 2
+    }
+
+    private static LongGraphNodeInputTestImpl node(long id, List<Long> relatedIds) {
+        new LongGraphNodeInputTestImpl(id: id, relatedIds: relatedIds as long[])
+    }
+
+    private static LongGraphEdgeTestImpl edge(long parentId, long childId) {
+        new LongGraphEdgeTestImpl(parentId: parentId, childId: childId)
+    }
+}
@@ -0,0 +1,77 @@
+package org.klukov.utils.graphs.relation
+
+import java.util.concurrent.ForkJoinPool
+import org.klukov.utils.graphs.common.GraphProcessingException
+import org.klukov.utils.graphs.common.ProcessingErrorType
+import org.klukov.utils.graphs.validation.GraphValidatorFactory
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.lang.Subject
+
+class ParallelDirectionalRelationIdsFinderTest extends Specification {
+
+    @Shared
+    ForkJoinPool forkJoinPool = new ForkJoinPool(4)
+
+    DirectionalRelationIdsQuery<String, GraphNodeInputTestImpl> sequential =
+            GraphRelationFactory.directionalRelationIdsQuery(GraphValidatorFactory.graphValidator())
+
+    @Subject
+    DirectionalRelationIdsQuery<String, GraphNodeInputTestImpl> sub =
+            GraphRelationFactory.parallelDirectionalRelationIdsQuery(
+                    GraphValidatorFactory.graphValidator(), forkJoinPool)
+
+    def cleanupSpec() {
+        forkJoinPool.shutdown()
+    }
+
+    def "should find the same ids as sequential search"() {
+        given:
+        def random = new Random(seed)
+        def graphInput = generateGraph(50_000, random, parentsGenerator)
+        def input = new RelationIdsFinderInputTestImpl(startNodeId: 'N' + (49_999 - random.nextInt(100)), graphInput: graphInput)
+
+        when:
+        def result = sub.findAllConnectedIds(input)
+
+        then:
+        def expected = sequential.findAllConnectedIds(input)
+        result.size() == expected.size()
+        result.containsAll(expected)
+
+        where:
+        seed | parentsGenerator
+        1    | { int i, int n, Random r -> (0..<r.nextInt(5)).collect { 'N' + r.nextInt(n + 100) } }
+        2    | { int i, int n, Random r -> i == 0 ? [] : ['N' + r.nextInt(i), 'N' + r.nextInt(n)] }
+        3    | { int i, int n, Random r -> i == 0 ? [] : ['N' + (i - 1)] }
+        4    | { int i, int n, Random r -> i == 0 ? ['N' + (n - 1)] : ['N' + (i - 1), 'N' + r.nextInt(n)] }
+    }
+
+    def "should find ids in small graph"() {
+        when:
+        def result = sub.findAllConnectedIds(new RelationIdsFinderInputTestImpl(
+                startNodeId: 'START',
+                graphInput: [
+                        new GraphNodeInputTestImpl(id: '001', relatedIds: ['UNKNOWN']),
+                        new GraphNodeInputTestImpl(id: '002', relatedIds: ['001']),
+                        new GraphNodeInputTestImpl(id: 'OTHER', relatedIds: ['002']),
+                        new GraphNodeInputTestImpl(id: 'START', relatedIds: ['002']),
+                ]))
+
+        then:
+        result == ['START', '002', '001'] as Set
+    }
+
+    def "should throw exception if input is invalid"() {
+        when:
+        sub.findAllConnectedIds(new RelationIdsFinderInputTestImpl(startNodeId: 'START', graphInput: []))
+
+        then:
+        def exception = thrown(GraphProcessingException.class)
+        exception.processingErrorType == ProcessingErrorType.NULL_OR_EMPTY_GRAPH
+    }
+
+    private static List<GraphNodeInputTestImpl> generateGraph(int size, Random random, Closure<List<String>> parents) {
+        (0..<size).collect { new GraphNodeInputTestImpl(id: 'N' + it, relatedIds: parents(it, size, random)) }
+    }
+}
@@ -0,0 +1,67 @@
+package org.klukov.utils.graphs.relation
+
+import org.klukov.utils.graphs.compact.CompactGraph
+import spock.lang.Specification
+
+class ReachabilityIndexTest extends Specification {
+
+    DirectionalIndexSearch search = new DirectionalIndexSearch()
+
+    def "should answer ancestor queries the same as search"() {
+        given:
+        def random = new Random(seed)
+        def graph = CompactGraph.of(
+                (0..<300).collect { new GraphNodeInputTestImpl(id: 'N' + it, relatedIds: parentsGenerator(it, 300, random)) },
+                GraphNodeInput::getId,
+                GraphNodeInput::getRelatedIds)
+
+        when:
+        def sub = ReachabilityIndex.of(graph)
+
+        then:
+        (0..<300).every { node ->
+            def ancestors = new BitSet()
+            graph.forEachParent(graph.indexOf('N' + node)) { parent ->
+                if (graph.isNode(parent)) {
+                    search.extendConnectedIndexes(graph, ancestors, parent)
+                }
+            }
+            (0..<300).every { ancestor ->
+                sub.isAncestor('N' + ancestor, 'N' + node) == ancestors.get(graph.indexOf('N' + ancestor))
+            }
+        }
+
+        where:
+        seed | parentsGenerator
+        1    | { int i, int n, Random r -> i == 0 ? [] : ['N' + r.nextInt(i)] }
+        2    | { int i, int n, Random r -> i == 0 ? [] : ['N' + r.nextInt(i), 'N' + r.nextInt(i)] }
+        3    | { int i, int n, Random r -> (0..<r.nextInt(4)).collect { 'N' + r.nextInt(n + 20) } }
+        4    | { int i, int n, Random r -> r.nextInt(10) == 0 ? ['N' + i] : (0..<r.nextInt(2)).collect { 'N' + r.nextInt(n) } }
+    }
+
+    def "should answer relations in small graph with cycle"() {
+        given:
+        def graph = CompactGraph.of([
+                new GraphNodeInputTestImpl(id: '001', relatedIds: ['UNKNOWN']),
+                new GraphNodeInputTestImpl(id: '002', relatedIds: ['001', '003']),
+                new GraphNodeInputTestImpl(id: '003', relatedIds: ['002']),
+                new GraphNodeInputTestImpl(id: 'START', relatedIds: ['003']),
+                new GraphNodeInputTestImpl(id: 'SINGLE', relatedIds: []),
+        ], GraphNodeInput::getId, GraphNodeInput::getRelatedIds)
+
+        when:
+        def sub = ReachabilityIndex.of(graph)
+
+        then:
+        sub.isAncestor('001', 'START')
+        sub.isAncestor('002', '002')
+        sub.isDescendant('START', '002')
+        !sub.isAncestor('START', 'START')
+        !sub.isAncestor('START', '001')
+        !sub.isAncestor('UNKNOWN', '001')
+        !sub.isAncestor('NOT_EXISTING', 'START')
+        sub.areConnected('START', 'UNKNOWN')
+        !sub.areConnected('START', 'SINGLE')
+        !sub.areConnected('SINGLE', 'SINGLE')
+    }
+}